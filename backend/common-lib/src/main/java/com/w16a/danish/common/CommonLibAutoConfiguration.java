@@ -4,14 +4,30 @@ import com.w16a.danish.common.config.MyMetaObjectHandler;
 import com.w16a.danish.common.config.TimeZoneConfig;
 import com.w16a.danish.common.context.WebMvcContextConfig;
 import com.w16a.danish.common.exception.GlobalExceptionHandler;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
+import com.w16a.danish.common.messaging.OutboxProperties;
+import com.w16a.danish.common.messaging.OutboxRelay;
+import com.w16a.danish.common.messaging.OutboxWriter;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Spring Boot Auto-configuration for common-lib.
  * Automatically registers shared beans (exception handler, meta handler, timezone,
- * and the MVC identity-context resolver) in all services that declare common-lib
- * as a dependency.
+ * the MVC identity-context resolver, the streaming upload client, the file deletion queue
+ * and the event outbox)
+ * in all services that declare common-lib as a dependency.
  *
  * Registered via:
  * META-INF/spring/org.springframework.boot.autoconfigure.AutoConfiguration.imports
@@ -25,6 +41,54 @@ import org.springframework.context.annotation.Import;
         TimeZoneConfig.class,
         WebMvcContextConfig.class
 })
+@EnableConfigurationProperties(OutboxProperties.class)
 public class CommonLibAutoConfiguration {
-    // All beans are registered via the @Import and class-level @Component annotations
+
+    /**
+     * Resolved lazily, so services that never upload do not need a load balancer at startup.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public StreamingMultipartClient streamingMultipartClient(ObjectProvider<LoadBalancerClient> loadBalancerClient) {
+        return new StreamingMultipartClient(loadBalancerClient);
+    }
+
+    /**
+     * Writes through the outbox, whose dependencies are resolved lazily, so services that never
+     * delete files need neither a database nor a broker at startup.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public FileDeletionQueue fileDeletionQueue(OutboxWriter outboxWriter) {
+        return new FileDeletionQueue(outboxWriter);
+    }
+
+    /**
+     * Resolved lazily, so services that publish no events need neither a database nor a broker.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxWriter outboxWriter(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                     ObjectProvider<RabbitTemplate> rabbitTemplate,
+                                     ObjectProvider<OutboxRelay> outboxRelay,
+                                     OutboxProperties properties,
+                                     Environment environment) {
+        return new OutboxWriter(jdbcTemplate, rabbitTemplate, outboxRelay, properties, outboxSource(environment));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "outbox", name = "enabled", havingValue = "true")
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   RabbitTemplate rabbitTemplate,
+                                   OutboxProperties properties,
+                                   Environment environment) {
+        return new OutboxRelay(jdbcTemplate, transactionManager, rabbitTemplate, properties, outboxSource(environment));
+    }
+
+    /** Each service relays only the events it wrote, though they share one table. */
+    private static String outboxSource(Environment environment) {
+        return environment.getProperty("spring.application.name", "application");
+    }
 }
@@ -0,0 +1,41 @@
+package com.w16a.danish.common.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * One page of competitions drawn from a caller-supplied id set (e.g. the competitions a user or
+ * team registered for), filtered, sorted and paged by competition-service so the caller only
+ * decorates the rows it will show.
+ *
+ * <p>{@code sortBy} names a competition column. Any other value — typically because the sort key
+ * lives with the caller, such as the joined time — keeps the order of {@code ids} as supplied.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Accessors(chain = true)
+@Schema(name = "CompetitionPageQueryDTO", description = "Paged lookup over a supplied set of competition IDs")
+public class CompetitionPageQueryDTO {
+
+    @Schema(description = "Competition IDs to page over")
+    private List<String> ids;
+
+    @Schema(description = "Optional keyword matched against name and category", example = "AI")
+    private String keyword;
+
+    @Schema(description = "name, category, startDate or endDate; anything else keeps the order of ids", example = "startDate")
+    private String sortBy;
+
+    @Schema(description = "asc or desc; ignored when the order of ids is kept", example = "asc")
+    private String order;
+
+    @Schema(description = "Page number, starting at 1", example = "1")
+    private int page = 1;
+
+    @Schema(description = "Page size", example = "10")
+    private int size = 10;
+}
@@ -0,0 +1,37 @@
+package com.w16a.danish.common.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * One page of teams drawn from a caller-supplied id set (e.g. the teams registered for a
+ * competition), filtered, sorted and paged by user-service.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Accessors(chain = true)
+@Schema(name = "TeamPageQueryDTO", description = "Paged lookup over a supplied set of team IDs")
+public class TeamPageQueryDTO {
+
+    @Schema(description = "Team IDs to page over")
+    private List<String> ids;
+
+    @Schema(description = "Optional keyword matched against name and description", example = "AI")
+    private String keyword;
+
+    @Schema(description = "teamName or createdAt (default)", example = "createdAt")
+    private String sortBy;
+
+    @Schema(description = "asc or desc", example = "asc")
+    private String order;
+
+    @Schema(description = "Page number, starting at 1", example = "1")
+    private int page = 1;
+
+    @Schema(description = "Page size", example = "10")
+    private int size = 10;
+}
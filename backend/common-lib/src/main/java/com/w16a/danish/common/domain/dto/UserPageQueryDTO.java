@@ -0,0 +1,43 @@
+package com.w16a.danish.common.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * One page of users drawn from a caller-supplied id set (e.g. the participants of a competition),
+ * filtered, sorted and paged by user-service so only the rows on the page cross the wire.
+ *
+ * <p>{@code sortBy} names a user column. Any other value — typically because the sort key lives
+ * with the caller, such as the registration time — keeps the order of {@code ids} as supplied.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Accessors(chain = true)
+@Schema(name = "UserPageQueryDTO", description = "Paged lookup over a supplied set of user IDs")
+public class UserPageQueryDTO {
+
+    @Schema(description = "User IDs to page over")
+    private List<String> ids;
+
+    @Schema(description = "Optional role the users must hold", example = "PARTICIPANT")
+    private String role;
+
+    @Schema(description = "Optional keyword matched against name and email", example = "alice")
+    private String keyword;
+
+    @Schema(description = "name or email; anything else keeps the order of ids", example = "name")
+    private String sortBy;
+
+    @Schema(description = "asc or desc; ignored when the order of ids is kept", example = "asc")
+    private String order;
+
+    @Schema(description = "Page number, starting at 1", example = "1")
+    private int page = 1;
+
+    @Schema(description = "Page size", example = "10")
+    private int size = 10;
+}
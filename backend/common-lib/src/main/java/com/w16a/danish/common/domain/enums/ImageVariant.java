@@ -0,0 +1,61 @@
+package com.w16a.danish.common.domain.enums;
+
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Resized copies file-service derives from every uploaded avatar and competition image.
+ *
+ * <p>A variant's object name follows from the original's, so any service can build variant URLs
+ * from an image URL it already has, without asking file-service: {@code report/a.png} gets
+ * {@code variants/report/a.png/thumbnail.jpg}, and so on. Every original {@link #appliesTo} accepts
+ * gets all of them: file-service retries work it could not do at once, backfills images stored
+ * before variants existed, and stores a copy of the original under each name when the original
+ * cannot be resized.
+ *
+ * @author Eddy ZHANG
+ */
+@Getter
+public enum ImageVariant {
+
+    /** Avatars in lists, gallery thumbnails. */
+    THUMBNAIL("thumbnail", 128),
+    /** Competition cards and profile headers. */
+    CARD("card", 480),
+    /** Detail pages; caps originals from phone cameras at a size browsers display. */
+    FULL("full", 1600);
+
+    public static final String PREFIX = "variants/";
+    public static final String CONTENT_TYPE = "image/jpeg";
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "bmp");
+
+    private final String fileName;
+    /** Longest side in pixels; smaller images are never scaled up. */
+    private final int maxDimension;
+
+    ImageVariant(String stem, int maxDimension) {
+        this.fileName = stem + ".jpg";
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Object name of this variant of an original, in the original's bucket.
+     */
+    public String objectName(String originalObjectName) {
+        return PREFIX + originalObjectName + "/" + fileName;
+    }
+
+    /**
+     * Whether an object has variants: an original, not a variant itself, named as an image.
+     */
+    public static boolean appliesTo(String objectName) {
+        if (objectName == null || objectName.startsWith(PREFIX)) {
+            return false;
+        }
+        int dot = objectName.lastIndexOf('.');
+        return dot > objectName.lastIndexOf('/')
+                && IMAGE_EXTENSIONS.contains(objectName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -1,5 +1,6 @@
 package com.w16a.danish.common.domain.vo;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.w16a.danish.common.domain.enums.CompetitionStatus;
 import com.w16a.danish.common.domain.enums.ParticipationType;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -65,4 +66,14 @@ public class CompetitionResponseVO {
 
     @Schema(description = "Competition creation timestamp", example = "2025-03-18T12:00:00")
     private LocalDateTime createdAt;
+
+    /**
+     * Resized copies of {@link #imageUrls}, derived from the URLs so no service has to store them.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Resized copies of each image, in the order of imageUrls; null for an entry that is not an image",
+            accessMode = Schema.AccessMode.READ_ONLY, nullable = true)
+    public List<ImageVariantsVO> getImageVariants() {
+        return imageUrls == null ? null : imageUrls.stream().map(ImageVariantsVO::of).toList();
+    }
 }
@@ -0,0 +1,77 @@
+package com.w16a.danish.common.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated response wrapper — the cursor counterpart of {@link PageResponse}.
+ *
+ * <p>Deep pages cost the same as the first one, because the next page starts from the last row
+ * seen rather than from an OFFSET. The total is optional: counting a large table is often the
+ * most expensive part of a page, so callers only pay for it when they ask.
+ *
+ * <pre>{@code
+ *   // Query size + 1 rows; the extra row only says whether another page exists.
+ *   CursorPageResponse.of(rows, size, c -> new KeysetCursor(c.getCreatedAt(), c.getId()), null);
+ * }</pre>
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(name = "CursorPageResponse", description = "Keyset-paginated response object")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "List of items in the current page")
+    private List<T> data;
+
+    @Schema(description = "Maximum number of items per page")
+    private long size;
+
+    @Schema(description = "Opaque cursor for the next page; null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Whether a next page exists")
+    private boolean hasNext;
+
+    @Schema(description = "Total number of items; null unless the caller asked for it")
+    private Long total;
+
+    /**
+     * Build a page from a query that fetched up to {@code size + 1} rows.
+     *
+     * @param rows     rows in page order, at most one more than {@code size}
+     * @param size     requested page size
+     * @param cursorOf extracts the keyset position of a row
+     * @param total    total row count, or {@code null} when it was not requested
+     */
+    public static <T> CursorPageResponse<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf, Long total) {
+        boolean hasNext = rows.size() > size;
+        List<T> data = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(data.get(data.size() - 1)).encode() : null;
+        return CursorPageResponse.<T>builder()
+                .data(data)
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Re-type a page after its rows have been mapped, keeping the cursor and counts.
+     *
+     * @param data mapped rows, same order as {@link #getData()}
+     */
+    public <R> CursorPageResponse<R> withData(List<R> data) {
+        return new CursorPageResponse<>(data, size, nextCursor, hasNext, total);
+    }
+}
@@ -0,0 +1,64 @@
+package com.w16a.danish.common.domain.vo;
+
+import com.w16a.danish.common.domain.enums.ImageVariant;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.net.URI;
+
+/**
+ * URLs of the resized copies of an image. They are listed only for originals file-service
+ * derives variants for ({@link ImageVariant#appliesTo}), which it does for every such image,
+ * including ones stored before variants existed. Variants are produced shortly after the upload,
+ * so a client that gets a 404 right after uploading should fall back to the original URL.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ImageVariantsVO", description = "Resized copies of an image")
+public class ImageVariantsVO {
+
+    @Schema(description = "At most 128px on the longest side", example = "http://localhost:9000/user-avatar/variants/3f2a9c.png/thumbnail.jpg")
+    private String thumbnail;
+
+    @Schema(description = "At most 480px on the longest side", example = "http://localhost:9000/user-avatar/variants/3f2a9c.png/card.jpg")
+    private String card;
+
+    @Schema(description = "At most 1600px on the longest side", example = "http://localhost:9000/user-avatar/variants/3f2a9c.png/full.jpg")
+    private String full;
+
+    /**
+     * Variant URLs for a stored image, from its public URL {@code <endpoint>/<bucket>/<object>}.
+     *
+     * @return the variants, or null if the URL is blank, malformed or not an image
+     */
+    public static ImageVariantsVO of(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return null;
+        }
+        URI uri;
+        try {
+            uri = URI.create(imageUrl);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String path = uri.getRawPath();
+        int bucketEnd = path == null ? -1 : path.indexOf('/', 1);
+        if (bucketEnd < 0 || !ImageVariant.appliesTo(path.substring(bucketEnd + 1))) {
+            return null;
+        }
+        String base = imageUrl.substring(0, imageUrl.indexOf(path) + bucketEnd + 1);
+        String objectName = path.substring(bucketEnd + 1);
+        return ImageVariantsVO.builder()
+                .thumbnail(base + ImageVariant.THUMBNAIL.objectName(objectName))
+                .card(base + ImageVariant.CARD.objectName(objectName))
+                .full(base + ImageVariant.FULL.objectName(objectName))
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.w16a.danish.common.domain.vo;
+
+import com.w16a.danish.common.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated list ordered by {@code (created_at, id)}.
+ *
+ * <p>Clients receive it as an opaque token in {@link CursorPageResponse#getNextCursor()} and send
+ * it back unchanged to fetch the following page. The id breaks ties between rows created in the
+ * same instant, so no row is skipped or repeated at a page boundary.
+ *
+ * @param createdAt creation time of the last row on the previous page
+ * @param id        id of the last row on the previous page
+ * @author Eddy ZHANG
+ */
+public record KeysetCursor(LocalDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encode this position as a URL-safe token.
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @param token the cursor sent by the client; blank means "start from the first page"
+     * @return the decoded position, or {@code null} for a blank token
+     * @throws BusinessException 400 when the token was not produced by this class
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split <= 0 || split == raw.length() - 1) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, split)), raw.substring(split + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.w16a.danish.common.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A short-lived ticket for uploading one object straight to object storage.
+ *
+ * <p>The client sends the file with an HTTP {@code PUT} to {@link #uploadUrl}, then hands
+ * {@link #objectName} back to the service that issued the ticket to confirm it.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PresignedUploadVO", description = "Presigned direct-to-storage upload ticket")
+public class PresignedUploadVO {
+
+    @Schema(description = "Object name to confirm once the upload has finished", example = "comp-1/user-1/3f2a9c.zip")
+    private String objectName;
+
+    @Schema(description = "Presigned URL; PUT the file body here", example = "http://localhost:9000/submissions/comp-1/user-1/3f2a9c.zip?X-Amz-Signature=...")
+    private String uploadUrl;
+
+    @Schema(description = "Content type the PUT must carry, if one was requested", example = "application/zip")
+    private String contentType;
+
+    @Schema(description = "When the upload URL stops working", example = "2025-04-20T10:15:00")
+    private LocalDateTime expiresAt;
+}
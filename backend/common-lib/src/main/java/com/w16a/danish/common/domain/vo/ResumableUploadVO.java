@@ -0,0 +1,50 @@
+package com.w16a.danish.common.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of a resumable upload, returned when it starts and after every chunk.
+ *
+ * <p>A client that lost its connection asks for this again and sends only the chunks missing
+ * from {@link #receivedChunks}, instead of restarting the file from byte zero.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ResumableUploadVO", description = "Progress of a resumable chunked upload")
+public class ResumableUploadVO {
+
+    @Schema(description = "Upload session ID, used in every later call", example = "5b0c2f0e-7d3e-4a55-9d77-0c6f5d2a9e10")
+    private String uploadId;
+
+    @Schema(description = "Object name the file will be stored under", example = "3f2a9c.mp4")
+    private String objectName;
+
+    @Schema(description = "Declared file size in bytes", example = "209715200")
+    private long size;
+
+    @Schema(description = "Bytes per chunk; only the last chunk may be shorter", example = "8388608")
+    private long chunkSize;
+
+    @Schema(description = "Number of chunks, numbered from 1", example = "25")
+    private int totalChunks;
+
+    @Schema(description = "Chunk numbers stored so far, ascending", example = "[1, 2, 3, 5]")
+    private List<Integer> receivedChunks;
+
+    @Schema(description = "Byte ranges stored so far, inclusive and merged", example = "[\"0-25165823\", \"33554432-41943039\"]")
+    private List<String> receivedRanges;
+
+    @Schema(description = "When the session is dropped if no further chunk arrives", example = "2025-04-21T10:15:00")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.w16a.danish.common.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What object storage holds under a name, as seen by file-service.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "StoredObjectVO", description = "Metadata of a stored object")
+public class StoredObjectVO {
+
+    @Schema(description = "Object name within its bucket", example = "comp-1/user-1/3f2a9c.zip")
+    private String objectName;
+
+    @Schema(description = "Public URL of the object", example = "http://localhost:9000/submissions/comp-1/user-1/3f2a9c.zip")
+    private String fileUrl;
+
+    @Schema(description = "Size in bytes", example = "52428800")
+    private long size;
+
+    @Schema(description = "Content type recorded by storage", example = "application/zip")
+    private String contentType;
+}
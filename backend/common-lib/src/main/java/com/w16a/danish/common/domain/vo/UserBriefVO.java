@@ -1,5 +1,6 @@
 package com.w16a.danish.common.domain.vo;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -37,4 +38,17 @@ public class UserBriefVO {
 
     @Schema(description = "User created/joined time", example = "2025-04-04T14:23:00")
     private LocalDateTime createdAt;
+
+    @Schema(description = "Profile version; a higher value means a newer name/avatar", example = "3")
+    private Long profileVersion;
+
+    /**
+     * Resized copies of {@link #avatarUrl}, derived from the URL so no service has to store them.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Resized copies of the avatar; null without an avatar",
+            accessMode = Schema.AccessMode.READ_ONLY, nullable = true)
+    public ImageVariantsVO getAvatarVariants() {
+        return ImageVariantsVO.of(avatarUrl);
+    }
 }
@@ -14,9 +14,9 @@ import org.springframework.http.HttpStatus;
  * <p>Example fallback:
  * <pre>{@code
  *   @Override
- *   public ResponseEntity<String> uploadCompetitionPromo(MultipartFile file) {
- *       log.error("[Fallback] file-service unavailable — uploadCompetitionPromo");
- *       throw new ServiceUnavailableException("file-service", "uploadCompetitionPromo");
+ *   public ResponseEntity<String> deleteFile(String bucket, String objectName) {
+ *       log.error("[Fallback] file-service unavailable — deleteFile");
+ *       throw new ServiceUnavailableException("file-service", "deleteFile");
  *   }
  * }</pre>
  *
@@ -0,0 +1,122 @@
+package com.w16a.danish.common.http;
+
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Forwards an uploaded file to another service as {@code multipart/form-data} without holding it
+ * in memory.
+ *
+ * <p>Feign cannot do this: its request body is a {@code byte[]}, so {@code SpringFormEncoder}
+ * copies the whole file onto the heap before the first byte is sent — a 200 MB submission cost
+ * 200 MB of heap per concurrent upload. Here the file's {@code InputStream} is copied straight
+ * into a chunked request body, so memory stays at one buffer whatever the file size.
+ *
+ * <p>The request deliberately uses a plain {@link RestClient} with no interceptors. A load-balancing
+ * interceptor would wrap the request in a buffering one and undo the streaming, so the target
+ * instance is chosen up front through {@link LoadBalancerClient} instead.
+ *
+ * <pre>{@code
+ *   String url = streamingMultipartClient.upload("file-service", "/files/upload/avatar", file);
+ * }</pre>
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+public class StreamingMultipartClient {
+
+    /** Size of each HTTP chunk, and so roughly the memory one upload holds at a time. */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String PART_NAME = "file";
+
+    private final ObjectProvider<LoadBalancerClient> loadBalancerClient;
+    private final RestClient restClient;
+
+    public StreamingMultipartClient(ObjectProvider<LoadBalancerClient> loadBalancerClient) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setChunkSize(CHUNK_SIZE);
+        requestFactory.setConnectTimeout(Duration.ofSeconds(5));
+        requestFactory.setReadTimeout(Duration.ofMinutes(2));
+        this.loadBalancerClient = loadBalancerClient;
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    /**
+     * Upload a file to one instance of a discovered service.
+     *
+     * @param serviceId registered name of the target service, e.g. {@code file-service}
+     * @param path      endpoint path on that service, including any context path
+     * @param file      the file, sent as the {@code file} part with its original name and type
+     * @return the response body
+     * @throws ServiceUnavailableException if no instance is available or the call fails
+     * @throws BusinessException           with the target's status if it rejects the file (4xx)
+     */
+    public String upload(String serviceId, String path, MultipartFile file) {
+        ServiceInstance instance = loadBalancerClient.getObject().choose(serviceId);
+        if (instance == null) {
+            throw new ServiceUnavailableException(serviceId, path);
+        }
+        URI target = UriComponentsBuilder.fromUri(instance.getUri()).path(path).build().toUri();
+        return upload(serviceId, target, file);
+    }
+
+    /**
+     * Upload a file to a fixed address.
+     *
+     * @param serviceId name used in errors and logs
+     * @param target    full endpoint URI
+     * @param file      the file, sent as the {@code file} part with its original name and type
+     * @return the response body
+     */
+    public String upload(String serviceId, URI target, MultipartFile file) {
+        try {
+            return restClient.post()
+                    .uri(target)
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(parts(file))
+                    .retrieve()
+                    .body(String.class);
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                throw new BusinessException(HttpStatus.valueOf(e.getStatusCode().value()), "Upload rejected by " + serviceId);
+            }
+            log.error("[Upload] {} failed with {} for {}", serviceId, e.getStatusCode(), target, e);
+            throw new ServiceUnavailableException(serviceId, target.getPath());
+        } catch (RestClientException e) {
+            log.error("[Upload] {} unreachable for {}", serviceId, target, e);
+            throw new ServiceUnavailableException(serviceId, target.getPath());
+        }
+    }
+
+    private static MultiValueMap<String, Object> parts(MultipartFile file) {
+        HttpHeaders headers = new HttpHeaders();
+        if (file.getContentType() != null) {
+            headers.setContentType(MediaType.parseMediaType(file.getContentType()));
+        }
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        // A Resource part is copied from its InputStream; a byte[] part would defeat the point.
+        parts.add(PART_NAME, new HttpEntity<Resource>(file.getResource(), headers));
+        return parts;
+    }
+}
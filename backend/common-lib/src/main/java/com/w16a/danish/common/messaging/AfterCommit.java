@@ -0,0 +1,29 @@
+package com.w16a.danish.common.messaging;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs a side effect once the surrounding transaction commits, so a rollback never announces a
+ * change the database did not keep. Without an active transaction (e.g. unit tests) it runs at once.
+ *
+ * @author Eddy ZHANG
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
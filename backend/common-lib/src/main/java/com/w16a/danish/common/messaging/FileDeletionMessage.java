@@ -0,0 +1,68 @@
+package com.w16a.danish.common.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.net.URI;
+
+/**
+ * A stored object that nothing references any more, queued for removal by file-service.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileDeletionMessage {
+
+    /** Object names file-service stores under the SHA-256 of their content, shared by reference count. */
+    public static final String CONTENT_ADDRESSED_PREFIX = "sha256/";
+
+    private String bucket;
+    private String objectName;
+    /**
+     * Set when the deletion is queued and kept through redelivery and the dead queue, so a shared
+     * object gives up this deletion's reference once however often the message arrives.
+     */
+    @EqualsAndHashCode.Exclude
+    private String id;
+
+    public FileDeletionMessage(String bucket, String objectName) {
+        this(bucket, objectName, null);
+    }
+
+    /**
+     * Bucket and object name from a public URL of the form {@code http://host/bucket/object}.
+     *
+     * @return the message, or null if the URL is blank or names no object
+     */
+    public static FileDeletionMessage fromUrl(String fileUrl) {
+        if (fileUrl == null || fileUrl.isBlank()) {
+            return null;
+        }
+        String path;
+        try {
+            path = URI.create(fileUrl).getPath();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (path == null || path.length() < 2) {
+            return null;
+        }
+        String[] parts = path.substring(1).split("/", 2);
+        if (parts.length < 2 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            return null;
+        }
+        return new FileDeletionMessage(parts[0], parts[1]);
+    }
+
+    /**
+     * Whether the object is content-addressed, so that uploading the same file again returns the
+     * same URL and takes another reference to it.
+     */
+    public boolean isContentAddressed() {
+        return objectName != null && objectName.startsWith(CONTENT_ADDRESSED_PREFIX);
+    }
+}
@@ -0,0 +1,62 @@
+package com.w16a.danish.common.messaging;
+
+import java.util.UUID;
+
+/**
+ * Hands files that are no longer referenced to file-service for removal, instead of deleting them
+ * over Feign inside the request.
+ *
+ * <p>Each file becomes a persistent {@link FileDeletionMessage} on {@link MessagingConstants#FILE_EXCHANGE};
+ * file-service drains the queue in batches. The message goes through {@link OutboxWriter}: it is
+ * stored in {@code outbox_event} with the caller's transaction, so a rollback never loses a file the
+ * surviving row still points at, and a commit never loses the deletion to a broker outage — the
+ * relay publishes it with confirms and retries until the broker has it. If the insert itself
+ * fails, the exception reaches the caller like any other failed write.
+ *
+ * <p>With {@code outbox.enabled} off the message is sent straight after the commit, and a broker
+ * failure leaves the file behind with an error logged.
+ *
+ * <pre>{@code
+ *   fileDeletionQueue.enqueue(competition.getIntroVideoUrl());
+ * }</pre>
+ *
+ * @author Eddy ZHANG
+ */
+public class FileDeletionQueue {
+
+    private final OutboxWriter outboxWriter;
+
+    public FileDeletionQueue(OutboxWriter outboxWriter) {
+        this.outboxWriter = outboxWriter;
+    }
+
+    /**
+     * Queue a stored file for deletion once the surrounding transaction commits.
+     *
+     * @param fileUrl public URL of the form {@code http://host/bucket/object}; blank is a no-op
+     */
+    public void enqueue(String fileUrl) {
+        FileDeletionMessage message = FileDeletionMessage.fromUrl(fileUrl);
+        if (message == null) {
+            return;
+        }
+        message.setId(UUID.randomUUID().toString());
+        outboxWriter.write(MessagingConstants.FILE_EXCHANGE, MessagingConstants.ROUTING_FILE_DELETE, message);
+    }
+
+    /**
+     * Queue the file a row pointed at before it was given a new one. A content-addressed file
+     * uploaded again lands on the same URL with one more reference, so that reference is given
+     * back even though the URL did not change; any other file is only queued if it was replaced.
+     *
+     * @param replacedUrl URL the row held before; blank is a no-op
+     * @param currentUrl  URL the row holds now
+     */
+    public void enqueueReplaced(String replacedUrl, String currentUrl) {
+        FileDeletionMessage replaced = FileDeletionMessage.fromUrl(replacedUrl);
+        if (replaced == null || (replacedUrl.equals(currentUrl) && !replaced.isContentAddressed())) {
+            return;
+        }
+        enqueue(replacedUrl);
+    }
+}
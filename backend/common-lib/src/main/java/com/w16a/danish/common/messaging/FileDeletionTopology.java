@@ -0,0 +1,38 @@
+package com.w16a.danish.common.messaging;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+
+/**
+ * Exchange and queues for file deletions.
+ *
+ * <p>file-service consumes the queue, but every publishing service declares it as well: a message
+ * sent to an exchange with no bound queue is dropped, and a publisher may start first. RabbitMQ
+ * rejects a second declaration whose arguments differ, so all of them come from here.
+ *
+ * <p>Messages file-service rejects, and objects it still cannot remove after its retries, end up
+ * on {@link MessagingConstants#QUEUE_FILE_DELETE_DEAD} for inspection.
+ *
+ * @author Eddy ZHANG
+ */
+public final class FileDeletionTopology {
+
+    private FileDeletionTopology() { /* factory only */ }
+
+    public static Declarables declarables() {
+        TopicExchange exchange = ExchangeBuilder.topicExchange(MessagingConstants.FILE_EXCHANGE).durable(true).build();
+        Queue queue = QueueBuilder.durable(MessagingConstants.QUEUE_FILE_DELETE)
+                .deadLetterExchange(MessagingConstants.FILE_EXCHANGE)
+                .deadLetterRoutingKey(MessagingConstants.ROUTING_FILE_DELETE_DEAD)
+                .build();
+        Queue deadQueue = QueueBuilder.durable(MessagingConstants.QUEUE_FILE_DELETE_DEAD).build();
+        Binding binding = BindingBuilder.bind(queue).to(exchange).with(MessagingConstants.ROUTING_FILE_DELETE);
+        Binding deadBinding = BindingBuilder.bind(deadQueue).to(exchange).with(MessagingConstants.ROUTING_FILE_DELETE_DEAD);
+        return new Declarables(exchange, queue, deadQueue, binding, deadBinding);
+    }
+}
@@ -33,6 +33,12 @@ public final class MessagingConstants {
     /** Topic exchange used for competition lifecycle events. */
     public static final String COMPETITION_EXCHANGE = "competition.exchange";
 
+    /** Topic exchange used for user profile events. */
+    public static final String USER_EXCHANGE = "user.exchange";
+
+    /** Topic exchange owned by file-service for storage housekeeping. */
+    public static final String FILE_EXCHANGE = "file.exchange";
+
     // ── Queues ────────────────────────────────────────────────────────────────
 
     public static final String QUEUE_JUDGE_ASSIGNED        = "queue.judge.assigned";
@@ -42,6 +48,9 @@ public final class MessagingConstants {
     public static final String QUEUE_REGISTRATION_CANCEL   = "queue.registration.cancel";
     public static final String QUEUE_COMPETITION_CREATED   = "queue.competition.created";
     public static final String QUEUE_COMPETITION_UPDATED   = "queue.competition.updated";
+    public static final String QUEUE_COMMENT_AUTHOR_REFRESH = "queue.comment.author.refresh";
+    public static final String QUEUE_FILE_DELETE           = "queue.file.delete";
+    public static final String QUEUE_FILE_DELETE_DEAD      = "queue.file.delete.dead";
 
     // ── Routing keys ──────────────────────────────────────────────────────────
 
@@ -52,4 +61,15 @@ public final class MessagingConstants {
     public static final String ROUTING_REGISTRATION_CANCEL   = "registration.cancel";
     public static final String ROUTING_COMPETITION_CREATED   = "competition.created";
     public static final String ROUTING_COMPETITION_UPDATED   = "competition.updated";
+    public static final String ROUTING_USER_PROFILE_UPDATED  = "user.profile.updated";
+    public static final String ROUTING_FILE_DELETE           = "file.delete";
+    public static final String ROUTING_FILE_DELETE_DEAD      = "file.delete.dead";
+
+    // ── Headers ───────────────────────────────────────────────────────────────
+
+    /**
+     * When the message was handed to the broker, in epoch milliseconds; consumers measure queue
+     * latency from it. The AMQP {@code timestamp} property only keeps whole seconds.
+     */
+    public static final String HEADER_PUBLISHED_AT = "x-published-at";
 }
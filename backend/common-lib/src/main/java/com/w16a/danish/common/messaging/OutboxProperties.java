@@ -0,0 +1,26 @@
+package com.w16a.danish.common.messaging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * The transactional outbox behind {@link OutboxWriter}, published by {@link OutboxRelay}.
+ * Needs the {@code outbox_event} table and {@code spring.rabbitmq.publisher-confirm-type: correlated}.
+ *
+ * @author Eddy ZHANG
+ */
+@ConfigurationProperties(prefix = "outbox")
+@Data
+public class OutboxProperties {
+
+    /** Off, events are sent straight after the commit and lost if the broker is down at that moment. */
+    private boolean enabled = false;
+    /** Most events published per round; they are sent back to back and confirmed asynchronously. */
+    private int batchSize = 500;
+    /** How often the table is looked at when no commit has signalled new events. */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /** How long a batch waits for broker confirms; events still unconfirmed are published again later. */
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,210 @@
+package com.w16a.danish.common.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the events {@link OutboxWriter} left in {@code outbox_event}, on one background thread.
+ *
+ * <p>Each round locks the oldest {@code batchSize} rows of this service ({@code FOR UPDATE}, so a
+ * second instance waits rather than overtaking) and publishes them in id order on one channel
+ * without waiting in between. The broker confirms them asynchronously, each correlated with its
+ * row; once all are in, or {@code confirmTimeout} has passed, the acknowledged rows are deleted in
+ * the same transaction. Rows the broker rejected or did not confirm stay and are published again
+ * in a later round, so only they can arrive after newer events. If publishing itself fails, the
+ * transaction rolls back and the round is retried after {@code pollInterval}.
+ *
+ * <p>Delivery is at least once: a crash between the confirms and the commit publishes the batch
+ * again. Every message carries the id {@code <source>-<row id>} so consumers can tell a repeat;
+ * user-service's notification consumer, for one, skips ids it has already mailed.
+ *
+ * <p>The round runs at READ COMMITTED, so MySQL takes no gap locks and business transactions can
+ * keep inserting events while a batch is waiting for its confirms.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    static final String SELECT_SQL = "SELECT id, exchange_name, routing_key, headers, content_type, payload "
+            + "FROM outbox_event WHERE source = ? ORDER BY id LIMIT ? FOR UPDATE";
+    static final String DELETE_SQL = "DELETE FROM outbox_event WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final OutboxProperties properties;
+    private final String source;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                       RabbitTemplate rabbitTemplate, OutboxProperties properties, String source) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.source = source;
+    }
+
+    /**
+     * Called after a commit that wrote events, so they go out without waiting for the next poll.
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    /**
+     * Publish the oldest batch of pending events and delete those the broker confirmed.
+     *
+     * @return events confirmed, 0 when there were none
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, source, properties.getBatchSize());
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<Long> confirmed = publish(events);
+            if (confirmed.size() < events.size()) {
+                log.warn("[Outbox] {} of {} {} events were not confirmed, publishing them again later",
+                        events.size() - confirmed.size(), events.size(), source);
+            }
+            if (!confirmed.isEmpty()) {
+                jdbcTemplate.update(String.format(DELETE_SQL, String.join(",", Collections.nCopies(confirmed.size(), "?"))),
+                        confirmed.toArray());
+            }
+            return confirmed.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private List<Long> publish(List<OutboxEvent> events) {
+        return rabbitTemplate.invoke(operations -> {
+            List<CorrelationData> correlations = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                CorrelationData correlation = new CorrelationData(String.valueOf(event.id()));
+                operations.send(event.exchange(), event.routingKey(), event.toMessage(source), correlation);
+                correlations.add(correlation);
+            }
+            // wait while the channel is still ours, so the confirms arrive on it
+            return confirmedIds(correlations);
+        });
+    }
+
+    private List<Long> confirmedIds(List<CorrelationData> correlations) {
+        long deadline = System.nanoTime() + properties.getConfirmTimeout().toNanos();
+        List<Long> confirmed = new ArrayList<>(correlations.size());
+        for (CorrelationData correlation : correlations) {
+            try {
+                CorrelationData.Confirm confirm = correlation.getFuture()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(Long.valueOf(correlation.getId()));
+                } else {
+                    log.warn("[Outbox] Broker rejected {} event {}: {}", source, correlation.getId(), confirm.getReason());
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                log.debug("[Outbox] No confirm for {} event {}", source, correlation.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return confirmed;
+    }
+
+    private void run() {
+        while (running) {
+            boolean failed = false;
+            try {
+                while (running && relayBatch() == properties.getBatchSize()) {
+                    log.debug("[Outbox] Published a full batch for {}, looking for more", source);
+                }
+            } catch (RuntimeException e) {
+                failed = true;
+                log.warn("[Outbox] Publishing {} events failed, retrying in {}", source, properties.getPollInterval(), e);
+            }
+            try {
+                if (failed) {
+                    // commits keep waking the relay; do not let them turn an outage into a busy loop
+                    Thread.sleep(properties.getPollInterval().toMillis());
+                } else {
+                    wakeUps.tryAcquire(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::run, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        wakeUp();
+        try {
+            worker.join(properties.getConfirmTimeout().plus(properties.getPollInterval()).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getString("exchange_name"),
+            rs.getString("routing_key"),
+            rs.getString("headers"),
+            rs.getString("content_type"),
+            rs.getString("payload"));
+
+    private record OutboxEvent(long id, String exchange, String routingKey, String headers,
+                               String contentType, String payload) {
+
+        Message toMessage(String source) {
+            MessageProperties properties = new MessageProperties();
+            OutboxWriter.readHeaders(headers).forEach(properties::setHeader);
+            properties.setContentType(contentType);
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+            properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+            properties.setMessageId(source + "-" + id);
+            properties.setHeader(MessagingConstants.HEADER_PUBLISHED_AT, System.currentTimeMillis());
+            return new Message(payload.getBytes(StandardCharsets.UTF_8), properties);
+        }
+    }
+}
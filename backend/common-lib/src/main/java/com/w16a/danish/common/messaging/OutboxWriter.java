@@ -0,0 +1,140 @@
+package com.w16a.danish.common.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes domain events through the {@code outbox_event} table, instead of calling the broker
+ * inside the business transaction.
+ *
+ * <p>The event is converted by the service's own {@link RabbitTemplate} message converter and
+ * inserted with the caller's connection, so it commits or rolls back with the rows it describes
+ * and costs one insert rather than a broker round trip; {@link #writeAll} stores a whole fan-out
+ * in one statement. {@link OutboxRelay} publishes it after the commit and deletes it once the
+ * broker has confirmed it.
+ *
+ * <p>With {@code outbox.enabled} off (tests, services without the table) the event is sent
+ * straight after the commit instead.
+ *
+ * <pre>{@code
+ *   outboxWriter.write(MessagingConstants.JUDGE_EXCHANGE, MessagingConstants.ROUTING_JUDGE_ASSIGNED, message);
+ * }</pre>
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+public class OutboxWriter {
+
+    static final String INSERT_SQL = "INSERT INTO outbox_event "
+            + "(source, exchange_name, routing_key, headers, content_type, payload) VALUES ";
+    static final String ROW = "(?, ?, ?, ?, ?, ?)";
+    /** Rows per INSERT statement, keeping a large fan-out well under MySQL's packet limit. */
+    static final int ROWS_PER_INSERT = 500;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> HEADERS = new TypeReference<>() { };
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final ObjectProvider<RabbitTemplate> rabbitTemplate;
+    private final ObjectProvider<OutboxRelay> relay;
+    private final OutboxProperties properties;
+    private final String source;
+
+    public OutboxWriter(ObjectProvider<JdbcTemplate> jdbcTemplate, ObjectProvider<RabbitTemplate> rabbitTemplate,
+                        ObjectProvider<OutboxRelay> relay, OutboxProperties properties, String source) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.relay = relay;
+        this.properties = properties;
+        this.source = source;
+    }
+
+    /**
+     * Record an event for publishing once the surrounding transaction commits.
+     *
+     * @param exchange   exchange to publish to
+     * @param routingKey routing key to publish with
+     * @param event      payload, converted as {@code convertAndSend} would convert it
+     */
+    public void write(String exchange, String routingKey, Object event) {
+        writeAll(exchange, routingKey, List.of(event));
+    }
+
+    /**
+     * Record a fan-out of events with one multi-row insert per {@value #ROWS_PER_INSERT} events.
+     * They are published in list order.
+     *
+     * @param exchange   exchange to publish to
+     * @param routingKey routing key to publish with
+     * @param events     payloads; empty is a no-op
+     */
+    public void writeAll(String exchange, String routingKey, List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!properties.isEnabled()) {
+            AfterCommit.run(() -> events.forEach(event -> send(exchange, routingKey, event)));
+            return;
+        }
+        MessageConverter converter = rabbitTemplate.getObject().getMessageConverter();
+        for (int from = 0; from < events.size(); from += ROWS_PER_INSERT) {
+            List<?> chunk = events.subList(from, Math.min(from + ROWS_PER_INSERT, events.size()));
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (Object event : chunk) {
+                Message message = converter.toMessage(event, new MessageProperties());
+                MessageProperties messageProperties = message.getMessageProperties();
+                Collections.addAll(args, source, exchange, routingKey,
+                        writeHeaders(messageProperties.getHeaders()), messageProperties.getContentType(),
+                        new String(message.getBody(), StandardCharsets.UTF_8));
+            }
+            jdbcTemplate.getObject().update(INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW)),
+                    args.toArray());
+        }
+        relay.ifAvailable(outboxRelay -> AfterCommit.run(outboxRelay::wakeUp));
+    }
+
+    private void send(String exchange, String routingKey, Object event) {
+        try {
+            rabbitTemplate.getObject().convertAndSend(exchange, routingKey, event, msg -> {
+                msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+                msg.getMessageProperties().setHeader(MessagingConstants.HEADER_PUBLISHED_AT, System.currentTimeMillis());
+                return msg;
+            });
+        } catch (AmqpException e) {
+            log.error("[Outbox] Could not publish {} event to {}/{}, it is lost",
+                    event.getClass().getSimpleName(), exchange, routingKey, e);
+        }
+    }
+
+    static String writeHeaders(Map<String, Object> headers) {
+        try {
+            return headers.isEmpty() ? null : JSON.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox event headers must be JSON values", e);
+        }
+    }
+
+    static Map<String, Object> readHeaders(String headers) {
+        try {
+            return headers == null ? Map.of() : JSON.readValue(headers, HEADERS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox event headers: " + headers, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.w16a.danish.common.domain.vo;
+
+import com.w16a.danish.common.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A cursor page is fetched as {@code size + 1} rows; the extra row only signals that another page
+ * exists and must never reach the client. The cursor itself round-trips through the browser, so a
+ * tampered token has to surface as a 400 rather than a 500.
+ */
+class CursorPageResponseTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2025, 4, 8, 9, 0);
+
+    @Test
+    @DisplayName("The probe row is dropped and the cursor points at the last row kept")
+    void probeRowIsTrimmed() {
+        List<KeysetCursor> rows = List.of(
+                new KeysetCursor(T, "a"), new KeysetCursor(T, "b"), new KeysetCursor(T, "c"));
+
+        CursorPageResponse<KeysetCursor> page = CursorPageResponse.of(rows, 2, c -> c, null);
+
+        assertThat(page.getData()).extracting(KeysetCursor::id).containsExactly("a", "b");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(T, "b"));
+        assertThat(page.getTotal()).isNull();
+    }
+
+    @Test
+    @DisplayName("A short page is the last one and carries no cursor")
+    void shortPageIsLast() {
+        CursorPageResponse<KeysetCursor> page =
+                CursorPageResponse.of(List.of(new KeysetCursor(T, "a")), 2, c -> c, 1L);
+
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotal()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("withData() keeps the cursor and counts of the original page")
+    void withDataKeepsPosition() {
+        CursorPageResponse<KeysetCursor> page = CursorPageResponse.of(
+                List.of(new KeysetCursor(T, "a"), new KeysetCursor(T, "b")), 1, c -> c, 5L);
+
+        CursorPageResponse<String> mapped = page.withData(List.of("A"));
+
+        assertThat(mapped.getData()).containsExactly("A");
+        assertThat(mapped.getNextCursor()).isEqualTo(page.getNextCursor());
+        assertThat(mapped.getTotal()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("A cursor survives encoding, including sub-second timestamps")
+    void cursorRoundTrips() {
+        KeysetCursor cursor = new KeysetCursor(T.withNano(123_000_000), "cmt-1|odd");
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("A blank cursor means the first page")
+    void blankCursorIsFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    @DisplayName("A tampered cursor is a 400")
+    void tamperedCursorIsBadRequest() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
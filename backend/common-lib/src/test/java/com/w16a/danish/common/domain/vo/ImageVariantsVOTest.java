@@ -0,0 +1,61 @@
+package com.w16a.danish.common.domain.vo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Variant URLs are derived, never stored, so every service that returns an image URL returns its
+ * variants too. The derivation has to agree with the object names file-service writes, and has to
+ * survive a round trip through Feign, where the derived property arrives but has no setter.
+ */
+class ImageVariantsVOTest {
+
+    @Test
+    @DisplayName("Variants sit under variants/<object>/ in the original's bucket")
+    void derivesVariantUrls() {
+        ImageVariantsVO variants = ImageVariantsVO.of("http://localhost:9000/user-avatar/sha256/ab12.PNG");
+
+        assertThat(variants.getThumbnail()).isEqualTo("http://localhost:9000/user-avatar/variants/sha256/ab12.PNG/thumbnail.jpg");
+        assertThat(variants.getCard()).isEqualTo("http://localhost:9000/user-avatar/variants/sha256/ab12.PNG/card.jpg");
+        assertThat(variants.getFull()).isEqualTo("http://localhost:9000/user-avatar/variants/sha256/ab12.PNG/full.jpg");
+    }
+
+    @Test
+    @DisplayName("Blank, malformed, bucket-only and non-image URLs have no variants")
+    void noVariantsForNonImages() {
+        assertThat(ImageVariantsVO.of(null)).isNull();
+        assertThat(ImageVariantsVO.of(" ")).isNull();
+        assertThat(ImageVariantsVO.of("http://h/ bad.png")).isNull();
+        assertThat(ImageVariantsVO.of("http://h/competition-assets")).isNull();
+        assertThat(ImageVariantsVO.of("http://h/competition-assets/intro.mp4")).isNull();
+        assertThat(ImageVariantsVO.of("http://h/competition-assets/readme")).isNull();
+        assertThat(ImageVariantsVO.of("mailto:someone.png")).isNull();
+        assertThat(ImageVariantsVO.of("http://h/competition-assets/v1.2/readme")).isNull();
+        assertThat(ImageVariantsVO.of("http://h/competition-assets/variants/a.png/card.jpg")).isNull();
+    }
+
+    @Test
+    @DisplayName("Competition and user VOs expose variants, which are ignored when read back")
+    void voRoundTrip() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        CompetitionResponseVO competition = CompetitionResponseVO.builder()
+                .imageUrls(Arrays.asList("http://h/competition-assets/a.jpg", "http://h/competition-assets/b.mp4"))
+                .build();
+        UserBriefVO user = UserBriefVO.builder().avatarUrl("http://h/user-avatar/u.png").build();
+
+        String competitionJson = mapper.writeValueAsString(competition);
+        String userJson = mapper.writeValueAsString(user);
+
+        assertThat(competitionJson).contains("\"imageVariants\":[{").contains("a.jpg/card.jpg").contains(",null]");
+        assertThat(userJson).contains("u.png/thumbnail.jpg");
+        assertThat(mapper.readValue(competitionJson, CompetitionResponseVO.class)).isEqualTo(competition);
+        assertThat(mapper.readValue(userJson, UserBriefVO.class)).isEqualTo(user);
+        assertThat(new CompetitionResponseVO().getImageVariants()).isNull();
+        assertThat(new UserBriefVO().getAvatarVariants()).isNull();
+    }
+}
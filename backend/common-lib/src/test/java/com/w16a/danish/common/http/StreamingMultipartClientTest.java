@@ -0,0 +1,241 @@
+package com.w16a.danish.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The point of this client is that an upload's size never shows up on the heap. The main test
+ * proves that the only convincing way: a separate JVM with a 32 MB heap forwards a 96 MB file.
+ * Any code path that buffered the file — {@code getBytes()}, a {@code byte[]} part, a buffering
+ * request factory — would die with an OutOfMemoryError there.
+ */
+class StreamingMultipartClientTest {
+
+    private static final long LARGE_FILE_SIZE = 96L * 1024 * 1024;
+    private static final String CHILD_HEAP = "-Xmx32m";
+
+    private HttpServer server;
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicReference<String> transferEncoding = new AtomicReference<>();
+    private final AtomicReference<String> requestPath = new AtomicReference<>();
+    private volatile int responseStatus = 200;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestPath.set(exchange.getRequestURI().getPath());
+            transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] buffer = new byte[64 * 1024];
+                for (int n; (n = in.read(buffer)) != -1; ) {
+                    bytesReceived.addAndGet(n);
+                }
+            }
+            byte[] body = "http://minio/bucket/stored".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private URI target() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/files/upload/promo");
+    }
+
+    /** For calls with a fixed target, which never consult the load balancer. */
+    private static StreamingMultipartClient direct() {
+        return new StreamingMultipartClient(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StreamingMultipartClient client(LoadBalancerClient loadBalancerClient) {
+        ObjectProvider<LoadBalancerClient> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(loadBalancerClient);
+        return new StreamingMultipartClient(provider);
+    }
+
+    @Test
+    @DisplayName("A file three times the heap limit is forwarded in chunks by a JVM that could not hold it")
+    void largerThanHeapIsStreamed() throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process child = new ProcessBuilder(java, CHILD_HEAP,
+                "-cp", System.getProperty("java.class.path"),
+                LargeUpload.class.getName(), target().toString(), Long.toString(LARGE_FILE_SIZE))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("target/streaming-upload-child.log")))
+                .start();
+
+        assertThat(child.waitFor(2, TimeUnit.MINUTES)).as("child finished").isTrue();
+        assertThat(child.exitValue()).as("child exit code, see target/streaming-upload-child.log").isZero();
+        assertThat(transferEncoding.get()).isEqualToIgnoringCase("chunked");
+        // The body is the file plus a few hundred bytes of multipart framing.
+        assertThat(bytesReceived.get()).isBetween(LARGE_FILE_SIZE, LARGE_FILE_SIZE + 4096);
+    }
+
+    @Test
+    @DisplayName("The target instance comes from the load balancer and the path is appended to it")
+    void resolvesThroughLoadBalancer() {
+        LoadBalancerClient loadBalancer = mock(LoadBalancerClient.class);
+        when(loadBalancer.choose("file-service")).thenReturn(new DefaultServiceInstance(
+                "file-1", "file-service", "127.0.0.1", server.getAddress().getPort(), false));
+
+        String url = client(loadBalancer).upload("file-service", "/files/upload/avatar",
+                new MockMultipartFile("file", "a.png", "image/png", new byte[]{1, 2, 3}));
+
+        assertThat(url).isEqualTo("http://minio/bucket/stored");
+        assertThat(requestPath.get()).isEqualTo("/files/upload/avatar");
+    }
+
+    @Test
+    @DisplayName("No registered instance is a 503, not a NullPointerException")
+    void noInstanceIsUnavailable() {
+        LoadBalancerClient loadBalancer = mock(LoadBalancerClient.class);
+        MultipartFile file = new MockMultipartFile("file", "a.png", "image/png", new byte[]{1});
+
+        assertThatThrownBy(() -> client(loadBalancer).upload("file-service", "/files/upload/avatar", file))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("A file the target rejects keeps the target's 4xx status")
+    void rejectionKeepsClientErrorStatus() {
+        responseStatus = 400;
+        MultipartFile file = new MockMultipartFile("file", "a.exe", null, new byte[]{1});
+
+        assertThatThrownBy(() -> direct().upload("file-service", target(), file))
+                .isInstanceOf(BusinessException.class)
+                .isNotInstanceOf(ServiceUnavailableException.class)
+                .extracting(e -> ((BusinessException) e).getStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("A server error or a dead target is a 503")
+    void serverErrorAndDeadTargetAreUnavailable() {
+        MultipartFile file = new MockMultipartFile("file", "a.png", "image/png", new byte[]{1});
+        responseStatus = 500;
+        assertThatThrownBy(() -> direct().upload("file-service", target(), file))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        URI dead = target();
+        server.stop(0);
+        assertThatThrownBy(() -> direct().upload("file-service", dead, file))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    /**
+     * Runs in the small-heap child JVM: uploads a generated file of the requested size.
+     */
+    public static final class LargeUpload {
+
+        public static void main(String[] args) {
+            URI target = URI.create(args[0]);
+            long size = Long.parseLong(args[1]);
+            String url = direct().upload("file-service", target, new GeneratedFile(size));
+            if (!"http://minio/bucket/stored".equals(url)) {
+                throw new IllegalStateException("Unexpected response: " + url);
+            }
+        }
+    }
+
+    /**
+     * A file whose content is generated on read. It refuses {@link #getBytes()}, so the upload
+     * can only succeed by streaming.
+     */
+    private record GeneratedFile(long size) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "large.bin";
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/octet-stream";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("Uploads must stream, not buffer");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long remaining = size;
+
+                @Override
+                public int read() {
+                    return remaining-- > 0 ? (int) (remaining & 0x7f) : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, remaining);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = (byte) i;
+                    }
+                    remaining -= n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.w16a.danish.common.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.ConnectException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Deleting a file is the one side effect a rolled-back transaction must not have, so the queue
+ * writes through the outbox; with it off, it only sends after a commit, and a broker outage does
+ * not fail the request that freed the file.
+ */
+class FileDeletionQueueTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private final OutboxProperties properties = new OutboxProperties();
+    private FileDeletionQueue queue;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+        ObjectProvider<RabbitTemplate> rabbitProvider = mock(ObjectProvider.class);
+        when(rabbitProvider.getObject()).thenReturn(rabbitTemplate);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ObjectProvider<JdbcTemplate> jdbcProvider = mock(ObjectProvider.class);
+        when(jdbcProvider.getObject()).thenReturn(jdbcTemplate);
+        queue = new FileDeletionQueue(
+                new OutboxWriter(jdbcProvider, rabbitProvider, mock(ObjectProvider.class), properties, "test-service"));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("With the outbox on, the deletion is stored with the caller's transaction, not sent")
+    void writesThroughOutbox() {
+        properties.setEnabled(true);
+
+        queue.enqueue("http://h/submissions/c1/u1/x.zip");
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(eq(OutboxWriter.INSERT_SQL + OutboxWriter.ROW), args.capture());
+        assertThat(args.getValue()).startsWith("test-service", MessagingConstants.FILE_EXCHANGE,
+                MessagingConstants.ROUTING_FILE_DELETE);
+        assertThat((String) args.getValue()[5]).contains("\"bucket\":\"submissions\"", "\"objectName\":\"c1/u1/x.zip\"", "\"id\":");
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    @DisplayName("With the outbox on, a failed insert reaches the caller instead of losing the deletion")
+    void outboxFailureIsThrown() {
+        properties.setEnabled(true);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new CannotGetJdbcConnectionException("down"));
+
+        assertThatThrownBy(() -> queue.enqueue("http://h/user-avatar/u.png"))
+                .isInstanceOf(CannotGetJdbcConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("Outside a transaction the object is queued at once, persistently")
+    void sendsImmediately() {
+        queue.enqueue("http://localhost:9000/competition-assets/a/b.mp4");
+
+        MessagePostProcessor persistent = captureSend(new FileDeletionMessage("competition-assets", "a/b.mp4"));
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate).convertAndSend(anyString(), anyString(), sent.capture(), any(MessagePostProcessor.class));
+        assertThat(((FileDeletionMessage) sent.getValue()).getId()).isNotBlank();
+        Message message = persistent.postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertThat(message.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the object is queued after commit, and never after rollback")
+    void waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        queue.enqueue("http://h/submissions/c1/u1/x.zip");
+        queue.enqueue("http://h/submissions/c1/u1/y.zip");
+        verifyNoInteractions(rabbitTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCommit();
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        captureSend(new FileDeletionMessage("submissions", "c1/u1/x.zip"));
+        verifyNoMoreInteractions(rabbitTemplate);
+    }
+
+    @Test
+    @DisplayName("Blank and objectless URLs are ignored; a broker failure is swallowed")
+    void ignoresNothingToDeleteAndBrokerFailures() {
+        queue.enqueue(null);
+        queue.enqueue(" ");
+        queue.enqueue("http://h/ bad");
+        queue.enqueue("mailto:someone");
+        queue.enqueue("http://h");
+        queue.enqueue("http://h/");
+        queue.enqueue("http://h/bucket");
+        queue.enqueue("http://h/bucket/");
+        queue.enqueue("http://h//object");
+        verifyNoInteractions(rabbitTemplate);
+
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+        queue.enqueue("http://h/user-avatar/u.png");
+    }
+
+    @Test
+    @DisplayName("A replaced file is queued; an unchanged one only if it is content-addressed and so took a reference")
+    void enqueuesReplacedFiles() {
+        queue.enqueueReplaced(null, "http://h/user-avatar/new.png");
+        queue.enqueueReplaced("http://h/user-avatar/same.png", "http://h/user-avatar/same.png");
+        verifyNoInteractions(rabbitTemplate);
+
+        queue.enqueueReplaced("http://h/user-avatar/sha256/abc.png", "http://h/user-avatar/sha256/abc.png");
+        captureSend(new FileDeletionMessage("user-avatar", "sha256/abc.png"));
+
+        queue.enqueueReplaced("http://h/user-avatar/old.png", "http://h/user-avatar/new.png");
+        verify(rabbitTemplate).convertAndSend(eq(MessagingConstants.FILE_EXCHANGE), eq(MessagingConstants.ROUTING_FILE_DELETE),
+                eq((Object) new FileDeletionMessage("user-avatar", "old.png")), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    @DisplayName("Rejected deletions dead-letter into the dead queue")
+    void topologyDeadLetters() {
+        Declarables declarables = FileDeletionTopology.declarables();
+
+        Queue queue = declarables.getDeclarablesByType(Queue.class).get(0);
+        assertThat(queue.getName()).isEqualTo(MessagingConstants.QUEUE_FILE_DELETE);
+        assertThat(queue.getArguments())
+                .containsEntry("x-dead-letter-exchange", MessagingConstants.FILE_EXCHANGE)
+                .containsEntry("x-dead-letter-routing-key", MessagingConstants.ROUTING_FILE_DELETE_DEAD);
+        assertThat(declarables.getDeclarablesByType(Binding.class))
+                .extracting(Binding::getDestination, Binding::getRoutingKey)
+                .containsExactly(
+                        tuple(MessagingConstants.QUEUE_FILE_DELETE, MessagingConstants.ROUTING_FILE_DELETE),
+                        tuple(MessagingConstants.QUEUE_FILE_DELETE_DEAD, MessagingConstants.ROUTING_FILE_DELETE_DEAD));
+    }
+
+    private MessagePostProcessor captureSend(FileDeletionMessage expected) {
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(MessagingConstants.FILE_EXCHANGE), eq(MessagingConstants.ROUTING_FILE_DELETE),
+                eq((Object) expected), postProcessor.capture());
+        return postProcessor.getValue();
+    }
+}
@@ -0,0 +1,264 @@
+package com.w16a.danish.common.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Writes events through {@link OutboxWriter} into an in-memory {@code outbox_event} table and
+ * publishes them with {@link OutboxRelay} onto a mocked broker channel.
+ */
+class OutboxRelayTest {
+
+    private static final String SOURCE = "registration-service";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private RabbitOperations channel;
+    private OutboxProperties properties;
+    private OutboxRelay relay;
+    private OutboxWriter writer;
+
+    /** A payload as the notifiers publish them. */
+    record Registered(String userEmail, String competitionName) {
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE outbox_event (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    source VARCHAR(64) NOT NULL,
+                    exchange_name VARCHAR(255) NOT NULL,
+                    routing_key VARCHAR(255) NOT NULL,
+                    headers TEXT DEFAULT NULL,
+                    content_type VARCHAR(100) NOT NULL,
+                    payload TEXT NOT NULL,
+                    created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+                )""");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        channel = mock(RabbitOperations.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+        when(rabbitTemplate.invoke(any())).thenAnswer(inv ->
+                inv.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channel));
+
+        properties = new OutboxProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(2);
+        properties.setPollInterval(Duration.ofMillis(20));
+        properties.setConfirmTimeout(Duration.ofMillis(200));
+        confirmWith(true);
+        relay = spy(new OutboxRelay(jdbcTemplate, transactionManager, rabbitTemplate, properties, SOURCE));
+
+        ObjectProvider<JdbcTemplate> jdbcProvider = mock(ObjectProvider.class);
+        when(jdbcProvider.getObject()).thenReturn(jdbcTemplate);
+        ObjectProvider<RabbitTemplate> rabbitProvider = mock(ObjectProvider.class);
+        when(rabbitProvider.getObject()).thenReturn(rabbitTemplate);
+        ObjectProvider<OutboxRelay> relayProvider = mock(ObjectProvider.class);
+        doAnswer(inv -> {
+            inv.<Consumer<OutboxRelay>>getArgument(0).accept(relay);
+            return null;
+        }).when(relayProvider).ifAvailable(any());
+        writer = new OutboxWriter(jdbcProvider, rabbitProvider, relayProvider, properties, SOURCE);
+    }
+
+    @AfterEach
+    void dropTable() {
+        if (relay.isRunning()) {
+            relay.stop();
+        }
+        jdbcTemplate.execute("DROP TABLE outbox_event");
+    }
+
+    /** The broker answers every publish with this confirm from now on. */
+    private void confirmWith(boolean ack) {
+        doAnswer(inv -> inv.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack")))
+                .when(channel).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private void write(String email) {
+        writer.write("registration.exchange", "registration.success", new Registered(email, "Cup"));
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Integer.class);
+    }
+
+    private List<Message> sent(int times) {
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(channel, times(times)).send(eq("registration.exchange"), eq("registration.success"), messages.capture(),
+                any(CorrelationData.class));
+        return messages.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Events commit and roll back with the business transaction; only committed ones wake the relay")
+    void writesInsideTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            write("a@x.test");
+            write("b@x.test");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            write("rolled@x.test");
+            status.setRollbackOnly();
+        });
+
+        assertThat(pending()).isEqualTo(2);
+        verify(relay, times(2)).wakeUp();
+        assertThat(jdbcTemplate.queryForMap("SELECT * FROM outbox_event ORDER BY id LIMIT 1"))
+                .containsEntry("SOURCE", SOURCE)
+                .containsEntry("CONTENT_TYPE", "application/json")
+                .containsEntry("HEADERS", "{\"__TypeId__\":\"" + Registered.class.getName() + "\"}");
+        verifyNoInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("Batches go out in order as persistent, identified messages, are confirmed together, then deleted")
+    void relaysInOrderedConfirmedBatches() {
+        write("a@x.test");
+        write("b@x.test");
+        write("c@x.test");
+        jdbcTemplate.update(OutboxWriter.INSERT_SQL + OutboxWriter.ROW, "judge-service", "award.exchange", "award.winner", null, "application/json", "{}");
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+        assertThat(relay.relayBatch()).isEqualTo(1);
+        assertThat(relay.relayBatch()).isZero();
+
+        List<Message> messages = sent(3);
+        assertThat(messages).extracting(message -> new String(message.getBody(), StandardCharsets.UTF_8))
+                .containsExactly(
+                        "{\"userEmail\":\"a@x.test\",\"competitionName\":\"Cup\"}",
+                        "{\"userEmail\":\"b@x.test\",\"competitionName\":\"Cup\"}",
+                        "{\"userEmail\":\"c@x.test\",\"competitionName\":\"Cup\"}");
+        Message first = messages.get(0);
+        assertThat(first.getMessageProperties().getMessageId()).matches(SOURCE + "-\\d+");
+        assertThat(first.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        assertThat(first.getMessageProperties().getContentType()).isEqualTo("application/json");
+        assertThat(first.getMessageProperties().getHeaders())
+                .containsEntry("__TypeId__", Registered.class.getName())
+                .containsKey(MessagingConstants.HEADER_PUBLISHED_AT);
+        assertThat(jdbcTemplate.queryForList("SELECT source FROM outbox_event", String.class)).containsExactly("judge-service");
+    }
+
+    @Test
+    @DisplayName("A fan-out is stored with a few multi-row inserts and published in list order")
+    void writesFanOutInBulk() {
+        List<Registered> fanOut = IntStream.range(0, OutboxWriter.ROWS_PER_INSERT * 2 + 1)
+                .mapToObj(i -> new Registered("judge" + i + "@x.test", "Cup"))
+                .toList();
+        writer.writeAll("registration.exchange", "registration.success", List.of());
+        transactionTemplate.executeWithoutResult(status ->
+                writer.writeAll("registration.exchange", "registration.success", fanOut));
+
+        assertThat(pending()).isEqualTo(fanOut.size());
+        verify(relay).wakeUp();
+
+        properties.setBatchSize(fanOut.size());
+        assertThat(relay.relayBatch()).isEqualTo(fanOut.size());
+        List<Message> messages = sent(fanOut.size());
+        assertThat(new String(messages.get(fanOut.size() - 1).getBody(), StandardCharsets.UTF_8))
+                .contains("judge" + (fanOut.size() - 1) + "@");
+    }
+
+    @Test
+    @DisplayName("Only events the broker rejected or never confirmed are kept, and go out again with the same ids")
+    void keepsOnlyUnconfirmedEvents() {
+        properties.setBatchSize(3);
+        write("acked@x.test");
+        write("nacked@x.test");
+        write("silent@x.test");
+        doAnswer(inv -> {
+            CorrelationData correlation = inv.getArgument(3);
+            String body = new String(inv.<Message>getArgument(2).getBody(), StandardCharsets.UTF_8);
+            if (!body.contains("silent")) {
+                correlation.getFuture().complete(new CorrelationData.Confirm(body.contains("\"acked@"), "nack"));
+            }
+            return null;
+        }).when(channel).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT payload FROM outbox_event ORDER BY id", String.class))
+                .allMatch(payload -> !payload.contains("\"acked@"))
+                .hasSize(2);
+
+        confirmWith(true);
+        assertThat(relay.relayBatch()).isEqualTo(2);
+        List<Message> messages = sent(5);
+        assertThat(messages.get(3).getMessageProperties().getMessageId())
+                .isEqualTo(messages.get(1).getMessageProperties().getMessageId());
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("A batch the broker cannot take rolls back whole and is published again")
+    void rollsBackFailedPublish() {
+        write("a@x.test");
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(channel).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        assertThatThrownBy(relay::relayBatch).isInstanceOf(AmqpConnectException.class);
+        assertThat(pending()).isEqualTo(1);
+
+        confirmWith(true);
+        assertThat(relay.relayBatch()).isEqualTo(1);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Running, the relay drains the table on its own thread and keeps going after a broker failure")
+    void backgroundRelay() throws InterruptedException {
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .doAnswer(inv -> inv.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null)))
+                .when(channel).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        relay.start();
+        assertThat(relay.isRunning()).isTrue();
+
+        write("a@x.test");
+        write("b@x.test");
+        write("c@x.test");
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        relay.stop();
+
+        assertThat(relay.isRunning()).isFalse();
+        assertThat(pending()).isZero();
+        verify(channel, atLeast(4)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+}
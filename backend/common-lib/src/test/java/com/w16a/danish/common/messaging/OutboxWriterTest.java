@@ -0,0 +1,104 @@
+package com.w16a.danish.common.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * With the outbox switched off the writer keeps the old send-after-commit behaviour; the outbox
+ * itself is exercised against a database in {@link OutboxRelayTest}.
+ */
+class OutboxWriterTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private OutboxWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ObjectProvider<RabbitTemplate> rabbitProvider = mock(ObjectProvider.class);
+        when(rabbitProvider.getObject()).thenReturn(rabbitTemplate);
+        ObjectProvider<JdbcTemplate> jdbcProvider = mock(ObjectProvider.class);
+        when(jdbcProvider.getObject()).thenReturn(jdbcTemplate);
+        writer = new OutboxWriter(jdbcProvider, rabbitProvider, mock(ObjectProvider.class), new OutboxProperties(), "test-service");
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Disabled, events are sent persistently after commit, never after rollback, and never stored")
+    void disabledSendsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        writer.write("judge.exchange", "judge.assigned", "committed");
+        writer.write("judge.exchange", "judge.assigned", "rolled back");
+        verifyNoInteractions(rabbitTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCommit();
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq("judge.exchange"), eq("judge.assigned"), eq((Object) "committed"),
+                postProcessor.capture());
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertThat(message.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        verifyNoMoreInteractions(rabbitTemplate);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Disabled and outside a transaction, a broker failure is logged rather than thrown")
+    void disabledSwallowsBrokerFailure() {
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+
+        writer.write("award.exchange", "award.winner", "event");
+
+        verify(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    @DisplayName("Headers round-trip through JSON; no headers store NULL, unserialisable or corrupt ones fail loudly")
+    void headerColumn() {
+        assertThat(OutboxWriter.writeHeaders(Map.of())).isNull();
+        assertThat(OutboxWriter.readHeaders(null)).isEmpty();
+        assertThat(OutboxWriter.readHeaders(OutboxWriter.writeHeaders(Map.of("__TypeId__", "a.B"))))
+                .containsExactly(Map.entry("__TypeId__", "a.B"));
+
+        assertThatThrownBy(() -> OutboxWriter.writeHeaders(Map.of("x", new Object())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OutboxWriter.readHeaders("{"))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("Corrupt");
+    }
+}
@@ -1,5 +1,6 @@
 package com.w16a.danish.competition.config;
 
+import com.w16a.danish.common.messaging.FileDeletionTopology;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -9,7 +10,7 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * Configuration for RabbitMQ queues, exchanges, and bindings for competition-service.
- * (Judges assignment, removal, etc.)
+ * (Judges assignment, removal, file deletions, etc.)
  *
  * @author Eddy
  * @date 2025/04/19
@@ -60,6 +61,12 @@ public class CompetitionRabbitMQConfig {
                 .with(JUDGE_REMOVED_ROUTING_KEY);
     }
 
+    // File deletions (consumed by file-service)
+    @Bean
+    public Declarables fileDeletionDeclarables() {
+        return FileDeletionTopology.declarables();
+    }
+
     // Message Converter
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
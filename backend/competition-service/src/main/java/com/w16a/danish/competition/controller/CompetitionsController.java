@@ -1,5 +1,6 @@
 package com.w16a.danish.competition.controller;
 
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.common.web.ApiResponses;
 import com.w16a.danish.competition.domain.dto.AssignJudgesDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionCreateDTO;
@@ -290,6 +291,25 @@ public class CompetitionsController {
         return ResponseEntity.ok(result);
     }
 
+    @Operation(
+            summary = "Page competitions from a set of IDs",
+            description = "Filters a supplied set of competition IDs by keyword, sorts and pages them in the database. "
+                    + "Used by registration-service so only one page of a user's or team's history is decorated.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    description = "ID set, keyword, sort key and page",
+                    content = @Content(schema = @Schema(implementation = CompetitionPageQueryDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One page of competitions")
+            }
+    )
+    @PostMapping("/batch/page")
+    public ResponseEntity<PageResponse<CompetitionResponseVO>> pageCompetitionsByIds(
+            @RequestBody CompetitionPageQueryDTO query) {
+        return ResponseEntity.ok(competitionService.pageCompetitionsByIds(query));
+    }
+
     @Operation(
             summary = "Assign judges to a competition",
             description = "Organizer or Admin can assign users as judges to a specific competition by providing their email addresses.",
@@ -2,15 +2,17 @@ package com.w16a.danish.competition.notify;
 
 import com.w16a.danish.competition.domain.mq.JudgeAssignedMessage;
 import com.w16a.danish.competition.domain.mq.JudgeRemovedMessage;
+import com.w16a.danish.common.messaging.OutboxWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import com.w16a.danish.competition.config.CompetitionRabbitMQConfig;
 
+import java.util.List;
+
 /**
  * This class is responsible for sending messages related to judge assignment/removal events.
  * (Competition-Service → Other Services via MQ)
+ * Events are written to the outbox, so they go out only if the calling transaction commits.
  *
  * @author Eddy
  * @date 2025/04/19
@@ -19,35 +21,19 @@ import com.w16a.danish.competition.config.CompetitionRabbitMQConfig;
 @RequiredArgsConstructor
 public class CompetitionNotifier {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxWriter outboxWriter;
 
     /**
-     * Send judge assigned message.
+     * Send judge assigned messages for a whole assignment in one outbox write.
      */
-    public void sendJudgeAssigned(JudgeAssignedMessage message) {
-        rabbitTemplate.convertAndSend(
-                CompetitionRabbitMQConfig.COMPETITION_EXCHANGE_NAME,
-                CompetitionRabbitMQConfig.JUDGE_ASSIGNED_ROUTING_KEY,
-                message,
-                msg -> {
-                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return msg;
-                }
-        );
+    public void sendJudgesAssigned(List<JudgeAssignedMessage> messages) {
+        outboxWriter.writeAll(CompetitionRabbitMQConfig.COMPETITION_EXCHANGE_NAME, CompetitionRabbitMQConfig.JUDGE_ASSIGNED_ROUTING_KEY, messages);
     }
 
     /**
      * Send judge removed message.
      */
     public void sendJudgeRemoved(JudgeRemovedMessage message) {
-        rabbitTemplate.convertAndSend(
-                CompetitionRabbitMQConfig.COMPETITION_EXCHANGE_NAME,
-                CompetitionRabbitMQConfig.JUDGE_REMOVED_ROUTING_KEY,
-                message,
-                msg -> {
-                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return msg;
-                }
-        );
+        outboxWriter.write(CompetitionRabbitMQConfig.COMPETITION_EXCHANGE_NAME, CompetitionRabbitMQConfig.JUDGE_REMOVED_ROUTING_KEY, message);
     }
 }
@@ -1,5 +1,6 @@
 package com.w16a.danish.competition.service;
 
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.common.context.RequestContext;
 import com.w16a.danish.competition.domain.dto.AssignJudgesDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionCreateDTO;
@@ -125,6 +126,14 @@ public interface ICompetitionsService extends IService<Competitions> {
      */
     List<CompetitionResponseVO> getCompetitionsByIds(List<String> ids);
 
+    /**
+     * One page of competitions from a supplied id set, filtered by keyword and sorted in the database.
+     *
+     * @param query id set, keyword, sort key and page; see {@link CompetitionPageQueryDTO}
+     * @return Paginated competitions; ids that no longer exist are not counted.
+     */
+    PageResponse<CompetitionResponseVO> pageCompetitionsByIds(CompetitionPageQueryDTO query);
+
     /**
      * Assign judges to a competition.
      *
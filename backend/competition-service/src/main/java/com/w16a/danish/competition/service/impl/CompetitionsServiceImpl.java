@@ -7,9 +7,11 @@ import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.w16a.danish.common.context.RequestContext;
 import com.w16a.danish.competition.notify.CompetitionNotifier;
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.competition.domain.dto.AssignJudgesDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionCreateDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionUpdateDTO;
@@ -23,7 +25,8 @@ import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.common.exception.BusinessException;
-import com.w16a.danish.competition.feign.FileServiceClient;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.competition.feign.UserServiceClient;
 import com.w16a.danish.competition.mapper.CompetitionsMapper;
 import com.w16a.danish.competition.service.ICompetitionJudgesService;
@@ -37,12 +40,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,8 +65,11 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
 
     private static final List<String> VIDEO_CONTENT_TYPES = List.of("video/mp4", "video/avi", "video/mov");
     private static final List<String> IMAGE_CONTENT_TYPES = List.of("image/jpeg", "image/png", "image/gif");
+    private static final int MAX_BATCH_PAGE_SIZE = 100;
+    private static final String PROMO_UPLOAD_PATH = "/files/upload/promo";
 
-    private final FileServiceClient fileServiceClient;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final StreamingMultipartClient streamingMultipartClient;
     private final ICompetitionOrganizersService competitionOrganizersService;
     private final UserServiceClient userServiceClient;
     private final ICompetitionJudgesService competitionJudgesService;
@@ -258,7 +267,7 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
             if (!VIDEO_CONTENT_TYPES.contains(contentType)) {
                 throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid video type. Allowed: MP4, AVI, MOV");
             }
-            deleteFileByUrl(competition.getIntroVideoUrl());
+            fileDeletionQueue.enqueue(competition.getIntroVideoUrl());
         } else if ("IMAGE".equalsIgnoreCase(mediaType)) {
             if (!IMAGE_CONTENT_TYPES.contains(contentType)) {
                 throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid image type. Allowed: JPG, PNG, GIF");
@@ -267,7 +276,7 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
             throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid media type. Supported: VIDEO or IMAGE");
         }
 
-        String uploadedUrl = fileServiceClient.uploadCompetitionPromo(file).getBody();
+        String uploadedUrl = streamingMultipartClient.upload("file-service", PROMO_UPLOAD_PATH, file);
 
         if ("VIDEO".equalsIgnoreCase(mediaType)) {
             competition.setIntroVideoUrl(uploadedUrl);
@@ -310,7 +319,7 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
             throw new BusinessException(HttpStatus.NOT_FOUND, "Image URL not found in competition");
         }
 
-        deleteFileByUrl(imageUrl);
+        fileDeletionQueue.enqueue(imageUrl);
 
         competition.setImageUrls(currentImages);
         competition.setUpdatedAt(null);
@@ -379,7 +388,7 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
             throw new BusinessException(HttpStatus.NOT_FOUND, "No intro video to delete");
         }
 
-        deleteFileByUrl(introVideoUrl);
+        fileDeletionQueue.enqueue(introVideoUrl);
 
         UpdateWrapper<Competitions> updateWrapper = new UpdateWrapper<>();
         updateWrapper.eq("id", competitionId)
@@ -416,6 +425,67 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
                 .toList();
     }
 
+    @Override
+    public PageResponse<CompetitionResponseVO> pageCompetitionsByIds(CompetitionPageQueryDTO query) {
+        int page = Math.max(1, query.getPage());
+        int size = Math.max(1, Math.min(query.getSize(), MAX_BATCH_PAGE_SIZE));
+        List<String> ids = Optional.ofNullable(query.getIds()).orElse(List.of()).stream()
+                .filter(StrUtil::isNotBlank)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return PageResponse.<CompetitionResponseVO>builder()
+                    .data(new ArrayList<>()).total(0).page(page).size(size).pages(0).build();
+        }
+
+        String keyword = query.getKeyword();
+        LambdaQueryWrapper<Competitions> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(Competitions::getId, ids)
+                .and(StrUtil.isNotBlank(keyword), w -> w.like(Competitions::getName, keyword)
+                        .or().like(Competitions::getCategory, keyword));
+
+        SFunction<Competitions, ?> sortColumn = switch (StrUtil.nullToEmpty(query.getSortBy())) {
+            case "name" -> Competitions::getName;
+            case "category" -> Competitions::getCategory;
+            case "startDate" -> Competitions::getStartDate;
+            case "endDate" -> Competitions::getEndDate;
+            default -> null;
+        };
+
+        if (sortColumn != null) {
+            boolean isAsc = !"desc".equalsIgnoreCase(query.getOrder());
+            wrapper.orderBy(true, isAsc, sortColumn).orderByAsc(Competitions::getId);
+            IPage<Competitions> resultPage = this.page(new Page<>(page, size), wrapper);
+            return PageResponse.<CompetitionResponseVO>builder()
+                    .data(resultPage.getRecords().stream()
+                            .map(c -> BeanUtil.copyProperties(c, CompetitionResponseVO.class))
+                            .collect(Collectors.toList()))
+                    .total(resultPage.getTotal())
+                    .page(page)
+                    .size(size)
+                    .pages(resultPage.getPages())
+                    .build();
+        }
+
+        // The caller owns the order: match on ids alone, then load full rows for one page only
+        Set<String> matched = this.listObjs(wrapper.select(Competitions::getId), String::valueOf)
+                .stream()
+                .collect(Collectors.toSet());
+        List<String> ordered = ids.stream().filter(matched::contains).toList();
+        int from = Math.min((page - 1) * size, ordered.size());
+        List<String> pageIds = ordered.subList(from, Math.min(from + size, ordered.size()));
+
+        Map<String, CompetitionResponseVO> byId = getCompetitionsByIds(pageIds).stream()
+                .collect(Collectors.toMap(CompetitionResponseVO::getId, Function.identity()));
+        return PageResponse.<CompetitionResponseVO>builder()
+                .data(pageIds.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList()))
+                .total(ordered.size())
+                .page(page)
+                .size(size)
+                .pages((ordered.size() + size - 1) / size)
+                .build();
+    }
+
     @Override
     @Transactional
     public void assignJudges(String competitionId, RequestContext ctx, AssignJudgesDTO dto) {
@@ -477,18 +547,20 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to assign judges.");
         }
 
-        // Step 8: After successful assignment, send MQ notification to each newly assigned judge
-        for (UserBriefVO user : users) {
-            if (!existingJudgeUserIds.contains(user.getId())) {
-                JudgeAssignedMessage message = new JudgeAssignedMessage();
-                message.setJudgeName(user.getName());
-                message.setJudgeEmail(user.getEmail());
-                message.setCompetitionName(competition.getName());
-                message.setAssignedAt(LocalDateTime.now());
-
-                competitionNotifier.sendJudgeAssigned(message);
-            }
-        }
+        // Step 8: After successful assignment, notify every newly assigned judge in one batch
+        LocalDateTime assignedAt = LocalDateTime.now();
+        List<JudgeAssignedMessage> messages = users.stream()
+                .filter(user -> !existingJudgeUserIds.contains(user.getId()))
+                .map(user -> {
+                    JudgeAssignedMessage message = new JudgeAssignedMessage();
+                    message.setJudgeName(user.getName());
+                    message.setJudgeEmail(user.getEmail());
+                    message.setCompetitionName(competition.getName());
+                    message.setAssignedAt(assignedAt);
+                    return message;
+                })
+                .toList();
+        competitionNotifier.sendJudgesAssigned(messages);
     }
 
     @Override
@@ -670,15 +742,4 @@ public class CompetitionsServiceImpl extends ServiceImpl<CompetitionsMapper, Com
         }
         return false;
     }
-
-    private void deleteFileByUrl(String fileUrl) {
-        if (StrUtil.isBlank(fileUrl)) {
-            return;
-        }
-        URI uri = URI.create(fileUrl);
-        String[] parts = uri.getPath().substring(1).split("/", 2);
-        if (parts.length == 2) {
-            fileServiceClient.deleteFile(parts[0], parts[1]);
-        }
-    }
 }
@@ -2,6 +2,7 @@ package com.w16a.danish.competition.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.competition.domain.dto.AssignJudgesDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionCreateDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionUpdateDTO;
@@ -177,6 +178,20 @@ class CompetitionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("✅ Should page competitions by IDs successfully")
+    void testPageCompetitionsByIds() throws Exception {
+        when(competitionService.pageCompetitionsByIds(any()))
+                .thenReturn(new PageResponse<>(List.of(new CompetitionResponseVO()), 1, 1, 10, 1));
+
+        mockMvc.perform(post("/competitions/batch/page")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CompetitionPageQueryDTO()
+                                .setIds(List.of("id1", "id2")).setSortBy("startDate"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
     @Test
     @DisplayName("✅ Should assign judges successfully")
     void testAssignJudges() throws Exception {
@@ -1,12 +1,15 @@
 package com.w16a.danish.competition.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.baomidou.mybatisplus.extension.conditions.update.LambdaUpdateChainWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.w16a.danish.common.context.RequestContext;
 import com.w16a.danish.competition.notify.CompetitionNotifier;
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.competition.domain.dto.AssignJudgesDTO;
 import com.w16a.danish.competition.domain.dto.CompetitionCreateDTO;
 import com.w16a.danish.competition.domain.po.CompetitionJudges;
@@ -16,10 +19,12 @@ import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.common.exception.BusinessException;
-import com.w16a.danish.competition.feign.FileServiceClient;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.competition.feign.UserServiceClient;
 import com.w16a.danish.competition.mapper.CompetitionsMapper;
 import com.w16a.danish.competition.service.impl.CompetitionsServiceImpl;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -44,7 +49,8 @@ class CompetitionServiceImplTest {
     private CompetitionsServiceImpl competitionsService;
 
 
-    @Mock private FileServiceClient fileServiceClient;
+    @Mock private FileDeletionQueue fileDeletionQueue;
+    @Mock private StreamingMultipartClient streamingMultipartClient;
     @Mock private UserServiceClient userServiceClient;
     @Mock private ICompetitionOrganizersService competitionOrganizersService;
     @Mock private ICompetitionJudgesService competitionJudgesService;
@@ -159,8 +165,8 @@ class CompetitionServiceImplTest {
         competition.setId("comp-id");
 
         when(competitionsMapper.selectById(anyString())).thenReturn(competition);
-        when(fileServiceClient.uploadCompetitionPromo(any(MultipartFile.class)))
-                .thenReturn(ResponseEntity.ok("http://mocked.com/uploaded.mp4"));
+        when(streamingMultipartClient.upload(anyString(), anyString(), any(MultipartFile.class)))
+                .thenReturn("http://mocked.com/uploaded.mp4");
 
         MockMultipartFile file = new MockMultipartFile("file", "video.mp4", "video/mp4", "test".getBytes());
 
@@ -182,6 +188,7 @@ class CompetitionServiceImplTest {
         CompetitionResponseVO response = competitionsService.deleteIntroVideo("comp-id", ctx("userId", "ADMIN"));
 
         assertThat(response).isNotNull();
+        verify(fileDeletionQueue).enqueue("http://mocked.com/oldvideo.mp4");
     }
 
     @Test
@@ -219,7 +226,8 @@ class CompetitionServiceImplTest {
 
         competitionsService.assignJudges("comp-id", ctx("userId", "ADMIN"), dto);
 
-        verify(competitionNotifier, atLeastOnce()).sendJudgeAssigned(any());
+        verify(competitionNotifier).sendJudgesAssigned(argThat(messages -> messages.size() == 1
+                && messages.get(0).getJudgeEmail().equals("test@example.com")));
     }
 
     @Test
@@ -346,6 +354,7 @@ class CompetitionServiceImplTest {
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo("comp-id");
+        verify(fileDeletionQueue).enqueue("http://mock.com/image.jpg");
     }
 
 
@@ -511,5 +520,56 @@ class CompetitionServiceImplTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("✅ pageCompetitionsByIds returns an empty page without querying when no ids")
+    void testPageCompetitionsByIdsEmpty() {
+        PageResponse<CompetitionResponseVO> result = competitionsService.pageCompetitionsByIds(
+                new CompetitionPageQueryDTO().setIds(List.of()));
+
+        assertThat(result.getData()).isEmpty();
+        assertThat(result.getTotal()).isZero();
+        verify(competitionsService, never()).page(any(Page.class), any(LambdaQueryWrapper.class));
+    }
+
+    @Test
+    @DisplayName("✅ pageCompetitionsByIds pages a column sort in the database")
+    void testPageCompetitionsByIdsColumnSort() {
+        Competitions row = new Competitions();
+        row.setId("c-2");
+        row.setName("Beta");
+        Page<Competitions> page = new Page<>(2, 1, 3);
+        page.setRecords(List.of(row));
+        doReturn(page).when(competitionsService).page(any(Page.class), any(LambdaQueryWrapper.class));
+
+        PageResponse<CompetitionResponseVO> result = competitionsService.pageCompetitionsByIds(
+                new CompetitionPageQueryDTO().setIds(List.of("c-1", "c-2", "c-3"))
+                        .setSortBy("name").setOrder("desc").setPage(2).setSize(1));
+
+        assertThat(result.getData()).extracting(CompetitionResponseVO::getId).containsExactly("c-2");
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getPage()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("✅ pageCompetitionsByIds keeps the caller's id order and loads only one page")
+    void testPageCompetitionsByIdsCallerOrder() {
+        // select(...) resolves lambda columns eagerly, which needs the entity's table metadata
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Competitions.class);
+        doReturn(List.of("c-1", "c-2", "c-3")).when(competitionsService)
+                .listObjs(any(LambdaQueryWrapper.class), any());
+        CompetitionResponseVO second = new CompetitionResponseVO();
+        second.setId("c-1");
+        CompetitionResponseVO first = new CompetitionResponseVO();
+        first.setId("c-3");
+        doReturn(List.of(second, first)).when(competitionsService).getCompetitionsByIds(List.of("c-3", "c-1"));
+
+        PageResponse<CompetitionResponseVO> result = competitionsService.pageCompetitionsByIds(
+                new CompetitionPageQueryDTO().setIds(List.of("c-3", "c-1", "c-9", "c-2")).setPage(1).setSize(2));
+
+        assertThat(result.getData()).extracting(CompetitionResponseVO::getId).containsExactly("c-3", "c-1");
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getPages()).isEqualTo(2);
+    }
+
 
 }
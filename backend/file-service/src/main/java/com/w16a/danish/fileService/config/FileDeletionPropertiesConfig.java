@@ -0,0 +1,27 @@
+package com.w16a.danish.fileService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ *
+ * Batched deletion of files queued by other services
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file-deletion")
+public class FileDeletionPropertiesConfig {
+    /** Most deletions taken off the queue and removed together. */
+    private int batchSize = 100;
+    /** How long a partial batch waits for more deletions before it is processed anyway. */
+    private Duration batchTimeout = Duration.ofSeconds(2);
+    /** Removal attempts per object before it is parked on the dead-letter queue. */
+    private int maxAttempts = 3;
+    /** Wait before the second attempt; doubles for each one after. */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+}
@@ -0,0 +1,64 @@
+package com.w16a.danish.fileService.config;
+
+import com.w16a.danish.common.messaging.FileDeletionTopology;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ configuration for file-service.
+ * (Deletions queued by other services → batched removal)
+ *
+ * @author Eddy ZHANG
+ */
+@Configuration
+@RequiredArgsConstructor
+public class FileDeletionRabbitMQConfig {
+
+    private final FileDeletionPropertiesConfig fileDeletionPropertiesConfig;
+
+    // Exchange, queue and dead-letter queue
+    @Bean
+    public Declarables fileDeletionDeclarables() {
+        return FileDeletionTopology.declarables();
+    }
+
+    // Message Converter
+    @Bean
+    public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    // RabbitTemplate, for parking failed deletions
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(jackson2JsonMessageConverter());
+        return template;
+    }
+
+    /**
+     * Hands the listener up to {@code file-deletion.batch-size} messages at a time, so one bulk
+     * delete covers many files. A batch whose listener throws is rejected without requeueing and
+     * dead-letters as a whole, rather than being redelivered forever.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory fileDeletionContainerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jackson2JsonMessageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(fileDeletionPropertiesConfig.getBatchSize());
+        factory.setPrefetchCount(fileDeletionPropertiesConfig.getBatchSize());
+        factory.setReceiveTimeout(fileDeletionPropertiesConfig.getBatchTimeout().toMillis());
+        factory.setDefaultRequeueRejected(false);
+        factory.setConcurrentConsumers(1);
+        return factory;
+    }
+}
@@ -0,0 +1,35 @@
+package com.w16a.danish.fileService.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ *
+ * Image derivative Configuration Class
+ *
+ * @author Eddy ZHANG
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ImageDerivativeConfig {
+
+    private final ImageDerivativePropertiesConfig imageDerivativePropertiesConfig;
+
+    /**
+     *
+     * Threads that resize uploaded images. Both the pool and its queue are bounded: when they are
+     * full the task is rejected rather than piling decoded images up in memory.
+     * @return {@link ThreadPoolTaskExecutor }
+     */
+    @Bean
+    public ThreadPoolTaskExecutor imageDerivativeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageDerivativePropertiesConfig.getThreads());
+        executor.setMaxPoolSize(imageDerivativePropertiesConfig.getThreads());
+        executor.setQueueCapacity(imageDerivativePropertiesConfig.getQueueCapacity());
+        executor.setThreadNamePrefix("image-derive-");
+        return executor;
+    }
+}
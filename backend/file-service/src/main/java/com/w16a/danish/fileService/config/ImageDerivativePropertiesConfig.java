@@ -0,0 +1,31 @@
+package com.w16a.danish.fileService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ *
+ * Resized image variants derived after upload
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "image-derivatives")
+public class ImageDerivativePropertiesConfig {
+    private boolean enabled = true;
+    /** Resizing is CPU-bound; a couple of threads keep it from starving request handling. */
+    private int threads = 2;
+    /** Uploads waiting for a thread. Beyond this, variants wait for the next sweep. */
+    private int queueCapacity = 100;
+    /** How long an original waits for its variants before a sweep hands it to the pool again. */
+    private Duration retryDelay = Duration.ofMinutes(1);
+    /** Queue images stored without variants once, when the first instance starts. */
+    private boolean backfill = true;
+    /** Originals with more pixels are not decoded at all; guards against decompression bombs. */
+    private long maxPixels = 40_000_000L;
+    private float jpegQuality = 0.85f;
+}
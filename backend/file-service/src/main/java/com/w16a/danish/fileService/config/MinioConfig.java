@@ -1,9 +1,12 @@
 package com.w16a.danish.fileService.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  *
@@ -19,11 +22,60 @@ public class MinioConfig {
     private final MinioPropertiesConfig minioPropertiesConfig;
 
     @Bean
+    @Primary
     public MinioClient minioClient() {
         return MinioClient.builder()
                 .endpoint(minioPropertiesConfig.getInternalEndpoint())
                 .credentials(minioPropertiesConfig.getAccessKey(), minioPropertiesConfig.getSecretKey())
                 .build();
     }
+
+    /**
+     *
+     * Client used only to presign URLs for browsers. The signature covers the host, so it has to
+     * be built on the public endpoint; with the region fixed, presigning is a local computation
+     * and never calls that endpoint from inside the network.
+     * @return {@link MinioClient }
+     */
+    @Bean
+    public MinioClient presignMinioClient() {
+        return MinioClient.builder()
+                .endpoint(minioPropertiesConfig.getPublicEndpoint())
+                .region(minioPropertiesConfig.getRegion())
+                .credentials(minioPropertiesConfig.getAccessKey(), minioPropertiesConfig.getSecretKey())
+                .build();
+    }
+
+    /**
+     *
+     * Async client for multipart uploads, whose part-level calls MinioClient does not expose.
+     * Same endpoint as {@link #minioClient()}; the region is fixed so no call waits on a
+     * bucket-location lookup.
+     * @return {@link MinioAsyncClient }
+     */
+    @Bean
+    public MinioAsyncClient minioAsyncClient() {
+        return MinioAsyncClient.builder()
+                .endpoint(minioPropertiesConfig.getInternalEndpoint())
+                .region(minioPropertiesConfig.getRegion())
+                .credentials(minioPropertiesConfig.getAccessKey(), minioPropertiesConfig.getSecretKey())
+                .build();
+    }
+
+    /**
+     *
+     * Threads that send multipart parts, shared by all uploads so a burst of large uploads
+     * cannot start an unbounded number of them. Its queue is bounded by the parts' buffers:
+     * uploads stop reading once {@code minio.multipart-buffer-memory} is held by queued or running parts.
+     * @return {@link ThreadPoolTaskExecutor }
+     */
+    @Bean
+    public ThreadPoolTaskExecutor multipartUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(minioPropertiesConfig.getMultipartThreads());
+        executor.setMaxPoolSize(minioPropertiesConfig.getMultipartThreads());
+        executor.setThreadNamePrefix("minio-part-");
+        return executor;
+    }
 }
 
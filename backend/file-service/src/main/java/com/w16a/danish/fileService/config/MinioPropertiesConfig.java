@@ -3,6 +3,9 @@ package com.w16a.danish.fileService.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 /**
  *
@@ -19,4 +22,46 @@ public class MinioPropertiesConfig {
     private String publicEndpoint;
     private String accessKey;
     private String secretKey;
+    /** Region the presigning client signs for; set so presigning never asks the server. */
+    private String region = "us-east-1";
+    /** How long a presigned upload URL stays valid. */
+    private int uploadUrlExpirySeconds = 900;
+    /** How long after its URL expires a presigned upload may still be confirmed before it is swept away. */
+    private Duration presignedUploadGrace = Duration.ofHours(1);
+    /** Objects at least this large are sent as a parallel multipart upload. */
+    private DataSize multipartThreshold = DataSize.ofMegabytes(64);
+    /** Most parts one upload keeps in flight; each holds a part-sized buffer. */
+    private int multipartMaxParallelism = 4;
+    /**
+     * Most memory all multipart uploads together may hold in part buffers; readers wait once it is
+     * taken. Unset means a quarter of the maximum heap. Never less than one largest part.
+     */
+    private DataSize multipartBufferMemory;
+    /** Threads shared by all multipart uploads. */
+    private int multipartThreads = 8;
+    /** Attempts per part before the whole upload is aborted. */
+    private int multipartPartAttempts = 3;
+    /** Chunk size of a resumable upload; every chunk but the last is exactly this long. */
+    private DataSize resumableChunkSize = DataSize.ofMegabytes(8);
+    /** Largest object a resumable upload may declare. */
+    private DataSize resumableMaxSize = DataSize.ofMegabytes(200);
+    /** How long an idle resumable upload is kept; every chunk restarts the clock. */
+    private Duration resumableTtl = Duration.ofHours(24);
+    /** Store direct uploads under their SHA-256, writing identical content only once. */
+    private boolean dedupEnabled = false;
+    /** How long a per-object dedup lock lives; must outlast the slowest single upload. */
+    private Duration dedupLockTtl = Duration.ofMinutes(5);
+    /** How long a queued deletion is remembered as applied; must outlast the longest it may sit parked before a replay. */
+    private Duration dedupReleaseTtl = Duration.ofDays(30);
+
+    /**
+     * Public URL of an object, as handed back to clients.
+     */
+    public String publicUrl(String bucketName, String objectName) {
+        String endpoint = getPublicEndpoint();
+        if (endpoint.endsWith("/")) {
+            endpoint = endpoint.substring(0, endpoint.length() - 1);
+        }
+        return endpoint + "/" + bucketName + "/" + objectName;
+    }
 }
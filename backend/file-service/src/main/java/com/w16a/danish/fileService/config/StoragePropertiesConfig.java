@@ -0,0 +1,21 @@
+package com.w16a.danish.fileService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * Storage backend selection
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "storage")
+public class StoragePropertiesConfig {
+    /** {@code minio} (default) or {@code local}. */
+    private String backend = "minio";
+    /** Root directory of the local backend; one subdirectory per bucket. */
+    private String localRoot = "/data/files";
+}
@@ -1,6 +1,12 @@
 package com.w16a.danish.fileService.controller;
 
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.ResumableUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
+import com.w16a.danish.fileService.enums.BucketType;
 import com.w16a.danish.fileService.service.FileStorageService;
+import com.w16a.danish.fileService.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +14,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+
 /**
  *
  * File Upload Controller
@@ -22,6 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 public class FileUploadController {
 
     private final FileStorageService fileStorageService;
+    private final ResumableUploadService resumableUploadService;
 
     @PostMapping(value = "/upload/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<String> uploadAvatar(@RequestPart("file") MultipartFile file) {
@@ -41,6 +50,50 @@ public class FileUploadController {
         return ResponseEntity.ok(objectName);
     }
 
+    @PostMapping("/upload/submission/presign")
+    public ResponseEntity<PresignedUploadVO> presignSubmissionUpload(@RequestParam("prefix") String prefix,
+                                                                     @RequestParam(value = "fileName", required = false) String fileName,
+                                                                     @RequestParam(value = "contentType", required = false) String contentType) {
+        return ResponseEntity.ok(fileStorageService.presignSubmissionUpload(prefix, fileName, contentType));
+    }
+
+    @PostMapping("/upload/submission/confirm")
+    public ResponseEntity<StoredObjectVO> confirmSubmissionUpload(@RequestParam("objectName") String objectName) {
+        return ResponseEntity.ok(fileStorageService.confirmSubmissionUpload(objectName));
+    }
+
+    @PostMapping("/upload/resumable")
+    public ResponseEntity<ResumableUploadVO> initiateResumableUpload(@RequestParam("bucket") BucketType bucket,
+                                                                     @RequestParam(value = "fileName", required = false) String fileName,
+                                                                     @RequestParam(value = "contentType", required = false) String contentType,
+                                                                     @RequestParam("size") long size) {
+        return ResponseEntity.ok(resumableUploadService.initiate(bucket, fileName, contentType, size));
+    }
+
+    @PutMapping(value = "/upload/resumable/{uploadId}/chunks/{chunk}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResumableUploadVO> uploadChunk(@PathVariable("uploadId") String uploadId,
+                                                         @PathVariable("chunk") int chunk,
+                                                         @RequestHeader(value = "Content-MD5", required = false) String contentMd5,
+                                                         HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(resumableUploadService.uploadChunk(uploadId, chunk, request.getInputStream(), contentMd5));
+    }
+
+    @GetMapping("/upload/resumable/{uploadId}")
+    public ResponseEntity<ResumableUploadVO> resumableUploadStatus(@PathVariable("uploadId") String uploadId) {
+        return ResponseEntity.ok(resumableUploadService.status(uploadId));
+    }
+
+    @PostMapping("/upload/resumable/{uploadId}/complete")
+    public ResponseEntity<StoredObjectVO> completeResumableUpload(@PathVariable("uploadId") String uploadId) {
+        return ResponseEntity.ok(resumableUploadService.complete(uploadId));
+    }
+
+    @DeleteMapping("/upload/resumable/{uploadId}")
+    public ResponseEntity<String> abortResumableUpload(@PathVariable("uploadId") String uploadId) {
+        resumableUploadService.abort(uploadId);
+        return ResponseEntity.ok("Upload aborted.");
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<String> deleteFile(@RequestParam("bucket") String bucket,
                                              @RequestParam("objectName") String objectName) {
@@ -0,0 +1,121 @@
+package com.w16a.danish.fileService.controller;
+
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.fileService.storage.LocalStorageBackend;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ *
+ * Serves objects of the local storage backend at {@code /<bucket>/<object>} — the same path
+ * MinIO serves them at — so public URLs keep their shape when {@code minio.public-endpoint}
+ * points here.
+ *
+ * <p>Where Tomcat's connector supports it, it is handed the file and range and sends them with
+ * {@code sendfile}, so the bytes never pass through the JVM; elsewhere the file is streamed with
+ * {@link FileChannel#transferTo}. A single {@code Range} is answered with 206; several ranges
+ * get the whole file, which HTTP allows.
+ *
+ * @author Eddy ZHANG
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "storage", name = "backend", havingValue = "local")
+public class LocalObjectController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalStorageBackend localStorageBackend;
+
+    @GetMapping("/{bucket:user-avatar|competition-assets|submissions}/**")
+    public void download(@PathVariable("bucket") String bucket,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String objectName = path.substring(bucket.length() + 2);
+        Path file = localStorageBackend.file(bucket, objectName);
+        if (file == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "File not found");
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        String contentType = LocalStorageBackend.contentType(objectName);
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, Files.getLastModifiedTime(file).toMillis());
+        response.setContentLengthLong(end - start + 1);
+        if (end < start) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /** A malformed Range header is ignored, as HTTP requires, and the whole file is sent. */
+    private static List<HttpRange> parseRanges(String header) {
+        if (header == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.w16a.danish.fileService.enums;
 
+import com.w16a.danish.common.exception.BusinessException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.http.HttpStatus;
 
 /**
  *
@@ -19,4 +21,13 @@ public enum BucketType {
 
     private final String bucketName;
     private final boolean publicRead;
+
+    public static BucketType fromBucketName(String bucketName) {
+        for (BucketType type : BucketType.values()) {
+            if (type.bucketName.equals(bucketName)) {
+                return type;
+            }
+        }
+        throw new BusinessException(HttpStatus.BAD_REQUEST, "Unknown bucket: " + bucketName);
+    }
 }
@@ -0,0 +1,11 @@
+package com.w16a.danish.fileService.event;
+
+/**
+ * Published after an image is stored in a public bucket; triggers its resized variants.
+ *
+ * @param bucketName bucket holding the original
+ * @param objectName object name of the original
+ * @author Eddy ZHANG
+ */
+public record ImageUploadedEvent(String bucketName, String objectName) {
+}
@@ -1,5 +1,7 @@
 package com.w16a.danish.fileService.service;
 
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -36,6 +38,26 @@ public interface FileStorageService {
      */
     String uploadSubmission(MultipartFile file);
 
+    /**
+     * Issues a short-lived presigned PUT URL so a client can upload a submission
+     * straight to the private submission bucket.
+     *
+     * @param prefix           object name prefix chosen by the caller (e.g. competitionId/userId)
+     * @param originalFilename the client's file name, used only for its extension
+     * @param contentType      the content type the client will send, may be null
+     * @return the upload ticket
+     */
+    PresignedUploadVO presignSubmissionUpload(String prefix, String originalFilename, String contentType);
+
+    /**
+     * Confirms a presigned upload really happened and keeps the object from being swept as
+     * abandoned. Checking it is acceptable is left to the caller, which deletes it if not.
+     *
+     * @param objectName the object name in the submission bucket
+     * @return the object's metadata and public URL, or null if nothing was uploaded under that name
+     */
+    StoredObjectVO confirmSubmissionUpload(String objectName);
+
     /**
      * Deletes a file from the specified bucket.
      *
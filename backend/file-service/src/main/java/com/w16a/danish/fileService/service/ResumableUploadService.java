@@ -0,0 +1,61 @@
+package com.w16a.danish.fileService.service;
+
+import com.w16a.danish.common.domain.vo.ResumableUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
+import com.w16a.danish.fileService.enums.BucketType;
+
+import java.io.InputStream;
+
+/**
+ * Chunked uploads that survive a dropped connection: a client starts an upload, sends chunks in
+ * any order, asks which ones arrived, and completes it once all are stored.
+ *
+ * @author Eddy ZHANG
+ */
+public interface ResumableUploadService {
+
+    /**
+     * Starts an upload into one of the service's buckets.
+     *
+     * @param bucketType  target bucket
+     * @param fileName    the client's file name, used for its extension and, for avatars, its type
+     * @param contentType content type to store the object with, may be null
+     * @param size        exact file size in bytes
+     * @return the new session, with its chunk size and chunk count
+     */
+    ResumableUploadVO initiate(BucketType bucketType, String fileName, String contentType, long size);
+
+    /**
+     * Stores one chunk. Sending a chunk again replaces it, so a retry after a timeout is safe.
+     *
+     * @param uploadId   session ID
+     * @param chunk      chunk number, from 1
+     * @param content    the chunk's bytes; must be exactly the chunk's length
+     * @param contentMd5 base64 MD5 the client computed, checked when present
+     * @return the session after this chunk
+     */
+    ResumableUploadVO uploadChunk(String uploadId, int chunk, InputStream content, String contentMd5);
+
+    /**
+     * Reports which chunks have been stored.
+     *
+     * @param uploadId session ID
+     * @return the session's progress
+     */
+    ResumableUploadVO status(String uploadId);
+
+    /**
+     * Assembles the stored chunks into the final object inside object storage and ends the session.
+     *
+     * @param uploadId session ID
+     * @return the stored object
+     */
+    StoredObjectVO complete(String uploadId);
+
+    /**
+     * Discards the session and every chunk stored for it.
+     *
+     * @param uploadId session ID
+     */
+    void abort(String uploadId);
+}
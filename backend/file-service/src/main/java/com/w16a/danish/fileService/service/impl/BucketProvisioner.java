@@ -0,0 +1,135 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.enums.BucketType;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketPolicyArgs;
+import io.minio.errors.ErrorResponseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the buckets from {@link BucketType}, so a fresh MinIO needs no setup. Shared by every
+ * upload path: direct, presigned and resumable.
+ *
+ * <p>All buckets are provisioned once at startup; after that a bucket this instance has seen is
+ * remembered and {@link #ensureExists} costs no round trip. If MinIO later reports a remembered
+ * bucket as missing (deleted by hand, a wiped volume), {@link #recover} forgets it and provisions
+ * it again.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BucketProvisioner {
+
+    private static final Map<BucketType, String> POLICIES = new EnumMap<>(BucketType.class);
+
+    static {
+        for (BucketType bucketType : BucketType.values()) {
+            if (bucketType.isPublicRead()) {
+                POLICIES.put(bucketType, publicReadPolicy(bucketType.getBucketName()));
+            }
+        }
+    }
+
+    private final MinioClient minioClient;
+    private final Set<BucketType> knownBuckets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Provisions every bucket. A failure is logged, not thrown: the upload path provisions lazily
+     * as well, so MinIO being late at startup only costs the first uploads a round trip.
+     */
+    public void provisionAll() {
+        for (BucketType bucketType : BucketType.values()) {
+            try {
+                ensureExists(bucketType);
+            } catch (Exception e) {
+                log.warn("[File] Provisioning bucket {} failed, will retry on first use", bucketType.getBucketName(), e);
+            }
+        }
+    }
+
+    /**
+     * Ensures the bucket exists; creates it if not found.
+     * A new public bucket gets a public-read bucket policy.
+     */
+    public void ensureExists(BucketType bucketType) throws Exception {
+        if (knownBuckets.contains(bucketType)) {
+            return;
+        }
+        String bucketName = bucketType.getBucketName();
+        if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
+            try {
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+                String policy = POLICIES.get(bucketType);
+                if (policy != null) {
+                    minioClient.setBucketPolicy(SetBucketPolicyArgs.builder()
+                            .bucket(bucketName)
+                            .config(policy)
+                            .build());
+                }
+                log.info("[File] Created bucket {}", bucketName);
+            } catch (ErrorResponseException e) {
+                // Another instance or thread won the race, and configures the bucket itself.
+                if (!"BucketAlreadyOwnedByYou".equals(e.errorResponse().code())) {
+                    throw e;
+                }
+            }
+        }
+        knownBuckets.add(bucketType);
+    }
+
+    /**
+     * Re-provisions a bucket if {@code failure} says it no longer exists.
+     *
+     * @return true if the bucket was missing and has been provisioned again, so the failed
+     *         operation can be repeated
+     */
+    public boolean recover(String bucketName, Throwable failure) throws Exception {
+        if (!isNoSuchBucket(failure)) {
+            return false;
+        }
+        BucketType bucketType = BucketType.fromBucketName(bucketName);
+        log.warn("[File] Bucket {} has disappeared, provisioning it again", bucketName);
+        knownBuckets.remove(bucketType);
+        ensureExists(bucketType);
+        return true;
+    }
+
+    static boolean isNoSuchBucket(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof ErrorResponseException e && "NoSuchBucket".equals(e.errorResponse().code())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String publicReadPolicy(String bucketName) {
+        return "{\n" +
+                "  \"Version\": \"2012-10-17\",\n" +
+                "  \"Statement\": [\n" +
+                "    {\n" +
+                "      \"Sid\": \"PublicRead\",\n" +
+                "      \"Effect\": \"Allow\",\n" +
+                "      \"Principal\": \"*\",\n" +
+                "      \"Action\": [\n" +
+                "        \"s3:GetObject\"\n" +
+                "      ],\n" +
+                "      \"Resource\": [\n" +
+                "        \"arn:aws:s3:::" + bucketName + "/*\"\n" +
+                "      ]\n" +
+                "    }\n" +
+                "  ]\n" +
+                "}";
+    }
+}
@@ -0,0 +1,250 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.common.messaging.FileDeletionMessage;
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores uploads under the SHA-256 of their content, so the same file uploaded twice is written
+ * once. Every upload takes a reference and every delete gives one back; the object goes when
+ * the last reference does.
+ *
+ * <p>Reference counts live in Redis ({@code file:cas:ref:<bucket>/<object>}). Taking the first
+ * reference and writing the object, and dropping the last one and removing it, each happen under a
+ * short per-object Redis lock, so an upload can never skip its write because an object is present
+ * that a concurrent delete is about to remove.
+ *
+ * <p>A count Redis has lost cannot be rebuilt here, since the rows pointing at an object live in
+ * other services. When an upload finds its object already stored but no count for it, the object
+ * is pinned instead ({@code file:cas:pin:<bucket>/<object>}): references are still counted, but
+ * neither {@link #release} nor the sweep removes it, as an unknown number of older rows may use it.
+ *
+ * <p>Only names under {@link #PREFIX} are content-addressed; everything else — objects stored
+ * before this existed, presigned and resumable uploads — keeps its plain delete.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentAddressedStore {
+
+    static final String PREFIX = FileDeletionMessage.CONTENT_ADDRESSED_PREFIX;
+    private static final String REF_KEY = "file:cas:ref:";
+    private static final String PIN_KEY = "file:cas:pin:";
+    private static final String RELEASED_KEY = "file:cas:released:";
+    private static final String LOCK_KEY = "file:cas:lock:";
+    private static final Duration LOCK_POLL = Duration.ofMillis(50);
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    /** Decrements the count unless this release was applied before; nil when it was. */
+    private static final RedisScript<Long> RELEASE_ONCE = new DefaultRedisScript<>(
+            "if redis.call('set', KEYS[2], '1', 'NX', 'EX', ARGV[1]) then return redis.call('decr', KEYS[1]) end return false",
+            Long.class);
+
+    private final StorageBackend storageBackend;
+    private final StringRedisTemplate redisTemplate;
+    private final MinioPropertiesConfig minioPropertiesConfig;
+
+    /** Writes an object's content to storage. */
+    @FunctionalInterface
+    public interface ObjectWriter {
+        void write() throws Exception;
+    }
+
+    /**
+     * Whether an object name was produced by this store.
+     */
+    public static boolean isContentAddressed(String objectName) {
+        return objectName != null && objectName.startsWith(PREFIX);
+    }
+
+    /**
+     * Object name for some content: its SHA-256 in hex, plus the extension so the URL still looks
+     * like the file it is.
+     *
+     * @param content   the content, read to the end
+     * @param extension safe extension including the dot, or empty
+     */
+    public String objectName(InputStream content, String extension) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DigestInputStream in = new DigestInputStream(content, sha256)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return PREFIX + HexFormat.of().formatHex(sha256.digest()) + extension;
+    }
+
+    /**
+     * Takes a reference to an object, running {@code writer} only if the object is not stored yet.
+     * A failed write gives the reference back.
+     *
+     * @return true if the object was written, false if an existing copy was reused
+     */
+    public boolean store(String bucketName, String objectName, ObjectWriter writer) throws Exception {
+        String key = bucketName + "/" + objectName;
+        String token = lock(key);
+        try {
+            boolean counted = redisTemplate.opsForValue().get(REF_KEY + key) != null;
+            Long refs = redisTemplate.opsForValue().increment(REF_KEY + key);
+            if (!counted && storageBackend.stat(bucketName, objectName) != null) {
+                log.warn("[Dedup] {} is stored but has no reference count, pinning it", key);
+                redisTemplate.opsForValue().set(PIN_KEY + key, "1");
+                return false;
+            }
+            if (refs != null && refs > 1 && storageBackend.stat(bucketName, objectName) != null) {
+                return false;
+            }
+            try {
+                writer.write();
+            } catch (Exception e) {
+                redisTemplate.opsForValue().decrement(REF_KEY + key);
+                throw e;
+            }
+            return true;
+        } finally {
+            unlock(key, token);
+        }
+    }
+
+    /**
+     * Gives back one reference, removing the object when it was the last.
+     *
+     * @return true if the object was removed
+     */
+    public boolean release(String bucketName, String objectName) throws Exception {
+        return release(bucketName, objectName, null);
+    }
+
+    /**
+     * Gives back the reference of one queued deletion, at most once per {@code releaseId}, so a
+     * redelivered or replayed message cannot take a reference some other row still holds. If the
+     * count reached zero but removing the object failed, a repeat leaves it to the sweep.
+     *
+     * @param releaseId id of the deletion message, or null to decrement unconditionally
+     * @return true if the object was removed
+     */
+    public boolean release(String bucketName, String objectName, String releaseId) throws Exception {
+        String key = bucketName + "/" + objectName;
+        String token = lock(key);
+        try {
+            Long refs = releaseId == null
+                    ? redisTemplate.opsForValue().decrement(REF_KEY + key)
+                    : redisTemplate.execute(RELEASE_ONCE, List.of(REF_KEY + key, RELEASED_KEY + releaseId),
+                            Long.toString(minioPropertiesConfig.getDedupReleaseTtl().toSeconds()));
+            if (refs == null) {
+                log.info("[Dedup] Release {} of {} was already applied", releaseId, key);
+                return false;
+            }
+            if (refs > 0) {
+                return false;
+            }
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(PIN_KEY + key))) {
+                log.info("[Dedup] Last counted reference to pinned {} released, keeping the object", key);
+                redisTemplate.delete(REF_KEY + key);
+                return false;
+            }
+            if (refs < 0) {
+                // No count existed, so others may still use the object; keeping it is the safe side.
+                log.warn("[Dedup] No reference count for {}, keeping the object", key);
+                redisTemplate.delete(REF_KEY + key);
+                return false;
+            }
+            storageBackend.remove(bucketName, objectName);
+            redisTemplate.delete(REF_KEY + key);
+            return true;
+        } finally {
+            unlock(key, token);
+        }
+    }
+
+    /**
+     * Removes content-addressed objects whose count has dropped to zero but which are still
+     * stored — left behind when removing the object failed after the last release, or when a
+     * failed first write gave its reference back. An object with no count at all, or a pinned one,
+     * is kept: that means the count is unknown (say, Redis lost it), not that nothing uses the object.
+     *
+     * @return number of objects removed
+     */
+    @Scheduled(cron = "${minio.dedup-gc-cron:0 30 3 * * *}")
+    public int sweep() {
+        int removed = 0;
+        for (BucketType bucketType : BucketType.values()) {
+            String bucketName = bucketType.getBucketName();
+            try {
+                for (String objectName : storageBackend.list(bucketName, PREFIX)) {
+                    if (sweep(bucketName, objectName)) {
+                        removed++;
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("[Dedup] Sweep of bucket {} stopped early", bucketName, e);
+            }
+        }
+        if (removed > 0) {
+            log.info("[Dedup] Removed {} unreferenced objects", removed);
+        }
+        return removed;
+    }
+
+    private boolean sweep(String bucketName, String objectName) throws Exception {
+        String key = bucketName + "/" + objectName;
+        String token = lock(key);
+        try {
+            String refs = redisTemplate.opsForValue().get(REF_KEY + key);
+            if (refs == null || Long.parseLong(refs) > 0 || Boolean.TRUE.equals(redisTemplate.hasKey(PIN_KEY + key))) {
+                return false;
+            }
+            storageBackend.remove(bucketName, objectName);
+            redisTemplate.delete(REF_KEY + key);
+            return true;
+        } finally {
+            unlock(key, token);
+        }
+    }
+
+    /**
+     * Waits for the per-object lock. It expires on its own after {@code minio.dedup-lock-ttl}, so a
+     * crashed holder cannot wedge an object; the TTL must outlast the largest write.
+     */
+    private String lock(String key) throws InterruptedException {
+        String token = UUID.randomUUID().toString();
+        Duration ttl = minioPropertiesConfig.getDedupLockTtl();
+        long deadline = System.nanoTime() + ttl.toNanos();
+        while (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY + key, token, ttl))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for " + key);
+            }
+            Thread.sleep(LOCK_POLL.toMillis());
+        }
+        return token;
+    }
+
+    private void unlock(String key, String token) {
+        redisTemplate.execute(UNLOCK, List.of(LOCK_KEY + key), token);
+    }
+}
@@ -0,0 +1,128 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.common.domain.enums.ImageVariant;
+import com.w16a.danish.common.messaging.FileDeletionMessage;
+import com.w16a.danish.common.messaging.MessagingConstants;
+import com.w16a.danish.fileService.config.FileDeletionPropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes the files other services queue through {@code FileDeletionQueue}, in batches.
+ *
+ * <p>A batch is grouped by bucket and each group is removed with one bulk call, together with the
+ * image variants of public objects. Names the backend reports as failed are retried with a
+ * doubling backoff; whatever still fails after {@code file-deletion.max-attempts} is parked on
+ * {@link MessagingConstants#QUEUE_FILE_DELETE_DEAD}, one message per object, to be inspected or
+ * moved back by hand.
+ *
+ * <p>Content-addressed objects may be shared, so each of those only gives up one reference and
+ * is removed with the last, exactly as a direct delete would. The reference is given up once per
+ * message id, so a redelivered batch or a replay from the dead queue cannot release it twice.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileDeletionWorker {
+
+    private final StorageBackend storageBackend;
+    private final ContentAddressedStore contentAddressedStore;
+    private final RabbitTemplate rabbitTemplate;
+    private final FileDeletionPropertiesConfig properties;
+
+    @RabbitListener(queues = MessagingConstants.QUEUE_FILE_DELETE, containerFactory = "fileDeletionContainerFactory")
+    public void onDeletions(List<FileDeletionMessage> batch) {
+        Map<String, Set<String>> namesByBucket = new LinkedHashMap<>();
+        for (FileDeletionMessage message : batch) {
+            String bucketName = message.getBucket();
+            String objectName = message.getObjectName();
+            if (bucketName == null || objectName == null) {
+                log.warn("[File] Ignoring deletion without bucket or object name: {}", message);
+                continue;
+            }
+            Set<String> names = namesByBucket.computeIfAbsent(bucketName, b -> new LinkedHashSet<>());
+            if (ContentAddressedStore.isContentAddressed(objectName)) {
+                try {
+                    if (!contentAddressedStore.release(bucketName, objectName, message.getId())) {
+                        continue;
+                    }
+                } catch (Exception e) {
+                    log.warn("[File] Releasing {}/{} failed", bucketName, objectName, e);
+                    park(new FileDeletionMessage(bucketName, objectName, message.getId()));
+                    continue;
+                }
+            } else {
+                names.add(objectName);
+            }
+            if (!BucketType.SUBMISSIONS.getBucketName().equals(bucketName)) {
+                for (ImageVariant variant : ImageVariant.values()) {
+                    names.add(variant.objectName(objectName));
+                }
+            }
+        }
+        namesByBucket.forEach((bucketName, names) -> {
+            for (String failed : removeWithRetries(bucketName, new ArrayList<>(names))) {
+                park(new FileDeletionMessage(bucketName, failed));
+            }
+        });
+    }
+
+    /**
+     * @return the names still not removed after the last attempt
+     */
+    private List<String> removeWithRetries(String bucketName, List<String> names) {
+        List<String> pending = names;
+        long backoffMillis = properties.getRetryBackoff().toMillis();
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            try {
+                pending = storageBackend.removeAll(bucketName, pending);
+            } catch (Exception e) {
+                log.warn("[File] Bulk delete of {} objects in {} failed (attempt {})", pending.size(), bucketName, attempt, e);
+            }
+            if (pending.isEmpty() || attempt >= properties.getMaxAttempts()) {
+                break;
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoffMillis *= 2;
+        }
+        return pending;
+    }
+
+    /**
+     * Moves one object to the dead-letter queue. If even that fails the exception propagates, the
+     * batch is rejected, and the broker dead-letters all of it, so nothing is silently lost.
+     */
+    private void park(FileDeletionMessage message) {
+        log.error("[File] Giving up on deleting {}/{}, parking it on {}", message.getBucket(), message.getObjectName(),
+                MessagingConstants.QUEUE_FILE_DELETE_DEAD);
+        rabbitTemplate.convertAndSend(
+                MessagingConstants.FILE_EXCHANGE,
+                MessagingConstants.ROUTING_FILE_DELETE_DEAD,
+                message,
+                msg -> {
+                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+                    return msg;
+                }
+        );
+    }
+}
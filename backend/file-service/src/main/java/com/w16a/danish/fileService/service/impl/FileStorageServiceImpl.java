@@ -1,21 +1,36 @@
 package com.w16a.danish.fileService.service.impl;
 
 import cn.hutool.core.lang.UUID;
+import com.w16a.danish.common.domain.enums.ImageVariant;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
 import com.w16a.danish.fileService.config.MinioPropertiesConfig;
 import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.event.ImageUploadedEvent;
 import com.w16a.danish.common.exception.BusinessException;
 import com.w16a.danish.fileService.service.FileStorageService;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import com.w16a.danish.fileService.storage.StorageBackend.StoredObject;
 import com.w16a.danish.fileService.util.FileValidator;
-import io.minio.*;
-import lombok.RequiredArgsConstructor;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.Http;
+import io.minio.MinioClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
- * Implementation of the FileStorageService interface for interacting with MinIO object storage.
+ * Implementation of the FileStorageService interface on top of the configured {@link StorageBackend}.
  * Provides functionality to upload files to different buckets (avatars, promos, submissions),
  * generate temporary access URLs, and delete files.
  *
@@ -24,11 +39,34 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FileStorageServiceImpl implements FileStorageService {
 
-    private final MinioClient minioClient;
+    /** Prefixes are path segments of letters, digits, '-' and '_' — never "..", never a leading '/'. */
+    private static final Pattern SAFE_PREFIX = Pattern.compile("[A-Za-z0-9_-]{1,64}(/[A-Za-z0-9_-]{1,64}){0,3}");
+
+    private final StorageBackend storageBackend;
+    private final MinioClient presignMinioClient;
     private final MinioPropertiesConfig minioPropertiesConfig;
+    private final ContentAddressedStore contentAddressedStore;
+    private final PendingSubmissionUploads pendingSubmissionUploads;
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FileStorageServiceImpl(StorageBackend storageBackend,
+                                  @Qualifier("presignMinioClient") MinioClient presignMinioClient,
+                                  MinioPropertiesConfig minioPropertiesConfig,
+                                  ContentAddressedStore contentAddressedStore,
+                                  PendingSubmissionUploads pendingSubmissionUploads,
+                                  ImageDerivativeGenerator imageDerivativeGenerator,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.storageBackend = storageBackend;
+        this.presignMinioClient = presignMinioClient;
+        this.minioPropertiesConfig = minioPropertiesConfig;
+        this.contentAddressedStore = contentAddressedStore;
+        this.pendingSubmissionUploads = pendingSubmissionUploads;
+        this.imageDerivativeGenerator = imageDerivativeGenerator;
+        this.eventPublisher = eventPublisher;
+    }
 
     /**
      * Uploads user avatar image to the public avatar bucket.
@@ -59,104 +97,137 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
 
     /**
-     * Common logic for uploading a file to a given bucket type.
-     * Returns public URL if the bucket is public, else returns the object name.
+     * Presigns a PUT into the submission bucket under the caller's prefix. The bucket is
+     * provisioned here because the client's PUT bypasses this service entirely, and the object
+     * is tracked by {@link PendingSubmissionUploads} until it is confirmed.
      */
-    private String upload(BucketType bucketType, MultipartFile file) {
+    @Override
+    public PresignedUploadVO presignSubmissionUpload(String prefix, String originalFilename, String contentType) {
+        if (!storageBackend.supportsDirectUpload()) {
+            throw new BusinessException(HttpStatus.NOT_IMPLEMENTED, "Direct uploads are not available on this storage backend");
+        }
+        if (prefix == null || !SAFE_PREFIX.matcher(prefix).matches()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid object prefix");
+        }
+        String objectName = prefix + "/" + UUID.randomUUID() + FileValidator.safeExtension(originalFilename);
+        int expirySeconds = minioPropertiesConfig.getUploadUrlExpirySeconds();
         try {
-            ensureBucketExists(bucketType);
-            String objectName = UUID.randomUUID() + safeExtension(file.getOriginalFilename());
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucketType.getBucketName())
+            storageBackend.ensureBucket(BucketType.SUBMISSIONS);
+            String uploadUrl = presignMinioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Http.Method.PUT)
+                            .bucket(BucketType.SUBMISSIONS.getBucketName())
                             .object(objectName)
-                            .stream(file.getInputStream(), file.getSize(), -1L)
-                            .contentType(file.getContentType())
+                            .expiry(expirySeconds, TimeUnit.SECONDS)
                             .build()
             );
-
-            String publicEndpoint = minioPropertiesConfig.getPublicEndpoint();
-            if (publicEndpoint.endsWith("/")) {
-                publicEndpoint = publicEndpoint.substring(0, publicEndpoint.length() - 1);
-            }
-
-            return publicEndpoint + "/" + bucketType.getBucketName() + "/" + objectName;
+            pendingSubmissionUploads.track(objectName, Instant.now().plusSeconds(expirySeconds));
+            return PresignedUploadVO.builder()
+                    .objectName(objectName)
+                    .uploadUrl(uploadUrl)
+                    .contentType(contentType)
+                    .expiresAt(LocalDateTime.now().plusSeconds(expirySeconds))
+                    .build();
         } catch (Exception e) {
-            log.error("File upload failed for bucket={}", bucketType, e);
-            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed");
+            log.error("Presigning submission upload failed for object={}", objectName, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create upload URL");
         }
     }
 
     /**
-     * Derives a safe object-name suffix from the client-supplied filename. Only a short
-     * alphanumeric extension is preserved, so path separators or traversal sequences
-     * ("../") in the original name can never reach the object store key.
+     * Stats a submission object and takes it off the pending list. A missing object comes back
+     * as null rather than an error, so callers behind a Feign fallback can tell "the client
+     * never uploaded" apart from storage being down.
      */
-    private String safeExtension(String originalFilename) {
-        if (originalFilename == null) {
-            return "";
-        }
-        int dot = originalFilename.lastIndexOf('.');
-        if (dot < 0 || dot == originalFilename.length() - 1) {
-            return "";
+    @Override
+    public StoredObjectVO confirmSubmissionUpload(String objectName) {
+        String bucketName = BucketType.SUBMISSIONS.getBucketName();
+        try {
+            StoredObject stat = storageBackend.stat(bucketName, objectName);
+            if (stat == null) {
+                return null;
+            }
+            pendingSubmissionUploads.confirm(objectName);
+            return StoredObjectVO.builder()
+                    .objectName(objectName)
+                    .fileUrl(minioPropertiesConfig.publicUrl(bucketName, objectName))
+                    .size(stat.size())
+                    .contentType(stat.contentType())
+                    .build();
+        } catch (Exception e) {
+            log.error("File stat failed for bucket={} object={}", bucketName, objectName, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "File lookup failed");
         }
-        String ext = originalFilename.substring(dot + 1);
-        return ext.matches("[A-Za-z0-9]{1,10}") ? "." + ext.toLowerCase() : "";
     }
 
     /**
-     * Ensures the bucket exists; creates it if not found.
-     * Applies a public-read bucket policy by default.
+     * Common logic for uploading a file to a given bucket type.
+     * Returns public URL if the bucket is public, else returns the object name.
+     * With {@code minio.dedup-enabled} the object is named by its content hash, and a file that is
+     * already stored is not written again. Images in public buckets get resized variants in the
+     * background.
      */
-    private void ensureBucketExists(BucketType bucketType) throws Exception {
+    private String upload(BucketType bucketType, MultipartFile file) {
         String bucketName = bucketType.getBucketName();
-        boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
-        if (!found) {
-            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
-
-            // Define public read policy for the bucket
-            String policy = "{\n" +
-                    "  \"Version\": \"2012-10-17\",\n" +
-                    "  \"Statement\": [\n" +
-                    "    {\n" +
-                    "      \"Sid\": \"PublicRead\",\n" +
-                    "      \"Effect\": \"Allow\",\n" +
-                    "      \"Principal\": \"*\",\n" +
-                    "      \"Action\": [\n" +
-                    "        \"s3:GetObject\"\n" +
-                    "      ],\n" +
-                    "      \"Resource\": [\n" +
-                    "        \"arn:aws:s3:::" + bucketName + "/*\"\n" +
-                    "      ]\n" +
-                    "    }\n" +
-                    "  ]\n" +
-                    "}";
-
-            // Apply bucket policy
-            minioClient.setBucketPolicy(SetBucketPolicyArgs.builder()
-                    .bucket(bucketName)
-                    .config(policy)
-                    .build());
+        String extension = FileValidator.safeExtension(file.getOriginalFilename());
+        try {
+            storageBackend.ensureBucket(bucketType);
+            String objectName;
+            if (minioPropertiesConfig.isDedupEnabled()) {
+                try (InputStream in = file.getInputStream()) {
+                    objectName = contentAddressedStore.objectName(in, extension);
+                }
+                if (!contentAddressedStore.store(bucketName, objectName, () -> write(bucketName, objectName, file))) {
+                    log.debug("Reused stored copy of {}/{}", bucketName, objectName);
+                }
+            } else {
+                objectName = UUID.randomUUID() + extension;
+                write(bucketName, objectName, file);
+            }
+
+            if (bucketType != BucketType.SUBMISSIONS
+                    && (isImage(file.getContentType()) || ImageVariant.appliesTo(objectName))) {
+                eventPublisher.publishEvent(new ImageUploadedEvent(bucketName, objectName));
+            }
+            return minioPropertiesConfig.publicUrl(bucketName, objectName);
+        } catch (Exception e) {
+            log.error("File upload failed for bucket={}", bucketType, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed");
+        }
+    }
+
+    private static boolean isImage(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith("image/");
+    }
+
+    private void write(String bucketName, String objectName, MultipartFile file) throws Exception {
+        try (InputStream in = file.getInputStream()) {
+            storageBackend.put(bucketName, objectName, in, file.getSize(), file.getContentType());
         }
     }
 
     /**
-     * Deletes a file from the specified bucket if it exists.
+     * Deletes a file from the specified bucket if it exists. A content-addressed file only loses
+     * one reference, and is removed with the last. Image variants go with the original.
      */
     @Override
     public void deleteFile(String bucketName, String objectName) {
         try {
+            if (ContentAddressedStore.isContentAddressed(objectName)) {
+                if (contentAddressedStore.release(bucketName, objectName)) {
+                    removeVariants(bucketName, objectName);
+                }
+                return;
+            }
+
             // Check if the object exists in the bucket
-            minioClient.statObject(StatObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .build());
+            if (storageBackend.stat(bucketName, objectName) == null) {
+                throw new FileNotFoundException(bucketName + "/" + objectName);
+            }
 
             // Remove the object from the bucket
-            minioClient.removeObject(RemoveObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .build());
+            storageBackend.remove(bucketName, objectName);
+            removeVariants(bucketName, objectName);
 
         } catch (Exception e) {
             log.error("File deletion failed for bucket={} object={}", bucketName, objectName, e);
@@ -164,4 +235,10 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    private void removeVariants(String bucketName, String objectName) {
+        if (!BucketType.SUBMISSIONS.getBucketName().equals(bucketName)) {
+            imageDerivativeGenerator.removeVariants(bucketName, objectName);
+        }
+    }
+
 }
@@ -0,0 +1,342 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.common.domain.enums.ImageVariant;
+import com.w16a.danish.fileService.config.ImageDerivativePropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.event.ImageUploadedEvent;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Derives the {@link ImageVariant}s of an uploaded image with the JDK's own imaging, off the
+ * request thread.
+ *
+ * <p>Each {@link ImageUploadedEvent} becomes one task on {@code imageDerivativeExecutor}, which
+ * reads the original back from storage, decodes it once and writes every variant as a JPEG next
+ * to it. Variants appear a moment after the upload returns; until then clients fall back to the
+ * original URL.
+ *
+ * <p>Every variant URL {@link com.w16a.danish.common.domain.vo.ImageVariantsVO} hands out must
+ * eventually exist, so no work is ever dropped for good. An original waits in the Redis sorted set
+ * {@code file:variants:pending} until its variants are written; a task the full pool rejected, or
+ * one that failed on storage, is picked up again by {@link #sweep}. Images stored before variants
+ * existed are queued the same way, once, by {@link #backfill}. An original that cannot be resized
+ * — a format the JDK cannot decode, such as WebP, or one over the pixel limit — gets a copy of
+ * itself under each variant name instead.
+ *
+ * <p>Originals are only decoded after their header shows a sane pixel count, and a content-hashed
+ * original that already has its variants is not processed again.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+public class ImageDerivativeGenerator {
+
+    static final String PENDING_KEY = "file:variants:pending";
+    /** Set once the first instance has queued the images stored before variants existed. */
+    static final String BACKFILLED_KEY = "file:variants:backfilled";
+    /** Buckets whose images get variants. */
+    static final List<BucketType> BUCKETS = List.of(BucketType.USER_AVATAR, BucketType.COMPETITION_ASSETS);
+    /** Most originals one sweep hands to the pool; the rest wait for the next run. */
+    static final int SWEEP_BATCH = 500;
+
+    private final StorageBackend storageBackend;
+    private final Executor executor;
+    private final ImageDerivativePropertiesConfig properties;
+    private final StringRedisTemplate redisTemplate;
+
+    public ImageDerivativeGenerator(StorageBackend storageBackend,
+                                    @Qualifier("imageDerivativeExecutor") Executor executor,
+                                    ImageDerivativePropertiesConfig properties,
+                                    StringRedisTemplate redisTemplate) {
+        this.storageBackend = storageBackend;
+        this.executor = executor;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @EventListener
+    public void onImageUploaded(ImageUploadedEvent event) {
+        if (!properties.isEnabled() || !ImageVariant.appliesTo(event.objectName())) {
+            return;
+        }
+        String member = member(event.bucketName(), event.objectName());
+        try {
+            redisTemplate.opsForZSet().add(PENDING_KEY, member, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // The upload itself succeeded; only a retry of this image is lost
+            log.warn("Could not queue variants of {} for retry: {}", member, e.toString());
+        }
+        submit(event.bucketName(), event.objectName());
+    }
+
+    /**
+     * Hands originals still waiting for their variants back to the pool: tasks it rejected when
+     * full, ones that failed on storage, and backfilled images. Only entries older than
+     * {@code image-derivatives.retry-delay} are taken, so a task still queued is not doubled.
+     *
+     * @return number of originals handed to the pool
+     */
+    @Scheduled(cron = "${image-derivatives.sweep-cron:0 * * * * *}")
+    public int sweep() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        Set<String> due = redisTemplate.opsForZSet()
+                .rangeByScore(PENDING_KEY, 0, now - properties.getRetryDelay().toMillis(), 0, SWEEP_BATCH);
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+        int submitted = 0;
+        for (String member : due) {
+            // Pushed back first, so another instance's sweep leaves it alone while it is worked on
+            redisTemplate.opsForZSet().add(PENDING_KEY, member, now);
+            int slash = member.indexOf('/');
+            if (submit(member.substring(0, slash), member.substring(slash + 1))) {
+                submitted++;
+            }
+        }
+        log.info("[Variants] Resubmitted {} of {} pending originals", submitted, due.size());
+        return submitted;
+    }
+
+    /**
+     * Queues every image stored without variants, e.g. before variants existed. Runs once per
+     * deployment: the first instance to start claims {@code file:variants:backfilled}. If listing
+     * fails the claim is released, and the next start tries again.
+     *
+     * @return number of originals queued
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        if (!properties.isEnabled() || !properties.isBackfill()) {
+            return 0;
+        }
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(BACKFILLED_KEY, "1"))) {
+                return 0;
+            }
+        } catch (RuntimeException e) {
+            log.warn("[Variants] Backfill skipped, Redis unavailable: {}", e.toString());
+            return 0;
+        }
+        int queued = 0;
+        try {
+            for (BucketType bucketType : BUCKETS) {
+                String bucketName = bucketType.getBucketName();
+                Set<String> names = new HashSet<>(storageBackend.list(bucketName, ""));
+                for (String name : names) {
+                    if (ImageVariant.appliesTo(name) && !names.contains(ImageVariant.THUMBNAIL.objectName(name))) {
+                        redisTemplate.opsForZSet().add(PENDING_KEY, member(bucketName, name), 0);
+                        queued++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[Variants] Backfill failed after queueing {} originals, will retry on next start", queued, e);
+            redisTemplate.delete(BACKFILLED_KEY);
+            return queued;
+        }
+        log.info("[Variants] Backfill queued {} originals without variants", queued);
+        return queued;
+    }
+
+    /**
+     * @return false if the pool is full; the original stays pending for the next sweep
+     */
+    private boolean submit(String bucketName, String objectName) {
+        try {
+            executor.execute(() -> process(bucketName, objectName));
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Image derivative queue full, variants of {}/{} left for the sweep", bucketName, objectName);
+            return false;
+        }
+    }
+
+    private void process(String bucketName, String objectName) {
+        if (generate(bucketName, objectName)) {
+            try {
+                redisTemplate.opsForZSet().remove(PENDING_KEY, member(bucketName, objectName));
+            } catch (RuntimeException e) {
+                log.warn("Could not mark variants of {}/{} done; a sweep will find them present: {}",
+                        bucketName, objectName, e.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes every variant of an original. Failures are logged, never thrown.
+     *
+     * @return true once nothing is left to do — variants written or already there, or the
+     *         original gone; false if storage failed and it should be tried again
+     */
+    boolean generate(String bucketName, String objectName) {
+        try {
+            if (storageBackend.stat(bucketName, ImageVariant.THUMBNAIL.objectName(objectName)) != null) {
+                return true;
+            }
+            StorageBackend.StoredObject stored = storageBackend.stat(bucketName, objectName);
+            if (stored == null) {
+                return true;
+            }
+            BufferedImage original;
+            try (InputStream in = storageBackend.get(bucketName, objectName)) {
+                original = decode(in, properties.getMaxPixels());
+            } catch (ImageTooLargeException e) {
+                original = null;
+            }
+            if (original == null) {
+                log.info("{}/{} cannot be resized, its variants are copies of it", bucketName, objectName);
+                copyOriginal(bucketName, objectName, stored);
+                return true;
+            }
+            // The thumbnail goes last: it marks the set complete
+            for (ImageVariant variant : List.of(ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMBNAIL)) {
+                byte[] jpeg = encodeJpeg(resize(original, variant.getMaxDimension()), properties.getJpegQuality());
+                storageBackend.put(bucketName, variant.objectName(objectName),
+                        new ByteArrayInputStream(jpeg), jpeg.length, ImageVariant.CONTENT_TYPE);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Deriving variants failed for {}/{}, will retry", bucketName, objectName, e);
+            return false;
+        }
+    }
+
+    private void copyOriginal(String bucketName, String objectName, StorageBackend.StoredObject stored) throws Exception {
+        for (ImageVariant variant : List.of(ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMBNAIL)) {
+            try (InputStream in = storageBackend.get(bucketName, objectName)) {
+                storageBackend.put(bucketName, variant.objectName(objectName), in, stored.size(), stored.contentType());
+            }
+        }
+    }
+
+    private static String member(String bucketName, String objectName) {
+        return bucketName + "/" + objectName;
+    }
+
+    /**
+     * Removes the variants of an original that is gone. Best effort, like {@link #generate}.
+     */
+    public void removeVariants(String bucketName, String objectName) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                storageBackend.remove(bucketName, variant.objectName(objectName));
+            } catch (Exception e) {
+                log.warn("Removing variant {} of {}/{} failed", variant, bucketName, objectName, e);
+            }
+        }
+    }
+
+    /** An original whose header is over {@code image-derivatives.max-pixels}. */
+    static class ImageTooLargeException extends IOException {
+        ImageTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Decodes the first frame of an image, checking its dimensions from the header first.
+     *
+     * @return the image, or null if no installed reader understands the format
+     * @throws ImageTooLargeException if the header is over {@code maxPixels}
+     */
+    static BufferedImage decode(InputStream in, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new ImageTooLargeException("Image has " + pixels + " pixels, limit is " + maxPixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales an image so its longer side is at most {@code maxDimension}, never up, onto an opaque
+     * RGB canvas (JPEG has no alpha; transparent areas become white). Large reductions halve
+     * repeatedly before the last bilinear step, which keeps edges clean at a fraction of the cost
+     * of area averaging.
+     */
+    static BufferedImage resize(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,306 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uploads large objects as S3 multipart uploads with several parts in flight at once.
+ *
+ * <p>A plain {@code putObject} sends its parts one after another on the request thread, so a
+ * 1 GB video costs 1 GB of sequential signing and round trips. Here the request thread only reads:
+ * each part is read into its own buffer, hashed while it is read, and handed to
+ * {@code multipartUploadExecutor}. A per-upload semaphore stops the reader once
+ * {@link #parallelism(long)} parts are in flight, so an upload holds at most that many buffers
+ * however fast the client sends. A second semaphore, shared by every upload, holds their buffers
+ * together under {@code minio.multipart-buffer-memory}, so a burst of concurrent uploads waits
+ * for memory instead of queueing part buffers on the executor until the heap runs out.
+ *
+ * <p>Each part carries its Content-MD5, so storage rejects a part corrupted on the way, and the
+ * ETag storage returns on completion is checked against the one computed locally. A failed part
+ * is retried; a part that keeps failing aborts the whole upload so no orphaned parts remain.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+public class ParallelMultipartUploader {
+
+    private static final long MIB = 1024L * 1024;
+    /** S3 minimum for every part but the last. */
+    static final long MIN_PART_SIZE = 5 * MIB;
+    static final long MAX_PART_SIZE = 16 * MIB;
+    /** S3 maximum number of parts in one upload. */
+    private static final int MAX_PARTS = 10_000;
+    private static final int TARGET_PARTS = 64;
+    /** Object bytes per part in flight; smaller objects get less parallelism than larger ones. */
+    private static final long BYTES_PER_LANE = 64 * MIB;
+    private static final long RETRY_BACKOFF_MS = 200;
+
+    private final MinioAsyncClient minioAsyncClient;
+    private final Executor executor;
+    private final MinioPropertiesConfig minioPropertiesConfig;
+    /** Part buffer memory left for all uploads, one permit per MiB. */
+    private final Semaphore bufferMemory;
+    private final int bufferPermits;
+
+    public ParallelMultipartUploader(MinioAsyncClient minioAsyncClient,
+                                     @Qualifier("multipartUploadExecutor") Executor executor,
+                                     MinioPropertiesConfig minioPropertiesConfig) {
+        this.minioAsyncClient = minioAsyncClient;
+        this.executor = executor;
+        this.minioPropertiesConfig = minioPropertiesConfig;
+        this.bufferPermits = bufferPermits(minioPropertiesConfig.getMultipartBufferMemory());
+        this.bufferMemory = new Semaphore(bufferPermits, true);
+    }
+
+    /**
+     * MiB of part buffers all uploads may hold together: the configured budget, or a quarter of the
+     * maximum heap, and never less than one largest part.
+     */
+    static int bufferPermits(DataSize configured) {
+        long bytes = configured != null ? configured.toBytes() : Runtime.getRuntime().maxMemory() / 4;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MAX_PART_SIZE / MIB, bytes / MIB));
+    }
+
+    /**
+     * Whether an object of this size should go through {@link #upload}. Anything that fits in
+     * one minimum-size part is always left to a plain put.
+     */
+    public boolean accepts(long size) {
+        return size > MIN_PART_SIZE && size >= minioPropertiesConfig.getMultipartThreshold().toBytes();
+    }
+
+    /**
+     * Part size for an object: aims for {@value #TARGET_PARTS} parts, rounded up to whole MiB and
+     * kept between {@link #MIN_PART_SIZE} and {@link #MAX_PART_SIZE}, unless the object is so
+     * large that the 10,000-part limit needs bigger parts.
+     */
+    static long partSize(long size) {
+        long target = Math.ceilDiv(Math.ceilDiv(size, TARGET_PARTS), MIB) * MIB;
+        long bounded = Math.max(MIN_PART_SIZE, Math.min(MAX_PART_SIZE, target));
+        return Math.max(bounded, Math.ceilDiv(size, MAX_PARTS));
+    }
+
+    /**
+     * Parts kept in flight for an object: one per {@value #BYTES_PER_LANE} bytes, at least two and
+     * at most {@code minio.multipart-max-parallelism}.
+     */
+    int parallelism(long size) {
+        long lanes = Math.ceilDiv(size, BYTES_PER_LANE);
+        return (int) Math.max(2, Math.min(minioPropertiesConfig.getMultipartMaxParallelism(), lanes));
+    }
+
+    /**
+     * Upload an object of known size as a parallel multipart upload.
+     *
+     * @param bucket      target bucket, which must exist
+     * @param objectName  object key
+     * @param contentType stored content type, may be null
+     * @param in          object content; read sequentially and not closed
+     * @param size        exact number of bytes {@code in} will provide
+     * @return the object's ETag, verified against the parts that were sent
+     * @throws IOException if reading, any part or completion fails; the upload is aborted first
+     */
+    public String upload(String bucket, String objectName, String contentType, InputStream in, long size)
+            throws IOException {
+        long partSize = partSize(size);
+        int partCount = (int) Math.ceilDiv(size, partSize);
+        String uploadId = createUpload(bucket, objectName, contentType);
+
+        Semaphore inFlight = new Semaphore(parallelism(size));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Part>> parts = new ArrayList<>(partCount);
+        MessageDigest etagDigest = md5();
+        String etag;
+        try {
+            for (int partNumber = 1; partNumber <= partCount && failure.get() == null; partNumber++) {
+                inFlight.acquire();
+                int length = (int) Math.min(partSize, size - (partNumber - 1) * partSize);
+                // Capped at the whole budget so a part larger than it still goes, alone
+                int permits = (int) Math.min(Math.ceilDiv(length, MIB), bufferPermits);
+                bufferMemory.acquire(permits);
+                byte[] data;
+                byte[] md5;
+                try {
+                    data = new byte[length];
+                    md5 = readPart(in, data);
+                } catch (IOException | RuntimeException | Error e) {
+                    bufferMemory.release(permits);
+                    throw e;
+                }
+                etagDigest.update(md5);
+
+                int number = partNumber;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPart(bucket, objectName, uploadId, number, data, md5), executor)
+                        .whenComplete((part, e) -> {
+                            bufferMemory.release(permits);
+                            inFlight.release();
+                            if (e != null) {
+                                failure.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+                            }
+                        }));
+            }
+            settle(parts);
+            if (failure.get() != null) {
+                throw new IOException("Part upload failed for " + bucket + "/" + objectName, failure.get());
+            }
+            etag = complete(bucket, objectName, uploadId, parts.stream().map(CompletableFuture::join).toArray(Part[]::new));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            settle(parts);
+            abort(bucket, objectName, uploadId);
+            throw new IOException("Interrupted while uploading " + bucket + "/" + objectName, e);
+        } catch (IOException | RuntimeException e) {
+            settle(parts);
+            abort(bucket, objectName, uploadId);
+            throw e;
+        }
+
+        String expected = HexFormat.of().formatHex(etagDigest.digest()) + "-" + partCount;
+        if (!expected.equals(etag)) {
+            remove(bucket, objectName);
+            throw new IOException("ETag mismatch for " + bucket + "/" + objectName + ": sent " + expected + ", stored " + etag);
+        }
+        log.info("[Multipart] {}/{} uploaded: {} bytes in {} parts", bucket, objectName, size, partCount);
+        return etag;
+    }
+
+    /** Waits for every part already handed off, so nothing lands after an abort. */
+    private static void settle(List<CompletableFuture<Part>> parts) {
+        CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+    }
+
+    private String createUpload(String bucket, String objectName, String contentType) throws IOException {
+        CreateMultipartUploadArgs.Builder args = CreateMultipartUploadArgs.builder().bucket(bucket).object(objectName);
+        if (contentType != null) {
+            args.headers(new Http.Headers(Http.Headers.CONTENT_TYPE, contentType));
+        }
+        return await(minioAsyncClient.createMultipartUpload(args.build())).result().uploadId();
+    }
+
+    /** Fills {@code data} from the stream and returns its MD5. */
+    private static byte[] readPart(InputStream in, byte[] data) throws IOException {
+        int filled = 0;
+        while (filled < data.length) {
+            int n = in.read(data, filled, data.length - filled);
+            if (n < 0) {
+                throw new IOException("Stream ended " + (data.length - filled) + " bytes early");
+            }
+            filled += n;
+        }
+        return md5().digest(data);
+    }
+
+    private Part uploadPart(String bucket, String objectName, String uploadId, int partNumber, byte[] data, byte[] md5) {
+        UploadPartArgs args = UploadPartArgs.builder()
+                .bucket(bucket)
+                .object(objectName)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .data(data, data.length)
+                .headers(new Http.Headers(Http.Headers.CONTENT_MD5, Base64.getEncoder().encodeToString(md5)))
+                .build();
+        int attempts = minioPropertiesConfig.getMultipartPartAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return new Part(partNumber, minioAsyncClient.uploadPart(args).get().part().etag());
+            } catch (ExecutionException e) {
+                if (attempt >= attempts || !retryable(e.getCause())) {
+                    throw new CompletionException(e.getCause());
+                }
+                log.warn("[Multipart] part {} of {}/{} failed (attempt {}/{}), retrying: {}",
+                        partNumber, bucket, objectName, attempt, attempts, e.getCause().toString());
+                pause(RETRY_BACKOFF_MS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    /** A part rejected with a 4xx will be rejected again; anything else may be transient. */
+    private static boolean retryable(Throwable cause) {
+        return !(cause instanceof ErrorResponseException e) || e.response() == null || e.response().code() >= 500;
+    }
+
+    private String complete(String bucket, String objectName, String uploadId, Part[] parts) throws IOException {
+        ObjectWriteResponse response = await(minioAsyncClient.completeMultipartUpload(CompleteMultipartUploadArgs.builder()
+                .bucket(bucket)
+                .object(objectName)
+                .uploadId(uploadId)
+                .parts(parts)
+                .build()));
+        String etag = response.etag();
+        return etag == null ? null : etag.replace("\"", "");
+    }
+
+    private void abort(String bucket, String objectName, String uploadId) {
+        try {
+            await(minioAsyncClient.abortMultipartUpload(AbortMultipartUploadArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .uploadId(uploadId)
+                    .build()));
+        } catch (Exception e) {
+            log.warn("[Multipart] abort failed for {}/{} uploadId={}", bucket, objectName, uploadId, e);
+        }
+    }
+
+    private void remove(String bucket, String objectName) {
+        try {
+            await(minioAsyncClient.removeObject(RemoveObjectArgs.builder().bucket(bucket).object(objectName).build()));
+        } catch (Exception e) {
+            log.warn("[Multipart] could not remove mismatched object {}/{}", bucket, objectName, e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Submission objects presigned for a direct upload but not yet confirmed. The client's PUT
+ * bypasses this service, so an upload that is abandoned — or never confirmed because the
+ * submission was refused — would otherwise stay in the bucket for good.
+ *
+ * <p>Each presigned object name waits in a Redis sorted set ({@code file:submission:pending}),
+ * scored by the time its URL expires plus {@code minio.presigned-upload-grace}. Confirming it
+ * takes it out; the sweep removes whatever is still there once its time has passed, uploaded
+ * or not.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingSubmissionUploads {
+
+    static final String PENDING_KEY = "file:submission:pending";
+    /** Most objects one sweep removes; the rest wait for the next run. */
+    static final int SWEEP_BATCH = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final StorageBackend storageBackend;
+    private final MinioPropertiesConfig minioPropertiesConfig;
+
+    /**
+     * Remembers a presigned object until it is confirmed.
+     *
+     * @param expiresAt when its upload URL stops working
+     */
+    public void track(String objectName, Instant expiresAt) {
+        Instant removeAfter = expiresAt.plus(minioPropertiesConfig.getPresignedUploadGrace());
+        redisTemplate.opsForZSet().add(PENDING_KEY, objectName, removeAfter.toEpochMilli());
+    }
+
+    /**
+     * Keeps a confirmed object out of the sweep.
+     */
+    public void confirm(String objectName) {
+        redisTemplate.opsForZSet().remove(PENDING_KEY, objectName);
+    }
+
+    /**
+     * Removes presigned objects whose confirm window has passed. One that cannot be removed now
+     * goes back in the set and is tried again on the next run.
+     *
+     * @return number of objects removed
+     */
+    @Scheduled(cron = "${minio.presigned-upload-sweep-cron:0 */10 * * * *}")
+    public int sweep() {
+        Set<String> expired = redisTemplate.opsForZSet()
+                .rangeByScore(PENDING_KEY, 0, Instant.now().toEpochMilli(), 0, SWEEP_BATCH);
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+        String bucketName = BucketType.SUBMISSIONS.getBucketName();
+        int removed = 0;
+        for (String objectName : expired) {
+            // Claimed first, so a confirm or another instance's sweep that got there before is left alone
+            Long claimed = redisTemplate.opsForZSet().remove(PENDING_KEY, objectName);
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            try {
+                storageBackend.remove(bucketName, objectName);
+                removed++;
+            } catch (Exception e) {
+                log.warn("[Presign] Could not remove unconfirmed upload {}/{}", bucketName, objectName, e);
+                redisTemplate.opsForZSet().add(PENDING_KEY, objectName, Instant.now().toEpochMilli());
+            }
+        }
+        log.info("[Presign] Removed {} unconfirmed submission uploads", removed);
+        return removed;
+    }
+}
@@ -0,0 +1,412 @@
+package com.w16a.danish.fileService.service.impl;
+
+import cn.hutool.core.lang.UUID;
+import com.w16a.danish.common.domain.vo.ResumableUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.event.ImageUploadedEvent;
+import com.w16a.danish.fileService.service.ResumableUploadService;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import com.w16a.danish.fileService.util.FileValidator;
+import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resumable uploads on top of S3 multipart uploads: chunk N is stored as part N of a multipart
+ * upload, and completing the session asks object storage to join the parts. The file is never
+ * read back or re-sent to assemble it.
+ *
+ * <p>The session lives in one Redis hash — the target object and multipart upload ID plus one
+ * {@code part:N} field per stored chunk holding its ETag — so any instance can take the next
+ * chunk, and the hash expires on its own once the client gives up.
+ *
+ * <p>Its multipart upload does not: the parts stay in object storage until the upload is
+ * completed or aborted. So every open session is also listed in {@code file:resumable:expiring},
+ * scored by when its hash expires, with its target in {@code file:resumable:target}; the sweep
+ * aborts the multipart upload of any session whose hash is gone.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumableUploadServiceImpl implements ResumableUploadService {
+
+    private static final String KEY_PREFIX = "file:resumable:";
+    private static final String PART_FIELD = "part:";
+    static final String EXPIRING_KEY = "file:resumable:expiring";
+    static final String TARGET_KEY = "file:resumable:target";
+    /** Most sessions one sweep looks at; the rest wait for the next run. */
+    static final int SWEEP_BATCH = 1000;
+    /** S3 minimum for every part but the last. */
+    private static final long MIN_CHUNK_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_CHUNKS = 10_000;
+
+    private final MinioAsyncClient minioAsyncClient;
+    private final StringRedisTemplate redisTemplate;
+    private final StorageBackend storageBackend;
+    private final BucketProvisioner bucketProvisioner;
+    private final MinioPropertiesConfig minioPropertiesConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** A session as stored in Redis. */
+    private record Session(String uploadId, BucketType bucketType, String objectName, String storageUploadId,
+                           String contentType, long size, long chunkSize, TreeMap<Integer, String> parts) {
+
+        int totalChunks() {
+            return (int) Math.ceilDiv(size, chunkSize);
+        }
+
+        long chunkLength(int chunk) {
+            return chunk < totalChunks() ? chunkSize : size - (totalChunks() - 1) * chunkSize;
+        }
+    }
+
+    @Override
+    public ResumableUploadVO initiate(BucketType bucketType, String fileName, String contentType, long size) {
+        if (!storageBackend.supportsDirectUpload()) {
+            throw new BusinessException(HttpStatus.NOT_IMPLEMENTED, "Resumable uploads are not available on this storage backend");
+        }
+        if (size <= 0) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "File is empty.");
+        }
+        if (size > minioPropertiesConfig.getResumableMaxSize().toBytes()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "File exceeds the upload size limit");
+        }
+        if (bucketType == BucketType.USER_AVATAR) {
+            FileValidator.validateImageType(contentType, fileName);
+        }
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, minioPropertiesConfig.getResumableChunkSize().toBytes());
+        if (Math.ceilDiv(size, chunkSize) > MAX_CHUNKS) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "File needs more than " + MAX_CHUNKS + " chunks");
+        }
+
+        String objectName = UUID.randomUUID() + FileValidator.safeExtension(fileName);
+        String storageUploadId;
+        try {
+            storageBackend.ensureBucket(bucketType);
+            try {
+                storageUploadId = createMultipartUpload(bucketType, objectName, contentType);
+            } catch (IOException e) {
+                // Nothing has been sent yet, so a bucket that vanished can be recreated and the call repeated.
+                if (!bucketProvisioner.recover(bucketType.getBucketName(), e)) {
+                    throw e;
+                }
+                storageUploadId = createMultipartUpload(bucketType, objectName, contentType);
+            }
+        } catch (Exception e) {
+            log.error("Starting resumable upload failed for bucket={}", bucketType, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to start upload");
+        }
+
+        Session session = new Session(UUID.randomUUID().toString(), bucketType, objectName, storageUploadId,
+                contentType, size, chunkSize, new TreeMap<>());
+        Map<String, String> fields = new HashMap<>();
+        fields.put("bucket", bucketType.name());
+        fields.put("objectName", objectName);
+        fields.put("storageUploadId", storageUploadId);
+        fields.put("size", Long.toString(size));
+        fields.put("chunkSize", Long.toString(chunkSize));
+        if (contentType != null) {
+            fields.put("contentType", contentType);
+        }
+        redisTemplate.opsForHash().putAll(key(session.uploadId()), fields);
+        redisTemplate.expire(key(session.uploadId()), minioPropertiesConfig.getResumableTtl());
+        redisTemplate.opsForHash().put(TARGET_KEY, session.uploadId(),
+                String.join("\n", bucketType.name(), objectName, storageUploadId));
+        touch(session.uploadId());
+        return toVO(session);
+    }
+
+    @Override
+    public ResumableUploadVO uploadChunk(String uploadId, int chunk, InputStream content, String contentMd5) {
+        Session session = load(uploadId);
+        if (chunk < 1 || chunk > session.totalChunks()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Chunk must be between 1 and " + session.totalChunks());
+        }
+        byte[] data = readChunk(content, (int) session.chunkLength(chunk));
+        String md5 = Base64.getEncoder().encodeToString(md5().digest(data));
+        if (contentMd5 != null && !contentMd5.equals(md5)) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Chunk checksum mismatch");
+        }
+
+        String etag;
+        try {
+            etag = await(minioAsyncClient.uploadPart(UploadPartArgs.builder()
+                    .bucket(session.bucketType().getBucketName())
+                    .object(session.objectName())
+                    .uploadId(session.storageUploadId())
+                    .partNumber(chunk)
+                    .data(data, data.length)
+                    .headers(new Http.Headers(Http.Headers.CONTENT_MD5, md5))
+                    .build())).part().etag();
+        } catch (Exception e) {
+            log.error("Chunk {} of upload {} failed", chunk, uploadId, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Chunk upload failed");
+        }
+
+        redisTemplate.opsForHash().put(key(uploadId), PART_FIELD + chunk, etag);
+        redisTemplate.expire(key(uploadId), minioPropertiesConfig.getResumableTtl());
+        touch(uploadId);
+        session.parts().put(chunk, etag);
+        return toVO(session);
+    }
+
+    @Override
+    public ResumableUploadVO status(String uploadId) {
+        return toVO(load(uploadId));
+    }
+
+    @Override
+    public StoredObjectVO complete(String uploadId) {
+        Session session = load(uploadId);
+        List<Integer> missing = new ArrayList<>();
+        for (int chunk = 1; chunk <= session.totalChunks(); chunk++) {
+            if (!session.parts().containsKey(chunk)) {
+                missing.add(chunk);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new BusinessException(HttpStatus.CONFLICT, "Missing chunks: " + missing);
+        }
+
+        String bucketName = session.bucketType().getBucketName();
+        Part[] parts = session.parts().entrySet().stream()
+                .map(e -> new Part(e.getKey(), e.getValue()))
+                .toArray(Part[]::new);
+        try {
+            await(minioAsyncClient.completeMultipartUpload(CompleteMultipartUploadArgs.builder()
+                    .bucket(bucketName)
+                    .object(session.objectName())
+                    .uploadId(session.storageUploadId())
+                    .parts(parts)
+                    .build()));
+        } catch (Exception e) {
+            log.error("Completing upload {} failed", uploadId, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to complete upload");
+        }
+        redisTemplate.delete(key(uploadId));
+        untrack(uploadId);
+        if (session.bucketType() != BucketType.SUBMISSIONS) {
+            eventPublisher.publishEvent(new ImageUploadedEvent(bucketName, session.objectName()));
+        }
+
+        return StoredObjectVO.builder()
+                .objectName(session.objectName())
+                .fileUrl(minioPropertiesConfig.publicUrl(bucketName, session.objectName()))
+                .size(session.size())
+                .contentType(session.contentType())
+                .build();
+    }
+
+    @Override
+    public void abort(String uploadId) {
+        Session session = load(uploadId);
+        try {
+            await(minioAsyncClient.abortMultipartUpload(AbortMultipartUploadArgs.builder()
+                    .bucket(session.bucketType().getBucketName())
+                    .object(session.objectName())
+                    .uploadId(session.storageUploadId())
+                    .build()));
+        } catch (Exception e) {
+            log.error("Aborting upload {} failed", uploadId, e);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to abort upload");
+        }
+        redisTemplate.delete(key(uploadId));
+        untrack(uploadId);
+    }
+
+    /**
+     * Aborts the multipart uploads of sessions that expired without being completed or aborted,
+     * so their parts do not stay in object storage. One whose abort fails goes back in the set
+     * and is tried again on the next run.
+     *
+     * @return number of multipart uploads aborted
+     */
+    @Scheduled(cron = "${minio.resumable-sweep-cron:0 */15 * * * *}")
+    public int sweepExpired() {
+        long now = System.currentTimeMillis();
+        Set<String> expiring = redisTemplate.opsForZSet().rangeByScore(EXPIRING_KEY, 0, now, 0, SWEEP_BATCH);
+        if (expiring == null || expiring.isEmpty()) {
+            return 0;
+        }
+        int aborted = 0;
+        for (String uploadId : expiring) {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(key(uploadId)))) {
+                // Still in use; its score was written before its last chunk renewed the hash
+                touch(uploadId);
+                continue;
+            }
+            // Claimed first, so another instance's sweep that got there before is left alone
+            Long claimed = redisTemplate.opsForZSet().remove(EXPIRING_KEY, uploadId);
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            Object target = redisTemplate.opsForHash().get(TARGET_KEY, uploadId);
+            if (target == null) {
+                continue;
+            }
+            String[] parts = target.toString().split("\n", 3);
+            String bucketName = BucketType.valueOf(parts[0]).getBucketName();
+            try {
+                await(minioAsyncClient.abortMultipartUpload(AbortMultipartUploadArgs.builder()
+                        .bucket(bucketName)
+                        .object(parts[1])
+                        .uploadId(parts[2])
+                        .build()));
+                aborted++;
+            } catch (Exception e) {
+                if (!isNoSuchUpload(e)) {
+                    log.warn("[Resumable] Could not abort expired upload {} ({}/{})", uploadId, bucketName, parts[1], e);
+                    redisTemplate.opsForZSet().add(EXPIRING_KEY, uploadId, now);
+                    continue;
+                }
+            }
+            redisTemplate.opsForHash().delete(TARGET_KEY, uploadId);
+        }
+        log.info("[Resumable] Aborted {} expired uploads", aborted);
+        return aborted;
+    }
+
+    private static String key(String uploadId) {
+        return KEY_PREFIX + uploadId;
+    }
+
+    /** Moves a session's place in the sweep to when its hash now expires. */
+    private void touch(String uploadId) {
+        long expiresAt = System.currentTimeMillis() + minioPropertiesConfig.getResumableTtl().toMillis();
+        redisTemplate.opsForZSet().add(EXPIRING_KEY, uploadId, expiresAt);
+    }
+
+    private void untrack(String uploadId) {
+        redisTemplate.opsForZSet().remove(EXPIRING_KEY, uploadId);
+        redisTemplate.opsForHash().delete(TARGET_KEY, uploadId);
+    }
+
+    /** Already completed or aborted — by the client, or a sweep that ran before. */
+    private static boolean isNoSuchUpload(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof ErrorResponseException e && "NoSuchUpload".equals(e.errorResponse().code())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Session load(String uploadId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key(uploadId));
+        if (fields.isEmpty()) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "Upload not found or expired");
+        }
+        TreeMap<Integer, String> parts = new TreeMap<>();
+        fields.forEach((field, value) -> {
+            if (field.toString().startsWith(PART_FIELD)) {
+                parts.put(Integer.parseInt(field.toString().substring(PART_FIELD.length())), value.toString());
+            }
+        });
+        return new Session(uploadId,
+                BucketType.valueOf((String) fields.get("bucket")),
+                (String) fields.get("objectName"),
+                (String) fields.get("storageUploadId"),
+                (String) fields.get("contentType"),
+                Long.parseLong((String) fields.get("size")),
+                Long.parseLong((String) fields.get("chunkSize")),
+                parts);
+    }
+
+    private ResumableUploadVO toVO(Session session) {
+        List<Integer> received = new ArrayList<>(session.parts().keySet());
+        return ResumableUploadVO.builder()
+                .uploadId(session.uploadId())
+                .objectName(session.objectName())
+                .size(session.size())
+                .chunkSize(session.chunkSize())
+                .totalChunks(session.totalChunks())
+                .receivedChunks(received)
+                .receivedRanges(ranges(session, received))
+                .expiresAt(LocalDateTime.now().plus(minioPropertiesConfig.getResumableTtl()))
+                .build();
+    }
+
+    /** Merges runs of consecutive chunks into inclusive byte ranges, e.g. {@code 0-16777215}. */
+    private static List<String> ranges(Session session, List<Integer> received) {
+        List<String> ranges = new ArrayList<>();
+        int i = 0;
+        while (i < received.size()) {
+            int first = received.get(i);
+            int last = first;
+            while (i + 1 < received.size() && received.get(i + 1) == last + 1) {
+                last = received.get(++i);
+            }
+            long start = (first - 1) * session.chunkSize();
+            long end = (last - 1) * session.chunkSize() + session.chunkLength(last) - 1;
+            ranges.add(start + "-" + end);
+            i++;
+        }
+        return ranges;
+    }
+
+    /** Reads exactly {@code length} bytes, rejecting a chunk that is shorter or longer. */
+    private static byte[] readChunk(InputStream content, int length) {
+        try {
+            byte[] data = content.readNBytes(length);
+            if (data.length != length || content.read() != -1) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "Chunk must be exactly " + length + " bytes");
+            }
+            return data;
+        } catch (IOException e) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Chunk could not be read");
+        }
+    }
+
+    private String createMultipartUpload(BucketType bucketType, String objectName, String contentType) throws Exception {
+        CreateMultipartUploadArgs.Builder args = CreateMultipartUploadArgs.builder()
+                .bucket(bucketType.getBucketName())
+                .object(objectName);
+        if (contentType != null) {
+            args.headers(new Http.Headers(Http.Headers.CONTENT_TYPE, contentType));
+        }
+        return await(minioAsyncClient.createMultipartUpload(args.build())).result().uploadId();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
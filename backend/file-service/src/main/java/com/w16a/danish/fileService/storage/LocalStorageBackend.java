@@ -0,0 +1,194 @@
+package com.w16a.danish.fileService.storage;
+
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.fileService.config.StoragePropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Stores objects as plain files under {@code storage.local-root}, for a single box or a test run
+ * without an object store. Served back by
+ * {@link com.w16a.danish.fileService.controller.LocalObjectController}.
+ *
+ * <p>An object lives at {@code <root>/<bucket>/<ab>/<cd>/<object name>}, where {@code ab/cd} are
+ * the first two bytes of the name's SHA-256: 65,536 shard directories keep any one directory small
+ * however many objects a bucket holds. Writes go to a hidden temp file through a
+ * {@link FileChannel} and are renamed into place, so readers never see half a file.
+ *
+ * <p>Files carry no metadata, so the content type is derived from the extension.
+ *
+ * @author Eddy ZHANG
+ */
+@Component
+@ConditionalOnProperty(prefix = "storage", name = "backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final int SHARD_LEVELS = 2;
+
+    private final Path root;
+
+    public LocalStorageBackend(StoragePropertiesConfig storagePropertiesConfig) throws IOException {
+        this.root = Path.of(storagePropertiesConfig.getLocalRoot()).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public void ensureBucket(BucketType bucketType) throws IOException {
+        Files.createDirectories(root.resolve(bucketType.getBucketName()));
+    }
+
+    @Override
+    public void put(String bucketName, String objectName, InputStream content, long size, String contentType) throws IOException {
+        Path target = path(bucketName, objectName);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 ReadableByteChannel in = Channels.newChannel(content)) {
+                long written = 0;
+                while (written < size) {
+                    long n = out.transferFrom(in, written, size - written);
+                    if (n <= 0) {
+                        break;
+                    }
+                    written += n;
+                }
+                if (written != size || in.read(ByteBuffer.allocate(1)) != -1) {
+                    throw new IOException("Expected " + size + " bytes for " + objectName);
+                }
+                out.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream get(String bucketName, String objectName) throws IOException {
+        Path file = file(bucketName, objectName);
+        if (file == null) {
+            throw new FileNotFoundException(bucketName + "/" + objectName);
+        }
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public StoredObject stat(String bucketName, String objectName) throws IOException {
+        Path file = file(bucketName, objectName);
+        return file == null ? null : new StoredObject(Files.size(file), contentType(objectName));
+    }
+
+    @Override
+    public void remove(String bucketName, String objectName) throws IOException {
+        Files.deleteIfExists(path(bucketName, objectName));
+    }
+
+    @Override
+    public List<String> removeAll(String bucketName, List<String> objectNames) {
+        List<String> failed = new ArrayList<>();
+        for (String objectName : objectNames) {
+            try {
+                remove(bucketName, objectName);
+            } catch (IOException | RuntimeException e) {
+                failed.add(objectName);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public List<String> list(String bucketName, String prefix) throws IOException {
+        Path bucketDir = root.resolve(BucketType.fromBucketName(bucketName).getBucketName());
+        if (!Files.isDirectory(bucketDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(bucketDir)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith("."))
+                    .map(bucketDir::relativize)
+                    .filter(relative -> relative.getNameCount() > SHARD_LEVELS)
+                    .map(relative -> relative.subpath(SHARD_LEVELS, relative.getNameCount()).toString().replace('\\', '/'))
+                    .filter(name -> name.startsWith(prefix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Override
+    public boolean supportsDirectUpload() {
+        return false;
+    }
+
+    /**
+     * The file holding an object, for serving it.
+     *
+     * @return the file, or null if there is no such object
+     */
+    public Path file(String bucketName, String objectName) {
+        Path file = path(bucketName, objectName);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * Content type for an object name, from its extension.
+     */
+    public static String contentType(String objectName) {
+        return MediaTypeFactory.getMediaType(objectName).map(MediaType::toString).orElse(null);
+    }
+
+    /**
+     * Maps bucket and object name to a path under the root. Names are checked segment by segment
+     * so no name can reach outside its bucket, and none can collide with a temp file.
+     */
+    private Path path(String bucketName, String objectName) {
+        BucketType bucketType = BucketType.fromBucketName(bucketName);
+        if (objectName == null || objectName.isEmpty() || objectName.contains("\\")) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid object name");
+        }
+        for (String segment : objectName.split("/", -1)) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid object name");
+            }
+        }
+        byte[] hash = sha256(objectName);
+        HexFormat hex = HexFormat.of();
+        return root.resolve(bucketType.getBucketName())
+                .resolve(hex.toHexDigits(hash[0]))
+                .resolve(hex.toHexDigits(hash[1]))
+                .resolve(objectName);
+    }
+
+    private static byte[] sha256(String objectName) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectName.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.w16a.danish.fileService.storage;
+
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.service.impl.BucketProvisioner;
+import com.w16a.danish.fileService.service.impl.ParallelMultipartUploader;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteRequest;
+import io.minio.messages.DeleteResult;
+import io.minio.messages.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores objects in MinIO. Large objects go through {@link ParallelMultipartUploader}; small
+ * ones are a single put.
+ *
+ * <p>Buckets are provisioned once at startup and then taken as given; a put that finds its bucket
+ * gone has {@link BucketProvisioner} create it again, so the next upload succeeds.
+ *
+ * @author Eddy ZHANG
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "storage", name = "backend", havingValue = "minio", matchIfMissing = true)
+public class MinioStorageBackend implements StorageBackend {
+
+    private final MinioClient minioClient;
+    private final ParallelMultipartUploader multipartUploader;
+    private final BucketProvisioner bucketProvisioner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void provisionBuckets() {
+        bucketProvisioner.provisionAll();
+    }
+
+    @Override
+    public void ensureBucket(BucketType bucketType) throws Exception {
+        bucketProvisioner.ensureExists(bucketType);
+    }
+
+    /**
+     * The content stream is consumed by the time MinIO answers, so a put into a missing bucket is
+     * not repeated here: the bucket is re-provisioned and the failure still reaches the caller.
+     */
+    @Override
+    public void put(String bucketName, String objectName, InputStream content, long size, String contentType) throws Exception {
+        try {
+            write(bucketName, objectName, content, size, contentType);
+        } catch (Exception e) {
+            bucketProvisioner.recover(bucketName, e);
+            throw e;
+        }
+    }
+
+    private void write(String bucketName, String objectName, InputStream content, long size, String contentType) throws Exception {
+        if (multipartUploader.accepts(size)) {
+            multipartUploader.upload(bucketName, objectName, contentType, content, size);
+        } else {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .stream(content, size, -1L)
+                            .contentType(contentType)
+                            .build()
+            );
+        }
+    }
+
+    @Override
+    public InputStream get(String bucketName, String objectName) throws Exception {
+        return minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build());
+    }
+
+    @Override
+    public StoredObject stat(String bucketName, String objectName) throws Exception {
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+            return new StoredObject(stat.size(), stat.contentType());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void remove(String bucketName, String objectName) throws Exception {
+        minioClient.removeObject(RemoveObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build());
+    }
+
+    /**
+     * One multi-object delete request per thousand names; MinIO reports only the failures.
+     */
+    @Override
+    public List<String> removeAll(String bucketName, List<String> objectNames) throws Exception {
+        List<String> failed = new ArrayList<>();
+        if (objectNames.isEmpty()) {
+            return failed;
+        }
+        List<DeleteRequest.Object> objects = objectNames.stream().map(DeleteRequest.Object::new).toList();
+        for (Result<DeleteResult.Error> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName).objects(objects).build())) {
+            failed.add(result.get().objectName());
+        }
+        return failed;
+    }
+
+    @Override
+    public List<String> list(String bucketName, String prefix) throws Exception {
+        List<String> names = new ArrayList<>();
+        if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
+            return names;
+        }
+        for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName).prefix(prefix).recursive(true).build())) {
+            names.add(result.get().objectName());
+        }
+        return names;
+    }
+
+    @Override
+    public boolean supportsDirectUpload() {
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.w16a.danish.fileService.storage;
+
+import com.w16a.danish.fileService.enums.BucketType;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Where file-service keeps object bytes. {@code storage.backend} picks one implementation:
+ * {@link MinioStorageBackend} (the default) or {@link LocalStorageBackend} for a single box or a
+ * test run with no object store.
+ *
+ * <p>Objects are addressed the same way on every backend — bucket name plus object name — so the
+ * public URL {@code <public-endpoint>/<bucket>/<object>} and every caller that parses it stay
+ * unchanged whichever backend is configured.
+ *
+ * @author Eddy ZHANG
+ */
+public interface StorageBackend {
+
+    /**
+     * A stored object's metadata.
+     *
+     * @param size        length in bytes
+     * @param contentType content type, or null when unknown
+     */
+    record StoredObject(long size, String contentType) {
+    }
+
+    /**
+     * Creates the bucket if it does not exist yet.
+     */
+    void ensureBucket(BucketType bucketType) throws Exception;
+
+    /**
+     * Stores an object, replacing any object of the same name. Readers never see a partly written
+     * object.
+     *
+     * @param content     exactly {@code size} bytes
+     * @param contentType content type, may be null
+     */
+    void put(String bucketName, String objectName, InputStream content, long size, String contentType) throws Exception;
+
+    /**
+     * Opens an object for reading; the caller closes the stream.
+     */
+    InputStream get(String bucketName, String objectName) throws Exception;
+
+    /**
+     * @return the object's metadata, or null if there is no such object
+     */
+    StoredObject stat(String bucketName, String objectName) throws Exception;
+
+    /**
+     * Removes an object; removing a missing object is not an error.
+     */
+    void remove(String bucketName, String objectName) throws Exception;
+
+    /**
+     * Removes several objects of one bucket, as few round trips as the backend allows. Missing
+     * objects are not an error.
+     *
+     * @return the names that could not be removed
+     */
+    List<String> removeAll(String bucketName, List<String> objectNames) throws Exception;
+
+    /**
+     * Names of all objects in a bucket that start with {@code prefix}; empty if the bucket does not exist.
+     */
+    List<String> list(String bucketName, String prefix) throws Exception;
+
+    /**
+     * Whether clients can write to this backend without going through file-service — presigned
+     * URLs and resumable multipart uploads. Only an S3-compatible store can do that.
+     */
+    boolean supportsDirectUpload();
+}
@@ -15,14 +15,19 @@ public class FileValidator {
 
     public static void validateImage(MultipartFile file) {
         validateBasic(file);
+        validateImageType(file.getContentType(), file.getOriginalFilename());
+    }
+
+    /**
+     * Image check on declared metadata alone, for uploads whose bytes arrive later.
+     */
+    public static void validateImageType(String contentType, String filename) {
         // Validate image content type
-        String contentType = file.getContentType();
         if (contentType == null || !contentType.startsWith("image/")) {
             throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid image type: " + contentType);
         }
 
         // Validate image file extension
-        String filename = file.getOriginalFilename();
         if (filename == null || !filename.toLowerCase().matches(".*\\.(jpg|jpeg|png|gif)$")) {
             throw new BusinessException(HttpStatus.BAD_REQUEST, "Invalid image file: " + filename);
         }
@@ -34,5 +39,21 @@ public class FileValidator {
             throw new BusinessException(HttpStatus.BAD_REQUEST, "File is empty.");
         }
     }
-}
 
+    /**
+     * Derives a safe object-name suffix from the client-supplied filename. Only a short
+     * alphanumeric extension is preserved, so path separators or traversal sequences
+     * ("../") in the original name can never reach the object store key.
+     */
+    public static String safeExtension(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot < 0 || dot == originalFilename.length() - 1) {
+            return "";
+        }
+        String ext = originalFilename.substring(dot + 1);
+        return ext.matches("[A-Za-z0-9]{1,10}") ? "." + ext.toLowerCase() : "";
+    }
+}
@@ -1,6 +1,11 @@
 package com.w16a.danish.fileService.controller;
 
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.ResumableUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
+import com.w16a.danish.fileService.enums.BucketType;
 import com.w16a.danish.fileService.service.FileStorageService;
+import com.w16a.danish.fileService.service.ResumableUploadService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,8 +17,12 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +39,9 @@ class FileUploadControllerTest {
     @MockitoBean
     private FileStorageService fileStorageService;
 
+    @MockitoBean
+    private ResumableUploadService resumableUploadService;
+
     @Test
     @DisplayName("✅ Upload avatar successfully")
     void testUploadAvatarSuccess() throws Exception {
@@ -92,4 +104,70 @@ class FileUploadControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("File deleted successfully."));
     }
+
+    @Test
+    @DisplayName("✅ Presign submission upload successfully")
+    void testPresignSubmissionUploadSuccess() throws Exception {
+        Mockito.when(fileStorageService.presignSubmissionUpload(eq("c1/u1"), eq("a.zip"), eq("application/zip")))
+                .thenReturn(PresignedUploadVO.builder().objectName("c1/u1/x.zip").uploadUrl("http://signed").build());
+
+        mockMvc.perform(post("/files/upload/submission/presign")
+                        .param("prefix", "c1/u1")
+                        .param("fileName", "a.zip")
+                        .param("contentType", "application/zip"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.objectName").value("c1/u1/x.zip"))
+                .andExpect(jsonPath("$.uploadUrl").value("http://signed"));
+    }
+
+    @Test
+    @DisplayName("✅ Start a resumable upload")
+    void testInitiateResumableUpload() throws Exception {
+        Mockito.when(resumableUploadService.initiate(BucketType.SUBMISSIONS, "video.mp4", "video/mp4", 20_000_000L))
+                .thenReturn(ResumableUploadVO.builder().uploadId("up-1").chunkSize(8_388_608).totalChunks(3)
+                        .receivedChunks(List.of()).build());
+
+        mockMvc.perform(post("/files/upload/resumable")
+                        .param("bucket", "SUBMISSIONS")
+                        .param("fileName", "video.mp4")
+                        .param("contentType", "video/mp4")
+                        .param("size", "20000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.uploadId").value("up-1"))
+                .andExpect(jsonPath("$.totalChunks").value(3));
+    }
+
+    @Test
+    @DisplayName("✅ Upload a chunk as a raw body, passing the client's checksum through")
+    void testUploadChunk() throws Exception {
+        Mockito.when(resumableUploadService.uploadChunk(eq("up-1"), eq(2), any(InputStream.class), eq("md5==")))
+                .thenReturn(ResumableUploadVO.builder().uploadId("up-1").receivedChunks(List.of(1, 2)).build());
+
+        mockMvc.perform(put("/files/upload/resumable/up-1/chunks/2")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("Content-MD5", "md5==")
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedChunks[1]").value(2));
+    }
+
+    @Test
+    @DisplayName("✅ Query, complete and abort a resumable upload")
+    void testResumableUploadLifecycle() throws Exception {
+        Mockito.when(resumableUploadService.status("up-1"))
+                .thenReturn(ResumableUploadVO.builder().uploadId("up-1").receivedRanges(List.of("0-8388607")).build());
+        Mockito.when(resumableUploadService.complete("up-1"))
+                .thenReturn(StoredObjectVO.builder().objectName("x.mp4").fileUrl("http://minio/submissions/x.mp4").build());
+
+        mockMvc.perform(get("/files/upload/resumable/up-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.receivedRanges[0]").value("0-8388607"));
+        mockMvc.perform(post("/files/upload/resumable/up-1/complete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fileUrl").value("http://minio/submissions/x.mp4"));
+        mockMvc.perform(delete("/files/upload/resumable/up-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Upload aborted."));
+        Mockito.verify(resumableUploadService).abort("up-1");
+    }
 }
@@ -0,0 +1,80 @@
+package com.w16a.danish.fileService.controller;
+
+import com.w16a.danish.fileService.config.StoragePropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.storage.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LocalObjectControllerTest {
+
+    private static final String CONTENT = "0123456789abcdef";
+
+    @TempDir
+    Path root;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StoragePropertiesConfig properties = new StoragePropertiesConfig();
+        properties.setLocalRoot(root.toString());
+        LocalStorageBackend backend = new LocalStorageBackend(properties);
+        backend.ensureBucket(BucketType.SUBMISSIONS);
+        byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+        backend.put("submissions", "c1/u1/notes.txt", new ByteArrayInputStream(bytes), bytes.length, "text/plain");
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new LocalObjectController(backend)).build();
+    }
+
+    @Test
+    @DisplayName("✅ Serves the whole object at the same path MinIO would")
+    void servesWholeObject() throws Exception {
+        mockMvc.perform(get("/submissions/c1/u1/notes.txt"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    @DisplayName("✅ Answers a byte range and a suffix range with 206")
+    void servesRanges() throws Exception {
+        mockMvc.perform(get("/submissions/c1/u1/notes.txt").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/16"))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/submissions/c1/u1/notes.txt").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 13-15/16"))
+                .andExpect(content().string("def"));
+    }
+
+    @Test
+    @DisplayName("❌ A range past the end is 416; a malformed one is ignored")
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/submissions/c1/u1/notes.txt").header(HttpHeaders.RANGE, "bytes=99-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"));
+
+        mockMvc.perform(get("/submissions/c1/u1/notes.txt").header(HttpHeaders.RANGE, "lines=1-2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+}
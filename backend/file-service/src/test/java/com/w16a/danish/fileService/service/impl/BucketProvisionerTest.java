@@ -0,0 +1,93 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.enums.BucketType;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketPolicyArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BucketProvisionerTest {
+
+    private MinioClient minioClient;
+    private BucketProvisioner provisioner;
+
+    @BeforeEach
+    void setUp() {
+        minioClient = mock(MinioClient.class);
+        provisioner = new BucketProvisioner(minioClient);
+    }
+
+    private static ErrorResponseException error(String code) {
+        return new ErrorResponseException(new ErrorResponse(code, code, "submissions", null, null, null, null), null, null);
+    }
+
+    @Test
+    @DisplayName("✅ Should create missing buckets with their policy once, then skip the round trip")
+    void provisionsOnceThenRemembers() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(false);
+
+        provisioner.provisionAll();
+        provisioner.ensureExists(BucketType.SUBMISSIONS);
+        provisioner.ensureExists(BucketType.USER_AVATAR);
+
+        verify(minioClient, times(BucketType.values().length)).bucketExists(any(BucketExistsArgs.class));
+        verify(minioClient, times(BucketType.values().length)).makeBucket(any(MakeBucketArgs.class));
+        ArgumentCaptor<SetBucketPolicyArgs> policy = ArgumentCaptor.forClass(SetBucketPolicyArgs.class);
+        verify(minioClient, times(BucketType.values().length)).setBucketPolicy(policy.capture());
+        assertThat(policy.getAllValues().get(0).config()).contains("arn:aws:s3:::user-avatar/*");
+    }
+
+    @Test
+    @DisplayName("✅ Should leave an existing bucket's policy alone and accept losing the creation race")
+    void existingAndRacedBuckets() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true, false);
+        doThrow(error("BucketAlreadyOwnedByYou")).when(minioClient).makeBucket(any(MakeBucketArgs.class));
+
+        provisioner.ensureExists(BucketType.USER_AVATAR);
+        provisioner.ensureExists(BucketType.SUBMISSIONS);
+        provisioner.ensureExists(BucketType.SUBMISSIONS);
+
+        verify(minioClient, times(2)).bucketExists(any(BucketExistsArgs.class));
+        verify(minioClient, never()).setBucketPolicy(any(SetBucketPolicyArgs.class));
+    }
+
+    @Test
+    @DisplayName("❌ Should keep retrying a bucket whose provisioning failed")
+    void forgetsNothingOnFailure() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenThrow(new IllegalStateException("refused")).thenReturn(true);
+
+        provisioner.provisionAll();
+        provisioner.ensureExists(BucketType.USER_AVATAR);
+        provisioner.ensureExists(BucketType.USER_AVATAR);
+
+        verify(minioClient, times(BucketType.values().length + 1)).bucketExists(any(BucketExistsArgs.class));
+    }
+
+    @Test
+    @DisplayName("✅ Should re-provision a remembered bucket only when MinIO says it is gone")
+    void recoversFromNoSuchBucket() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true, false);
+        provisioner.ensureExists(BucketType.SUBMISSIONS);
+
+        assertThat(provisioner.recover("submissions", new IOException("failed", error("NoSuchKey")))).isFalse();
+        assertThat(provisioner.recover("submissions", new IOException("reset"))).isFalse();
+        assertThat(provisioner.recover("submissions", new IOException("failed", error("NoSuchBucket")))).isTrue();
+
+        verify(minioClient, times(2)).bucketExists(any(BucketExistsArgs.class));
+        verify(minioClient).makeBucket(any(MakeBucketArgs.class));
+        provisioner.ensureExists(BucketType.SUBMISSIONS);
+        verify(minioClient, times(2)).bucketExists(any(BucketExistsArgs.class));
+    }
+}
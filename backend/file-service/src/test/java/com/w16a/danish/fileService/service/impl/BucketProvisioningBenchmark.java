@@ -0,0 +1,103 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.storage.MinioStorageBackend;
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Latency of a small upload — bucket check plus put, as {@code FileStorageServiceImpl} does it —
+ * with a fresh {@link BucketProvisioner} per upload (one {@code bucketExists} round trip each, as
+ * before buckets were remembered) against one shared provisioner. Skipped in normal builds; run it
+ * with
+ *
+ * <pre>
+ *   mvn -pl backend/file-service test -Dtest=BucketProvisioningBenchmark -Dbenchmark=true
+ * </pre>
+ *
+ * {@link InProcessS3} answers on loopback, so the difference it shows is the floor; add
+ * {@code -Dbenchmark.endpoint=http://localhost:9000} (and {@code -Dbenchmark.access-key}/
+ * {@code -Dbenchmark.secret-key} if not the compose defaults) to see it against a real MinIO.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BucketProvisioningBenchmark {
+
+    private static final int UPLOADS = 2_000;
+    private static final byte[] CONTENT = new byte[64 * 1024];
+
+    private static InProcessS3 s3;
+    private static ExecutorService executor;
+    private static MinioClient minioClient;
+    private static ParallelMultipartUploader uploader;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        String endpoint = System.getProperty("benchmark.endpoint");
+        if (endpoint == null) {
+            s3 = new InProcessS3(false);
+            endpoint = s3.endpoint();
+        }
+        String accessKey = System.getProperty("benchmark.access-key", "minio");
+        String secretKey = System.getProperty("benchmark.secret-key", "minio123");
+
+        minioClient = MinioClient.builder().endpoint(endpoint).region("us-east-1").credentials(accessKey, secretKey).build();
+        MinioPropertiesConfig properties = new MinioPropertiesConfig();
+        executor = Executors.newFixedThreadPool(properties.getMultipartThreads());
+        MinioAsyncClient asyncClient = MinioAsyncClient.builder()
+                .endpoint(endpoint).region("us-east-1").credentials(accessKey, secretKey).build();
+        uploader = new ParallelMultipartUploader(asyncClient, executor, properties);
+        new BucketProvisioner(minioClient).provisionAll();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdownNow();
+        if (s3 != null) {
+            s3.close();
+        }
+    }
+
+    @Test
+    void compareLatency() throws Exception {
+        // One unmeasured round first, so JIT warm-up does not count against whichever runs first.
+        run(false);
+        run(true);
+        long[] uncached = run(false);
+        long[] cached = run(true);
+        System.out.printf("%n%-10s %10s %10s %10s%n", "provisioner", "mean", "p50", "p99");
+        print("per upload", uncached);
+        print("shared", cached);
+    }
+
+    private static long[] run(boolean shared) throws Exception {
+        BucketProvisioner sharedProvisioner = new BucketProvisioner(minioClient);
+        long[] nanos = new long[UPLOADS];
+        for (int i = 0; i < UPLOADS; i++) {
+            BucketProvisioner provisioner = shared ? sharedProvisioner : new BucketProvisioner(minioClient);
+            MinioStorageBackend backend = new MinioStorageBackend(minioClient, uploader, provisioner);
+            long start = System.nanoTime();
+            backend.ensureBucket(BucketType.COMPETITION_ASSETS);
+            backend.put(BucketType.COMPETITION_ASSETS.getBucketName(), "latency-" + i, new ByteArrayInputStream(CONTENT),
+                    CONTENT.length, "image/png");
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void print(String label, long[] sorted) {
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1e6;
+        System.out.printf("%-10s %7.3f ms %7.3f ms %7.3f ms%n", label, mean,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+}
@@ -0,0 +1,175 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import com.w16a.danish.fileService.storage.StorageBackend.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ContentAddressedStoreTest {
+
+    private static final String BUCKET = "submissions";
+    private static final String OBJECT = "sha256/abc.zip";
+    private static final String REF = "file:cas:ref:" + BUCKET + "/" + OBJECT;
+
+    private StorageBackend storageBackend;
+    private final Map<String, String> redis = new HashMap<>();
+    private ContentAddressedStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        storageBackend = mock(StorageBackend.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(inv -> redis.get(inv.<String>getArgument(0)));
+        when(values.increment(anyString())).thenAnswer(inv -> add(inv.getArgument(0), 1));
+        when(values.decrement(anyString())).thenAnswer(inv -> add(inv.getArgument(0), -1));
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(inv -> redis.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null);
+        when(redisTemplate.delete(anyString())).thenAnswer(inv -> redis.remove(inv.<String>getArgument(0)) != null);
+        when(redisTemplate.hasKey(anyString())).thenAnswer(inv -> redis.containsKey(inv.<String>getArgument(0)));
+        doAnswer(inv -> redis.put(inv.getArgument(0), inv.getArgument(1))).when(values).set(anyString(), anyString());
+        when(redisTemplate.execute(any(), anyList(), any())).thenAnswer(inv -> {
+            List<String> keys = inv.getArgument(1);
+            if (keys.size() == 2) {
+                // release once: mark the release id, then decrement
+                return redis.putIfAbsent(keys.get(1), "1") == null ? add(keys.get(0), -1) : null;
+            }
+            redis.remove(keys.get(0));
+            return 1L;
+        });
+
+        store = new ContentAddressedStore(storageBackend, redisTemplate, new MinioPropertiesConfig());
+    }
+
+    private long add(String key, long delta) {
+        long value = Long.parseLong(redis.getOrDefault(key, "0")) + delta;
+        redis.put(key, Long.toString(value));
+        return value;
+    }
+
+    @Test
+    @DisplayName("Object names are the SHA-256 of the content plus the extension")
+    void namesObjectsByContentHash() throws IOException {
+        String name = store.objectName(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)), ".txt");
+
+        assertThat(name).isEqualTo("sha256/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.txt");
+        assertThat(ContentAddressedStore.isContentAddressed(name)).isTrue();
+        assertThat(ContentAddressedStore.isContentAddressed("3f2a9c.txt")).isFalse();
+    }
+
+    @Test
+    @DisplayName("The first upload writes; a duplicate of a stored object only takes a reference")
+    void duplicateSkipsTheWrite() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        assertThat(store.store(BUCKET, OBJECT, writes::incrementAndGet)).isTrue();
+
+        when(storageBackend.stat(BUCKET, OBJECT)).thenReturn(new StoredObject(3, "application/zip"));
+        assertThat(store.store(BUCKET, OBJECT, writes::incrementAndGet)).isFalse();
+
+        assertThat(writes).hasValue(1);
+        assertThat(redis).containsEntry(REF, "2").hasSize(1);
+    }
+
+    @Test
+    @DisplayName("A failed write gives its reference back")
+    void failedWriteReleasesReference() {
+        assertThatThrownBy(() -> store.store(BUCKET, OBJECT, () -> {
+            throw new IOException("storage down");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(redis).containsEntry(REF, "0");
+    }
+
+    @Test
+    @DisplayName("The object is removed only when its last reference is released")
+    void removesOnLastRelease() throws Exception {
+        redis.put(REF, "2");
+
+        assertThat(store.release(BUCKET, OBJECT)).isFalse();
+        verify(storageBackend, never()).remove(anyString(), anyString());
+
+        assertThat(store.release(BUCKET, OBJECT)).isTrue();
+        verify(storageBackend).remove(BUCKET, OBJECT);
+        assertThat(redis).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A deletion delivered twice gives up its reference once")
+    void releaseIsIdempotentPerMessage() throws Exception {
+        redis.put(REF, "2");
+
+        assertThat(store.release(BUCKET, OBJECT, "m1")).isFalse();
+        assertThat(store.release(BUCKET, OBJECT, "m1")).isFalse();
+
+        assertThat(redis).containsEntry(REF, "1");
+        verify(storageBackend, never()).remove(anyString(), anyString());
+
+        assertThat(store.release(BUCKET, OBJECT, "m2")).isTrue();
+        verify(storageBackend).remove(BUCKET, OBJECT);
+    }
+
+    @Test
+    @DisplayName("Releasing an object with no known count keeps it, since others may use it")
+    void unknownCountKeepsObject() throws Exception {
+        assertThat(store.release(BUCKET, OBJECT)).isFalse();
+
+        verify(storageBackend, never()).remove(anyString(), anyString());
+        assertThat(redis).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A re-upload after the count was lost pins the object, so the next delete keeps it")
+    void lostCountPinsObject() throws Exception {
+        when(storageBackend.stat(BUCKET, OBJECT)).thenReturn(new StoredObject(3, "application/zip"));
+        AtomicInteger writes = new AtomicInteger();
+
+        assertThat(store.store(BUCKET, OBJECT, writes::incrementAndGet)).isFalse();
+        assertThat(store.release(BUCKET, OBJECT)).isFalse();
+        redis.put(REF, "0");
+        when(storageBackend.list(BUCKET, "sha256/")).thenReturn(List.of(OBJECT));
+        assertThat(store.sweep()).isZero();
+
+        assertThat(writes).hasValue(0);
+        verify(storageBackend, never()).remove(anyString(), anyString());
+        assertThat(redis).containsKey("file:cas:pin:" + BUCKET + "/" + OBJECT);
+    }
+
+    @Test
+    @DisplayName("The sweep removes objects counted down to zero and keeps referenced or uncounted ones")
+    void sweepRemovesOnlyZeroCountObjects() throws Exception {
+        redis.put("file:cas:ref:" + BUCKET + "/sha256/orphan.zip", "0");
+        redis.put("file:cas:ref:" + BUCKET + "/sha256/live.zip", "1");
+        when(storageBackend.list(anyString(), eq("sha256/"))).thenReturn(List.of());
+        when(storageBackend.list(BUCKET, "sha256/"))
+                .thenReturn(List.of("sha256/orphan.zip", "sha256/live.zip", "sha256/uncounted.zip"));
+
+        assertThat(store.sweep()).isEqualTo(1);
+
+        verify(storageBackend).remove(BUCKET, "sha256/orphan.zip");
+        verify(storageBackend, times(1)).remove(anyString(), anyString());
+        assertThat(redis).containsOnlyKeys("file:cas:ref:" + BUCKET + "/sha256/live.zip");
+    }
+}
@@ -0,0 +1,122 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.common.messaging.FileDeletionMessage;
+import com.w16a.danish.common.messaging.MessagingConstants;
+import com.w16a.danish.fileService.config.FileDeletionPropertiesConfig;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FileDeletionWorkerTest {
+
+    private StorageBackend storageBackend;
+    private ContentAddressedStore contentAddressedStore;
+    private RabbitTemplate rabbitTemplate;
+    private FileDeletionWorker worker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageBackend = mock(StorageBackend.class);
+        contentAddressedStore = mock(ContentAddressedStore.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        FileDeletionPropertiesConfig properties = new FileDeletionPropertiesConfig();
+        properties.setRetryBackoff(Duration.ZERO);
+        worker = new FileDeletionWorker(storageBackend, contentAddressedStore, rabbitTemplate, properties);
+        when(storageBackend.removeAll(anyString(), anyList())).thenReturn(List.of());
+    }
+
+    private void verifyParked(String bucket, String objectName) {
+        verify(rabbitTemplate).convertAndSend(eq(MessagingConstants.FILE_EXCHANGE), eq(MessagingConstants.ROUTING_FILE_DELETE_DEAD),
+                eq((Object) new FileDeletionMessage(bucket, objectName)), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    @DisplayName("✅ Should remove a batch with one bulk call per bucket, image variants included")
+    void removesBatchPerBucket() throws Exception {
+        worker.onDeletions(List.of(
+                new FileDeletionMessage("submissions", "c1/u1/a.zip"),
+                new FileDeletionMessage("competition-assets", "b.png"),
+                new FileDeletionMessage("submissions", "c1/u2/c.zip"),
+                new FileDeletionMessage("submissions", "c1/u1/a.zip"),
+                new FileDeletionMessage(null, "orphan.zip")));
+
+        verify(storageBackend).removeAll("submissions", List.of("c1/u1/a.zip", "c1/u2/c.zip"));
+        verify(storageBackend).removeAll("competition-assets", List.of("b.png",
+                "variants/b.png/thumbnail.jpg", "variants/b.png/card.jpg", "variants/b.png/full.jpg"));
+        verifyNoMoreInteractions(storageBackend);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    @DisplayName("✅ Should release deduplicated objects one reference at a time")
+    void releasesContentAddressedObjects() throws Exception {
+        when(contentAddressedStore.release("user-avatar", "sha256/last.png", "m1")).thenReturn(true);
+        when(contentAddressedStore.release("user-avatar", "sha256/shared.png", "m2")).thenReturn(false);
+        when(contentAddressedStore.release("user-avatar", "sha256/broken.png", "m3")).thenThrow(new IllegalStateException("redis down"));
+
+        worker.onDeletions(List.of(
+                new FileDeletionMessage("user-avatar", "sha256/last.png", "m1"),
+                new FileDeletionMessage("user-avatar", "sha256/shared.png", "m2"),
+                new FileDeletionMessage("user-avatar", "sha256/broken.png", "m3")));
+
+        verify(storageBackend).removeAll("user-avatar", List.of("variants/sha256/last.png/thumbnail.jpg",
+                "variants/sha256/last.png/card.jpg", "variants/sha256/last.png/full.jpg"));
+        // the parked message keeps its id, so a replay cannot release a second reference
+        ArgumentCaptor<Object> parked = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate).convertAndSend(eq(MessagingConstants.FILE_EXCHANGE), eq(MessagingConstants.ROUTING_FILE_DELETE_DEAD),
+                parked.capture(), any(MessagePostProcessor.class));
+        assertThat(parked.getValue()).isEqualTo(new FileDeletionMessage("user-avatar", "sha256/broken.png"))
+                .extracting("id").isEqualTo("m3");
+    }
+
+    @Test
+    @DisplayName("✅ Should retry only the objects that failed")
+    void retriesFailures() throws Exception {
+        when(storageBackend.removeAll("submissions", List.of("a.zip", "b.zip"))).thenReturn(List.of("b.zip"));
+        when(storageBackend.removeAll("submissions", List.of("b.zip"))).thenReturn(List.of());
+
+        worker.onDeletions(List.of(new FileDeletionMessage("submissions", "a.zip"), new FileDeletionMessage("submissions", "b.zip")));
+
+        verify(storageBackend).removeAll("submissions", List.of("b.zip"));
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    @DisplayName("❌ Should park objects that still fail after the last attempt")
+    void parksPersistentFailures() throws Exception {
+        when(storageBackend.removeAll("submissions", List.of("a.zip"))).thenThrow(new RuntimeException("storage down"));
+
+        worker.onDeletions(List.of(new FileDeletionMessage("submissions", "a.zip")));
+
+        verify(storageBackend, times(3)).removeAll("submissions", List.of("a.zip"));
+        verifyParked("submissions", "a.zip");
+    }
+
+    @Test
+    @DisplayName("❌ Should fail the batch when a failure cannot even be parked")
+    void failsBatchWhenParkingFails() throws Exception {
+        when(storageBackend.removeAll("submissions", List.of("a.zip"))).thenReturn(List.of("a.zip"));
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class));
+
+        assertThatThrownBy(() -> worker.onDeletions(List.of(new FileDeletionMessage("submissions", "a.zip"))))
+                .isInstanceOf(AmqpConnectException.class);
+    }
+}
@@ -1,14 +1,23 @@
 package com.w16a.danish.fileService.service.impl;
 
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
 import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.event.ImageUploadedEvent;
 import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.fileService.storage.MinioStorageBackend;
+import com.w16a.danish.fileService.storage.StorageBackend;
 import com.w16a.danish.fileService.util.FileValidator;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 
 
@@ -19,14 +28,28 @@ import static org.mockito.Mockito.*;
 class FileStorageServiceImplTest {
 
     private MinioClient minioClient;
+    private MinioClient presignMinioClient;
     private MinioPropertiesConfig minioPropertiesConfig;
+    private ParallelMultipartUploader multipartUploader;
+    private ContentAddressedStore contentAddressedStore;
+    private ImageDerivativeGenerator imageDerivativeGenerator;
+    private ApplicationEventPublisher eventPublisher;
+    private PendingSubmissionUploads pendingSubmissionUploads;
     private FileStorageServiceImpl fileStorageService;
 
     @BeforeEach
     void setUp() {
         minioClient = mock(MinioClient.class);
-        minioPropertiesConfig = mock(MinioPropertiesConfig.class);
-        fileStorageService = new FileStorageServiceImpl(minioClient, minioPropertiesConfig);
+        presignMinioClient = mock(MinioClient.class);
+        minioPropertiesConfig = spy(new MinioPropertiesConfig());
+        multipartUploader = mock(ParallelMultipartUploader.class);
+        contentAddressedStore = mock(ContentAddressedStore.class);
+        pendingSubmissionUploads = mock(PendingSubmissionUploads.class);
+        imageDerivativeGenerator = mock(ImageDerivativeGenerator.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        StorageBackend storageBackend = new MinioStorageBackend(minioClient, multipartUploader, new BucketProvisioner(minioClient));
+        fileStorageService = new FileStorageServiceImpl(storageBackend, presignMinioClient, minioPropertiesConfig, contentAddressedStore,
+                pendingSubmissionUploads, imageDerivativeGenerator, eventPublisher);
     }
 
     @Test
@@ -43,6 +66,8 @@ class FileStorageServiceImplTest {
             String url = fileStorageService.uploadAvatar(file);
 
             assertThat(url).contains("http://localhost:9000/user-avatar/");
+            String objectName = url.substring("http://localhost:9000/user-avatar/".length());
+            verify(eventPublisher).publishEvent(new ImageUploadedEvent("user-avatar", objectName));
         }
     }
 
@@ -60,6 +85,7 @@ class FileStorageServiceImplTest {
             String url = fileStorageService.uploadCompetitionPromo(file);
 
             assertThat(url).contains("http://localhost:9000/competition-assets/");
+            verify(eventPublisher, never()).publishEvent(any());
         }
     }
 
@@ -77,9 +103,67 @@ class FileStorageServiceImplTest {
             String url = fileStorageService.uploadSubmission(file);
 
             assertThat(url).contains("http://localhost:9000/submissions/");
+            verify(eventPublisher, never()).publishEvent(any());
         }
     }
 
+    @Test
+    @DisplayName("✅ Should send large files as a parallel multipart upload")
+    void testUploadLargeFile_UsesMultipart() throws Exception {
+        try (MockedStatic<FileValidator> mocked = Mockito.mockStatic(FileValidator.class)) {
+            mocked.when(() -> FileValidator.validateBasic(any())).thenAnswer(invocation -> null);
+
+            MockMultipartFile file = new MockMultipartFile("file", "promo.mp4", "video/mp4", "test".getBytes());
+
+            when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+            when(minioPropertiesConfig.getPublicEndpoint()).thenReturn("http://localhost:9000");
+            when(multipartUploader.accepts(file.getSize())).thenReturn(true);
+
+            String url = fileStorageService.uploadCompetitionPromo(file);
+
+            assertThat(url).contains("http://localhost:9000/competition-assets/");
+            verify(multipartUploader).upload(eq("competition-assets"), anyString(), eq("video/mp4"), any(), eq(file.getSize()));
+            verify(minioClient, never()).putObject(any());
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should name a deduplicated upload by its hash and only write it when not stored yet")
+    void testUploadDeduplicated() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "promo.PNG", "image/png", "same bytes".getBytes());
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(minioPropertiesConfig.getPublicEndpoint()).thenReturn("http://localhost:9000");
+        when(minioPropertiesConfig.isDedupEnabled()).thenReturn(true);
+        when(contentAddressedStore.objectName(any(), eq(".png"))).thenReturn("sha256/abc.png");
+        when(contentAddressedStore.store(eq("competition-assets"), eq("sha256/abc.png"), any())).thenReturn(false);
+
+        String url = fileStorageService.uploadCompetitionPromo(file);
+
+        assertThat(url).isEqualTo("http://localhost:9000/competition-assets/sha256/abc.png");
+        verify(minioClient, never()).putObject(any());
+        verify(eventPublisher).publishEvent(new ImageUploadedEvent("competition-assets", "sha256/abc.png"));
+    }
+
+    @Test
+    @DisplayName("✅ Should release one reference instead of deleting a deduplicated file")
+    void testDeleteDeduplicatedFile() throws Exception {
+        fileStorageService.deleteFile("submissions", "sha256/abc.zip");
+
+        verify(contentAddressedStore).release("submissions", "sha256/abc.zip");
+        verify(minioClient, never()).removeObject(any());
+        verifyNoInteractions(imageDerivativeGenerator);
+    }
+
+    @Test
+    @DisplayName("✅ Should remove the variants of a deduplicated image with its last reference")
+    void testDeleteDeduplicatedImage() throws Exception {
+        when(contentAddressedStore.release("user-avatar", "sha256/abc.png")).thenReturn(true);
+
+        fileStorageService.deleteFile("user-avatar", "sha256/abc.png");
+
+        verify(imageDerivativeGenerator).removeVariants("user-avatar", "sha256/abc.png");
+    }
+
     @Test
     @DisplayName("❌ Should throw BusinessException when upload fails")
     void testUpload_Failure() throws Exception {
@@ -96,6 +180,30 @@ class FileStorageServiceImplTest {
         }
     }
 
+    @Test
+    @DisplayName("❌ Should recreate a bucket that disappeared, failing only the upload that found out")
+    void testUpload_BucketDisappeared() throws Exception {
+        try (MockedStatic<FileValidator> mocked = Mockito.mockStatic(FileValidator.class)) {
+            mocked.when(() -> FileValidator.validateBasic(any())).thenAnswer(invocation -> null);
+
+            MockMultipartFile file = new MockMultipartFile("file", "promo.mp4", "video/mp4", "test".getBytes());
+            ErrorResponse noSuchBucket = new ErrorResponse("NoSuchBucket", "gone", "competition-assets", null, null, null, null);
+            when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true, false);
+            when(minioPropertiesConfig.getPublicEndpoint()).thenReturn("http://localhost:9000");
+            when(minioClient.putObject(any(PutObjectArgs.class)))
+                    .thenThrow(new ErrorResponseException(noSuchBucket, null, null))
+                    .thenReturn(null);
+
+            assertThatThrownBy(() -> fileStorageService.uploadCompetitionPromo(file))
+                    .isInstanceOf(BusinessException.class);
+            fileStorageService.uploadCompetitionPromo(file);
+
+            verify(minioClient, times(2)).bucketExists(any(BucketExistsArgs.class));
+            verify(minioClient).makeBucket(any(MakeBucketArgs.class));
+            verify(minioClient, times(2)).putObject(any(PutObjectArgs.class));
+        }
+    }
+
     @Test
     @DisplayName("✅ Should delete file successfully")
     void testDeleteFile_Success() throws Exception {
@@ -103,6 +211,8 @@ class FileStorageServiceImplTest {
         doNothing().when(minioClient).removeObject(any(RemoveObjectArgs.class));
 
         fileStorageService.deleteFile("bucket", "objectName");
+
+        verify(imageDerivativeGenerator).removeVariants("bucket", "objectName");
     }
 
     @Test
@@ -114,4 +224,75 @@ class FileStorageServiceImplTest {
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("File deletion failed");
     }
+
+    @Test
+    @DisplayName("✅ Should presign a PUT under the caller's prefix with the public-endpoint client")
+    void testPresignSubmissionUpload_Success() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(minioPropertiesConfig.getUploadUrlExpirySeconds()).thenReturn(900);
+        when(presignMinioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("http://localhost:9000/submissions/signed");
+
+        PresignedUploadVO ticket = fileStorageService.presignSubmissionUpload("c1/u1", "report.PDF", "application/pdf");
+
+        ArgumentCaptor<GetPresignedObjectUrlArgs> args = ArgumentCaptor.forClass(GetPresignedObjectUrlArgs.class);
+        verify(presignMinioClient).getPresignedObjectUrl(args.capture());
+        assertThat(args.getValue().method()).isEqualTo(Http.Method.PUT);
+        assertThat(args.getValue().bucket()).isEqualTo("submissions");
+        assertThat(args.getValue().object()).isEqualTo(ticket.getObjectName());
+        assertThat(ticket.getObjectName()).startsWith("c1/u1/").endsWith(".pdf");
+        assertThat(ticket.getUploadUrl()).isEqualTo("http://localhost:9000/submissions/signed");
+        verify(minioClient, never()).getPresignedObjectUrl(any());
+        verify(pendingSubmissionUploads).track(eq(ticket.getObjectName()), any());
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse to presign when the storage backend cannot take direct uploads")
+    void testPresignSubmissionUpload_NotSupported() {
+        StorageBackend localOnly = mock(StorageBackend.class);
+        FileStorageServiceImpl service = new FileStorageServiceImpl(localOnly, presignMinioClient, minioPropertiesConfig, contentAddressedStore,
+                pendingSubmissionUploads, imageDerivativeGenerator, eventPublisher);
+
+        assertThatThrownBy(() -> service.presignSubmissionUpload("c1/u1", "a.zip", null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("not available");
+        verifyNoInteractions(presignMinioClient);
+    }
+
+    @Test
+    @DisplayName("❌ Should reject a prefix that could escape its folder")
+    void testPresignSubmissionUpload_BadPrefix() {
+        assertThatThrownBy(() -> fileStorageService.presignSubmissionUpload("../c1", "a.zip", null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Invalid object prefix");
+        verifyNoInteractions(presignMinioClient);
+    }
+
+    @Test
+    @DisplayName("✅ Should confirm an uploaded submission, return its public URL and stop tracking it")
+    void testConfirmSubmissionUpload_Success() throws Exception {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(42L);
+        when(stat.contentType()).thenReturn("application/zip");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+        when(minioPropertiesConfig.getPublicEndpoint()).thenReturn("http://localhost:9000/");
+
+        StoredObjectVO stored = fileStorageService.confirmSubmissionUpload("c1/u1/x.zip");
+
+        assertThat(stored.getFileUrl()).isEqualTo("http://localhost:9000/submissions/c1/u1/x.zip");
+        assertThat(stored.getSize()).isEqualTo(42L);
+        assertThat(stored.getContentType()).isEqualTo("application/zip");
+        verify(pendingSubmissionUploads).confirm("c1/u1/x.zip");
+    }
+
+    @Test
+    @DisplayName("✅ Should report a never-uploaded object as absent rather than failing")
+    void testConfirmSubmissionUpload_Missing() throws Exception {
+        ErrorResponse missing = new ErrorResponse("NoSuchKey", "missing", "submissions", "c1/u1/x.zip", null, null, null);
+        when(minioClient.statObject(any(StatObjectArgs.class)))
+                .thenThrow(new ErrorResponseException(missing, null, null));
+
+        assertThat(fileStorageService.confirmSubmissionUpload("c1/u1/x.zip")).isNull();
+        verify(pendingSubmissionUploads, never()).confirm(anyString());
+    }
 }
@@ -0,0 +1,251 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.common.domain.enums.ImageVariant;
+import com.w16a.danish.fileService.config.ImageDerivativePropertiesConfig;
+import com.w16a.danish.fileService.config.StoragePropertiesConfig;
+import com.w16a.danish.fileService.event.ImageUploadedEvent;
+import com.w16a.danish.fileService.storage.LocalStorageBackend;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the generator against a local backend with tasks executed inline, so each test sees the
+ * variants as soon as the event is handled. The pending set is a map behind a mocked Redis.
+ */
+class ImageDerivativeGeneratorTest {
+
+    private static final String BUCKET = "competition-assets";
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend storage;
+    private ImageDerivativePropertiesConfig properties;
+    private StringRedisTemplate redisTemplate;
+    private final Map<String, Double> pending = new HashMap<>();
+    private final Map<String, String> values = new HashMap<>();
+    private ImageDerivativeGenerator generator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        StoragePropertiesConfig storageProperties = new StoragePropertiesConfig();
+        storageProperties.setLocalRoot(root.toString());
+        storage = new LocalStorageBackend(storageProperties);
+        properties = new ImageDerivativePropertiesConfig();
+
+        redisTemplate = mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zset = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.add(eq(ImageDerivativeGenerator.PENDING_KEY), anyString(), anyDouble()))
+                .thenAnswer(inv -> pending.put(inv.getArgument(1), inv.getArgument(2)) == null);
+        when(zset.remove(eq(ImageDerivativeGenerator.PENDING_KEY), any()))
+                .thenAnswer(inv -> pending.remove(inv.<String>getArgument(1)) == null ? 0L : 1L);
+        when(zset.rangeByScore(eq(ImageDerivativeGenerator.PENDING_KEY), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenAnswer(inv -> pending.entrySet().stream()
+                        .filter(e -> e.getValue() <= inv.<Double>getArgument(2))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), anyString()))
+                .thenAnswer(inv -> values.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null);
+        when(redisTemplate.delete(anyString())).thenAnswer(inv -> values.remove(inv.<String>getArgument(0)) != null);
+
+        generator = new ImageDerivativeGenerator(storage, Runnable::run, properties, redisTemplate);
+    }
+
+    private void putImage(String objectName, int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        byte[] bytes = out.toByteArray();
+        storage.put(BUCKET, objectName, new ByteArrayInputStream(bytes), bytes.length, "image/" + format);
+    }
+
+    private BufferedImage variant(String objectName, ImageVariant variant) throws IOException {
+        Path file = storage.file(BUCKET, variant.objectName(objectName));
+        return file == null ? null : ImageIO.read(file.toFile());
+    }
+
+    @Test
+    @DisplayName("Every variant is written as a JPEG fitting its box with the aspect ratio kept")
+    void writesAllVariants() throws IOException {
+        putImage("a.png", 2000, 1000, BufferedImage.TYPE_INT_ARGB, "png");
+
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "a.png"));
+
+        assertThat(variant("a.png", ImageVariant.THUMBNAIL)).extracting(BufferedImage::getWidth, BufferedImage::getHeight)
+                .containsExactly(128, 64);
+        assertThat(variant("a.png", ImageVariant.CARD)).extracting(BufferedImage::getWidth, BufferedImage::getHeight)
+                .containsExactly(480, 240);
+        assertThat(variant("a.png", ImageVariant.FULL)).extracting(BufferedImage::getWidth, BufferedImage::getHeight)
+                .containsExactly(1600, 800);
+        assertThat(storage.stat(BUCKET, ImageVariant.CARD.objectName("a.png")).contentType()).isEqualTo("image/jpeg");
+    }
+
+    @Test
+    @DisplayName("Small images are never scaled up")
+    void doesNotUpscale() throws IOException {
+        putImage("small.jpg", 300, 200, BufferedImage.TYPE_INT_RGB, "jpg");
+
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "small.jpg"));
+
+        assertThat(variant("small.jpg", ImageVariant.THUMBNAIL).getWidth()).isEqualTo(128);
+        assertThat(variant("small.jpg", ImageVariant.CARD).getWidth()).isEqualTo(300);
+        assertThat(variant("small.jpg", ImageVariant.FULL).getHeight()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Undecodable and oversized originals get copies of themselves; missing and processed ones are left alone")
+    void copiesWhatItCannotResize() throws Exception {
+        byte[] text = "not an image".getBytes(StandardCharsets.UTF_8);
+        storage.put(BUCKET, "fake.webp", new ByteArrayInputStream(text), text.length, "image/webp");
+        putImage("huge.png", 200, 200, BufferedImage.TYPE_INT_RGB, "png");
+        properties.setMaxPixels(100 * 100);
+
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "fake.webp"));
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "huge.png"));
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "missing.png"));
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertThat(storage.file(BUCKET, variant.objectName("fake.webp"))).hasBinaryContent(text);
+            assertThat(storage.file(BUCKET, variant.objectName("huge.png")))
+                    .hasSameBinaryContentAs(storage.file(BUCKET, "huge.png"));
+        }
+        assertThat(storage.list(BUCKET, ImageVariant.PREFIX + "missing.png")).isEmpty();
+        assertThat(pending).isEmpty();
+
+        Path card = storage.file(BUCKET, ImageVariant.CARD.objectName("huge.png"));
+        Files.writeString(card, "kept");
+        properties.setMaxPixels(Long.MAX_VALUE);
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "huge.png"));
+        assertThat(card).hasContent("kept");
+    }
+
+    @Test
+    @DisplayName("Work the full pool rejects stays pending and a later sweep derives it")
+    void rejectedWorkIsSweptLater() throws IOException {
+        putImage("a.png", 50, 50, BufferedImage.TYPE_INT_RGB, "png");
+        Executor full = task -> {
+            throw new TaskRejectedException("full");
+        };
+
+        new ImageDerivativeGenerator(storage, full, properties, redisTemplate)
+                .onImageUploaded(new ImageUploadedEvent(BUCKET, "a.png"));
+
+        assertThat(storage.list(BUCKET, ImageVariant.PREFIX)).isEmpty();
+        assertThat(pending).containsOnlyKeys(BUCKET + "/a.png");
+
+        // Too recent: the task could still be waiting in the pool
+        assertThat(generator.sweep()).isZero();
+        pending.replaceAll((member, score) -> 0d);
+        assertThat(generator.sweep()).isEqualTo(1);
+
+        assertThat(storage.list(BUCKET, ImageVariant.PREFIX)).hasSize(3);
+        assertThat(pending).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A storage failure leaves the original pending for another try")
+    void storageFailureIsRetried() throws Exception {
+        StorageBackend failing = mock(StorageBackend.class);
+        when(failing.stat(anyString(), anyString())).thenThrow(new IOException("storage down"));
+
+        new ImageDerivativeGenerator(failing, Runnable::run, properties, redisTemplate)
+                .onImageUploaded(new ImageUploadedEvent(BUCKET, "a.png"));
+
+        assertThat(pending).containsOnlyKeys(BUCKET + "/a.png");
+    }
+
+    @Test
+    @DisplayName("Images stored without variants are queued once; other files and variants are not")
+    void backfillsExistingImagesOnce() throws IOException {
+        putImage("old.png", 50, 50, BufferedImage.TYPE_INT_RGB, "png");
+        putImage("done.png", 50, 50, BufferedImage.TYPE_INT_RGB, "png");
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "done.png"));
+        byte[] video = "video".getBytes(StandardCharsets.UTF_8);
+        storage.put(BUCKET, "intro.mp4", new ByteArrayInputStream(video), video.length, "video/mp4");
+
+        assertThat(generator.backfill()).isEqualTo(1);
+        assertThat(pending).containsOnlyKeys(BUCKET + "/old.png");
+        assertThat(generator.backfill()).isZero();
+
+        pending.replaceAll((member, score) -> 0d);
+        generator.sweep();
+        assertThat(variant("old.png", ImageVariant.THUMBNAIL)).isNotNull();
+        assertThat(pending).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A disabled pipeline does nothing")
+    void disabledDoesNothing() throws IOException {
+        putImage("a.png", 50, 50, BufferedImage.TYPE_INT_RGB, "png");
+        properties.setEnabled(false);
+
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "a.png"));
+
+        assertThat(generator.backfill()).isZero();
+        assertThat(generator.sweep()).isZero();
+        assertThat(storage.list(BUCKET, ImageVariant.PREFIX)).isEmpty();
+        assertThat(pending).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Removing variants removes all of them and tolerates missing ones")
+    void removesVariants() throws IOException {
+        putImage("a.png", 50, 50, BufferedImage.TYPE_INT_RGB, "png");
+        generator.onImageUploaded(new ImageUploadedEvent(BUCKET, "a.png"));
+        assertThat(storage.list(BUCKET, ImageVariant.PREFIX)).hasSize(3);
+
+        generator.removeVariants(BUCKET, "a.png");
+        generator.removeVariants(BUCKET, "a.png");
+        generator.removeVariants(BUCKET, "bad/../name");
+
+        assertThat(storage.list(BUCKET, ImageVariant.PREFIX)).isEmpty();
+        assertThat(storage.file(BUCKET, "a.png")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Decoding refuses an image whose header is over the pixel limit")
+    void decodeChecksPixelsFirst() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        assertThatThrownBy(() -> ImageDerivativeGenerator.decode(new ByteArrayInputStream(out.toByteArray()), 399))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("limit");
+        assertThat(ImageDerivativeGenerator.decode(new ByteArrayInputStream(out.toByteArray()), 400)).isNotNull();
+    }
+}
@@ -0,0 +1,244 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Just enough of the S3 API, on a JDK HttpServer, for MinIO's client to run plain and multipart
+ * uploads against: put, create, upload part, complete and abort. Bodies are hashed as they
+ * arrive and only kept when asked for, so a benchmark can push gigabytes through it.
+ *
+ * <p>The completion ETag is computed the way S3 does it — MD5 of the part MD5s, then
+ * {@code -<part count>} — so a client-side ETag check is tested against the real rule.
+ */
+final class InProcessS3 implements AutoCloseable {
+
+    private record StoredPart(byte[] md5, byte[] content) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private final boolean keepContent;
+
+    private final Map<String, Map<Integer, StoredPart>> uploads = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> partAttempts = new ConcurrentHashMap<>();
+    private final AtomicInteger partsInFlight = new AtomicInteger();
+    private final AtomicInteger maxPartsInFlight = new AtomicInteger();
+    private final AtomicInteger aborts = new AtomicInteger();
+
+    /** Decides, from (part number, attempt), whether a part upload gets a 500. */
+    volatile BiPredicate<Integer, Integer> failPart = (part, attempt) -> false;
+    /** Replaces the ETag returned on completion, to simulate a corrupted assembly. */
+    volatile String completionEtagOverride;
+    /** Buckets that answer NoSuchBucket until they are created again. */
+    final Set<String> missingBuckets = ConcurrentHashMap.newKeySet();
+
+    InProcessS3(boolean keepContent) throws IOException {
+        this.keepContent = keepContent;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    byte[] object(String bucket, String objectName) {
+        return objects.get(bucket + "/" + objectName);
+    }
+
+    int attempts(int partNumber) {
+        AtomicInteger attempts = partAttempts.get(partNumber);
+        return attempts == null ? 0 : attempts.get();
+    }
+
+    int maxPartsInFlight() {
+        return maxPartsInFlight.get();
+    }
+
+    int aborts() {
+        return aborts.get();
+    }
+
+    int openUploads() {
+        return uploads.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String key = path.substring(1);
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            String bucket = key.split("/", 2)[0];
+            boolean bucketOnly = !key.contains("/");
+            if (missingBuckets.contains(bucket) && "HEAD".equals(method)) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (missingBuckets.contains(bucket) && !("PUT".equals(method) && bucketOnly)) {
+                sendError(exchange, 404, "NoSuchBucket");
+            } else if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+            } else if ("PUT".equals(method) && bucketOnly) {
+                exchange.getRequestBody().readAllBytes();
+                missingBuckets.remove(bucket);
+                exchange.sendResponseHeaders(200, -1);
+            } else if ("PUT".equals(method) && query.containsKey("partNumber")) {
+                uploadPart(exchange, query.get("uploadId"), Integer.parseInt(query.get("partNumber")));
+            } else if ("PUT".equals(method)) {
+                Hashed body = read(exchange.getRequestBody());
+                if (body.content != null) {
+                    objects.put(key, body.content);
+                }
+                sendEtag(exchange, hex(body.md5));
+            } else if ("POST".equals(method) && query.containsKey("uploads")) {
+                String uploadId = UUID.randomUUID().toString();
+                uploads.put(uploadId, new ConcurrentHashMap<>());
+                String[] bucketAndKey = key.split("/", 2);
+                sendXml(exchange, 200, "<InitiateMultipartUploadResult><Bucket>" + bucketAndKey[0] + "</Bucket><Key>"
+                        + bucketAndKey[1] + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+            } else if ("POST".equals(method) && query.containsKey("uploadId")) {
+                exchange.getRequestBody().readAllBytes();
+                complete(exchange, key, query.get("uploadId"));
+            } else if ("DELETE".equals(method) && query.containsKey("uploadId")) {
+                uploads.remove(query.get("uploadId"));
+                aborts.incrementAndGet();
+                exchange.sendResponseHeaders(204, -1);
+            } else if ("DELETE".equals(method)) {
+                objects.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                sendError(exchange, 400, "InvalidRequest");
+            }
+        }
+    }
+
+    private void uploadPart(HttpExchange exchange, String uploadId, int partNumber) throws IOException {
+        int attempt = partAttempts.computeIfAbsent(partNumber, n -> new AtomicInteger()).incrementAndGet();
+        int inFlight = partsInFlight.incrementAndGet();
+        maxPartsInFlight.accumulateAndGet(inFlight, Math::max);
+        try {
+            Hashed body = read(exchange.getRequestBody());
+            Map<Integer, StoredPart> parts = uploads.get(uploadId);
+            if (parts == null) {
+                sendError(exchange, 404, "NoSuchUpload");
+            } else if (failPart.test(partNumber, attempt)) {
+                sendError(exchange, 500, "InternalError");
+            } else {
+                parts.put(partNumber, new StoredPart(body.md5, body.content));
+                sendEtag(exchange, hex(body.md5));
+            }
+        } finally {
+            partsInFlight.decrementAndGet();
+        }
+    }
+
+    private void complete(HttpExchange exchange, String key, String uploadId) throws IOException {
+        Map<Integer, StoredPart> parts = uploads.remove(uploadId);
+        if (parts == null) {
+            sendError(exchange, 404, "NoSuchUpload");
+            return;
+        }
+        MessageDigest etagDigest = md5();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (StoredPart part : new TreeMap<>(parts).values()) {
+            etagDigest.update(part.md5);
+            if (part.content != null) {
+                content.writeBytes(part.content);
+            }
+        }
+        objects.put(key, keepContent ? content.toByteArray() : new byte[0]);
+        String etag = completionEtagOverride != null ? completionEtagOverride : hex(etagDigest.digest()) + "-" + parts.size();
+        String[] bucketAndKey = key.split("/", 2);
+        sendXml(exchange, 200, "<CompleteMultipartUploadResult><Location>" + endpoint() + "/" + key + "</Location><Bucket>"
+                + bucketAndKey[0] + "</Bucket><Key>" + bucketAndKey[1] + "</Key><ETag>\"" + etag
+                + "\"</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private record Hashed(byte[] md5, byte[] content) {
+    }
+
+    private Hashed read(InputStream in) throws IOException {
+        MessageDigest md5 = md5();
+        ByteArrayOutputStream kept = keepContent ? new ByteArrayOutputStream() : null;
+        byte[] buffer = new byte[64 * 1024];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            md5.update(buffer, 0, n);
+            if (kept != null) {
+                kept.write(buffer, 0, n);
+            }
+        }
+        return new Hashed(md5.digest(), kept == null ? null : kept.toByteArray());
+    }
+
+    private static void sendEtag(HttpExchange exchange, String etag) throws IOException {
+        exchange.getResponseHeaders().add("ETag", "\"" + etag + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code) throws IOException {
+        sendXml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + code + "</Message><Resource>"
+                + exchange.getRequestURI().getPath() + "</Resource><RequestId>test</RequestId></Error>");
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                params.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Throughput of a plain {@code putObject} against {@link ParallelMultipartUploader} for 100 MB to
+ * 1 GB objects. Skipped in normal builds; run it with
+ *
+ * <pre>
+ *   mvn -pl backend/file-service test -Dtest=ParallelMultipartUploadBenchmark -Dbenchmark=true
+ * </pre>
+ *
+ * By default it targets {@link InProcessS3}, which measures client-side cost: reading, hashing,
+ * signing and sending. Add {@code -Dbenchmark.endpoint=http://localhost:9000} (and
+ * {@code -Dbenchmark.access-key}/{@code -Dbenchmark.secret-key} if not the compose defaults) to run
+ * it against a real MinIO instead.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ParallelMultipartUploadBenchmark {
+
+    private static final long MB = 1024L * 1024;
+    private static final long[] SIZES = {100 * MB, 256 * MB, 512 * MB, 1024 * MB};
+    private static final String BUCKET = "benchmark";
+
+    private static InProcessS3 s3;
+    private static ExecutorService executor;
+    private static MinioClient minioClient;
+    private static ParallelMultipartUploader uploader;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        String endpoint = System.getProperty("benchmark.endpoint");
+        if (endpoint == null) {
+            s3 = new InProcessS3(false);
+            endpoint = s3.endpoint();
+        }
+        String accessKey = System.getProperty("benchmark.access-key", "minio");
+        String secretKey = System.getProperty("benchmark.secret-key", "minio123");
+
+        minioClient = MinioClient.builder().endpoint(endpoint).region("us-east-1").credentials(accessKey, secretKey).build();
+        if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(BUCKET).build())) {
+            minioClient.makeBucket(MakeBucketArgs.builder().bucket(BUCKET).build());
+        }
+
+        MinioPropertiesConfig properties = new MinioPropertiesConfig();
+        executor = Executors.newFixedThreadPool(properties.getMultipartThreads());
+        MinioAsyncClient asyncClient = MinioAsyncClient.builder()
+                .endpoint(endpoint).region("us-east-1").credentials(accessKey, secretKey).build();
+        uploader = new ParallelMultipartUploader(asyncClient, executor, properties);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdownNow();
+        if (s3 != null) {
+            s3.close();
+        }
+    }
+
+    @Test
+    void compareThroughput() throws Exception {
+        System.out.printf("%n%-8s %14s %14s %8s%n", "size", "putObject", "parallel", "speedup");
+        for (long size : SIZES) {
+            // One unmeasured round first, so JIT warm-up does not count against whichever runs first.
+            if (size == SIZES[0]) {
+                putObject(size);
+                parallel(size);
+            }
+            double single = throughput(size, putObject(size));
+            double parallel = throughput(size, parallel(size));
+            System.out.printf("%-8s %10.1f MB/s %10.1f MB/s %7.2fx%n", size / MB + " MB", single, parallel, parallel / single);
+        }
+    }
+
+    private static long putObject(long size) throws Exception {
+        long start = System.nanoTime();
+        minioClient.putObject(PutObjectArgs.builder()
+                .bucket(BUCKET)
+                .object("single-" + size)
+                .stream(new GeneratedStream(size), size, -1L)
+                .contentType("video/mp4")
+                .build());
+        return System.nanoTime() - start;
+    }
+
+    private static long parallel(long size) throws Exception {
+        long start = System.nanoTime();
+        uploader.upload(BUCKET, "parallel-" + size, "video/mp4", new GeneratedStream(size), size);
+        return System.nanoTime() - start;
+    }
+
+    private static double throughput(long size, long nanos) {
+        return (size / (double) MB) / (nanos / 1e9);
+    }
+
+    /** Produces {@code size} bytes without holding them, so a 1 GB run fits any test heap. */
+    private static final class GeneratedStream extends InputStream {
+
+        private long remaining;
+
+        GeneratedStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            return remaining-- > 0 ? (int) (remaining & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = (int) Math.min(len, remaining);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) (remaining - i);
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+}
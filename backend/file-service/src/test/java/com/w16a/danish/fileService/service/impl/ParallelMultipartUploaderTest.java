@@ -0,0 +1,240 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import io.minio.MinioAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the real MinIO client against {@link InProcessS3}, so part numbering, Content-MD5, retries
+ * and the ETag check are exercised over HTTP rather than against mocks.
+ */
+class ParallelMultipartUploaderTest {
+
+    private static final long MIB = 1024L * 1024;
+    private static final String BUCKET = "competition-assets";
+
+    private InProcessS3 s3;
+    private ExecutorService executor;
+    private MinioPropertiesConfig properties;
+    private ParallelMultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        s3 = new InProcessS3(true);
+        executor = Executors.newFixedThreadPool(4);
+        properties = new MinioPropertiesConfig();
+        properties.setMultipartThreshold(DataSize.ofMegabytes(8));
+        MinioAsyncClient client = MinioAsyncClient.builder()
+                .endpoint(s3.endpoint())
+                .region("us-east-1")
+                .credentials("minio", "minio123")
+                .build();
+        uploader = new ParallelMultipartUploader(client, executor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        s3.close();
+    }
+
+    /** Keeps submitted parts, and so their buffers, queued until opened. */
+    private static final class HeldExecutor implements Executor {
+        private final Executor delegate;
+        private final List<Runnable> held = new ArrayList<>();
+        private boolean open;
+
+        HeldExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            if (open) {
+                delegate.execute(task);
+            } else {
+                held.add(task);
+                notifyAll();
+            }
+        }
+
+        synchronized int heldCount() {
+            return held.size();
+        }
+
+        synchronized void awaitHeld(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (held.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+        }
+
+        synchronized void open() {
+            open = true;
+            held.forEach(delegate::execute);
+            held.clear();
+        }
+    }
+
+    private static byte[] content(long size) {
+        byte[] bytes = new byte[(int) size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("Part size grows with the object, stays within S3's limits and keeps under 10,000 parts")
+    void partSizeAdaptsToObjectSize() {
+        assertThat(ParallelMultipartUploader.partSize(100 * MIB)).isEqualTo(5 * MIB);
+        assertThat(ParallelMultipartUploader.partSize(512 * MIB)).isEqualTo(8 * MIB);
+        assertThat(ParallelMultipartUploader.partSize(1024 * MIB)).isEqualTo(16 * MIB);
+        long huge = 200L * 1024 * MIB;
+        assertThat(Math.ceilDiv(huge, ParallelMultipartUploader.partSize(huge))).isLessThanOrEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Parallelism grows with the object, from two up to the configured cap")
+    void parallelismAdaptsToObjectSize() {
+        assertThat(uploader.parallelism(10 * MIB)).isEqualTo(2);
+        assertThat(uploader.parallelism(200 * MIB)).isEqualTo(4);
+        assertThat(uploader.parallelism(1024 * MIB)).isEqualTo(properties.getMultipartMaxParallelism());
+    }
+
+    @Test
+    @DisplayName("Only objects over the threshold, and over one minimum part, take the multipart path")
+    void thresholdDecidesThePath() {
+        assertThat(uploader.accepts(8 * MIB)).isTrue();
+        assertThat(uploader.accepts(8 * MIB - 1)).isFalse();
+
+        properties.setMultipartThreshold(DataSize.ofBytes(1));
+        assertThat(uploader.accepts(ParallelMultipartUploader.MIN_PART_SIZE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Parts are reassembled in order and the stored ETag matches the one computed while reading")
+    void uploadsInParallelAndVerifiesEtag() throws IOException {
+        byte[] content = content(12 * MIB + 123);
+
+        String etag = uploader.upload(BUCKET, "video.mp4", "video/mp4", new ByteArrayInputStream(content), content.length);
+
+        assertThat(etag).endsWith("-3");
+        assertThat(s3.object(BUCKET, "video.mp4")).isEqualTo(content);
+        assertThat(s3.maxPartsInFlight()).isLessThanOrEqualTo(uploader.parallelism(content.length));
+        assertThat(s3.aborts()).isZero();
+    }
+
+    @Test
+    @DisplayName("Part buffers default to a quarter of the heap and never drop below one largest part")
+    void bufferBudgetIsSizedFromHeap() {
+        assertThat(ParallelMultipartUploader.bufferPermits(null))
+                .isEqualTo((int) Math.max(16, Runtime.getRuntime().maxMemory() / 4 / MIB));
+        assertThat(ParallelMultipartUploader.bufferPermits(DataSize.ofMegabytes(1))).isEqualTo(16);
+        assertThat(ParallelMultipartUploader.bufferPermits(DataSize.ofGigabytes(1))).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("Concurrent uploads together hold no more part buffers than the shared budget")
+    void concurrentUploadsShareTheBufferBudget() throws Exception {
+        properties.setMultipartBufferMemory(DataSize.ofMegabytes(16));
+        HeldExecutor held = new HeldExecutor(executor);
+        MinioAsyncClient client = MinioAsyncClient.builder()
+                .endpoint(s3.endpoint())
+                .region("us-east-1")
+                .credentials("minio", "minio123")
+                .build();
+        ParallelMultipartUploader bounded = new ParallelMultipartUploader(client, held, properties);
+        byte[] first = content(15 * MIB);
+        byte[] second = content(15 * MIB);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> a = callers.submit(() ->
+                    bounded.upload(BUCKET, "a.mp4", "video/mp4", new ByteArrayInputStream(first), first.length));
+            Future<String> b = callers.submit(() ->
+                    bounded.upload(BUCKET, "b.mp4", "video/mp4", new ByteArrayInputStream(second), second.length));
+
+            // Two uploads may each keep two 5 MiB parts in flight, but 16 MiB only fits three
+            held.awaitHeld(3);
+            Thread.sleep(200);
+            assertThat(held.heldCount()).isEqualTo(3);
+
+            held.open();
+            a.get(30, TimeUnit.SECONDS);
+            b.get(30, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(s3.object(BUCKET, "a.mp4")).isEqualTo(first);
+        assertThat(s3.object(BUCKET, "b.mp4")).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("A part that fails once is retried and the upload still succeeds")
+    void transientPartFailureIsRetried() throws IOException {
+        s3.failPart = (part, attempt) -> part == 2 && attempt == 1;
+        byte[] content = content(11 * MIB);
+
+        uploader.upload(BUCKET, "retry.mp4", "video/mp4", new ByteArrayInputStream(content), content.length);
+
+        assertThat(s3.attempts(2)).isGreaterThanOrEqualTo(2);
+        assertThat(s3.object(BUCKET, "retry.mp4")).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("A part that keeps failing aborts the upload and leaves no object behind")
+    void persistentPartFailureAborts() {
+        s3.failPart = (part, attempt) -> part == 2;
+        byte[] content = content(11 * MIB);
+
+        assertThatThrownBy(() -> uploader.upload(BUCKET, "broken.mp4", "video/mp4", new ByteArrayInputStream(content), content.length))
+                .isInstanceOf(IOException.class);
+
+        assertThat(s3.attempts(2)).isGreaterThanOrEqualTo(properties.getMultipartPartAttempts());
+        assertThat(s3.aborts()).isEqualTo(1);
+        assertThat(s3.openUploads()).isZero();
+        assertThat(s3.object(BUCKET, "broken.mp4")).isNull();
+    }
+
+    @Test
+    @DisplayName("A stored ETag that does not match what was sent removes the object")
+    void etagMismatchRemovesObject() {
+        s3.completionEtagOverride = "00000000000000000000000000000000-3";
+        byte[] content = content(11 * MIB);
+
+        assertThatThrownBy(() -> uploader.upload(BUCKET, "mismatch.mp4", "video/mp4", new ByteArrayInputStream(content), content.length))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("ETag mismatch");
+
+        assertThat(s3.object(BUCKET, "mismatch.mp4")).isNull();
+    }
+
+    @Test
+    @DisplayName("A stream shorter than its declared size aborts instead of completing a truncated object")
+    void shortStreamAborts() {
+        byte[] content = content(7 * MIB);
+
+        assertThatThrownBy(() -> uploader.upload(BUCKET, "short.mp4", "video/mp4", new ByteArrayInputStream(content), 12 * MIB))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("bytes early");
+
+        assertThat(s3.aborts()).isEqualTo(1);
+        assertThat(s3.object(BUCKET, "short.mp4")).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PendingSubmissionUploadsTest {
+
+    private final Map<String, Double> pending = new HashMap<>();
+    private StorageBackend storageBackend;
+    private PendingSubmissionUploads uploads;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        storageBackend = mock(StorageBackend.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zset = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.add(eq(PendingSubmissionUploads.PENDING_KEY), anyString(), anyDouble()))
+                .thenAnswer(inv -> pending.put(inv.getArgument(1), inv.getArgument(2)) == null);
+        when(zset.remove(eq(PendingSubmissionUploads.PENDING_KEY), any()))
+                .thenAnswer(inv -> pending.remove(inv.<String>getArgument(1)) == null ? 0L : 1L);
+        when(zset.rangeByScore(eq(PendingSubmissionUploads.PENDING_KEY), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenAnswer(inv -> pending.entrySet().stream()
+                        .filter(e -> e.getValue() <= inv.<Double>getArgument(2))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        uploads = new PendingSubmissionUploads(redisTemplate, storageBackend, new MinioPropertiesConfig());
+    }
+
+    @Test
+    @DisplayName("An upload not confirmed within its grace period is removed; a confirmed or recent one is kept")
+    void sweepsOnlyExpiredUnconfirmedUploads() throws Exception {
+        Instant longAgo = Instant.now().minusSeconds(7200);
+        uploads.track("c1/u1/abandoned.pdf", longAgo);
+        uploads.track("c1/u2/confirmed.pdf", longAgo);
+        uploads.track("c1/u3/in-progress.pdf", Instant.now().plusSeconds(900));
+        uploads.confirm("c1/u2/confirmed.pdf");
+
+        assertThat(uploads.sweep()).isEqualTo(1);
+
+        verify(storageBackend).remove("submissions", "c1/u1/abandoned.pdf");
+        verifyNoMoreInteractions(storageBackend);
+        assertThat(pending).containsOnlyKeys("c1/u3/in-progress.pdf");
+    }
+
+    @Test
+    @DisplayName("An upload that cannot be removed now stays pending for the next sweep")
+    void failedRemovalIsRetried() throws Exception {
+        uploads.track("c1/u1/abandoned.pdf", Instant.now().minusSeconds(7200));
+        doThrow(new IllegalStateException("storage down")).when(storageBackend).remove(anyString(), anyString());
+
+        assertThat(uploads.sweep()).isZero();
+
+        assertThat(pending).containsKey("c1/u1/abandoned.pdf");
+    }
+}
@@ -0,0 +1,281 @@
+package com.w16a.danish.fileService.service.impl;
+
+import com.w16a.danish.common.domain.vo.ResumableUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.fileService.config.MinioPropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.event.ImageUploadedEvent;
+import com.w16a.danish.fileService.storage.StorageBackend;
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the service against {@link InProcessS3} with the real MinIO client; Redis is a map
+ * behind a mocked {@link HashOperations}.
+ */
+class ResumableUploadServiceImplTest {
+
+    private static final int MIB = 1024 * 1024;
+
+    private InProcessS3 s3;
+    private final Map<String, Map<Object, Object>> redis = new HashMap<>();
+    private final Map<String, Double> expiring = new HashMap<>();
+    private ApplicationEventPublisher eventPublisher;
+    private ResumableUploadServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        s3 = new InProcessS3(true);
+        MinioAsyncClient client = MinioAsyncClient.builder()
+                .endpoint(s3.endpoint())
+                .region("us-east-1")
+                .credentials("minio", "minio123")
+                .build();
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hashOps = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(hashOps.entries(anyString())).thenAnswer(inv -> new HashMap<>(redis.getOrDefault(inv.getArgument(0), Map.of())));
+        doAnswer(inv -> {
+            redis.computeIfAbsent(inv.getArgument(0), k -> new HashMap<>()).putAll(inv.getArgument(1));
+            return null;
+        }).when(hashOps).putAll(anyString(), anyMap());
+        doAnswer(inv -> {
+            redis.computeIfAbsent(inv.getArgument(0), k -> new HashMap<>()).put(inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(hashOps).put(anyString(), any(), any());
+        when(hashOps.get(anyString(), any())).thenAnswer(inv ->
+                redis.getOrDefault(inv.getArgument(0), Map.of()).get(inv.getArgument(1)));
+        when(hashOps.delete(anyString(), any())).thenAnswer(inv -> {
+            Map<Object, Object> hash = redis.getOrDefault(inv.getArgument(0), new HashMap<>());
+            Object removed = hash.remove(inv.getArgument(1));
+            if (hash.isEmpty()) {
+                // Redis drops a hash with its last field
+                redis.remove(inv.<String>getArgument(0));
+            }
+            return removed == null ? 0L : 1L;
+        });
+        when(redisTemplate.delete(anyString())).thenAnswer(inv -> redis.remove(inv.<String>getArgument(0)) != null);
+        when(redisTemplate.hasKey(anyString())).thenAnswer(inv -> redis.containsKey(inv.<String>getArgument(0)));
+
+        ZSetOperations<String, String> zsetOps = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zsetOps);
+        when(zsetOps.add(eq(ResumableUploadServiceImpl.EXPIRING_KEY), anyString(), anyDouble()))
+                .thenAnswer(inv -> expiring.put(inv.getArgument(1), inv.getArgument(2)) == null);
+        when(zsetOps.remove(eq(ResumableUploadServiceImpl.EXPIRING_KEY), any()))
+                .thenAnswer(inv -> expiring.remove(inv.<String>getArgument(1)) == null ? 0L : 1L);
+        when(zsetOps.rangeByScore(eq(ResumableUploadServiceImpl.EXPIRING_KEY), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenAnswer(inv -> expiring.entrySet().stream()
+                        .filter(e -> e.getValue() <= inv.<Double>getArgument(2))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        MinioPropertiesConfig properties = new MinioPropertiesConfig();
+        properties.setPublicEndpoint("http://localhost:9000/");
+        properties.setResumableChunkSize(DataSize.ofMegabytes(5));
+
+        StorageBackend storageBackend = mock(StorageBackend.class);
+        when(storageBackend.supportsDirectUpload()).thenReturn(true);
+        MinioClient syncClient = MinioClient.builder()
+                .endpoint(s3.endpoint())
+                .region("us-east-1")
+                .credentials("minio", "minio123")
+                .build();
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new ResumableUploadServiceImpl(client, redisTemplate, storageBackend, new BucketProvisioner(syncClient),
+                properties, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3.close();
+    }
+
+    private static byte[] content(int size) {
+        byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] chunk(byte[] content, int chunk) {
+        int from = (chunk - 1) * 5 * MIB;
+        return Arrays.copyOfRange(content, from, Math.min(content.length, from + 5 * MIB));
+    }
+
+    private static String md5(byte[] data) throws Exception {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance("MD5").digest(data));
+    }
+
+    @Test
+    @DisplayName("Chunks sent out of order are reported as merged byte ranges and assemble into the file")
+    void uploadsChunksOutOfOrderAndCompletes() {
+        byte[] content = content(12 * MIB + 17);
+        ResumableUploadVO started = service.initiate(BucketType.SUBMISSIONS, "video.mp4", "video/mp4", content.length);
+        assertThat(started.getTotalChunks()).isEqualTo(3);
+        assertThat(started.getObjectName()).endsWith(".mp4");
+
+        service.uploadChunk(started.getUploadId(), 3, new ByteArrayInputStream(chunk(content, 3)), null);
+        ResumableUploadVO progress = service.uploadChunk(started.getUploadId(), 1, new ByteArrayInputStream(chunk(content, 1)), null);
+        assertThat(progress.getReceivedChunks()).containsExactly(1, 3);
+        assertThat(progress.getReceivedRanges()).containsExactly("0-5242879", "10485760-" + (content.length - 1));
+
+        service.uploadChunk(started.getUploadId(), 2, new ByteArrayInputStream(chunk(content, 2)), null);
+        assertThat(service.status(started.getUploadId()).getReceivedRanges()).containsExactly("0-" + (content.length - 1));
+
+        StoredObjectVO stored = service.complete(started.getUploadId());
+
+        assertThat(s3.object("submissions", started.getObjectName())).isEqualTo(content);
+        assertThat(stored.getFileUrl()).isEqualTo("http://localhost:9000/submissions/" + started.getObjectName());
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        assertThat(redis).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("An image completed into a public asset bucket is handed on for its variants")
+    void completedImageGetsVariants() {
+        byte[] content = content(3 * MIB);
+        ResumableUploadVO started = service.initiate(BucketType.COMPETITION_ASSETS, "cover.png", "image/png", content.length);
+        service.uploadChunk(started.getUploadId(), 1, new ByteArrayInputStream(content), null);
+
+        service.complete(started.getUploadId());
+
+        verify(eventPublisher).publishEvent(new ImageUploadedEvent("competition-assets", started.getObjectName()));
+    }
+
+    @Test
+    @DisplayName("Completing with chunks still missing is a conflict naming them")
+    void completeWithMissingChunksConflicts() {
+        byte[] content = content(11 * MIB);
+        String uploadId = service.initiate(BucketType.SUBMISSIONS, "a.zip", null, content.length).getUploadId();
+        service.uploadChunk(uploadId, 2, new ByteArrayInputStream(chunk(content, 2)), null);
+
+        assertThatThrownBy(() -> service.complete(uploadId))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Missing chunks: [1, 3]")
+                .extracting("status").isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("A chunk of the wrong length or with a wrong checksum is rejected and not recorded")
+    void rejectsBadChunks() throws Exception {
+        byte[] content = content(6 * MIB);
+        String uploadId = service.initiate(BucketType.SUBMISSIONS, "a.zip", null, content.length).getUploadId();
+        byte[] first = chunk(content, 1);
+
+        assertThatThrownBy(() -> service.uploadChunk(uploadId, 1, new ByteArrayInputStream(Arrays.copyOf(first, 100)), null))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("exactly " + 5 * MIB + " bytes");
+        assertThatThrownBy(() -> service.uploadChunk(uploadId, 1, new ByteArrayInputStream(first), md5(new byte[]{1})))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Chunk checksum mismatch");
+        assertThatThrownBy(() -> service.uploadChunk(uploadId, 3, new ByteArrayInputStream(first), null))
+                .isInstanceOf(BusinessException.class)
+                .extracting("status").isEqualTo(HttpStatus.BAD_REQUEST);
+
+        ResumableUploadVO accepted = service.uploadChunk(uploadId, 1, new ByteArrayInputStream(first), md5(first));
+        assertThat(accepted.getReceivedChunks()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("A bucket deleted behind the service's back is recreated and the upload still starts")
+    void recreatesMissingBucket() {
+        s3.missingBuckets.add("submissions");
+
+        ResumableUploadVO started = service.initiate(BucketType.SUBMISSIONS, "a.zip", null, 6 * MIB);
+
+        assertThat(started.getUploadId()).isNotBlank();
+        assertThat(s3.missingBuckets).isEmpty();
+        assertThat(s3.openUploads()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Avatars must be images, and uploads over the size limit are refused up front")
+    void validatesAtInitiate() {
+        assertThatThrownBy(() -> service.initiate(BucketType.USER_AVATAR, "a.pdf", "application/pdf", 6 * MIB))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.initiate(BucketType.SUBMISSIONS, "a.zip", null, DataSize.ofMegabytes(201).toBytes()))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("size limit");
+        assertThat(s3.openUploads()).isZero();
+    }
+
+    @Test
+    @DisplayName("Aborting drops the stored chunks and the session; an unknown session is 404")
+    void abortAndUnknownSession() {
+        byte[] content = content(6 * MIB);
+        String uploadId = service.initiate(BucketType.SUBMISSIONS, "a.zip", null, content.length).getUploadId();
+        service.uploadChunk(uploadId, 1, new ByteArrayInputStream(chunk(content, 1)), null);
+
+        service.abort(uploadId);
+
+        assertThat(s3.aborts()).isEqualTo(1);
+        assertThat(s3.openUploads()).isZero();
+        assertThatThrownBy(() -> service.status(uploadId))
+                .isInstanceOf(BusinessException.class)
+                .extracting("status").isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("A session that expired unfinished has its multipart upload aborted; live and finished ones are left alone")
+    void sweepAbortsExpiredSessions() {
+        byte[] content = content(6 * MIB);
+        String expired = service.initiate(BucketType.SUBMISSIONS, "a.zip", null, content.length).getUploadId();
+        service.uploadChunk(expired, 1, new ByteArrayInputStream(chunk(content, 1)), null);
+        String live = service.initiate(BucketType.SUBMISSIONS, "b.zip", null, content.length).getUploadId();
+        String finished = service.initiate(BucketType.SUBMISSIONS, "c.zip", null, content.length).getUploadId();
+        service.uploadChunk(finished, 1, new ByteArrayInputStream(chunk(content, 1)), null);
+        service.uploadChunk(finished, 2, new ByteArrayInputStream(chunk(content, 2)), null);
+        service.complete(finished);
+        assertThat(expiring).containsOnlyKeys(expired, live);
+
+        // The first session's hash expires; the second's score is stale but its hash still lives
+        redis.remove("file:resumable:" + expired);
+        expiring.replaceAll((id, at) -> 0d);
+
+        assertThat(service.sweepExpired()).isEqualTo(1);
+
+        assertThat(s3.aborts()).isEqualTo(1);
+        assertThat(s3.openUploads()).isEqualTo(1);
+        assertThat(expiring).containsOnlyKeys(live);
+        assertThat(expiring.get(live)).isGreaterThan((double) System.currentTimeMillis());
+        assertThat(redis.get(ResumableUploadServiceImpl.TARGET_KEY)).containsOnlyKeys(live);
+    }
+}
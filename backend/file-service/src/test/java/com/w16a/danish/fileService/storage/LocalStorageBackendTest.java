@@ -0,0 +1,117 @@
+package com.w16a.danish.fileService.storage;
+
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.fileService.config.StoragePropertiesConfig;
+import com.w16a.danish.fileService.enums.BucketType;
+import com.w16a.danish.fileService.storage.StorageBackend.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalStorageBackendTest {
+
+    @TempDir
+    Path root;
+
+    private LocalStorageBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StoragePropertiesConfig properties = new StoragePropertiesConfig();
+        properties.setLocalRoot(root.toString());
+        backend = new LocalStorageBackend(properties);
+        backend.ensureBucket(BucketType.SUBMISSIONS);
+    }
+
+    private void put(String objectName, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        backend.put("submissions", objectName, new ByteArrayInputStream(bytes), bytes.length, null);
+    }
+
+    @Test
+    @DisplayName("Objects are stored in sharded directories and read back with size and type")
+    void storesObjectsInShardedDirectories() throws IOException {
+        put("c1/u1/report.pdf", "hello");
+
+        Path file = backend.file("submissions", "c1/u1/report.pdf");
+        assertThat(file).isNotNull().hasContent("hello");
+        assertThat(root.resolve("submissions").relativize(file).getNameCount()).isEqualTo(5);
+        assertThat(backend.stat("submissions", "c1/u1/report.pdf")).isEqualTo(new StoredObject(5, "application/pdf"));
+        assertThat(backend.stat("submissions", "missing.pdf")).isNull();
+    }
+
+    @Test
+    @DisplayName("Listing strips the shard directories and filters by prefix")
+    void listsByPrefix() throws IOException {
+        put("sha256/aa.zip", "a");
+        put("sha256/bb.zip", "b");
+        put("c1/x.zip", "c");
+
+        assertThat(backend.list("submissions", "sha256/")).containsExactly("sha256/aa.zip", "sha256/bb.zip");
+        assertThat(backend.list("user-avatar", "")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Replacing and removing an object; removing a missing one is fine")
+    void replacesAndRemoves() throws IOException {
+        put("a.txt", "first");
+        put("a.txt", "second");
+        assertThat(backend.file("submissions", "a.txt")).hasContent("second");
+        try (InputStream in = backend.get("submissions", "a.txt")) {
+            assertThat(in).hasContent("second");
+        }
+
+        backend.remove("submissions", "a.txt");
+        backend.remove("submissions", "a.txt");
+        assertThat(backend.file("submissions", "a.txt")).isNull();
+        assertThatThrownBy(() -> backend.get("submissions", "a.txt")).isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Removing many objects reports only the names it could not remove")
+    void removesMany() throws IOException {
+        put("a.txt", "a");
+        put("b.txt", "b");
+
+        assertThat(backend.removeAll("submissions", List.of("a.txt", "b.txt", "missing.txt", "../escape"))).containsExactly("../escape");
+        assertThat(backend.list("submissions", "")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A stream that does not match the declared size leaves nothing behind")
+    void sizeMismatchLeavesNoFile() throws IOException {
+        byte[] bytes = "short".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> backend.put("submissions", "a.txt", new ByteArrayInputStream(bytes), 10, null))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> backend.put("submissions", "b.txt", new ByteArrayInputStream(bytes), 2, null))
+                .isInstanceOf(IOException.class);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Names that could leave the bucket, and unknown buckets, are rejected")
+    void rejectsUnsafeNames() {
+        assertThatThrownBy(() -> put("../../etc/passwd", "x")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> put("/abs.txt", "x")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> put("a/.hidden", "x")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> backend.file("../submissions", "a.txt")).isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,28 @@
+package com.w16a.danish.interaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * Paging limits for comment threads.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/08
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "interaction.comments")
+public class CommentPagingProperties {
+
+    /**
+     * Replies embedded under each top-level comment; the rest are fetched page by page.
+     */
+    private int replyPreviewSize = 3;
+
+    /**
+     * Upper bound on any requested page size, for both comments and replies.
+     */
+    private int maxPageSize = 50;
+}
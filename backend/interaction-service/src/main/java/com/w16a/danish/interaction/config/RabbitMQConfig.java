@@ -0,0 +1,53 @@
+package com.w16a.danish.interaction.config;
+
+import com.w16a.danish.common.messaging.MessagingConstants;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ configuration for interaction-service.
+ * (User profile updates → comment author snapshots)
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/19
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    // Exchange Name (owned by user-service)
+    public static final String USER_EXCHANGE_NAME = MessagingConstants.USER_EXCHANGE;
+
+    // Queues
+    public static final String COMMENT_AUTHOR_REFRESH_QUEUE = MessagingConstants.QUEUE_COMMENT_AUTHOR_REFRESH;
+
+    // Routing Keys
+    public static final String USER_PROFILE_UPDATED_ROUTING_KEY = MessagingConstants.ROUTING_USER_PROFILE_UPDATED;
+
+    // Exchange
+    @Bean
+    public TopicExchange userExchange() {
+        return ExchangeBuilder.topicExchange(USER_EXCHANGE_NAME).durable(true).build();
+    }
+
+    // Queues
+    @Bean
+    public Queue commentAuthorRefreshQueue() {
+        return QueueBuilder.durable(COMMENT_AUTHOR_REFRESH_QUEUE).build();
+    }
+
+    // Bindings
+    @Bean
+    public Binding commentAuthorRefreshBinding() {
+        return BindingBuilder.bind(commentAuthorRefreshQueue())
+                .to(userExchange())
+                .with(USER_PROFILE_UPDATED_ROUTING_KEY);
+    }
+
+    // Message Converter
+    @Bean
+    public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
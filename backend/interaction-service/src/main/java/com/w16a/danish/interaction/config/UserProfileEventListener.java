@@ -0,0 +1,30 @@
+package com.w16a.danish.interaction.config;
+
+import com.w16a.danish.interaction.domain.mq.UserProfileUpdatedMessage;
+import com.w16a.danish.interaction.service.ISubmissionCommentsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ *
+ * This class listens for user profile events and refreshes the author snapshot stored on comments.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/19
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileEventListener {
+
+    private final ISubmissionCommentsService commentsService;
+
+    @RabbitListener(queues = RabbitMQConfig.COMMENT_AUTHOR_REFRESH_QUEUE)
+    public void handleProfileUpdated(UserProfileUpdatedMessage message) {
+        if (message.getUserId() == null || message.getVersion() == null) {
+            return;
+        }
+        commentsService.refreshAuthorSnapshot(
+                message.getUserId(), message.getName(), message.getAvatarUrl(), message.getVersion());
+    }
+}
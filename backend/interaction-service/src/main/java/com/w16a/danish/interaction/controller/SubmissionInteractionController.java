@@ -3,6 +3,7 @@ package com.w16a.danish.interaction.controller;
 import com.w16a.danish.common.web.ApiResponses;
 import com.w16a.danish.interaction.domain.dto.SubmissionCommentDTO;
 import com.w16a.danish.interaction.domain.vo.InteractionStatisticsVO;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.interaction.domain.vo.SubmissionCommentVO;
 import com.w16a.danish.interaction.service.ISubmissionCommentsService;
@@ -87,7 +88,7 @@ public class SubmissionInteractionController {
 
     @Operation(
             summary = "List comments for a submission",
-            description = "Returns paginated comments for a submission, including nested replies.",
+            description = "Returns paginated comments for a submission, each with a preview of its replies.",
             parameters = {
                     @Parameter(name = "submissionId", required = true, description = "Submission ID"),
                     @Parameter(name = "page", description = "Page number (default is 1)"),
@@ -114,6 +115,62 @@ public class SubmissionInteractionController {
         return ResponseEntity.ok(commentsService.getPaginatedComments(submissionId, page, size, sortBy, order));
     }
 
+    @Operation(
+            summary = "Scroll comments for a submission",
+            description = "Keyset-paginated top-level comments with a preview of each thread's replies. "
+                    + "Pass the returned nextCursor to fetch the following page; deep pages cost the same as the first.",
+            parameters = {
+                    @Parameter(name = "submissionId", required = true, description = "Submission ID"),
+                    @Parameter(name = "cursor", description = "Cursor from the previous page; omit for the first page"),
+                    @Parameter(name = "size", description = "Page size (default is 10)"),
+                    @Parameter(name = "order", description = "Sorting order by creation time: asc or desc"),
+                    @Parameter(name = "withTotal", description = "Also count all top-level comments (default is false)")
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "One page of comments",
+                            content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/comments/cursor")
+    public ResponseEntity<CursorPageResponse<SubmissionCommentVO>> getCommentsByCursor(
+            @RequestParam String submissionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        return ResponseEntity.ok(commentsService.getCommentsByCursor(submissionId, cursor, size, order, withTotal));
+    }
+
+    @Operation(
+            summary = "List replies to a comment",
+            description = "Keyset-paginated replies to one comment, oldest first. "
+                    + "Start from the comment's repliesCursor to continue after its preview.",
+            parameters = {
+                    @Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "ID of the parent comment"),
+                    @Parameter(name = "cursor", description = "Cursor from the previous page; omit to start from the first reply"),
+                    @Parameter(name = "size", description = "Page size (default is 10)")
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "One page of replies",
+                            content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/comments/{id}/replies")
+    public ResponseEntity<CursorPageResponse<SubmissionCommentVO>> getReplies(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(commentsService.getReplies(id, cursor, size));
+    }
+
     @Operation(
             summary = "Vote a submission",
             description = "Allows a user to vote for a specific submission (1 user = 1 vote)",
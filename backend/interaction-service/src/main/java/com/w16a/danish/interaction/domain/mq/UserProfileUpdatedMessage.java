@@ -0,0 +1,29 @@
+package com.w16a.danish.interaction.domain.mq;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+
+/**
+ *
+ * This class represents a message received when a user changes their name or avatar.
+ * It is applied to the author snapshot on comments only if {@code version} is newer than the stored one.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/19
+ */
+@Data
+public class UserProfileUpdatedMessage implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+    private String name;
+    private String avatarUrl;
+    private Long version;
+    private LocalDateTime updatedAt;
+}
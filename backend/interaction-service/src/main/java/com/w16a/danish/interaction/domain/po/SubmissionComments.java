@@ -44,6 +44,22 @@ public class SubmissionComments implements Serializable {
     @Schema(description = "Comment content", example = "Great idea, love the UI design!")
     private String content;
 
+    @Schema(description = "Number of direct replies, maintained on reply insert and delete", example = "4")
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer replyCount;
+
+    @Schema(description = "Commenter name at the time of the snapshot", example = "Alice Zhang")
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private String authorName;
+
+    @Schema(description = "Commenter avatar URL at the time of the snapshot", example = "https://cdn.example.com/avatar/alice.jpg")
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private String authorAvatarUrl;
+
+    @Schema(description = "users.profile_version the snapshot was taken from; null if no snapshot", example = "3")
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long authorVersion;
+
     @Schema(description = "Timestamp of comment creation", example = "2025-04-08T09:00:00")
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
@@ -44,6 +44,12 @@ public class SubmissionCommentVO {
     @Schema(description = "Last updated time", example = "2025-04-08T15:00:00")
     private LocalDateTime updatedAt;
 
-    @Schema(description = "List of child comments (replies)")
+    @Schema(description = "Total number of replies to this comment", example = "12")
+    private Integer replyCount;
+
+    @Schema(description = "Preview of the earliest replies; page through the rest with repliesCursor")
     private List<SubmissionCommentVO> replies;
+
+    @Schema(description = "Cursor for the replies after the preview; null when the preview holds them all")
+    private String repliesCursor;
 }
@@ -2,6 +2,10 @@ package com.w16a.danish.interaction.mapper;
 
 import com.w16a.danish.interaction.domain.po.SubmissionComments;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  *
@@ -12,4 +16,23 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface SubmissionCommentsMapper extends BaseMapper<SubmissionComments> {
 
+    /**
+     * Earliest {@code limit} replies of each parent, in one query regardless of thread size.
+     */
+    List<SubmissionComments> selectReplyPreviews(@Param("submissionId") String submissionId,
+                                                 @Param("parentIds") Collection<String> parentIds,
+                                                 @Param("limit") int limit);
+
+    /**
+     * Adjust a parent's reply counter in place, so concurrent replies never overwrite each other.
+     */
+    int adjustReplyCount(@Param("commentId") String commentId, @Param("delta") int delta);
+
+    /**
+     * Overwrite the author snapshot on all of a user's comments, unless they already hold a newer version.
+     */
+    int refreshAuthorSnapshot(@Param("userId") String userId,
+                              @Param("name") String name,
+                              @Param("avatarUrl") String avatarUrl,
+                              @Param("version") long version);
 }
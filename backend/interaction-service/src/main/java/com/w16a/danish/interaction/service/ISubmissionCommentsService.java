@@ -4,6 +4,7 @@ import com.w16a.danish.common.context.RequestContext;
 import com.w16a.danish.interaction.domain.dto.SubmissionCommentDTO;
 import com.w16a.danish.interaction.domain.po.SubmissionComments;
 import com.baomidou.mybatisplus.spring.service.IService;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.interaction.domain.vo.SubmissionCommentVO;
 
@@ -22,8 +23,14 @@ public interface ISubmissionCommentsService extends IService<SubmissionComments>
 
     PageResponse<SubmissionCommentVO> getPaginatedComments(String submissionId, int page, int size, String sortBy, String order);
 
+    CursorPageResponse<SubmissionCommentVO> getCommentsByCursor(String submissionId, String cursor, int size, String order, boolean withTotal);
+
+    CursorPageResponse<SubmissionCommentVO> getReplies(String commentId, String cursor, int size);
+
     void updateComment(String commentId, String userId, SubmissionCommentDTO dto);
 
+    int refreshAuthorSnapshot(String userId, String name, String avatarUrl, long version);
+
     long countComments(String submissionId);
 
     Long countAllComments();
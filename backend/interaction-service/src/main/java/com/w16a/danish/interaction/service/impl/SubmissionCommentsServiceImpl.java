@@ -2,6 +2,9 @@ package com.w16a.danish.interaction.service.impl;
 
 import cn.hutool.core.util.StrUtil;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
+import com.w16a.danish.common.domain.vo.KeysetCursor;
+import com.w16a.danish.interaction.config.CommentPagingProperties;
 import com.w16a.danish.interaction.domain.dto.SubmissionCommentDTO;
 import com.w16a.danish.interaction.domain.po.SubmissionComments;
 import com.w16a.danish.common.domain.vo.PageResponse;
@@ -12,6 +15,7 @@ import com.w16a.danish.interaction.feign.RegistrationServiceClient;
 import com.w16a.danish.interaction.feign.UserServiceClient;
 import com.w16a.danish.interaction.mapper.SubmissionCommentsMapper;
 import com.w16a.danish.interaction.service.ISubmissionCommentsService;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.spring.service.impl.ServiceImpl;
@@ -39,21 +43,41 @@ public class SubmissionCommentsServiceImpl extends ServiceImpl<SubmissionComment
 
     private final RegistrationServiceClient registrationServiceClient;
     private final UserServiceClient userServiceClient;
+    private final CommentPagingProperties pagingProperties;
 
     @Override
     @Transactional
     public void addComment(String userId, SubmissionCommentDTO dto) {
+        String parentId = StrUtil.isBlank(dto.getParentId()) ? null : dto.getParentId();
+        if (parentId != null) {
+            SubmissionComments parent = this.getById(parentId);
+            if (parent == null || !parent.getSubmissionId().equals(dto.getSubmissionId())) {
+                throw new BusinessException(HttpStatus.NOT_FOUND, "Parent comment not found");
+            }
+        }
+
         SubmissionComments comment = new SubmissionComments()
                 .setId(StrUtil.uuid())
                 .setSubmissionId(dto.getSubmissionId())
                 .setUserId(userId)
-                .setParentId(StrUtil.isBlank(dto.getParentId()) ? null : dto.getParentId())
+                .setParentId(parentId)
                 .setContent(dto.getContent());
 
+        // Snapshot the author so reads never call user-service; left empty if it is unavailable
+        UserBriefVO author = loadUsers(List.of(comment)).get(userId);
+        if (author != null) {
+            comment.setAuthorName(author.getName())
+                    .setAuthorAvatarUrl(author.getAvatarUrl())
+                    .setAuthorVersion(Optional.ofNullable(author.getProfileVersion()).orElse(0L));
+        }
+
         boolean saved = this.save(comment);
         if (!saved) {
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save comment");
         }
+        if (parentId != null) {
+            baseMapper.adjustReplyCount(parentId, 1);
+        }
     }
 
     @Override
@@ -81,6 +105,9 @@ public class SubmissionCommentsServiceImpl extends ServiceImpl<SubmissionComment
         if (!removed) {
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete comment");
         }
+        if (comment.getParentId() != null) {
+            baseMapper.adjustReplyCount(comment.getParentId(), -1);
+        }
     }
 
     @Override
@@ -90,71 +117,161 @@ public class SubmissionCommentsServiceImpl extends ServiceImpl<SubmissionComment
         }
         boolean isAsc = "asc".equalsIgnoreCase(order);
 
-        IPage<SubmissionComments> mpPage = new Page<>(page, size);
+        IPage<SubmissionComments> mpPage = new Page<>(page, clampSize(size));
         mpPage = this.lambdaQuery()
                 .eq(SubmissionComments::getSubmissionId, submissionId)
                 .isNull(SubmissionComments::getParentId)
                 .orderBy(true, isAsc, "createdAt".equalsIgnoreCase(sortBy) ? SubmissionComments::getCreatedAt : SubmissionComments::getUpdatedAt)
                 .page(mpPage);
 
-        long total = mpPage.getTotal();
-        List<SubmissionComments> paged = mpPage.getRecords();
+        List<SubmissionCommentVO> result = toThreadViews(submissionId, mpPage.getRecords());
+        return new PageResponse<>(result, (int) mpPage.getTotal(), page, size, (int) mpPage.getPages());
+    }
+
+    @Override
+    public CursorPageResponse<SubmissionCommentVO> getCommentsByCursor(String submissionId, String cursor, int size, String order, boolean withTotal) {
+        int limit = clampSize(size);
+        boolean isAsc = "asc".equalsIgnoreCase(order);
+        KeysetCursor after = KeysetCursor.decode(cursor);
 
-        List<SubmissionComments> childComments = Collections.emptyList();
-        List<String> parentIds = paged.stream().map(SubmissionComments::getId).toList();
-        if (!parentIds.isEmpty()) {
-            childComments = this.lambdaQuery()
+        List<SubmissionComments> rows = this.lambdaQuery()
+                .eq(SubmissionComments::getSubmissionId, submissionId)
+                .isNull(SubmissionComments::getParentId)
+                .and(after != null, w -> seekPast(w, after, isAsc))
+                .orderBy(true, isAsc, SubmissionComments::getCreatedAt)
+                .orderBy(true, isAsc, SubmissionComments::getId)
+                .page(new Page<>(1, limit + 1, false))
+                .getRecords();
+
+        Long total = withTotal
+                ? this.lambdaQuery()
                     .eq(SubmissionComments::getSubmissionId, submissionId)
-                    .in(SubmissionComments::getParentId, parentIds)
-                    .orderByAsc(SubmissionComments::getCreatedAt)
-                    .list();
-        }
-
-        Set<String> allUserIds = new HashSet<>();
-        paged.forEach(c -> allUserIds.add(c.getUserId()));
-        childComments.forEach(c -> allUserIds.add(c.getUserId()));
-
-        Map<String, UserBriefVO> userMap = Optional.ofNullable(
-                userServiceClient.getUsersByIds(new ArrayList<>(allUserIds), null).getBody()
-        ).orElse(List.of()).stream().collect(Collectors.toMap(UserBriefVO::getId, u -> u));
-
-        Map<String, List<SubmissionCommentVO>> groupedReplies = childComments.stream()
-                .map(c -> {
-                    SubmissionCommentVO vo = new SubmissionCommentVO();
-                    vo.setId(c.getId());
-                    vo.setSubmissionId(c.getSubmissionId());
-                    vo.setParentId(c.getParentId());
-                    vo.setContent(c.getContent());
-                    vo.setUserId(c.getUserId());
-                    vo.setCreatedAt(c.getCreatedAt());
-                    vo.setUpdatedAt(c.getUpdatedAt());
-                    UserBriefVO user = userMap.get(c.getUserId());
-                    if (user != null) {
-                        vo.setUserName(user.getName());
-                        vo.setAvatarUrl(user.getAvatarUrl());
-                    }
-                    return vo;
-                }).collect(Collectors.groupingBy(SubmissionCommentVO::getParentId));
-
-        List<SubmissionCommentVO> result = paged.stream().map(c -> {
-            SubmissionCommentVO vo = new SubmissionCommentVO();
-            vo.setId(c.getId());
-            vo.setSubmissionId(c.getSubmissionId());
-            vo.setParentId(c.getParentId());
-            vo.setContent(c.getContent());
-            vo.setUserId(c.getUserId());
-            vo.setCreatedAt(c.getCreatedAt());
-            vo.setUpdatedAt(c.getUpdatedAt());
-            UserBriefVO user = userMap.get(c.getUserId());
-            if (user != null) {
-                vo.setUserName(user.getName());
-                vo.setAvatarUrl(user.getAvatarUrl());
+                    .isNull(SubmissionComments::getParentId)
+                    .count()
+                : null;
+
+        CursorPageResponse<SubmissionComments> window = CursorPageResponse.of(rows, limit, SubmissionCommentsServiceImpl::cursorOf, total);
+        return window.withData(toThreadViews(submissionId, window.getData()));
+    }
+
+    @Override
+    public CursorPageResponse<SubmissionCommentVO> getReplies(String commentId, String cursor, int size) {
+        SubmissionComments parent = this.getById(commentId);
+        if (parent == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "Comment not found");
+        }
+        int limit = clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        List<SubmissionComments> rows = this.lambdaQuery()
+                .eq(SubmissionComments::getSubmissionId, parent.getSubmissionId())
+                .eq(SubmissionComments::getParentId, commentId)
+                .and(after != null, w -> seekPast(w, after, true))
+                .orderBy(true, true, SubmissionComments::getCreatedAt)
+                .orderBy(true, true, SubmissionComments::getId)
+                .page(new Page<>(1, limit + 1, false))
+                .getRecords();
+
+        Long total = parent.getReplyCount() == null ? null : parent.getReplyCount().longValue();
+        CursorPageResponse<SubmissionComments> window = CursorPageResponse.of(rows, limit, SubmissionCommentsServiceImpl::cursorOf, total);
+
+        Map<String, UserBriefVO> userMap = loadUsers(window.getData());
+        return window.withData(window.getData().stream().map(c -> toVO(c, userMap)).toList());
+    }
+
+    /**
+     * Decorate top-level comments with authors and a bounded preview of their replies.
+     * Threads without replies are skipped, so a page of quiet comments costs no reply query.
+     */
+    private List<SubmissionCommentVO> toThreadViews(String submissionId, List<SubmissionComments> parents) {
+        int previewSize = pagingProperties.getReplyPreviewSize();
+        List<String> threadIds = parents.stream()
+                .filter(c -> c.getReplyCount() != null && c.getReplyCount() > 0)
+                .map(SubmissionComments::getId)
+                .toList();
+
+        List<SubmissionComments> previews = Collections.emptyList();
+        if (previewSize > 0 && !threadIds.isEmpty()) {
+            previews = baseMapper.selectReplyPreviews(submissionId, threadIds, previewSize);
+        }
+
+        List<SubmissionComments> all = new ArrayList<>(parents);
+        all.addAll(previews);
+        Map<String, UserBriefVO> userMap = loadUsers(all);
+
+        Map<String, List<SubmissionComments>> previewsByParent = previews.stream()
+                .collect(Collectors.groupingBy(SubmissionComments::getParentId));
+
+        return parents.stream().map(c -> {
+            List<SubmissionComments> shown = previewsByParent.getOrDefault(c.getId(), List.of());
+            SubmissionCommentVO vo = toVO(c, userMap);
+            vo.setReplies(shown.stream().map(r -> toVO(r, userMap)).toList());
+            if (!shown.isEmpty() && c.getReplyCount() != null && c.getReplyCount() > shown.size()) {
+                vo.setRepliesCursor(cursorOf(shown.get(shown.size() - 1)).encode());
             }
-            vo.setReplies(groupedReplies.getOrDefault(c.getId(), List.of()));
             return vo;
         }).toList();
+    }
+
+    /**
+     * Look up authors of comments that carry no snapshot yet (rows written before snapshots existed).
+     */
+    private Map<String, UserBriefVO> loadUsers(Collection<SubmissionComments> comments) {
+        List<String> userIds = comments.stream()
+                .filter(c -> c.getAuthorVersion() == null)
+                .map(SubmissionComments::getUserId)
+                .distinct()
+                .toList();
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return Optional.ofNullable(
+                userServiceClient.getUsersByIds(userIds, null).getBody()
+        ).orElse(List.of()).stream().collect(Collectors.toMap(UserBriefVO::getId, u -> u, (a, b) -> a));
+    }
 
-        return new PageResponse<>(result, (int) total, page, size, (int) mpPage.getPages());
+    private SubmissionCommentVO toVO(SubmissionComments c, Map<String, UserBriefVO> userMap) {
+        SubmissionCommentVO vo = new SubmissionCommentVO();
+        vo.setId(c.getId());
+        vo.setSubmissionId(c.getSubmissionId());
+        vo.setParentId(c.getParentId());
+        vo.setContent(c.getContent());
+        vo.setUserId(c.getUserId());
+        vo.setCreatedAt(c.getCreatedAt());
+        vo.setUpdatedAt(c.getUpdatedAt());
+        vo.setReplyCount(c.getReplyCount() == null ? 0 : c.getReplyCount());
+        UserBriefVO user = userMap.get(c.getUserId());
+        if (c.getAuthorVersion() != null) {
+            vo.setUserName(c.getAuthorName());
+            vo.setAvatarUrl(c.getAuthorAvatarUrl());
+        } else if (user != null) {
+            vo.setUserName(user.getName());
+            vo.setAvatarUrl(user.getAvatarUrl());
+        }
+        return vo;
+    }
+
+    /**
+     * Rows strictly after the cursor in {@code (created_at, id)} order.
+     */
+    private static void seekPast(LambdaQueryWrapper<SubmissionComments> w, KeysetCursor after, boolean isAsc) {
+        if (isAsc) {
+            w.gt(SubmissionComments::getCreatedAt, after.createdAt())
+                    .or(o -> o.eq(SubmissionComments::getCreatedAt, after.createdAt())
+                            .gt(SubmissionComments::getId, after.id()));
+        } else {
+            w.lt(SubmissionComments::getCreatedAt, after.createdAt())
+                    .or(o -> o.eq(SubmissionComments::getCreatedAt, after.createdAt())
+                            .lt(SubmissionComments::getId, after.id()));
+        }
+    }
+
+    private static KeysetCursor cursorOf(SubmissionComments c) {
+        return new KeysetCursor(c.getCreatedAt(), c.getId());
+    }
+
+    private int clampSize(int size) {
+        return Math.max(1, Math.min(size, pagingProperties.getMaxPageSize()));
     }
 
     @Override
@@ -178,6 +295,13 @@ public class SubmissionCommentsServiceImpl extends ServiceImpl<SubmissionComment
         }
     }
 
+    @Override
+    public int refreshAuthorSnapshot(String userId, String name, String avatarUrl, long version) {
+        int refreshed = baseMapper.refreshAuthorSnapshot(userId, name, avatarUrl, version);
+        log.info("[Comment] Refreshed author snapshot on {} comment(s) of user={} version={}", refreshed, userId, version);
+        return refreshed;
+    }
+
     @Override
     public long countComments(String submissionId) {
         if (StrUtil.isBlank(submissionId)) {
@@ -2,6 +2,7 @@ package com.w16a.danish.interaction.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.w16a.danish.interaction.domain.dto.SubmissionCommentDTO;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.interaction.domain.vo.SubmissionCommentVO;
 import com.w16a.danish.interaction.service.ISubmissionCommentsService;
@@ -110,6 +111,41 @@ class SubmissionInteractionControllerTest {
     }
 
 
+    // === Test: Scroll Comments ===
+    @Test
+    @DisplayName("✅ Should scroll comments by cursor, skipping the total by default")
+    void testGetCommentsByCursor() throws Exception {
+        CursorPageResponse<SubmissionCommentVO> mockPage = CursorPageResponse.<SubmissionCommentVO>builder()
+                .data(Collections.emptyList()).size(10).nextCursor("next").hasNext(true).build();
+
+        Mockito.when(commentsService.getCommentsByCursor(eq("submission123"), eq("abc"), eq(10), eq("desc"), eq(false)))
+                .thenReturn(mockPage);
+
+        mockMvc.perform(get("/interactions/comments/cursor")
+                        .param("submissionId", "submission123")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    // === Test: Replies ===
+    @Test
+    @DisplayName("✅ Should page replies of a comment")
+    void testGetReplies() throws Exception {
+        CursorPageResponse<SubmissionCommentVO> mockPage = CursorPageResponse.<SubmissionCommentVO>builder()
+                .data(Collections.emptyList()).size(5).total(12L).build();
+
+        Mockito.when(commentsService.getReplies("comment123", null, 5)).thenReturn(mockPage);
+
+        mockMvc.perform(get("/interactions/comments/{id}/replies", "comment123")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(12))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+
     // === Test: Vote ===
     @Test
     @DisplayName("✅ Should vote submission successfully")
@@ -5,6 +5,9 @@ import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
+import com.w16a.danish.common.domain.vo.KeysetCursor;
+import com.w16a.danish.interaction.config.CommentPagingProperties;
 import com.w16a.danish.interaction.domain.dto.SubmissionCommentDTO;
 import com.w16a.danish.interaction.domain.po.SubmissionComments;
 import com.w16a.danish.common.domain.vo.PageResponse;
@@ -24,7 +27,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -50,6 +53,9 @@ class SubmissionCommentsServiceImplTest {
     @Mock
     private SubmissionCommentsMapper submissionCommentsMapper;
 
+    @Spy
+    private CommentPagingProperties pagingProperties = new CommentPagingProperties();
+
     private static RequestContext ctx(String userId, String role) {
         return new RequestContext(userId, role);
     }
@@ -69,6 +75,7 @@ class SubmissionCommentsServiceImplTest {
         IPage<SubmissionComments> emptyPage = new Page<>();
         emptyPage.setRecords(Collections.emptyList());
         when(submissionCommentsMapper.selectPage(any(), any())).thenReturn(emptyPage);
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of()));
     }
 
     @Test
@@ -212,15 +219,13 @@ class SubmissionCommentsServiceImplTest {
     void testGetPaginatedComments_WithUsersAndParentComments() {
         // Arrange
         LambdaQueryChainWrapper<SubmissionComments> parentQuery = mock(LambdaQueryChainWrapper.class);
-        LambdaQueryChainWrapper<SubmissionComments> replyQuery = mock(LambdaQueryChainWrapper.class);
-
-        doReturn(parentQuery).doReturn(replyQuery).when(submissionCommentsService).lambdaQuery();
+        doReturn(parentQuery).when(submissionCommentsService).lambdaQuery();
 
-        // parent query mock
         SubmissionComments parentComment = new SubmissionComments()
                 .setId("parentId")
                 .setContent("Parent Comment")
-                .setUserId("user1");
+                .setUserId("user1")
+                .setReplyCount(1);
         IPage<SubmissionComments> parentPage = new Page<>();
         parentPage.setRecords(List.of(parentComment));
         parentPage.setTotal(1L);
@@ -229,19 +234,13 @@ class SubmissionCommentsServiceImplTest {
         when(parentQuery.isNull(any(SFunction.class))).thenReturn(parentQuery);
         when(parentQuery.orderBy(anyBoolean(), anyBoolean(), any(SFunction.class))).thenReturn(parentQuery);
         when(parentQuery.page(any())).thenReturn(parentPage);
-        when(parentQuery.list()).thenReturn(List.of(parentComment));
-
-        // reply query mock
-        when(replyQuery.eq(any(SFunction.class), any())).thenReturn(replyQuery);
-        when(replyQuery.in(any(SFunction.class), any(Collection.class))).thenReturn(replyQuery);
-        when(replyQuery.orderByAsc(any(SFunction.class))).thenReturn(replyQuery);
-        when(replyQuery.list()).thenReturn(List.of(
-                new SubmissionComments()
+
+        when(submissionCommentsMapper.selectReplyPreviews(eq("submissionId"), eq(List.of("parentId")), eq(3)))
+                .thenReturn(List.of(new SubmissionComments()
                         .setId("replyId")
                         .setContent("Reply Comment")
                         .setParentId("parentId")
-                        .setUserId("user2")
-        ));
+                        .setUserId("user2")));
 
         when(userServiceClient.getUsersByIds(anyList(), any()))
                 .thenReturn(ResponseEntity.ok(List.of(
@@ -266,12 +265,252 @@ class SubmissionCommentsServiceImplTest {
 
         SubmissionCommentVO parent = result.getData().get(0);
         assertThat(parent.getId()).isEqualTo("parentId");
+        assertThat(parent.getReplyCount()).isEqualTo(1);
+        assertThat(parent.getRepliesCursor()).isNull();
 
         assertThat(parent.getReplies()).isNotNull();
         assertThat(parent.getReplies()).hasSize(1);
 
         SubmissionCommentVO reply = parent.getReplies().get(0);
         assertThat(reply.getId()).isEqualTo("replyId");
+        assertThat(reply.getUserName()).isEqualTo("User 2");
+    }
+
+    @Test
+    @DisplayName("✅ Threads without replies cost no reply query")
+    void testGetPaginatedComments_SkipsPreviewForQuietThreads() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        IPage<SubmissionComments> page = new Page<>();
+        page.setRecords(List.of(comment("c1", 0)));
+        when(query.page(any())).thenReturn(page);
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        PageResponse<SubmissionCommentVO> result = submissionCommentsService.getPaginatedComments(
+                "submissionId", 1, 10, "createdAt", "desc");
+
+        assertThat(result.getData().get(0).getReplies()).isEmpty();
+        verify(submissionCommentsMapper, never()).selectReplyPreviews(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("✅ A preview shorter than the thread carries a cursor to the remaining replies")
+    void testPreviewOfLongThreadHasCursor() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        IPage<SubmissionComments> page = new Page<>();
+        page.setRecords(List.of(comment("c1", 40)));
+        when(query.page(any())).thenReturn(page);
+        SubmissionComments lastShown = comment("r3", 0).setParentId("c1");
+        when(submissionCommentsMapper.selectReplyPreviews(any(), any(), anyInt())).thenReturn(List.of(
+                comment("r1", 0).setParentId("c1"), comment("r2", 0).setParentId("c1"), lastShown));
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        PageResponse<SubmissionCommentVO> result = submissionCommentsService.getPaginatedComments(
+                "submissionId", 1, 10, "createdAt", "desc");
+
+        SubmissionCommentVO thread = result.getData().get(0);
+        assertThat(thread.getReplies()).hasSize(3);
+        assertThat(thread.getReplyCount()).isEqualTo(40);
+        assertThat(KeysetCursor.decode(thread.getRepliesCursor()))
+                .isEqualTo(new KeysetCursor(lastShown.getCreatedAt(), "r3"));
+    }
+
+    @Test
+    @DisplayName("✅ Cursor page fetches one probe row and skips the count unless asked")
+    void testGetCommentsByCursor_WithoutTotal() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        Page<SubmissionComments> rows = new Page<>();
+        rows.setRecords(List.of(comment("c1", 0), comment("c2", 0), comment("c3", 0)));
+        when(query.page(any())).thenReturn(rows);
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        CursorPageResponse<SubmissionCommentVO> result =
+                submissionCommentsService.getCommentsByCursor("submissionId", null, 2, "desc", false);
+
+        assertThat(result.getData()).extracting(SubmissionCommentVO::getId).containsExactly("c1", "c2");
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(result.getNextCursor()).id()).isEqualTo("c2");
+        assertThat(result.getTotal()).isNull();
+        verify(query, never()).count();
+        verify(query).page(argThat(p -> p.getSize() == 3 && !p.searchCount()));
+    }
+
+    @Test
+    @DisplayName("✅ Cursor page seeks past the cursor and counts when asked")
+    void testGetCommentsByCursor_WithCursorAndTotal() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        Page<SubmissionComments> rows = new Page<>();
+        rows.setRecords(List.of(comment("c3", 0)));
+        when(query.page(any())).thenReturn(rows);
+        when(query.count()).thenReturn(3L);
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        String cursor = new KeysetCursor(LocalDateTime.of(2025, 4, 8, 9, 0), "c2").encode();
+        CursorPageResponse<SubmissionCommentVO> result =
+                submissionCommentsService.getCommentsByCursor("submissionId", cursor, 2, "desc", true);
+
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.getTotal()).isEqualTo(3L);
+        verify(query).and(eq(true), any());
+    }
+
+    @Test
+    @DisplayName("✅ Replies page reports the maintained reply count as its total")
+    void testGetReplies() {
+        doReturn(comment("c1", 5).setSubmissionId("submissionId")).when(submissionCommentsService).getById("c1");
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        Page<SubmissionComments> rows = new Page<>();
+        rows.setRecords(List.of(comment("r4", 0), comment("r5", 0)));
+        when(query.page(any())).thenReturn(rows);
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        CursorPageResponse<SubmissionCommentVO> result = submissionCommentsService.getReplies("c1", null, 10);
+
+        assertThat(result.getData()).hasSize(2);
+        assertThat(result.getTotal()).isEqualTo(5L);
+        assertThat(result.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("❌ Replies of a missing comment are a 404")
+    void testGetRepliesParentMissing() {
+        doReturn(null).when(submissionCommentsService).getById("missing");
+
+        assertThatThrownBy(() -> submissionCommentsService.getReplies("missing", null, 10))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Comment not found");
+    }
+
+    @Test
+    @DisplayName("✅ A new comment stores the author snapshot it was written with")
+    void testAddCommentStoresAuthorSnapshot() {
+        UserBriefVO author = UserBriefVO.builder().id("userId").name("Alice").avatarUrl("a.png").profileVersion(3L).build();
+        when(userServiceClient.getUsersByIds(anyList(), any())).thenReturn(ResponseEntity.ok(List.of(author)));
+        SubmissionCommentDTO dto = new SubmissionCommentDTO();
+        dto.setSubmissionId("submissionId");
+        dto.setContent("Nice work!");
+
+        submissionCommentsService.addComment("userId", dto);
+
+        verify(submissionCommentsMapper).insert(argThat((SubmissionComments c) ->
+                "Alice".equals(c.getAuthorName()) && "a.png".equals(c.getAuthorAvatarUrl()) && c.getAuthorVersion() == 3L));
+    }
+
+    @Test
+    @DisplayName("✅ A comment is still saved without a snapshot when user-service is down")
+    void testAddCommentWithoutUserService() {
+        SubmissionCommentDTO dto = new SubmissionCommentDTO();
+        dto.setSubmissionId("submissionId");
+        dto.setContent("Nice work!");
+
+        submissionCommentsService.addComment("userId", dto);
+
+        verify(submissionCommentsMapper).insert(argThat((SubmissionComments c) -> c.getAuthorVersion() == null));
+    }
+
+    @Test
+    @DisplayName("✅ Reading snapshotted comments makes no call to user-service")
+    void testReadsUseSnapshot() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        SubmissionComments snapshotted = comment("c1", 0).setAuthorName("Alice").setAuthorAvatarUrl("a.png").setAuthorVersion(2L);
+        Page<SubmissionComments> page = new Page<>(1, 10);
+        page.setRecords(List.of(snapshotted));
+        when(query.page(any())).thenReturn(page);
+
+        PageResponse<SubmissionCommentVO> result =
+                submissionCommentsService.getPaginatedComments("sub1", 1, 10, "createdAt", "desc");
+
+        assertThat(result.getData().get(0).getUserName()).isEqualTo("Alice");
+        assertThat(result.getData().get(0).getAvatarUrl()).isEqualTo("a.png");
+        verify(userServiceClient, never()).getUsersByIds(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("✅ Comments written before snapshots still resolve their author")
+    void testReadsFallBackForLegacyRows() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mockChain();
+        SubmissionComments snapshotted = comment("c1", 0).setAuthorName("Alice").setAuthorVersion(2L);
+        SubmissionComments legacy = comment("c2", 0);
+        Page<SubmissionComments> page = new Page<>(1, 10);
+        page.setRecords(List.of(snapshotted, legacy));
+        when(query.page(any())).thenReturn(page);
+        when(userServiceClient.getUsersByIds(List.of("user-c2"), null)).thenReturn(ResponseEntity.ok(
+                List.of(UserBriefVO.builder().id("user-c2").name("Bob").build())));
+
+        PageResponse<SubmissionCommentVO> result =
+                submissionCommentsService.getPaginatedComments("sub1", 1, 10, "createdAt", "desc");
+
+        assertThat(result.getData()).extracting(SubmissionCommentVO::getUserName).containsExactly("Alice", "Bob");
+    }
+
+    @Test
+    @DisplayName("✅ A profile event refreshes the snapshot through the version-guarded update")
+    void testRefreshAuthorSnapshot() {
+        when(submissionCommentsMapper.refreshAuthorSnapshot("u1", "Alice B", "b.png", 5L)).thenReturn(7);
+
+        int refreshed = submissionCommentsService.refreshAuthorSnapshot("u1", "Alice B", "b.png", 5L);
+
+        assertThat(refreshed).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("✅ Posting a reply bumps the parent's reply count")
+    void testAddReplyIncrementsCount() {
+        doReturn(comment("parentId", 0).setSubmissionId("submissionId")).when(submissionCommentsService).getById("parentId");
+        SubmissionCommentDTO dto = new SubmissionCommentDTO();
+        dto.setSubmissionId("submissionId");
+        dto.setParentId("parentId");
+        dto.setContent("Agreed");
+
+        submissionCommentsService.addComment("userId", dto);
+
+        verify(submissionCommentsMapper).adjustReplyCount("parentId", 1);
+    }
+
+    @Test
+    @DisplayName("❌ Replying to a comment of another submission is a 404")
+    void testAddReplyToForeignParent() {
+        doReturn(comment("parentId", 0).setSubmissionId("otherSubmission")).when(submissionCommentsService).getById("parentId");
+        SubmissionCommentDTO dto = new SubmissionCommentDTO();
+        dto.setSubmissionId("submissionId");
+        dto.setParentId("parentId");
+        dto.setContent("Agreed");
+
+        assertThatThrownBy(() -> submissionCommentsService.addComment("userId", dto))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Parent comment not found");
+        verify(submissionCommentsMapper, never()).insert(any(SubmissionComments.class));
+    }
+
+    @Test
+    @DisplayName("✅ Deleting a reply lowers the parent's reply count")
+    void testDeleteReplyDecrementsCount() {
+        SubmissionComments reply = new SubmissionComments().setUserId("ownerUser").setParentId("parentId");
+        when(submissionCommentsService.getById(anyString())).thenReturn(reply);
+        when(submissionCommentsService.removeById(anyString())).thenReturn(true);
+
+        submissionCommentsService.deleteComment("replyId", ctx("ownerUser", "PARTICIPANT"));
+
+        verify(submissionCommentsMapper).adjustReplyCount("parentId", -1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private LambdaQueryChainWrapper<SubmissionComments> mockChain() {
+        LambdaQueryChainWrapper<SubmissionComments> query = mock(LambdaQueryChainWrapper.class);
+        doReturn(query).when(submissionCommentsService).lambdaQuery();
+        when(query.eq(any(SFunction.class), any())).thenReturn(query);
+        when(query.isNull(any(SFunction.class))).thenReturn(query);
+        when(query.and(anyBoolean(), any())).thenReturn(query);
+        when(query.orderBy(anyBoolean(), anyBoolean(), any(SFunction.class))).thenReturn(query);
+        return query;
+    }
+
+    private static SubmissionComments comment(String id, int replyCount) {
+        return new SubmissionComments()
+                .setId(id)
+                .setUserId("user-" + id)
+                .setReplyCount(replyCount)
+                .setCreatedAt(LocalDateTime.of(2025, 4, 8, 9, 0));
     }
 
 }
@@ -1,16 +1,18 @@
 package com.w16a.danish.judge.notify;
 
 import com.w16a.danish.judge.domain.mq.AwardWinnerMessage;
+import com.w16a.danish.common.messaging.OutboxWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import com.w16a.danish.judge.config.JudgeRabbitMQConfig;
 
+import java.util.List;
+
 /**
  * MQ sender for notifying award winners.
  * Sends messages to judge.topic exchange with routing key award.winner.
  * (judge-service -> user-service or other downstreams)
+ * Events are written to the outbox, so they go out only if the calling transaction commits.
  *
  * @author Eddy
  * @date 2025/04/19
@@ -19,22 +21,14 @@ import com.w16a.danish.judge.config.JudgeRabbitMQConfig;
 @RequiredArgsConstructor
 public class AwardNotifier {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxWriter outboxWriter;
 
     /**
-     * Send an award winner notification message.
+     * Send the award notifications of one awarding in one outbox write.
      *
-     * @param message Award winner information (personal or team award)
+     * @param messages one message per recipient
      */
-    public void sendAwardWinner(AwardWinnerMessage message) {
-        rabbitTemplate.convertAndSend(
-                JudgeRabbitMQConfig.JUDGE_EXCHANGE_NAME,
-                JudgeRabbitMQConfig.AWARD_WINNER_ROUTING_KEY,
-                message,
-                m -> {
-                    m.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return m;
-                }
-        );
+    public void sendAwardWinners(List<AwardWinnerMessage> messages) {
+        outboxWriter.writeAll(JudgeRabbitMQConfig.JUDGE_EXCHANGE_NAME, JudgeRabbitMQConfig.AWARD_WINNER_ROUTING_KEY, messages);
     }
 }
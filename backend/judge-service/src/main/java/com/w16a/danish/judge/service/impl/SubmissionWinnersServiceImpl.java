@@ -24,9 +24,7 @@ import com.baomidou.mybatisplus.spring.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -53,6 +51,7 @@ public class SubmissionWinnersServiceImpl extends ServiceImpl<SubmissionWinnersM
     private final ISubmissionJudgesService submissionJudgesService;
     private final UserServiceClient userServiceClient;
     private final AwardNotifier awardNotifier;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public PageResponse<ScoredSubmissionVO> listScoredSubmissions(
@@ -154,7 +153,6 @@ public class SubmissionWinnersServiceImpl extends ServiceImpl<SubmissionWinnersM
     }
 
     @Override
-    @Transactional
     public void autoAward(RequestContext ctx, String competitionId) {
         boolean isOrganizerOrAdmin = ctx.isAdmin() ||
                 competitionGateway.isOrganiser(competitionId, ctx.userId());
@@ -253,42 +251,35 @@ public class SubmissionWinnersServiceImpl extends ServiceImpl<SubmissionWinnersM
             }
         }
 
-        this.lambdaUpdate()
-                .eq(SubmissionWinners::getCompetitionId, competitionId)
-                .remove();
-        this.saveBatch(winners);
-
-        // Cross-service write (status) + notifications must only run once the local
-        // winner records are committed — otherwise a rollback would leave the competition
-        // marked AWARDED and emails sent for winners that were never persisted.
-        runAfterCommit(() -> {
-            competitionGateway.updateStatus(competitionId, CompetitionStatus.AWARDED.name());
+        // Recipients are looked up before the transaction opens, so no connection is held across
+        // remote calls and a user-service outage cannot roll the award back. The competition is
+        // read once for all of them.
+        List<AwardWinnerMessage> messages = new ArrayList<>();
+        CompetitionResponseVO competition = competitionGateway.find(competitionId).orElse(null);
+        if (competition != null) {
+            LocalDateTime awardedAt = LocalDateTime.now();
             submissions.forEach(submission -> {
                 boolean hasAnyAward = winners.stream()
                         .anyMatch(w -> w.getSubmissionId().equals(submission.getId()));
                 if (hasAnyAward) {
-                    sendAwardNotification(submission, competitionId, winners);
+                    messages.addAll(awardMessages(submission, competition, winners, awardedAt));
                 }
             });
+        }
+
+        // Only the writes run in the transaction. Notifications go into the outbox with the
+        // winner records, as one batch, so they are only published if those records commit.
+        transactionTemplate.executeWithoutResult(status -> {
+            this.lambdaUpdate()
+                    .eq(SubmissionWinners::getCompetitionId, competitionId)
+                    .remove();
+            this.saveBatch(winners);
+            awardNotifier.sendAwardWinners(messages);
         });
-    }
 
-    /**
-     * Run cross-service side effects after the surrounding transaction commits, so a
-     * rollback never publishes notifications for winners that were not persisted. Falls
-     * back to inline execution when no transaction is active (e.g. unit tests).
-     */
-    private void runAfterCommit(Runnable action) {
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    action.run();
-                }
-            });
-        } else {
-            action.run();
-        }
+        // The cross-service status write runs once the local winner records are committed —
+        // otherwise a rollback would leave the competition marked AWARDED.
+        competitionGateway.updateStatus(competitionId, CompetitionStatus.AWARDED.name());
     }
 
     @Override
@@ -379,12 +370,8 @@ public class SubmissionWinnersServiceImpl extends ServiceImpl<SubmissionWinnersM
                 .setAwardDescription(null);
     }
 
-    private void sendAwardNotification(SubmissionInfoVO submission, String competitionId, List<SubmissionWinners> winners) {
-        CompetitionResponseVO competition = competitionGateway.find(competitionId).orElse(null);
-        if (competition == null) {
-            return;
-        }
-
+    private List<AwardWinnerMessage> awardMessages(SubmissionInfoVO submission, CompetitionResponseVO competition,
+                                                   List<SubmissionWinners> winners, LocalDateTime awardedAt) {
         List<UserBriefVO> recipients = new ArrayList<>();
 
         if (StrUtil.isNotBlank(submission.getTeamId())) {
@@ -397,8 +384,10 @@ public class SubmissionWinnersServiceImpl extends ServiceImpl<SubmissionWinnersM
             }
         }
 
+        // The user-service fallback answers with an empty brief; there is nobody to mail then
+        recipients = recipients.stream().filter(recipient -> StrUtil.isNotBlank(recipient.getEmail())).toList();
         if (recipients.isEmpty()) {
-            return;
+            return List.of();
         }
 
         List<String> awardNames = winners.stream()
@@ -407,21 +396,22 @@ public class SubmissionWinnersServiceImpl extends ServiceImpl<SubmissionWinnersM
                 .toList();
 
         if (awardNames.isEmpty()) {
-            return;
+            return List.of();
         }
 
         String awards = String.join(", ", awardNames);
 
-        for (UserBriefVO recipient : recipients) {
-            AwardWinnerMessage message = new AwardWinnerMessage();
-            message.setUserName(recipient.getName());
-            message.setUserEmail(recipient.getEmail());
-            message.setCompetitionName(competition.getName());
-            message.setAwardedAt(LocalDateTime.now());
-            message.setAwardName(awards);
-
-            awardNotifier.sendAwardWinner(message);
-        }
+        return recipients.stream()
+                .map(recipient -> {
+                    AwardWinnerMessage message = new AwardWinnerMessage();
+                    message.setUserName(recipient.getName());
+                    message.setUserEmail(recipient.getEmail());
+                    message.setCompetitionName(competition.getName());
+                    message.setAwardedAt(awardedAt);
+                    message.setAwardName(awards);
+                    return message;
+                })
+                .toList();
     }
 
     private AwardWinnerMessage buildAwardMessage(String userName, String userEmail, SubmissionInfoVO submission, CompetitionResponseVO competition, boolean isWinner, List<SubmissionWinners> winners) {
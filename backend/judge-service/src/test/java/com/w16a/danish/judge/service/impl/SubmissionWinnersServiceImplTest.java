@@ -19,15 +19,20 @@ import com.w16a.danish.judge.service.ISubmissionJudgesService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -50,6 +55,9 @@ class SubmissionWinnersServiceImplTest {
     @Mock private UserServiceClient userServiceClient;
     @Mock private AwardNotifier awardNotifier;
     @Mock private SubmissionWinnersMapper submissionWinnersMapper;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private TransactionStatus transactionStatus;
+    private TransactionTemplate transactionTemplate;
 
     private static RequestContext ctx(String userId, String role) {
         return new RequestContext(userId, role);
@@ -58,7 +66,10 @@ class SubmissionWinnersServiceImplTest {
     @BeforeEach
     void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        transactionTemplate = new TransactionTemplate(transactionManager);
         ReflectionTestUtils.setField(winnersService, "baseMapper", submissionWinnersMapper);
+        ReflectionTestUtils.setField(winnersService, "transactionTemplate", transactionTemplate);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
     }
 
     @Test
@@ -137,13 +148,10 @@ class SubmissionWinnersServiceImplTest {
 
         // The award notification reads the competition through find(), where a
         // missing one is a normal skip rather than a 404.
-        when(competitionGateway.find(anyString()))
-                .thenReturn(java.util.Optional.of(new CompetitionResponseVO()));
-
-        // Mock getCompetitionById to avoid NPE
         CompetitionResponseVO mockCompetition = new CompetitionResponseVO();
         mockCompetition.setName("Mocked Competition");
-        when(competitionGateway.require(anyString())).thenReturn(mockCompetition);
+        when(competitionGateway.find(anyString()))
+                .thenReturn(java.util.Optional.of(mockCompetition));
 
         // Mock userServiceClient.getUserBriefById to avoid NPE
         var mockUser = new com.w16a.danish.common.domain.vo.UserBriefVO();
@@ -154,7 +162,7 @@ class SubmissionWinnersServiceImplTest {
                 .thenReturn(ResponseEntity.ok(mockUser));
 
         // Mock awardNotifier to do nothing
-        doNothing().when(awardNotifier).sendAwardWinner(any());
+        doNothing().when(awardNotifier).sendAwardWinners(anyList());
 
         // Act
         winnersService.autoAward(ctx("userId", "ADMIN"), "comp-id");
@@ -162,7 +170,65 @@ class SubmissionWinnersServiceImplTest {
         // Assert: Verify critical interactions
         verify(winnersService, times(1)).saveBatch(anyList());
         verify(competitionGateway, times(1)).updateStatus(anyString(), anyString());
-        verify(awardNotifier, atLeastOnce()).sendAwardWinner(any());
+        verify(awardNotifier).sendAwardWinners(argThat(messages -> !messages.isEmpty()));
+        verify(competitionGateway, times(1)).find("comp-id");
+    }
+
+    @Test
+    @DisplayName("✅ Recipients are looked up before the transaction, which only writes, and the competition is read once")
+    void testAutoAwardResolvesRecipientsOutsideTransaction() {
+        when(competitionGateway.isOrganiser(anyString(), anyString())).thenReturn(true);
+        SubmissionInfoVO first = new SubmissionInfoVO();
+        first.setId("submission-1");
+        first.setTotalScore(BigDecimal.valueOf(90));
+        first.setUserId("user-1");
+        SubmissionInfoVO second = new SubmissionInfoVO();
+        second.setId("submission-2");
+        second.setTotalScore(BigDecimal.valueOf(80));
+        second.setUserId("user-2");
+        when(submissionServiceClient.getScoredSubmissions(any()))
+                .thenReturn(ResponseEntity.ok(List.of(first, second)));
+        when(submissionJudgeScoresService.listBySubmissionIds(anyList())).thenReturn(Collections.emptyList());
+        doReturn(true).when(winnersService).saveBatch(anyList());
+        CompetitionResponseVO competition = new CompetitionResponseVO();
+        competition.setName("Mocked Competition");
+        when(competitionGateway.find(anyString())).thenReturn(java.util.Optional.of(competition));
+        var user = new com.w16a.danish.common.domain.vo.UserBriefVO();
+        user.setName("Mocked User");
+        user.setEmail("mockeduser@example.com");
+        when(userServiceClient.getUserBriefById(anyString())).thenReturn(ResponseEntity.ok(user));
+
+        winnersService.autoAward(ctx("userId", "ADMIN"), "comp-id");
+
+        InOrder order = inOrder(userServiceClient, transactionManager, winnersService, awardNotifier, competitionGateway);
+        order.verify(userServiceClient, times(2)).getUserBriefById(anyString());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(winnersService).saveBatch(anyList());
+        order.verify(awardNotifier).sendAwardWinners(argThat(messages -> messages.size() == 2));
+        order.verify(transactionManager).commit(transactionStatus);
+        order.verify(competitionGateway).updateStatus("comp-id", "AWARDED");
+        verify(competitionGateway, times(1)).find("comp-id");
+    }
+
+    @Test
+    @DisplayName("✅ A missing competition still awards, without notifications")
+    void testAutoAwardWithoutCompetitionSendsNothing() {
+        when(competitionGateway.isOrganiser(anyString(), anyString())).thenReturn(true);
+        SubmissionInfoVO submission = new SubmissionInfoVO();
+        submission.setId("submission-1");
+        submission.setTotalScore(BigDecimal.valueOf(90));
+        submission.setUserId("user-1");
+        when(submissionServiceClient.getScoredSubmissions(any()))
+                .thenReturn(ResponseEntity.ok(List.of(submission)));
+        when(submissionJudgeScoresService.listBySubmissionIds(anyList())).thenReturn(Collections.emptyList());
+        doReturn(true).when(winnersService).saveBatch(anyList());
+        when(competitionGateway.find(anyString())).thenReturn(java.util.Optional.empty());
+
+        winnersService.autoAward(ctx("userId", "ADMIN"), "comp-id");
+
+        verify(winnersService).saveBatch(anyList());
+        verify(awardNotifier).sendAwardWinners(List.of());
+        verifyNoInteractions(userServiceClient);
     }
 
     @Test
@@ -208,34 +274,6 @@ class SubmissionWinnersServiceImplTest {
         assertThat(response.getData()).isNotEmpty();
     }
 
-    @Test
-    @DisplayName("❌ Should not send notification if competition not found")
-    void testSendAwardNotification_CompetitionNotFound() throws Exception {
-        // Arrange
-        SubmissionInfoVO submission = new SubmissionInfoVO();
-        submission.setId("submission-1");
-        submission.setUserId("user-1");
-
-        // Mock: getCompetitionById returns ResponseEntity.ok(null)
-        when(competitionGateway.require(anyString())).thenReturn(null);
-
-        // Reflectively call private sendAwardNotification() method
-        Method method = SubmissionWinnersServiceImpl.class.getDeclaredMethod(
-                "sendAwardNotification",
-                SubmissionInfoVO.class,
-                String.class,
-                List.class
-        );
-        method.setAccessible(true);
-
-        // Act
-        method.invoke(winnersService, submission, "comp-id", List.of());
-
-        // Assert: No exception should be thrown and no notifications sent
-        verifyNoInteractions(userServiceClient);
-        verifyNoInteractions(awardNotifier);
-    }
-
     @Test
     @DisplayName("❌ Should not send notification if no recipients found")
     void testSendAwardNotification_NoRecipients() throws Exception {
@@ -247,27 +285,26 @@ class SubmissionWinnersServiceImplTest {
         CompetitionResponseVO competition = new CompetitionResponseVO();
         competition.setName("Mocked Competition");
 
-        // Mock competitionGateway.getCompetitionById returns a valid competition
-        when(competitionGateway.require(anyString())).thenReturn(competition);
-
         // Mock userServiceClient.getUserBriefById returns empty (simulate no recipient found)
         when(userServiceClient.getUserBriefById(anyString()))
                 .thenReturn(ResponseEntity.ok(null));
 
-        // Access private sendAwardNotification method via reflection
+        // Access private awardMessages method via reflection
         Method method = SubmissionWinnersServiceImpl.class.getDeclaredMethod(
-                "sendAwardNotification",
+                "awardMessages",
                 SubmissionInfoVO.class,
-                String.class,
-                List.class
+                CompetitionResponseVO.class,
+                List.class,
+                LocalDateTime.class
         );
         method.setAccessible(true);
 
         // Act
-        method.invoke(winnersService, submission, "comp-id", List.of());
+        Object messages = method.invoke(winnersService, submission, competition, List.of(), LocalDateTime.now());
 
         // Assert
-        verify(awardNotifier, never()).sendAwardWinner(any());
+        assertThat((List<?>) messages).isEmpty();
+        verifyNoInteractions(awardNotifier);
     }
 
     @Test
@@ -1,24 +0,0 @@
-package com.w16a.danish.registration.config;
-
-import feign.codec.Encoder;
-import feign.form.spring.SpringFormEncoder;
-import org.springframework.beans.factory.ObjectFactory;
-import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
-import org.springframework.cloud.openfeign.support.SpringEncoder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-/**
- *
- * FeignMultipartSupportConfig
- *
- * @author Eddy ZHANG
- * @date 2025/03/28
- */
-@Configuration
-public class FeignMultipartSupportConfig {
-    @Bean
-    public Encoder feignFormEncoder(ObjectFactory<HttpMessageConverters> converters) {
-        return new SpringFormEncoder(new SpringEncoder(converters));
-    }
-}
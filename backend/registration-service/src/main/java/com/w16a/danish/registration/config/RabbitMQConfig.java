@@ -1,5 +1,6 @@
 package com.w16a.danish.registration.config;
 
+import com.w16a.danish.common.messaging.FileDeletionTopology;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -83,6 +84,12 @@ public class RabbitMQConfig {
                 .to(registrationExchange()).with(SUBMISSION_REVIEWED_ROUTING_KEY);
     }
 
+    // File deletions (consumed by file-service)
+    @Bean
+    public Declarables fileDeletionDeclarables() {
+        return FileDeletionTopology.declarables();
+    }
+
     // JSON message converter
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
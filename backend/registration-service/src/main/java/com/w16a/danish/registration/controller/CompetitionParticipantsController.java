@@ -18,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 
@@ -158,6 +159,30 @@ public class CompetitionParticipantsController {
         return ResponseEntity.ok(registered);
     }
 
+    @Operation(
+            summary = "Batch check registration and submission status",
+            description = "For each competition, whether the current user and the given teams are registered and have submitted. "
+                    + "Lets a list page fetch the status of all its cards in one request.",
+            parameters = {
+                    @Parameter(name = "competitionIds", description = "IDs of the competitions (comma-separated or repeated, at most 100)", required = true),
+                    @Parameter(name = "teamIds", description = "IDs of the current user's teams (optional, at most 100)"),
+                    @Parameter(name = "User-ID", description = "User ID from request header", required = true),
+                    @Parameter(name = "User-Role", description = "User role from request header", required = true)
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Status per competition ID, in request order"),
+                    @ApiResponse(responseCode = "400", description = "Too many IDs in one request")
+            }
+    )
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, RegistrationStatusVO>> getRegistrationStatuses(
+            @RequestParam List<String> competitionIds,
+            @RequestParam(required = false) List<String> teamIds,
+            @CurrentUser RequestContext ctx) {
+
+        return ResponseEntity.ok(participantsService.getRegistrationStatuses(competitionIds, teamIds, ctx));
+    }
+
     @Operation(
             summary = "Get competitions user registered",
             description = "Allows users to retrieve paginated competitions they registered for, with optional search and sorting.",
@@ -1,8 +1,11 @@
 package com.w16a.danish.registration.controller;
 
 import com.w16a.danish.common.web.ApiResponses;
+import com.w16a.danish.registration.domain.dto.SubmissionConfirmDTO;
 import com.w16a.danish.registration.domain.dto.SubmissionReviewDTO;
+import com.w16a.danish.registration.domain.dto.SubmissionUploadRequestDTO;
 import com.w16a.danish.common.domain.vo.PageResponse;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.registration.domain.vo.*;
 import com.w16a.danish.common.context.CurrentUser;
@@ -78,6 +81,38 @@ public class SubmissionRecordsController {
         return ApiResponses.message("Work submitted successfully");
     }
 
+    @Operation(
+            summary = "Request a direct upload URL for submission work",
+            description = "Checks that the PARTICIPANT may submit, then returns a short-lived URL to PUT the file to object storage. " +
+                    "Finish with /submissions/confirm once the upload succeeds.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Upload URL issued")
+            }
+    )
+    @PostMapping("/upload-url")
+    public ResponseEntity<PresignedUploadVO> requestSubmissionUpload(
+            @CurrentUser RequestContext ctx,
+            @Valid @RequestBody SubmissionUploadRequestDTO dto) {
+
+        return ResponseEntity.ok(submissionService.requestSubmissionUpload(ctx, dto));
+    }
+
+    @Operation(
+            summary = "Confirm a directly uploaded submission",
+            description = "Records the submission after verifying the object uploaded with /submissions/upload-url exists",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Submission recorded successfully")
+            }
+    )
+    @PostMapping("/confirm")
+    public ResponseEntity<com.w16a.danish.common.domain.vo.ApiResponse<String>> confirmSubmission(
+            @CurrentUser RequestContext ctx,
+            @Valid @RequestBody SubmissionConfirmDTO dto) {
+
+        submissionService.confirmSubmission(ctx, dto);
+        return ApiResponses.message("Work submitted successfully");
+    }
+
     @Operation(
             summary = "Delete submission",
             description = "Allows PARTICIPANT to delete their own submission. ADMIN can delete any submission.",
@@ -259,6 +294,31 @@ public class SubmissionRecordsController {
         return ApiResponses.message("Team work submitted successfully");
     }
 
+    @Operation(
+            summary = "Request a direct upload URL for team submission work",
+            description = "Checks that the caller's team may submit, then returns a short-lived URL to PUT the file to object storage"
+    )
+    @PostMapping("/teams/upload-url")
+    public ResponseEntity<PresignedUploadVO> requestTeamSubmissionUpload(
+            @CurrentUser RequestContext ctx,
+            @Valid @RequestBody SubmissionUploadRequestDTO dto) {
+
+        return ResponseEntity.ok(submissionService.requestTeamSubmissionUpload(ctx, dto));
+    }
+
+    @Operation(
+            summary = "Confirm a directly uploaded team submission",
+            description = "Records the team submission after verifying the uploaded object exists"
+    )
+    @PostMapping("/teams/confirm")
+    public ResponseEntity<com.w16a.danish.common.domain.vo.ApiResponse<String>> confirmTeamSubmission(
+            @CurrentUser RequestContext ctx,
+            @Valid @RequestBody SubmissionConfirmDTO dto) {
+
+        submissionService.confirmTeamSubmission(ctx, dto);
+        return ApiResponses.message("Team work submitted successfully");
+    }
+
     @Operation(
             summary = "View a team's submission (Public Access)",
             description = "Anyone can view the submitted work of a team in a competition if available.",
@@ -0,0 +1,43 @@
+package com.w16a.danish.registration.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ *
+ * Confirms a submission whose file was uploaded with a presigned URL.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/20
+ */
+@Data
+@Schema(name = "SubmissionConfirmDTO", description = "Request body for confirming a direct-to-storage submission upload")
+public class SubmissionConfirmDTO {
+
+    @NotBlank(message = "competitionId is required")
+    @Schema(description = "Competition the work is submitted to", required = true)
+    private String competitionId;
+
+    @Schema(description = "Team submitting the work; required for team uploads only")
+    private String teamId;
+
+    @NotBlank(message = "objectName is required")
+    @Schema(description = "Object name returned with the upload URL", required = true)
+    private String objectName;
+
+    @NotBlank(message = "fileName is required")
+    @Size(max = 255, message = "fileName must be at most 255 characters")
+    @Schema(description = "Original file name", required = true, example = "report.pdf")
+    private String fileName;
+
+    @NotBlank(message = "title is required")
+    @Schema(description = "Title of the submission", required = true)
+    private String title;
+
+    @NotBlank(message = "description is required")
+    @Schema(description = "Description of the submission", required = true)
+    private String description;
+
+}
@@ -0,0 +1,34 @@
+package com.w16a.danish.registration.domain.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ *
+ * Request for a presigned URL to upload a submission file directly to storage.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/20
+ */
+@Data
+@Schema(name = "SubmissionUploadRequestDTO", description = "Request body for a direct-to-storage submission upload URL")
+public class SubmissionUploadRequestDTO {
+
+    @NotBlank(message = "competitionId is required")
+    @Schema(description = "Competition the work is submitted to", required = true)
+    private String competitionId;
+
+    @Schema(description = "Team submitting the work; required for team uploads only")
+    private String teamId;
+
+    @NotBlank(message = "fileName is required")
+    @Size(max = 255, message = "fileName must be at most 255 characters")
+    @Schema(description = "Original file name", required = true, example = "report.pdf")
+    private String fileName;
+
+    @Schema(description = "Content type the client will upload with", example = "application/pdf")
+    private String contentType;
+
+}
@@ -8,15 +8,18 @@ import java.time.LocalDateTime;
 /**
  *
  * This class represents a message indicating that a participant has been removed from a competition.
+ * Recipients are sent by id; user-service looks up their name and email when it mails them.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
 public class ParticipantRemovedMessage implements Serializable {
-    private String userName;
-    private String userEmail;
-    private String removedBy;
+    /** Removed participant; null for a team, whose creator is told instead. */
+    private String userId;
+    private String teamId;
+    /** Organizer or admin who removed them. */
+    private String removedById;
     private String competitionName;
     private LocalDateTime removedAt;
 }
@@ -8,14 +8,14 @@ import java.time.LocalDateTime;
 /**
  *
  * This class represents a message sent to the message queue when a user successfully registers for a competition.
+ * Recipients are sent by id; user-service looks up their name and email when it mails them.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
 public class RegisterSuccessMessage implements Serializable {
-    private String userName;
-    private String userEmail;
+    private String userId;
     private String competitionName;
     private LocalDateTime registerTime;
 }
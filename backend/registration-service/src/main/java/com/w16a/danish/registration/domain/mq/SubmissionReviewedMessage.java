@@ -8,18 +8,20 @@ import java.time.LocalDateTime;
 /**
  *
  * This class represents a message indicating that a submission has been reviewed.
+ * Recipients are sent by id; user-service looks up their name and email when it mails them.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
 public class SubmissionReviewedMessage implements Serializable {
-    private String userName;
-    private String userEmail;
+    /** Individual submitter; null for a team submission, whose creator is told instead. */
+    private String userId;
+    private String teamId;
     private String competitionName;
     private String title;
     private String reviewStatus;
-    private String reviewedBy;
+    private String reviewerId;
     private String reviewComments;
     private LocalDateTime reviewedAt;
 }
@@ -8,14 +8,14 @@ import java.time.LocalDateTime;
 /**
  *
  * This class represents a message that is sent when a submission is uploaded.
+ * Recipients are sent by id; user-service looks up their name and email when it mails them.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
 public class SubmissionUploadedMessage implements Serializable {
-    private String userName;
-    private String userEmail;
+    private String userId;
     private String competitionName;
     private String title;
     private LocalDateTime submittedAt;
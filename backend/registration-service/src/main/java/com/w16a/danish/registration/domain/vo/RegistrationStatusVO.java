@@ -0,0 +1,34 @@
+package com.w16a.danish.registration.domain.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * View Object for the caller's relationship to one competition:
+ * whether they (or any of the given teams) registered and submitted.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/20
+ */
+@Data
+@Schema(description = "Registration and submission status of the current user and their teams for a competition")
+public class RegistrationStatusVO {
+
+    @Schema(description = "Competition ID")
+    private String competitionId;
+
+    @Schema(description = "Whether the current user is registered individually")
+    private boolean registered;
+
+    @Schema(description = "Whether the current user has an individual submission")
+    private boolean submitted;
+
+    @Schema(description = "IDs of the given teams registered for this competition")
+    private List<String> registeredTeamIds = new ArrayList<>();
+
+    @Schema(description = "IDs of the given teams that have a submission for this competition")
+    private List<String> submittedTeamIds = new ArrayList<>();
+}
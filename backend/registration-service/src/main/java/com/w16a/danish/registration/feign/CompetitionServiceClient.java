@@ -1,6 +1,8 @@
 package com.w16a.danish.registration.feign;
 
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
+import com.w16a.danish.common.domain.vo.PageResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -38,4 +40,14 @@ public interface CompetitionServiceClient {
      */
     @PostMapping("/batch/ids")
     ResponseEntity<List<CompetitionResponseVO>> getCompetitionsByIds(@RequestBody List<String> ids);
+
+    /**
+     *
+     * Get one page of competitions from a set of IDs, filtered and sorted by competition-service.
+     *
+     * @param query ID set, keyword, sort key and page
+     * @return {@link ResponseEntity }<{@link PageResponse }<{@link CompetitionResponseVO }>>
+     */
+    @PostMapping("/batch/page")
+    ResponseEntity<PageResponse<CompetitionResponseVO>> pageCompetitionsByIds(@RequestBody CompetitionPageQueryDTO query);
 }
@@ -1,14 +1,11 @@
 package com.w16a.danish.registration.feign;
 
-import com.w16a.danish.registration.config.FeignMultipartSupportConfig;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RequestPart;
-import org.springframework.web.multipart.MultipartFile;
 
 /**
  *
@@ -17,13 +14,14 @@ import org.springframework.web.multipart.MultipartFile;
  * @author Eddy ZHANG
  * @date 2025/03/28
  */
-@FeignClient(name = "file-service", path = "/files", configuration = FeignMultipartSupportConfig.class, fallback = com.w16a.danish.registration.feign.fallback.FileServiceClientFallback.class)
+@FeignClient(name = "file-service", path = "/files", fallback = com.w16a.danish.registration.feign.fallback.FileServiceClientFallback.class)
 public interface FileServiceClient {
 
-    @PostMapping(value = "/upload/submission", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    ResponseEntity<String> uploadSubmission(@RequestPart("file") MultipartFile file);
+    @PostMapping("/upload/submission/presign")
+    ResponseEntity<PresignedUploadVO> presignSubmissionUpload(@RequestParam("prefix") String prefix,
+                                                              @RequestParam(value = "fileName", required = false) String fileName,
+                                                              @RequestParam(value = "contentType", required = false) String contentType);
 
-    @DeleteMapping("/delete")
-    ResponseEntity<String> deleteFile(@RequestParam("bucket") String bucket,
-                                      @RequestParam("objectName") String objectName);
+    @PostMapping("/upload/submission/confirm")
+    ResponseEntity<StoredObjectVO> confirmSubmissionUpload(@RequestParam("objectName") String objectName);
 }
@@ -1,5 +1,8 @@
 package com.w16a.danish.registration.feign;
 
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
+import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.registration.domain.vo.TeamInfoVO;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -24,6 +27,12 @@ public interface UserServiceClient {
             @RequestParam(required = false) String role
     );
 
+    /**
+     * Page users within a set of IDs; role, keyword, sorting and paging are applied by user-service.
+     */
+    @PostMapping("/users/query-by-ids/page")
+    ResponseEntity<PageResponse<UserBriefVO>> pageUsersByIds(@RequestBody UserPageQueryDTO query);
+
     /**
      * Query a single user by user ID.
      */
@@ -46,6 +55,15 @@ public interface UserServiceClient {
     @PostMapping("/teams/public/brief")
     ResponseEntity<List<TeamInfoVO>> getTeamBriefByIds(@RequestBody List<String> teamIds);
 
+    /**
+     * Page brief info within a set of teams; keyword, sorting and paging are applied by user-service.
+     *
+     * @param query team IDs, keyword, sort key and page
+     * @return one page of team brief info
+     */
+    @PostMapping("/teams/public/brief/page")
+    ResponseEntity<PageResponse<TeamInfoVO>> pageTeamBriefsByIds(@RequestBody TeamPageQueryDTO query);
+
     /**
      * Fetch brief info (id, name, description, createdAt) for a single team.
      * This is a public endpoint used by registration service.
@@ -1,7 +1,9 @@
 package com.w16a.danish.registration.feign.fallback;
 
 import com.w16a.danish.common.exception.ServiceUnavailableException;
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
+import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.registration.feign.CompetitionServiceClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -22,4 +24,9 @@ public class CompetitionServiceClientFallback implements CompetitionServiceClien
     public ResponseEntity<List<CompetitionResponseVO>> getCompetitionsByIds(List<String> ids) {
         throw new ServiceUnavailableException("competition-service", "getCompetitionsByIds");
     }
+
+    @Override
+    public ResponseEntity<PageResponse<CompetitionResponseVO>> pageCompetitionsByIds(CompetitionPageQueryDTO query) {
+        throw new ServiceUnavailableException("competition-service", "pageCompetitionsByIds");
+    }
 }
@@ -1,5 +1,8 @@
 package com.w16a.danish.registration.feign.fallback;
 
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
+import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.common.exception.ServiceUnavailableException;
 import com.w16a.danish.registration.domain.vo.TeamInfoVO;
@@ -19,6 +22,11 @@ public class UserServiceClientFallback implements UserServiceClient {
         throw new ServiceUnavailableException("user-service", "getUsersByIds");
     }
 
+    @Override
+    public ResponseEntity<PageResponse<UserBriefVO>> pageUsersByIds(UserPageQueryDTO query) {
+        throw new ServiceUnavailableException("user-service", "pageUsersByIds");
+    }
+
     @Override
     public ResponseEntity<UserBriefVO> getUserBriefById(String userId) {
         throw new ServiceUnavailableException("user-service", "getUserBriefById");
@@ -34,6 +42,11 @@ public class UserServiceClientFallback implements UserServiceClient {
         throw new ServiceUnavailableException("user-service", "getTeamBriefByIds");
     }
 
+    @Override
+    public ResponseEntity<PageResponse<TeamInfoVO>> pageTeamBriefsByIds(TeamPageQueryDTO query) {
+        throw new ServiceUnavailableException("user-service", "pageTeamBriefsByIds");
+    }
+
     @Override
     public ResponseEntity<Boolean> isUserInTeam(String userId, String teamId) {
         throw new ServiceUnavailableException("user-service", "isUserInTeam");
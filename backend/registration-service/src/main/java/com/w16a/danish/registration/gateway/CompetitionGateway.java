@@ -1,6 +1,8 @@
 package com.w16a.danish.registration.gateway;
 
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
+import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.exception.BusinessException;
 import com.w16a.danish.registration.feign.CompetitionServiceClient;
 import lombok.RequiredArgsConstructor;
@@ -65,4 +67,14 @@ public class CompetitionGateway {
                 .map(response -> response.getBody())
                 .orElse(List.of());
     }
+
+    /**
+     * One page of competitions out of a known id set, with filtering, sorting and paging done by
+     * competition-service. Like {@link #findAll(List)}, missing ids simply do not appear.
+     */
+    public PageResponse<CompetitionResponseVO> page(CompetitionPageQueryDTO query) {
+        return Optional.ofNullable(competitionServiceClient.pageCompetitionsByIds(query))
+                .map(response -> response.getBody())
+                .orElseGet(() -> new PageResponse<>(List.of(), 0, query.getPage(), query.getSize(), 0));
+    }
 }
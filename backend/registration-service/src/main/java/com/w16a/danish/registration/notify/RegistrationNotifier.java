@@ -2,15 +2,15 @@ package com.w16a.danish.registration.notify;
 
 import com.w16a.danish.registration.domain.mq.RegisterSuccessMessage;
 import com.w16a.danish.registration.domain.mq.ParticipantRemovedMessage;
+import com.w16a.danish.common.messaging.OutboxWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import com.w16a.danish.registration.config.RabbitMQConfig;
 
 /**
  *
  * This class is responsible for sending messages related to registration events.
+ * Events are written to the outbox, so they go out only if the calling transaction commits.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
@@ -19,29 +19,13 @@ import com.w16a.danish.registration.config.RabbitMQConfig;
 @RequiredArgsConstructor
 public class RegistrationNotifier {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxWriter outboxWriter;
 
     public void sendRegisterSuccess(RegisterSuccessMessage message) {
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.REGISTER_SUCCESS_ROUTING_KEY,
-                message,
-                msg -> {
-                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return msg;
-                }
-        );
+        outboxWriter.write(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.REGISTER_SUCCESS_ROUTING_KEY, message);
     }
 
     public void sendParticipantRemoved(ParticipantRemovedMessage message) {
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.PARTICIPANT_REMOVED_ROUTING_KEY,
-                message,
-                msg -> {
-                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return msg;
-                }
-        );
+        outboxWriter.write(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.PARTICIPANT_REMOVED_ROUTING_KEY, message);
     }
 }
@@ -2,15 +2,15 @@ package com.w16a.danish.registration.notify;
 
 import com.w16a.danish.registration.domain.mq.SubmissionReviewedMessage;
 import com.w16a.danish.registration.domain.mq.SubmissionUploadedMessage;
+import com.w16a.danish.common.messaging.OutboxWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import com.w16a.danish.registration.config.RabbitMQConfig;
 
 /**
  *
  * This class is responsible for sending messages related to submission events.
+ * Events are written to the outbox, so they go out only if the calling transaction commits.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
@@ -19,30 +19,14 @@ import com.w16a.danish.registration.config.RabbitMQConfig;
 @RequiredArgsConstructor
 public class SubmissionNotifier {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxWriter outboxWriter;
 
     public void sendSubmissionUploaded(SubmissionUploadedMessage message) {
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.SUBMISSION_UPLOADED_ROUTING_KEY,
-                message,
-                msg -> {
-                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return msg;
-                }
-        );
+        outboxWriter.write(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.SUBMISSION_UPLOADED_ROUTING_KEY, message);
     }
 
     public void sendSubmissionReviewed(SubmissionReviewedMessage message) {
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.SUBMISSION_REVIEWED_ROUTING_KEY,
-                message,
-                msg -> {
-                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    return msg;
-                }
-        );
+        outboxWriter.write(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.SUBMISSION_REVIEWED_ROUTING_KEY, message);
     }
 
 }
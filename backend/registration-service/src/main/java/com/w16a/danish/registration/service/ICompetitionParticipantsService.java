@@ -7,6 +7,7 @@ import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.registration.domain.vo.*;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -44,6 +45,17 @@ public interface ICompetitionParticipantsService extends IService<CompetitionPar
      */
     boolean isRegistered(String competitionId, RequestContext ctx);
 
+    /**
+     * Registration and submission status of the caller and the given teams for many competitions at once.
+     * Replaces one {@link #isRegistered} / {@link #isTeamRegistered} round trip per competition card.
+     *
+     * @param competitionIds IDs of the competitions, at most 100
+     * @param teamIds IDs of the caller's teams, at most 100; may be empty
+     * @param ctx identity context of the caller
+     * @return status per competition ID, in request order
+     */
+    Map<String, RegistrationStatusVO> getRegistrationStatuses(List<String> competitionIds, List<String> teamIds, RequestContext ctx);
+
     /**
      * Retrieve paginated list of participants in a competition with optional search and sorting.
      *
@@ -1,10 +1,13 @@
 package com.w16a.danish.registration.service;
 
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.registration.domain.dto.SubmissionConfirmDTO;
 import com.w16a.danish.registration.domain.dto.SubmissionReviewDTO;
+import com.w16a.danish.registration.domain.dto.SubmissionUploadRequestDTO;
 import com.w16a.danish.registration.domain.po.SubmissionRecords;
 import com.baomidou.mybatisplus.spring.service.IService;
 import com.w16a.danish.common.domain.vo.PageResponse;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.registration.domain.vo.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -42,6 +45,17 @@ public interface ISubmissionRecordsService extends IService<SubmissionRecords> {
 
     void submitWork(RequestContext ctx, String competitionId, String title, String description, MultipartFile file);
 
+    /**
+     * Step one of a direct-to-storage submission: checks the participant may submit and returns
+     * a short-lived URL the client PUTs the file to.
+     */
+    PresignedUploadVO requestSubmissionUpload(RequestContext ctx, SubmissionUploadRequestDTO dto);
+
+    /**
+     * Step two: records the submission once the uploaded object is confirmed to exist.
+     */
+    void confirmSubmission(RequestContext ctx, SubmissionConfirmDTO dto);
+
     SubmissionInfoVO getMySubmission(String competitionId, RequestContext ctx);
 
     PageResponse<SubmissionInfoVO> listSubmissionsByRole(
@@ -80,6 +94,16 @@ public interface ISubmissionRecordsService extends IService<SubmissionRecords> {
             String description,
             MultipartFile file);
 
+    /**
+     * Team counterpart of {@link #requestSubmissionUpload(RequestContext, SubmissionUploadRequestDTO)}.
+     */
+    PresignedUploadVO requestTeamSubmissionUpload(RequestContext ctx, SubmissionUploadRequestDTO dto);
+
+    /**
+     * Team counterpart of {@link #confirmSubmission(RequestContext, SubmissionConfirmDTO)}.
+     */
+    void confirmTeamSubmission(RequestContext ctx, SubmissionConfirmDTO dto);
+
     TeamSubmissionInfoVO getTeamSubmissionPublic(String competitionId, String teamId);
 
     void deleteTeamSubmission(String submissionId, RequestContext ctx);
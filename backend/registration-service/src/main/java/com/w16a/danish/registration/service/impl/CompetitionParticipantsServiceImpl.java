@@ -3,6 +3,9 @@ package com.w16a.danish.registration.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
 import com.w16a.danish.registration.notify.RegistrationNotifier;
 import com.w16a.danish.registration.domain.mq.ParticipantRemovedMessage;
 import com.w16a.danish.registration.domain.mq.RegisterSuccessMessage;
@@ -34,7 +37,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -56,6 +59,9 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
     private final RegistrationNotifier registrationNotifier;
     private final ICompetitionTeamsService competitionTeamsService;
 
+    // One page of competition cards; bounds the IN lists of the batch status lookup
+    private static final int MAX_STATUS_BATCH = 100;
+
     @Override
     @Transactional
     public void register(String competitionId, RequestContext ctx) {
@@ -97,16 +103,8 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to register for the competition");
         }
 
-        ResponseEntity<UserBriefVO> response = userServiceClient.getUserBriefById(userId);
-        UserBriefVO user = response.getBody();
-
-        if (user == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "User not found when sending registration notification");
-        }
-
         RegisterSuccessMessage message = new RegisterSuccessMessage();
-        message.setUserName(user.getName());
-        message.setUserEmail(user.getEmail());
+        message.setUserId(userId);
         message.setCompetitionName(competition.getName());
         message.setRegisterTime(LocalDateTime.now());
         registrationNotifier.sendRegisterSuccess(message);
@@ -152,6 +150,75 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
                 .exists();
     }
 
+    @Override
+    public Map<String, RegistrationStatusVO> getRegistrationStatuses(List<String> competitionIds, List<String> teamIds, RequestContext ctx) {
+        ctx.requireAnyRole("PARTICIPANT");
+        List<String> ids = distinctIds(competitionIds);
+        List<String> teams = distinctIds(teamIds);
+        if (ids.size() > MAX_STATUS_BATCH || teams.size() > MAX_STATUS_BATCH) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "At most " + MAX_STATUS_BATCH + " competitions and teams per request");
+        }
+
+        Map<String, RegistrationStatusVO> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            RegistrationStatusVO status = new RegistrationStatusVO();
+            status.setCompetitionId(id);
+            result.put(id, status);
+        }
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        // Individual: registrations, then submissions only where registered
+        List<String> registeredIds = lambdaQuery()
+                .eq(CompetitionParticipants::getUserId, ctx.userId())
+                .in(CompetitionParticipants::getCompetitionId, ids)
+                .select(CompetitionParticipants::getCompetitionId)
+                .list()
+                .stream()
+                .map(CompetitionParticipants::getCompetitionId)
+                .distinct()
+                .toList();
+        registeredIds.forEach(id -> result.get(id).setRegistered(true));
+        submissionService.getSubmissionStatus(ctx.userId(), registeredIds)
+                .forEach((id, submitted) -> {
+                    if (Boolean.TRUE.equals(submitted) && result.containsKey(id)) {
+                        result.get(id).setSubmitted(true);
+                    }
+                });
+
+        if (teams.isEmpty()) {
+            return result;
+        }
+
+        // Teams: registrations, then submissions only for the registered (competition, team) pairs
+        List<CompetitionTeams> teamRegistrations = competitionTeamsService.lambdaQuery()
+                .in(CompetitionTeams::getTeamId, teams)
+                .in(CompetitionTeams::getCompetitionId, ids)
+                .select(CompetitionTeams::getCompetitionId, CompetitionTeams::getTeamId)
+                .list();
+        if (teamRegistrations.isEmpty()) {
+            return result;
+        }
+        teamRegistrations.forEach(ct -> result.get(ct.getCompetitionId()).getRegisteredTeamIds().add(ct.getTeamId()));
+
+        Map<String, Boolean> teamSubmitted = submissionService.getSubmissionStatusByTeam(
+                teamRegistrations.stream().map(CompetitionTeams::getTeamId).distinct().toList(),
+                teamRegistrations.stream().map(CompetitionTeams::getCompetitionId).distinct().toList());
+        teamRegistrations.stream()
+                .filter(ct -> Boolean.TRUE.equals(teamSubmitted.get(ct.getCompetitionId() + ":" + ct.getTeamId())))
+                .forEach(ct -> result.get(ct.getCompetitionId()).getSubmittedTeamIds().add(ct.getTeamId()));
+
+        return result;
+    }
+
+    private static List<String> distinctIds(List<String> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return List.of();
+        }
+        return ids.stream().filter(StrUtil::isNotBlank).map(String::trim).distinct().toList();
+    }
+
     @Override
     public PageResponse<CompetitionParticipationVO> getMyCompetitionsWithSearch(
             RequestContext ctx,
@@ -165,63 +232,92 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
         String userId = ctx.userId();
 
         List<CompetitionParticipants> participants = lambdaQuery()
+                .select(CompetitionParticipants::getCompetitionId, CompetitionParticipants::getCreatedAt)
                 .eq(CompetitionParticipants::getUserId, userId)
+                .orderByAsc(CompetitionParticipants::getCreatedAt)
                 .list();
 
         if (participants.isEmpty()) {
             return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
         }
 
-        Map<String, LocalDateTime> registeredAtMap = participants.stream()
-                .collect(Collectors.toMap(CompetitionParticipants::getCompetitionId, CompetitionParticipants::getCreatedAt));
-        List<String> competitionIds = new ArrayList<>(registeredAtMap.keySet());
-
-        List<CompetitionResponseVO> competitions = competitionGateway.findAll(competitionIds);
-
-        Map<String, Boolean> hasSubmittedMap = submissionService.getSubmissionStatus(userId, competitionIds);
-        Map<String, BigDecimal> scoreMap = submissionService.getSubmissionScores(userId, competitionIds);
-
-        List<CompetitionParticipationVO> all = competitions.stream().map(c -> {
-            CompetitionParticipationVO vo = new CompetitionParticipationVO();
-            vo.setCompetitionId(c.getId());
-            vo.setCompetitionName(c.getName());
-            vo.setCategory(c.getCategory());
-            vo.setStatus(c.getStatus().getValue());
-            vo.setStartDate(c.getStartDate());
-            vo.setEndDate(c.getEndDate());
-            vo.setIsPublic(c.getIsPublic());
-            vo.setJoinedAt(registeredAtMap.get(c.getId()));
-            vo.setHasSubmitted(hasSubmittedMap.getOrDefault(c.getId(), false));
-            vo.setTotalScore(scoreMap.getOrDefault(c.getId(), null));
-            return vo;
-        }).toList();
-
-        if (StrUtil.isNotBlank(keyword)) {
-            all = all.stream()
-                    .filter(vo -> StrUtil.containsIgnoreCase(vo.getCompetitionName(), keyword)
-                            || StrUtil.containsIgnoreCase(vo.getCategory(), keyword))
-                    .toList();
-        }
-
-        Comparator<CompetitionParticipationVO> comparator = switch (sortBy) {
-            case "category" -> Comparator.comparing(CompetitionParticipationVO::getCategory, String.CASE_INSENSITIVE_ORDER);
-            case "startDate" -> Comparator.comparing(CompetitionParticipationVO::getStartDate);
-            case "endDate" -> Comparator.comparing(CompetitionParticipationVO::getEndDate);
-            case "totalScore" -> Comparator.comparing(vo -> Optional.ofNullable(vo.getTotalScore()).orElse(BigDecimal.ZERO));
-            case "joinedAt" -> Comparator.comparing(CompetitionParticipationVO::getJoinedAt);
-            default -> Comparator.comparing(CompetitionParticipationVO::getCompetitionName, String.CASE_INSENSITIVE_ORDER);
-        };
-        if ("desc".equalsIgnoreCase(order)) {
-            comparator = comparator.reversed();
-        }
-        all = all.stream().sorted(comparator).toList();
+        Map<String, LocalDateTime> joinedAtMap = new LinkedHashMap<>();
+        participants.forEach(p -> joinedAtMap.putIfAbsent(p.getCompetitionId(), p.getCreatedAt()));
 
-        int total = all.size();
-        int fromIndex = Math.min((page - 1) * size, total);
-        int toIndex = Math.min(fromIndex + size, total);
-        List<CompetitionParticipationVO> pagedList = all.subList(fromIndex, toIndex);
+        return pageParticipations(joinedAtMap, page, size, keyword, sortBy, order,
+                ids -> submissionService.getSubmissionStatus(userId, ids),
+                ids -> submissionService.getSubmissionScores(userId, ids));
+    }
 
-        return new PageResponse<>(pagedList, total, page, size, (int) Math.ceil((double) total / size));
+    /**
+     * Page a participant's or team's competitions without loading every one of them.
+     * <p>
+     * The competition columns (name, category, dates) and the keyword are handled by
+     * competition-service in SQL. The joined time and the score live here, so for those sort keys
+     * the ids are ordered locally and competition-service keeps that order. Either way, submission
+     * status and scores are only looked up for the rows on the returned page.
+     *
+     * @param joinedAtMap competition id to joined time, in joined order
+     * @param submittedOf submission flags by competition id for the given ids
+     * @param scoresOf    total scores by competition id for the given ids
+     */
+    private PageResponse<CompetitionParticipationVO> pageParticipations(
+            Map<String, LocalDateTime> joinedAtMap, int page, int size, String keyword, String sortBy, String order,
+            Function<List<String>, Map<String, Boolean>> submittedOf,
+            Function<List<String>, Map<String, BigDecimal>> scoresOf) {
+
+        boolean desc = "desc".equalsIgnoreCase(order);
+        List<String> competitionIds = new ArrayList<>(joinedAtMap.keySet());
+        Map<String, BigDecimal> allScores = null;
+        String sortColumn = null;
+
+        if ("joinedAt".equals(sortBy)) {
+            if (desc) {
+                Collections.reverse(competitionIds);
+            }
+        } else if ("totalScore".equals(sortBy)) {
+            Map<String, BigDecimal> scores = scoresOf.apply(competitionIds);
+            Comparator<String> byScore = Comparator.comparing(id -> Optional.ofNullable(scores.get(id)).orElse(BigDecimal.ZERO));
+            competitionIds.sort(desc ? byScore.reversed() : byScore);
+            allScores = scores;
+        } else {
+            sortColumn = switch (StrUtil.nullToEmpty(sortBy)) {
+                case "category", "startDate", "endDate" -> sortBy;
+                default -> "name";
+            };
+        }
+
+        PageResponse<CompetitionResponseVO> competitions = competitionGateway.page(new CompetitionPageQueryDTO()
+                .setIds(competitionIds)
+                .setKeyword(keyword)
+                .setSortBy(sortColumn)
+                .setOrder(order)
+                .setPage(page)
+                .setSize(size));
+
+        List<CompetitionResponseVO> rows = Optional.ofNullable(competitions.getData()).orElse(List.of());
+        if (rows.isEmpty()) {
+            return new PageResponse<>(Collections.emptyList(), competitions.getTotal(), competitions.getPage(), competitions.getSize(), competitions.getPages());
+        }
+
+        List<String> pageIds = rows.stream().map(CompetitionResponseVO::getId).toList();
+        Map<String, Boolean> submittedMap = submittedOf.apply(pageIds);
+        Map<String, BigDecimal> scoreMap = allScores != null ? allScores : scoresOf.apply(pageIds);
+
+        List<CompetitionParticipationVO> data = rows.stream().map(c -> new CompetitionParticipationVO()
+                .setCompetitionId(c.getId())
+                .setCompetitionName(c.getName())
+                .setCategory(c.getCategory())
+                .setStatus(c.getStatus().getValue())
+                .setStartDate(c.getStartDate())
+                .setEndDate(c.getEndDate())
+                .setIsPublic(c.getIsPublic())
+                .setJoinedAt(joinedAtMap.get(c.getId()))
+                .setHasSubmitted(submittedMap.getOrDefault(c.getId(), false))
+                .setTotalScore(scoreMap.get(c.getId()))
+        ).toList();
+
+        return new PageResponse<>(data, competitions.getTotal(), competitions.getPage(), competitions.getSize(), competitions.getPages());
     }
 
     @Override
@@ -246,25 +342,44 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             throw new BusinessException(HttpStatus.FORBIDDEN, "You are not authorized for this competition");
         }
 
-        // query participants
+        // query participants, oldest registration first
         List<CompetitionParticipants> participants = lambdaQuery()
+                .select(CompetitionParticipants::getUserId, CompetitionParticipants::getCreatedAt)
                 .eq(CompetitionParticipants::getCompetitionId, competitionId)
+                .orderByAsc(CompetitionParticipants::getCreatedAt)
                 .list();
 
         if (participants.isEmpty()) {
             return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
         }
 
-        Map<String, LocalDateTime> userRegisteredAtMap = participants.stream()
-                .collect(Collectors.toMap(CompetitionParticipants::getUserId, CompetitionParticipants::getCreatedAt));
-
+        Map<String, LocalDateTime> userRegisteredAtMap = new LinkedHashMap<>();
+        participants.forEach(p -> userRegisteredAtMap.putIfAbsent(p.getUserId(), p.getCreatedAt()));
         List<String> userIds = new ArrayList<>(userRegisteredAtMap.keySet());
 
-        // safe check
-        ResponseEntity<List<UserBriefVO>> response = userServiceClient.getUsersByIds(userIds, "PARTICIPANT");
-        List<UserBriefVO> userList = Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
-
-        List<ParticipantInfoVO> allParticipants = userList.stream()
+        // name and email are sorted by user-service; registration time is ours, so pass the ids in that order
+        String sortColumn = switch (StrUtil.nullToEmpty(sortBy)) {
+            case "email" -> "email";
+            case "registeredAt" -> null;
+            default -> "name";
+        };
+        if (sortColumn == null && "desc".equalsIgnoreCase(order)) {
+            Collections.reverse(userIds);
+        }
+
+        UserPageQueryDTO query = new UserPageQueryDTO()
+                .setIds(userIds)
+                .setRole("PARTICIPANT")
+                .setKeyword(keyword)
+                .setSortBy(sortColumn)
+                .setOrder(order)
+                .setPage(page)
+                .setSize(size);
+        PageResponse<UserBriefVO> users = Optional.ofNullable(userServiceClient.pageUsersByIds(query))
+                .map(ResponseEntity::getBody)
+                .orElseGet(() -> new PageResponse<>(Collections.emptyList(), 0, page, size, 0));
+
+        List<ParticipantInfoVO> pagedList = Optional.ofNullable(users.getData()).orElse(List.of()).stream()
                 .map(user -> {
                     ParticipantInfoVO vo = new ParticipantInfoVO();
                     vo.setUserId(user.getId());
@@ -277,32 +392,7 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
                 })
                 .toList();
 
-        // search by keyword
-        if (StrUtil.isNotBlank(keyword)) {
-            allParticipants = allParticipants.stream()
-                    .filter(u -> StrUtil.containsIgnoreCase(u.getName(), keyword)
-                            || StrUtil.containsIgnoreCase(u.getEmail(), keyword))
-                    .toList();
-        }
-
-        // sort by specified field
-        Comparator<ParticipantInfoVO> comparator = switch (sortBy) {
-            case "email" -> Comparator.comparing(ParticipantInfoVO::getEmail, String.CASE_INSENSITIVE_ORDER);
-            case "registeredAt" -> Comparator.comparing(ParticipantInfoVO::getRegisteredAt);
-            default -> Comparator.comparing(ParticipantInfoVO::getName, String.CASE_INSENSITIVE_ORDER);
-        };
-        if ("desc".equalsIgnoreCase(order)) {
-            comparator = comparator.reversed();
-        }
-        allParticipants = allParticipants.stream().sorted(comparator).toList();
-
-        // pagination
-        int total = allParticipants.size();
-        int fromIndex = Math.min((page - 1) * size, total);
-        int toIndex = Math.min(fromIndex + size, total);
-        List<ParticipantInfoVO> pagedList = allParticipants.subList(fromIndex, toIndex);
-
-        return new PageResponse<>(pagedList, total, page, size, (int) Math.ceil((double) total / size));
+        return new PageResponse<>(pagedList, users.getTotal(), users.getPage(), users.getSize(), users.getPages());
     }
 
     @Override
@@ -343,24 +433,11 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to cancel participant registration");
         }
 
-        ResponseEntity<UserBriefVO> userResp = userServiceClient.getUserBriefById(participantUserId);
-        UserBriefVO participant = userResp.getBody();
-        if (participant == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "Participant info not found");
-        }
-
-        ResponseEntity<UserBriefVO> organizerResp = userServiceClient.getUserBriefById(organizerId);
-        UserBriefVO organizer = organizerResp.getBody();
-        if (organizer == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "Organizer info not found");
-        }
-
         CompetitionResponseVO competition = competitionGateway.require(competitionId);
 
         ParticipantRemovedMessage message = new ParticipantRemovedMessage();
-        message.setUserName(participant.getName());
-        message.setUserEmail(participant.getEmail());
-        message.setRemovedBy(organizer.getName());
+        message.setUserId(participantUserId);
+        message.setRemovedById(organizerId);
         message.setCompetitionName(competition.getName());
         message.setRemovedAt(LocalDateTime.now());
         registrationNotifier.sendParticipantRemoved(message);
@@ -415,15 +492,8 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to register the team for the competition.");
         }
 
-        ResponseEntity<UserBriefVO> userResponse = userServiceClient.getUserBriefById(userId);
-        UserBriefVO user = userResponse.getBody();
-        if (user == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "User info not found.");
-        }
-
         RegisterSuccessMessage message = new RegisterSuccessMessage();
-        message.setUserName(user.getName());
-        message.setUserEmail(user.getEmail());
+        message.setUserId(userId);
         message.setCompetitionName(competition.getName());
         message.setRegisterTime(LocalDateTime.now());
 
@@ -496,55 +566,32 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             String order
     ) {
 
-        // Step 1: Query all registered teams for the competition from competition_teams
-        List<CompetitionTeams> competitionTeams = competitionTeamsService.lambdaQuery()
+        // Step 1: Query the ids of the teams registered for the competition
+        List<String> teamIds = competitionTeamsService.lambdaQuery()
+                .select(CompetitionTeams::getTeamId)
                 .eq(CompetitionTeams::getCompetitionId, competitionId)
-                .list();
-
-        if (competitionTeams.isEmpty()) {
-            return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
-        }
-
-        // Step 2: Extract unique teamIds
-        List<String> teamIds = competitionTeams.stream()
+                .list()
+                .stream()
                 .map(CompetitionTeams::getTeamId)
                 .filter(Objects::nonNull)
                 .distinct()
                 .toList();
 
-        // Step 3: Call user-service to get team brief info
-        ResponseEntity<List<TeamInfoVO>> response = userServiceClient.getTeamBriefByIds(teamIds);
-        List<TeamInfoVO> allTeams = Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
-
-        // Step 4: Apply keyword filtering if needed
-        if (StrUtil.isNotBlank(keyword)) {
-            allTeams = allTeams.stream()
-                    .filter(team ->
-                            StrUtil.containsIgnoreCase(team.getTeamName(), keyword)
-                                    || StrUtil.containsIgnoreCase(team.getDescription(), keyword))
-                    .toList();
-        }
-
-        // Step 5: Sorting
-        Comparator<TeamInfoVO> comparator = switch (sortBy) {
-            case "createdAt" -> Comparator.comparing(TeamInfoVO::getCreatedAt);
-            case "teamName" -> Comparator.comparing(TeamInfoVO::getTeamName, String.CASE_INSENSITIVE_ORDER);
-            default -> Comparator.comparing(TeamInfoVO::getCreatedAt);
-        };
-
-        if ("desc".equalsIgnoreCase(order)) {
-            comparator = comparator.reversed();
+        if (teamIds.isEmpty()) {
+            return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
         }
 
-        allTeams = allTeams.stream().sorted(comparator).toList();
-
-        // Step 6: Pagination
-        int total = allTeams.size();
-        int fromIndex = Math.min((page - 1) * size, total);
-        int toIndex = Math.min(fromIndex + size, total);
-        List<TeamInfoVO> pagedList = allTeams.subList(fromIndex, toIndex);
-
-        return new PageResponse<>(pagedList, total, page, size, (int) Math.ceil((double) total / size));
+        // Step 2: Let user-service filter, sort and page within those teams
+        TeamPageQueryDTO query = new TeamPageQueryDTO()
+                .setIds(teamIds)
+                .setKeyword(keyword)
+                .setSortBy(sortBy)
+                .setOrder(order)
+                .setPage(page)
+                .setSize(size);
+        return Optional.ofNullable(userServiceClient.pageTeamBriefsByIds(query))
+                .map(ResponseEntity::getBody)
+                .orElseGet(() -> new PageResponse<>(Collections.emptyList(), 0, page, size, 0));
     }
 
     @Override
@@ -552,76 +599,36 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             String teamId, int page, int size, String keyword, String sortBy, String order) {
 
         List<CompetitionTeams> registrations = competitionTeamsService.lambdaQuery()
+                .select(CompetitionTeams::getCompetitionId, CompetitionTeams::getJoinedAt)
                 .eq(CompetitionTeams::getTeamId, teamId)
+                .orderByAsc(CompetitionTeams::getJoinedAt)
                 .list();
 
         if (CollUtil.isEmpty(registrations)) {
             return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
         }
 
-        Map<String, LocalDateTime> joinedMap = registrations.stream()
-                .collect(Collectors.toMap(
-                        CompetitionTeams::getCompetitionId,
-                        CompetitionTeams::getJoinedAt,
-                        (a, b) -> a
-                ));
+        Map<String, LocalDateTime> joinedMap = new LinkedHashMap<>();
+        registrations.forEach(r -> joinedMap.putIfAbsent(r.getCompetitionId(), r.getJoinedAt()));
 
-        List<String> competitionIds = registrations.stream()
-                .map(CompetitionTeams::getCompetitionId)
-                .distinct()
-                .toList();
-
-        List<CompetitionResponseVO> competitions = competitionGateway.findAll(competitionIds);
-
-        Map<String, Boolean> submissionMap = submissionService.getSubmissionStatusByTeam(List.of(teamId), competitionIds);
-        Map<String, BigDecimal> scoreMap = submissionService.getSubmissionScoresByTeam(List.of(teamId), competitionIds);
-
-        List<CompetitionParticipationVO> result = competitions.stream().map(c -> {
-            String key = c.getId() + ":" + teamId;
-            return new CompetitionParticipationVO()
-                    .setCompetitionId(c.getId())
-                    .setCompetitionName(c.getName())
-                    .setCategory(c.getCategory())
-                    .setStatus(c.getStatus().getValue())
-                    .setStartDate(c.getStartDate())
-                    .setEndDate(c.getEndDate())
-                    .setIsPublic(c.getIsPublic())
-                    .setJoinedAt(joinedMap.get(c.getId()))
-                    .setHasSubmitted(submissionMap.getOrDefault(key, false))
-                    .setTotalScore(scoreMap.getOrDefault(key, null));
-        }).toList();
-
-        if (StrUtil.isNotBlank(keyword)) {
-            result = result.stream().filter(vo ->
-                    StrUtil.containsIgnoreCase(vo.getCompetitionName(), keyword)
-                            || StrUtil.containsIgnoreCase(vo.getCategory(), keyword)
-            ).toList();
-        }
-
-        Comparator<CompetitionParticipationVO> comparator = switch (sortBy) {
-            case "category" -> Comparator.comparing(CompetitionParticipationVO::getCategory, String.CASE_INSENSITIVE_ORDER);
-            case "startDate" -> Comparator.comparing(CompetitionParticipationVO::getStartDate);
-            case "endDate" -> Comparator.comparing(CompetitionParticipationVO::getEndDate);
-            case "totalScore" -> Comparator.comparing(vo -> Optional.ofNullable(vo.getTotalScore()).orElse(BigDecimal.ZERO));
-            case "joinedAt" -> Comparator.comparing(CompetitionParticipationVO::getJoinedAt);
-            default -> Comparator.comparing(CompetitionParticipationVO::getCompetitionName, String.CASE_INSENSITIVE_ORDER);
-        };
-        if ("desc".equalsIgnoreCase(order)) {
-            comparator = comparator.reversed();
-        }
-
-        result = result.stream().sorted(comparator).toList();
+        List<String> teamIds = List.of(teamId);
+        return pageParticipations(joinedMap, page, size, keyword, sortBy, order,
+                ids -> byCompetitionId(submissionService.getSubmissionStatusByTeam(teamIds, ids), ids, teamId),
+                ids -> byCompetitionId(submissionService.getSubmissionScoresByTeam(teamIds, ids), ids, teamId));
+    }
 
-        int total = result.size();
-        int fromIndex = Math.min((page - 1) * size, total);
-        if (fromIndex >= total) {
-            return new PageResponse<>(Collections.emptyList(), total, page, size, (int) Math.ceil((double) total / size));
+    /**
+     * Re-key a {@code competitionId:teamId} map for a single team by competition id.
+     */
+    private static <V> Map<String, V> byCompetitionId(Map<String, V> byCompetitionAndTeam, List<String> competitionIds, String teamId) {
+        Map<String, V> result = new HashMap<>();
+        for (String competitionId : competitionIds) {
+            V value = byCompetitionAndTeam.get(competitionId + ":" + teamId);
+            if (value != null) {
+                result.put(competitionId, value);
+            }
         }
-
-        int toIndex = Math.min(fromIndex + size, total);
-        List<CompetitionParticipationVO> paged = result.subList(fromIndex, toIndex);
-
-        return new PageResponse<>(paged, total, page, size, (int) Math.ceil((double) total / size));
+        return result;
     }
 
     @Override
@@ -658,24 +665,12 @@ public class CompetitionParticipantsServiceImpl extends ServiceImpl<CompetitionP
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to remove the team's registration.");
         }
 
-        ResponseEntity<UserBriefVO> creatorResp = userServiceClient.getTeamCreator(teamId);
-        UserBriefVO creator = creatorResp.getBody();
-        if (creator == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "Team creator info not found.");
-        }
-
-        ResponseEntity<UserBriefVO> operatorResp = userServiceClient.getUserBriefById(userId);
-        UserBriefVO operator = operatorResp.getBody();
-        if (operator == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "Operator (organizer) info not found.");
-        }
-
         CompetitionResponseVO competition = competitionGateway.require(competitionId);
 
+        // user-service tells the team creator
         ParticipantRemovedMessage message = new ParticipantRemovedMessage();
-        message.setUserName(creator.getName());
-        message.setUserEmail(creator.getEmail());
-        message.setRemovedBy(operator.getName());
+        message.setTeamId(teamId);
+        message.setRemovedById(userId);
         message.setCompetitionName(competition.getName());
         message.setRemovedAt(LocalDateTime.now());
 
@@ -5,18 +5,24 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.w16a.danish.common.context.RequestContext;
 import com.w16a.danish.registration.notify.SubmissionNotifier;
+import com.w16a.danish.registration.domain.dto.SubmissionConfirmDTO;
 import com.w16a.danish.registration.domain.dto.SubmissionReviewDTO;
+import com.w16a.danish.registration.domain.dto.SubmissionUploadRequestDTO;
 import com.w16a.danish.registration.domain.mq.SubmissionReviewedMessage;
 import com.w16a.danish.registration.domain.mq.SubmissionUploadedMessage;
 import com.w16a.danish.registration.domain.po.CompetitionOrganizers;
 import com.w16a.danish.registration.domain.po.CompetitionParticipants;
 import com.w16a.danish.registration.domain.po.SubmissionRecords;
 import com.w16a.danish.common.domain.vo.PageResponse;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.registration.domain.vo.*;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
 import com.w16a.danish.common.domain.enums.CompetitionStatus;
 import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.registration.gateway.CompetitionGateway;
 import com.w16a.danish.registration.feign.FileServiceClient;
 import com.w16a.danish.registration.feign.UserServiceClient;
@@ -28,17 +34,20 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.spring.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
-import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
@@ -54,10 +63,20 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsMapper, SubmissionRecords> implements ISubmissionRecordsService {
 
+    private static final String FILE_SERVICE = "file-service";
+    private static final String SUBMISSION_UPLOAD_PATH = "/files/upload/submission";
+
     private final CompetitionGateway competitionGateway;
     private final FileServiceClient fileServiceClient;
     private final SubmissionNotifier submissionNotifier;
     private final UserServiceClient userServiceClient;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final StreamingMultipartClient streamingMultipartClient;
+
+    /** Largest submission, whether uploaded through this service or straight to storage. */
+    @Value("${spring.servlet.multipart.max-file-size:200MB}")
+    private DataSize maxSubmissionSize = DataSize.ofMegabytes(200);
 
     @Lazy
     @Autowired
@@ -115,17 +134,59 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
                 .one();
 
         if (submission != null) {
-            deleteFileByUrl(submission.getFileUrl());
+            fileDeletionQueue.enqueue(submission.getFileUrl());
             this.removeById(submission.getId());
         }
     }
 
+    /**
+     * Deliberately not {@code @Transactional}: the upload can take minutes, and a transaction
+     * around it would hold a pooled connection the whole time. Only the upsert runs in one.
+     */
     @Override
-    @Transactional
     public void submitWork(RequestContext ctx, String competitionId, String title, String description, MultipartFile file) {
         ctx.requireAnyRole("PARTICIPANT");
         String userId = ctx.userId();
 
+        CompetitionResponseVO competition = requireOpenForSubmission(userId, competitionId);
+
+        String uploadedUrl = Optional.ofNullable(streamingMultipartClient.upload(FILE_SERVICE, SUBMISSION_UPLOAD_PATH, file))
+                .orElseThrow(() -> new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed"));
+
+        commitSubmission(uploadedUrl, true, () -> saveSubmission(userId, competitionId, title, description,
+                file.getOriginalFilename(), uploadedUrl, file.getContentType()),
+                () -> notifySubmissionUploaded(userId, competition, title));
+    }
+
+    @Override
+    public PresignedUploadVO requestSubmissionUpload(RequestContext ctx, SubmissionUploadRequestDTO dto) {
+        ctx.requireAnyRole("PARTICIPANT");
+        String userId = ctx.userId();
+
+        requireOpenForSubmission(userId, dto.getCompetitionId());
+        return presignUpload(uploadPrefix(dto.getCompetitionId(), userId), dto.getFileName(), dto.getContentType());
+    }
+
+    @Override
+    public void confirmSubmission(RequestContext ctx, SubmissionConfirmDTO dto) {
+        ctx.requireAnyRole("PARTICIPANT");
+        String userId = ctx.userId();
+        String competitionId = dto.getCompetitionId();
+
+        // Eligibility is checked again: the competition may have closed while the file was uploading.
+        CompetitionResponseVO competition = requireOpenForSubmission(userId, competitionId);
+        StoredObjectVO stored = requireUploaded(uploadPrefix(competitionId, userId), dto.getObjectName());
+
+        // The client can retry a failed confirm with the same object, so it is not discarded on failure.
+        commitSubmission(stored.getFileUrl(), false, () -> saveSubmission(userId, competitionId,
+                dto.getTitle(), dto.getDescription(), dto.getFileName(), stored.getFileUrl(), stored.getContentType()),
+                () -> notifySubmissionUploaded(userId, competition, dto.getTitle()));
+    }
+
+    /**
+     * The competition, if this participant may submit to it now.
+     */
+    private CompetitionResponseVO requireOpenForSubmission(String userId, String competitionId) {
         boolean registered = competitionParticipantsService.lambdaQuery()
                 .eq(CompetitionParticipants::getUserId, userId)
                 .eq(CompetitionParticipants::getCompetitionId, competitionId)
@@ -134,9 +195,8 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
             throw new BusinessException(HttpStatus.FORBIDDEN, "You must register before submitting work");
         }
 
-        CompetitionResponseVO competition;
         try {
-            competition = competitionGateway.require(competitionId);
+            CompetitionResponseVO competition = competitionGateway.require(competitionId);
 
             if (!CompetitionStatus.isRegistrable(competition.getStatus())) {
                 throw new BusinessException(HttpStatus.BAD_REQUEST, "Cannot submit work to this competition");
@@ -145,6 +205,7 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
             if (competition.getEndDate() != null && competition.getEndDate().isBefore(LocalDateTime.now())) {
                 throw new BusinessException(HttpStatus.BAD_REQUEST, "The competition has already ended");
             }
+            return competition;
         } catch (BusinessException e) {
             // Preserve domain status codes (404/400) instead of masking them as 503.
             throw e;
@@ -152,24 +213,26 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
             log.error("Failed to verify competition {}", competitionId, e);
             throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "Failed to verify competition");
         }
+    }
 
-        String uploadedUrl = Optional.ofNullable(fileServiceClient.uploadSubmission(file).getBody())
-                .orElseThrow(() -> new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed"));
-
-        String fileName = file.getOriginalFilename();
-        String fileType = file.getContentType();
-
+    /**
+     * Upserts the participant's submission row.
+     *
+     * @return URL of the file the row pointed at before, or null for a first submission
+     */
+    private String saveSubmission(String userId, String competitionId, String title, String description,
+                                  String fileName, String fileUrl, String fileType) {
         SubmissionRecords existing = lambdaQuery()
                 .eq(SubmissionRecords::getUserId, userId)
                 .eq(SubmissionRecords::getCompetitionId, competitionId)
                 .one();
 
+        String replacedUrl = existing == null ? null : existing.getFileUrl();
         if (existing != null) {
-            deleteFileByUrl(existing.getFileUrl());
             existing.setTitle(title);
             existing.setDescription(description);
             existing.setFileName(fileName);
-            existing.setFileUrl(uploadedUrl);
+            existing.setFileUrl(fileUrl);
             existing.setFileType(fileType);
             existing.setReviewStatus("PENDING");
             existing.setReviewedBy(null);
@@ -189,7 +252,7 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
             submission.setTitle(title);
             submission.setDescription(description);
             submission.setFileName(fileName);
-            submission.setFileUrl(uploadedUrl);
+            submission.setFileUrl(fileUrl);
             submission.setFileType(fileType);
             submission.setReviewStatus("PENDING");
 
@@ -198,16 +261,75 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
                 throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save submission");
             }
         }
+        return replacedUrl;
+    }
 
-        UserBriefVO user = userServiceClient.getUserBriefById(userId).getBody();
+    /**
+     * Writes a submission row for a file that is already in storage, in a transaction of its own.
+     *
+     * <p>If the write fails, a file uploaded by this request is removed again rather than left
+     * orphaned. The file the row used to point at is removed only after the commit, in the
+     * background, so a rollback never loses the previous submission's file. Resubmitting the same
+     * content-addressed file gives back the reference its upload took.
+     *
+     * @param fileUrl           the file the row will point at
+     * @param discardOnFailure  whether this request uploaded {@code fileUrl} and so owns it on failure
+     * @param upsert            the row write; returns the previously referenced file URL, if any
+     * @param notify            writes the event for the submission to the outbox, in the same
+     *                          transaction, so the row and its event commit or roll back together
+     */
+    private void commitSubmission(String fileUrl, boolean discardOnFailure, Supplier<String> upsert, Runnable notify) {
+        String replacedUrl;
+        try {
+            replacedUrl = transactionTemplate.execute(status -> {
+                String replaced = upsert.get();
+                notify.run();
+                return replaced;
+            });
+        } catch (RuntimeException e) {
+            if (discardOnFailure) {
+                fileDeletionQueue.enqueue(fileUrl);
+            }
+            throw e;
+        }
+        fileDeletionQueue.enqueueReplaced(replacedUrl, fileUrl);
+    }
 
-        if (user == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "User not found");
+    /**
+     * Object names for direct uploads live under the submitter's folder, so a confirm can only
+     * ever claim a file that was presigned for the same competition and submitter.
+     */
+    private static String uploadPrefix(String competitionId, String ownerId) {
+        return competitionId + "/" + ownerId;
+    }
+
+    private PresignedUploadVO presignUpload(String prefix, String fileName, String contentType) {
+        return Optional.ofNullable(fileServiceClient.presignSubmissionUpload(prefix, fileName, contentType).getBody())
+                .orElseThrow(() -> new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create upload URL"));
+    }
+
+    private StoredObjectVO requireUploaded(String prefix, String objectName) {
+        if (objectName == null || !objectName.startsWith(prefix + "/") || objectName.contains("..")) {
+            throw new BusinessException(HttpStatus.FORBIDDEN, "This upload does not belong to the submission");
+        }
+        StoredObjectVO stored = Optional.ofNullable(fileServiceClient.confirmSubmissionUpload(objectName).getBody())
+                .orElseThrow(() -> new BusinessException(HttpStatus.BAD_REQUEST, "Uploaded file not found"));
+        // A presigned PUT is not size-checked on the way in, so the limit a multipart upload
+        // meets is applied here, and a refused file is not left behind in the bucket.
+        if (stored.getSize() <= 0 || stored.getSize() > maxSubmissionSize.toBytes()) {
+            fileDeletionQueue.enqueue(stored.getFileUrl());
+            if (stored.getSize() <= 0) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "Uploaded file is empty");
+            }
+            throw new BusinessException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Uploaded file exceeds the " + maxSubmissionSize.toMegabytes() + "MB limit");
         }
+        return stored;
+    }
 
+    private void notifySubmissionUploaded(String userId, CompetitionResponseVO competition, String title) {
         SubmissionUploadedMessage message = new SubmissionUploadedMessage();
-        message.setUserName(user.getName());
-        message.setUserEmail(user.getEmail());
+        message.setUserId(userId);
         message.setCompetitionName(competition.getName());
         message.setTitle(title);
         message.setSubmittedAt(LocalDateTime.now());
@@ -353,33 +475,19 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
 
         CompetitionResponseVO competition = competitionGateway.require(submission.getCompetitionId());
 
-        UserBriefVO reviewer = Optional.ofNullable(
-                userServiceClient.getUserBriefById(reviewerId).getBody()
-        ).orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "Reviewer info not found"));
-
-        String notifyUserId;
+        // user-service resolves the submitter (or team creator) and reviewer when it mails
+        SubmissionReviewedMessage message = new SubmissionReviewedMessage();
         if (StrUtil.isNotBlank(submission.getTeamId())) {
-            notifyUserId = Optional.ofNullable(
-                            userServiceClient.getTeamCreator(submission.getTeamId()).getBody()
-                    ).map(UserBriefVO::getId)
-                    .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "Team creator not found"));
+            message.setTeamId(submission.getTeamId());
         } else {
-            notifyUserId = submission.getUserId();
+            message.setUserId(submission.getUserId());
         }
-
-        UserBriefVO submitter = Optional.ofNullable(
-                userServiceClient.getUserBriefById(notifyUserId).getBody()
-        ).orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "Submitter info not found"));
-
-        SubmissionReviewedMessage message = new SubmissionReviewedMessage();
-        message.setUserName(submitter.getName());
-        message.setUserEmail(submitter.getEmail());
         message.setCompetitionName(competition.getName());
         message.setTitle(submission.getTitle());
         message.setReviewStatus(submission.getReviewStatus());
         message.setReviewComments(submission.getReviewComments());
         message.setReviewedAt(submission.getReviewedAt());
-        message.setReviewedBy(reviewer.getName());
+        message.setReviewerId(reviewerId);
 
         submissionNotifier.sendSubmissionReviewed(message);
     }
@@ -417,7 +525,7 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
             throw new BusinessException(HttpStatus.FORBIDDEN, "You are not allowed to delete this submission");
         }
 
-        deleteFileByUrl(submission.getFileUrl());
+        fileDeletionQueue.enqueue(submission.getFileUrl());
 
         boolean removed = this.removeById(submissionId);
         if (!removed) {
@@ -465,8 +573,10 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
                 ));
     }
 
+    /**
+     * Not {@code @Transactional}, for the same reason as {@link #submitWork}.
+     */
     @Override
-    @Transactional
     public void submitTeamWork(
             RequestContext ctx,
             String competitionId,
@@ -478,6 +588,52 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
         ctx.requireAnyRole("PARTICIPANT");
         String userId = ctx.userId();
 
+        CompetitionResponseVO competition = requireOpenForTeamSubmission(userId, teamId, competitionId);
+
+        String fileUrl = Optional.ofNullable(streamingMultipartClient.upload(FILE_SERVICE, SUBMISSION_UPLOAD_PATH, file))
+                .filter(StrUtil::isNotBlank)
+                .orElseThrow(() -> new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload file."));
+
+        commitSubmission(fileUrl, true, () -> saveTeamSubmission(teamId, competitionId, title, description,
+                file.getOriginalFilename(), fileUrl, file.getContentType()),
+                () -> notifySubmissionUploaded(userId, competition, title));
+    }
+
+    @Override
+    public PresignedUploadVO requestTeamSubmissionUpload(RequestContext ctx, SubmissionUploadRequestDTO dto) {
+        ctx.requireAnyRole("PARTICIPANT");
+        String teamId = requireTeamId(dto.getTeamId());
+
+        requireOpenForTeamSubmission(ctx.userId(), teamId, dto.getCompetitionId());
+        return presignUpload(uploadPrefix(dto.getCompetitionId(), teamId), dto.getFileName(), dto.getContentType());
+    }
+
+    @Override
+    public void confirmTeamSubmission(RequestContext ctx, SubmissionConfirmDTO dto) {
+        ctx.requireAnyRole("PARTICIPANT");
+        String userId = ctx.userId();
+        String teamId = requireTeamId(dto.getTeamId());
+        String competitionId = dto.getCompetitionId();
+
+        CompetitionResponseVO competition = requireOpenForTeamSubmission(userId, teamId, competitionId);
+        StoredObjectVO stored = requireUploaded(uploadPrefix(competitionId, teamId), dto.getObjectName());
+
+        commitSubmission(stored.getFileUrl(), false, () -> saveTeamSubmission(teamId, competitionId,
+                dto.getTitle(), dto.getDescription(), dto.getFileName(), stored.getFileUrl(), stored.getContentType()),
+                () -> notifySubmissionUploaded(userId, competition, dto.getTitle()));
+    }
+
+    private static String requireTeamId(String teamId) {
+        if (StrUtil.isBlank(teamId)) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "teamId is required");
+        }
+        return teamId;
+    }
+
+    /**
+     * The competition, if this user's team may submit to it now.
+     */
+    private CompetitionResponseVO requireOpenForTeamSubmission(String userId, String teamId, String competitionId) {
         Boolean isMember = Optional.ofNullable(userServiceClient.isUserInTeam(userId, teamId).getBody())
                 .orElse(false);
         if (!isMember) {
@@ -492,24 +648,23 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
         if (competition.getEndDate() != null && competition.getEndDate().isBefore(LocalDateTime.now())) {
             throw new BusinessException(HttpStatus.BAD_REQUEST, "Competition has already ended.");
         }
+        return competition;
+    }
 
-        String fileUrl = Optional.ofNullable(fileServiceClient.uploadSubmission(file).getBody())
-                .filter(StrUtil::isNotBlank)
-                .orElseThrow(() -> new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload file."));
-
-        String fileName = file.getOriginalFilename();
-        String fileType = file.getContentType();
-
+    /**
+     * Upserts the team's submission row.
+     *
+     * @return URL of the file the row pointed at before, or null for a first submission
+     */
+    private String saveTeamSubmission(String teamId, String competitionId, String title, String description,
+                                      String fileName, String fileUrl, String fileType) {
         SubmissionRecords existing = lambdaQuery()
                 .eq(SubmissionRecords::getCompetitionId, competitionId)
                 .eq(SubmissionRecords::getTeamId, teamId)
                 .one();
 
+        String replacedUrl = existing == null ? null : existing.getFileUrl();
         if (existing != null) {
-            if (StrUtil.isNotBlank(existing.getFileUrl())) {
-                deleteFileByUrl(existing.getFileUrl());
-            }
-
             existing.setTitle(title)
                     .setDescription(description)
                     .setFileName(fileName)
@@ -545,18 +700,7 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
                 throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save new team submission.");
             }
         }
-
-        UserBriefVO user = Optional.ofNullable(userServiceClient.getUserBriefById(userId).getBody())
-                .orElseThrow(() -> new BusinessException(HttpStatus.NOT_FOUND, "User info not found."));
-
-        SubmissionUploadedMessage message = new SubmissionUploadedMessage();
-        message.setUserName(user.getName());
-        message.setUserEmail(user.getEmail());
-        message.setCompetitionName(competition.getName());
-        message.setTitle(title);
-        message.setSubmittedAt(LocalDateTime.now());
-
-        submissionNotifier.sendSubmissionUploaded(message);
+        return replacedUrl;
     }
 
     @Override
@@ -610,9 +754,7 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
             }
         }
 
-        if (StrUtil.isNotBlank(submission.getFileUrl())) {
-            deleteFileByUrl(submission.getFileUrl());
-        }
+        fileDeletionQueue.enqueue(submission.getFileUrl());
 
         boolean removed = this.removeById(submissionId);
         if (!removed) {
@@ -787,15 +929,4 @@ public class SubmissionRecordsServiceImpl extends ServiceImpl<SubmissionRecordsM
         vo.setCreatedAt(r.getCreatedAt());
         return vo;
     }
-
-    private void deleteFileByUrl(String fileUrl) {
-        if (StrUtil.isBlank(fileUrl)) {
-            return;
-        }
-        URI uri = URI.create(fileUrl);
-        String[] parts = uri.getPath().substring(1).split("/", 2);
-        if (parts.length == 2) {
-            fileServiceClient.deleteFile(parts[0], parts[1]);
-        }
-    }
 }
@@ -113,6 +113,26 @@ class CompetitionParticipantsControllerTest {
                 .andExpect(content().string("true"));
     }
 
+    @Test
+    @DisplayName("✅ Batch check registration status successfully")
+    void testGetRegistrationStatuses() throws Exception {
+        RegistrationStatusVO status = new RegistrationStatusVO();
+        status.setCompetitionId("comp-1");
+        status.setRegistered(true);
+        status.setRegisteredTeamIds(List.of("team-1"));
+        when(participantsService.getRegistrationStatuses(eq(List.of("comp-1", "comp-2")), eq(List.of("team-1")), any(RequestContext.class)))
+                .thenReturn(Map.of("comp-1", status));
+
+        mockMvc.perform(get("/registrations/status")
+                        .param("competitionIds", "comp-1,comp-2")
+                        .param("teamIds", "team-1")
+                        .header("User-ID", "user-1")
+                        .header("User-Role", "PARTICIPANT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['comp-1'].registered").value(true))
+                .andExpect(jsonPath("$['comp-1'].registeredTeamIds[0]").value("team-1"));
+    }
+
     @Test
     @DisplayName("✅ Get competitions user registered successfully")
     void testGetMyCompetitions() throws Exception {
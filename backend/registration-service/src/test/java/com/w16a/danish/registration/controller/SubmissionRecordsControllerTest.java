@@ -2,7 +2,10 @@ package com.w16a.danish.registration.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.registration.domain.dto.SubmissionConfirmDTO;
 import com.w16a.danish.registration.domain.dto.SubmissionReviewDTO;
+import com.w16a.danish.registration.domain.dto.SubmissionUploadRequestDTO;
 import com.w16a.danish.registration.domain.vo.*;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.registration.service.ISubmissionRecordsService;
@@ -71,6 +74,41 @@ class SubmissionRecordsControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("✅ Request a direct upload URL and confirm the upload")
+    void testDirectUploadFlow() throws Exception {
+        SubmissionUploadRequestDTO request = new SubmissionUploadRequestDTO();
+        request.setCompetitionId("comp-1");
+        request.setFileName("entry.pdf");
+        when(submissionService.requestSubmissionUpload(any(RequestContext.class), any(SubmissionUploadRequestDTO.class)))
+                .thenReturn(PresignedUploadVO.builder().objectName("comp-1/user-1/x.pdf").uploadUrl("http://signed").build());
+
+        mockMvc.perform(post("/submissions/upload-url")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .header("User-ID", "user-1")
+                        .header("User-Role", "PARTICIPANT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.objectName").value("comp-1/user-1/x.pdf"))
+                .andExpect(jsonPath("$.uploadUrl").value("http://signed"));
+
+        SubmissionConfirmDTO confirm = new SubmissionConfirmDTO();
+        confirm.setCompetitionId("comp-1");
+        confirm.setObjectName("comp-1/user-1/x.pdf");
+        confirm.setFileName("entry.pdf");
+        confirm.setTitle("Test Title");
+        confirm.setDescription("Test Description");
+
+        mockMvc.perform(post("/submissions/confirm")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(confirm))
+                        .header("User-ID", "user-1")
+                        .header("User-Role", "PARTICIPANT"))
+                .andExpect(status().isOk());
+
+        verify(submissionService).confirmSubmission(any(RequestContext.class), any(SubmissionConfirmDTO.class));
+    }
+
     @Test
     @DisplayName("✅ Delete submission successfully")
     void testDeleteSubmission() throws Exception {
@@ -1,7 +1,9 @@
 package com.w16a.danish.registration.service.impl;
 
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
 import com.w16a.danish.common.domain.enums.CompetitionStatus;
 import com.w16a.danish.common.domain.enums.ParticipationType;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
@@ -22,6 +24,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -32,13 +35,14 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -86,6 +90,8 @@ class CompetitionParticipantsServiceImplGuardsTest {
         participantQuery = mock(LambdaQueryChainWrapper.class);
         teamQuery = mock(LambdaQueryChainWrapper.class);
         when(participantQuery.eq(any(), any())).thenReturn(participantQuery);
+        when(participantQuery.select(any(SFunction.class), any(SFunction.class))).thenReturn(participantQuery);
+        when(participantQuery.orderByAsc(any(SFunction.class))).thenReturn(participantQuery);
         when(teamQuery.eq(any(), any())).thenReturn(teamQuery);
         when(teamsService.lambdaQuery()).thenReturn(teamQuery);
 
@@ -188,18 +194,19 @@ class CompetitionParticipantsServiceImplGuardsTest {
         }
 
         @Test
-        @DisplayName("A missing user stops the notification instead of sending a blank one")
-        void missingUserStopsTheNotification() {
+        @DisplayName("The notification carries only the user's id; user-service fills in the address")
+        void notificationIsAddressedById() {
             CompetitionResponseVO c = new CompetitionResponseVO();
             c.setStatus(CompetitionStatus.UPCOMING);
+            c.setName("Cup");
             when(competitionGateway.require("c1")).thenReturn(c);
             when(participantQuery.exists()).thenReturn(false);
             doReturn(true).when(service).save(any(CompetitionParticipants.class));
-            when(userServiceClient.getUserBriefById("u1")).thenReturn(ResponseEntity.ok(null));
 
-            assertRefused(() -> service.register("c1", participant("u1")),
-                    HttpStatus.NOT_FOUND, "User not found");
-            verify(notifier, never()).sendRegisterSuccess(any());
+            service.register("c1", participant("u1"));
+
+            verify(notifier).sendRegisterSuccess(argThat(m -> "u1".equals(m.getUserId()) && "Cup".equals(m.getCompetitionName())));
+            verifyNoInteractions(userServiceClient);
         }
     }
 
@@ -386,7 +393,7 @@ class CompetitionParticipantsServiceImplGuardsTest {
 
             assertThat(result.getData()).isEmpty();
             assertThat(result.getTotal()).isZero();
-            verify(userServiceClient, never()).getUsersByIds(anyList(), anyString());
+            verify(userServiceClient, never()).pageUsersByIds(any());
         }
     }
 
@@ -394,17 +401,18 @@ class CompetitionParticipantsServiceImplGuardsTest {
     @DisplayName("Searching, sorting and paging the participant list")
     class Listing {
 
+        private final LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        /** user-service answers with whatever page it was asked for; only the request is under test. */
         private void threeParticipantsRegistered() {
             organizerOwnsCompetition(true);
-            LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
             when(participantQuery.list()).thenReturn(List.of(
                     new CompetitionParticipants().setUserId("u1").setCreatedAt(base),
                     new CompetitionParticipants().setUserId("u2").setCreatedAt(base.plusDays(1)),
                     new CompetitionParticipants().setUserId("u3").setCreatedAt(base.plusDays(2))));
-            when(userServiceClient.getUsersByIds(anyList(), anyString())).thenReturn(ResponseEntity.ok(List.of(
-                    user("u1", "Charlie", "charlie@example.com"),
-                    user("u2", "alice", "alice@example.com"),
-                    user("u3", "Bob", "bob@example.com"))));
+            when(userServiceClient.pageUsersByIds(any())).thenReturn(ResponseEntity.ok(new PageResponse<>(
+                    List.of(user("u2", "alice", "alice@example.com"), user("u3", "Bob", "bob@example.com")),
+                    3, 1, 2, 2)));
         }
 
         private PageResponse<ParticipantInfoVO> list(int page, int size, String keyword,
@@ -413,66 +421,68 @@ class CompetitionParticipantsServiceImplGuardsTest {
                     "c1", organizer("o1"), page, size, keyword, sortBy, order);
         }
 
-        @Test
-        @DisplayName("Sorting by name ignores case, so 'alice' is not filed after 'Charlie'")
-        void nameSortIgnoresCase() {
-            threeParticipantsRegistered();
-
-            assertThat(list(1, 10, null, "name", "asc").getData())
-                    .extracting(ParticipantInfoVO::getName)
-                    .containsExactly("alice", "Bob", "Charlie");
+        private UserPageQueryDTO sentQuery() {
+            ArgumentCaptor<UserPageQueryDTO> captor = ArgumentCaptor.forClass(UserPageQueryDTO.class);
+            verify(userServiceClient).pageUsersByIds(captor.capture());
+            return captor.getValue();
         }
 
         @Test
-        @DisplayName("Descending order reverses whichever field was chosen")
-        void descendingReversesTheChosenField() {
+        @DisplayName("Name and email sorts, the keyword and the page are left to user-service")
+        void columnSortIsPushedDown() {
             threeParticipantsRegistered();
 
-            assertThat(list(1, 10, null, "email", "DESC").getData())
-                    .extracting(ParticipantInfoVO::getEmail)
-                    .containsExactly("charlie@example.com", "bob@example.com", "alice@example.com");
+            list(2, 5, "BOB", "email", "DESC");
+
+            UserPageQueryDTO query = sentQuery();
+            assertThat(query.getSortBy()).isEqualTo("email");
+            assertThat(query.getOrder()).isEqualTo("DESC");
+            assertThat(query.getKeyword()).isEqualTo("BOB");
+            assertThat(query.getRole()).isEqualTo("PARTICIPANT");
+            assertThat(query.getPage()).isEqualTo(2);
+            assertThat(query.getSize()).isEqualTo(5);
         }
 
         @Test
-        @DisplayName("Sorting by registration date uses the date, not the name")
-        void registeredAtSortUsesTheDate() {
+        @DisplayName("An unknown sort field falls back to name rather than failing the request")
+        void unknownSortFieldFallsBackToName() {
             threeParticipantsRegistered();
 
-            assertThat(list(1, 10, null, "registeredAt", "asc").getData())
-                    .extracting(ParticipantInfoVO::getName)
-                    .containsExactly("Charlie", "alice", "Bob");
+            list(1, 10, null, "shoeSize", "asc");
+
+            assertThat(sentQuery().getSortBy()).isEqualTo("name");
         }
 
         @Test
-        @DisplayName("An unknown sort field falls back to name rather than failing the request")
-        void unknownSortFieldFallsBackToName() {
+        @DisplayName("Sorting by registration date sends the ids in registration order")
+        void registeredAtSortSendsIdsInOrder() {
             threeParticipantsRegistered();
 
-            assertThat(list(1, 10, null, "shoeSize", "asc").getData())
-                    .extracting(ParticipantInfoVO::getName)
-                    .containsExactly("alice", "Bob", "Charlie");
+            list(1, 10, null, "registeredAt", "asc");
+
+            UserPageQueryDTO query = sentQuery();
+            assertThat(query.getSortBy()).isNull();
+            assertThat(query.getIds()).containsExactly("u1", "u2", "u3");
         }
 
         @Test
-        @DisplayName("A keyword matches either name or email, case-insensitively")
-        void keywordMatchesNameOrEmail() {
+        @DisplayName("Descending registration date reverses the ids")
+        void registeredAtDescendingReversesIds() {
             threeParticipantsRegistered();
 
-            assertThat(list(1, 10, "BOB", "name", "asc").getData())
-                    .extracting(ParticipantInfoVO::getName)
-                    .containsExactly("Bob");
+            list(1, 10, null, "registeredAt", "desc");
 
-            assertThat(list(1, 10, "alice@", "name", "asc").getData())
-                    .extracting(ParticipantInfoVO::getName)
-                    .containsExactly("alice");
+            assertThat(sentQuery().getIds()).containsExactly("u3", "u2", "u1");
         }
 
         @Test
-        @DisplayName("A blank keyword filters nothing, rather than matching nothing")
-        void blankKeywordDoesNotFilter() {
+        @DisplayName("Each user on the page carries its own registration date")
+        void pageRowsCarryRegistrationDate() {
             threeParticipantsRegistered();
 
-            assertThat(list(1, 10, "   ", "name", "asc").getData()).hasSize(3);
+            assertThat(list(1, 2, null, "name", "asc").getData())
+                    .extracting(ParticipantInfoVO::getRegisteredAt)
+                    .containsExactly(base.plusDays(1), base.plusDays(2));
         }
 
         @Test
@@ -487,16 +497,5 @@ class CompetitionParticipantsServiceImplGuardsTest {
             assertThat(first.getTotal()).isEqualTo(3);
             assertThat(first.getPages()).isEqualTo(2);
         }
-
-        @Test
-        @DisplayName("A page past the end is empty rather than an index error")
-        void pagePastTheEndIsEmpty() {
-            threeParticipantsRegistered();
-
-            PageResponse<ParticipantInfoVO> beyond = list(9, 10, null, "name", "asc");
-
-            assertThat(beyond.getData()).isEmpty();
-            assertThat(beyond.getTotal()).isEqualTo(3);
-        }
     }
 }
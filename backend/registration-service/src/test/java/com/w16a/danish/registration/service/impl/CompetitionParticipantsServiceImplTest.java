@@ -4,12 +4,16 @@ import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.baomidou.mybatisplus.extension.conditions.update.LambdaUpdateChainWrapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.CompetitionPageQueryDTO;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
+import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.registration.notify.RegistrationNotifier;
 import com.w16a.danish.registration.domain.po.CompetitionOrganizers;
 import com.w16a.danish.registration.domain.po.CompetitionParticipants;
 import com.w16a.danish.registration.domain.po.CompetitionTeams;
 import com.w16a.danish.registration.domain.po.SubmissionRecords;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
+import com.w16a.danish.registration.domain.vo.RegistrationStatusVO;
 import com.w16a.danish.registration.domain.vo.TeamInfoVO;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.common.domain.enums.CompetitionStatus;
@@ -24,6 +28,7 @@ import com.w16a.danish.registration.service.ISubmissionRecordsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
@@ -98,13 +103,6 @@ class CompetitionParticipantsServiceImplTest {
         competition.setStatus(CompetitionStatus.UPCOMING);
         when(competitionGateway.require("comp-1")).thenReturn(competition);
 
-        // stub user-service
-        UserBriefVO user = new UserBriefVO();
-        user.setName("Tester");
-        user.setEmail("t@example.com");
-        when(userServiceClient.getUserBriefById("user-1"))
-                .thenReturn(ResponseEntity.ok(user));
-
         // stub "no prior registration"
         when(partQuery.eq(any(), any())).thenReturn(partQuery);
         when(partQuery.exists()).thenReturn(false);
@@ -155,15 +153,7 @@ class CompetitionParticipantsServiceImplTest {
     @DisplayName("✅ Should get my competitions successfully")
     void testGetMyCompetitionsWithSearch_Success() {
         // stub participants list
-        when(partQuery.eq(any(), any())).thenReturn(partQuery);
-        when(partQuery.list()).thenReturn(Collections.emptyList());
-
-        // stub remote calls
-        when(submissionService.getSubmissionStatus(anyString(), anyList()))
-                .thenReturn(Collections.emptyMap());
-        when(submissionService.getSubmissionScores(anyString(), anyList()))
-                .thenReturn(Collections.emptyMap());
-        when(competitionGateway.findAll(anyList())).thenReturn(Collections.emptyList());
+        stubJoinedQuery(partQuery, Collections.emptyList());
 
         assertThatCode(() -> service.getMyCompetitionsWithSearch(
                 ctx("user-1","PARTICIPANT"),1,10,null,null,null))
@@ -194,9 +184,6 @@ class CompetitionParticipantsServiceImplTest {
         // stub removal
         doReturn(true).when(service).removeById("pid");
 
-        // stub user lookups
-        when(userServiceClient.getUserBriefById(anyString()))
-                .thenReturn(ResponseEntity.ok(new UserBriefVO()));
         when(competitionGateway.require(anyString())).thenReturn(new CompetitionResponseVO());
 
         assertThatCode(() -> service.cancelByOrganizer(
@@ -229,12 +216,6 @@ class CompetitionParticipantsServiceImplTest {
         when(competitionTeamsService.save(any(CompetitionTeams.class)))
                 .thenReturn(true);
 
-        // 5) notify
-        UserBriefVO user = new UserBriefVO();
-        user.setName("Tester"); user.setEmail("t@example.com");
-        when(userServiceClient.getUserBriefById("user-1"))
-                .thenReturn(ResponseEntity.ok(user));
-
         assertThatCode(() -> service.registerTeam(
                 "comp-1","team-1", ctx("user-1","PARTICIPANT")))
                 .doesNotThrowAnyException();
@@ -280,13 +261,11 @@ class CompetitionParticipantsServiceImplTest {
                 .setCompetitionId("comp-1")
                 .setJoinedAt(LocalDateTime.now());
         @SuppressWarnings("unchecked")
-        var teamQuery = mock(LambdaQueryChainWrapper.class);
+        LambdaQueryChainWrapper<CompetitionTeams> teamQuery = mock(LambdaQueryChainWrapper.class);
         when(competitionTeamsService.lambdaQuery()).thenReturn(teamQuery);
-        // MATCH the SFunction overload, not any(Object,Object)
-        when(teamQuery.eq(any(SFunction.class), eq("team-1"))).thenReturn(teamQuery);
-        when(teamQuery.list()).thenReturn(List.of(reg));
+        stubJoinedQuery(teamQuery, List.of(reg));
 
-        // 2) Stub CompetitionServiceClient.getCompetitionsByIds(...)
+        // 2) Stub the paged competition lookup
         CompetitionResponseVO comp = new CompetitionResponseVO();
         comp.setId("comp-1");
         comp.setName("CodeFest");
@@ -295,7 +274,7 @@ class CompetitionParticipantsServiceImplTest {
         comp.setStartDate(LocalDateTime.now().minusDays(1));
         comp.setEndDate(LocalDateTime.now().plusDays(1));
         comp.setIsPublic(true);
-        when(competitionGateway.findAll(List.of("comp-1"))).thenReturn(List.of(comp));
+        when(competitionGateway.page(any())).thenReturn(new PageResponse<>(List.of(comp), 1, 1, 10, 1));
 
         // 3) Stub submissionService maps
         when(submissionService.getSubmissionStatusByTeam(
@@ -305,10 +284,14 @@ class CompetitionParticipantsServiceImplTest {
                 List.of("team-1"), List.of("comp-1")))
                 .thenReturn(Map.of("comp-1:team-1", BigDecimal.valueOf(95)));
 
-        // Act & Assert
-        assertThatCode(() -> service.getCompetitionsRegisteredByTeam(
-                "team-1", 1, 10, null, "competitionName", "asc"))
-                .doesNotThrowAnyException();
+        // Act
+        var resp = service.getCompetitionsRegisteredByTeam("team-1", 1, 10, null, "competitionName", "asc");
+
+        // Assert: team-keyed maps are read back per competition
+        var vo = resp.getData().get(0);
+        assertThat(vo.getHasSubmitted()).isTrue();
+        assertThat(vo.getTotalScore()).isEqualTo(BigDecimal.valueOf(95));
+        assertThat(vo.getJoinedAt()).isEqualTo(reg.getJoinedAt());
     }
 
     @Test
@@ -331,6 +314,8 @@ class CompetitionParticipantsServiceImplTest {
         when(service.lambdaQuery()).thenReturn(partQ);
         // match the SFunction eq overload
         when(partQ.eq(any(SFunction.class), eq("comp-1"))).thenReturn(partQ);
+        when(partQ.select(any(SFunction.class), any(SFunction.class))).thenReturn(partQ);
+        when(partQ.orderByAsc(any(SFunction.class))).thenReturn(partQ);
         when(partQ.list()).thenReturn(List.of(cp));
 
         // 3) Stub user-service lookup
@@ -338,8 +323,8 @@ class CompetitionParticipantsServiceImplTest {
         ub.setId("user-1");
         ub.setName("Alice");
         ub.setEmail("alice@example.com");
-        when(userServiceClient.getUsersByIds(List.of("user-1"), "PARTICIPANT"))
-                .thenReturn(ResponseEntity.ok(List.of(ub)));
+        when(userServiceClient.pageUsersByIds(any()))
+                .thenReturn(ResponseEntity.ok(new PageResponse<>(List.of(ub), 1, 1, 10, 1)));
 
         // Act & Assert: should not throw
         assertThatCode(() -> service.getParticipantsByCompetitionWithSearch(
@@ -365,25 +350,94 @@ class CompetitionParticipantsServiceImplTest {
         when(competitionTeamsService.lambdaQuery()).thenReturn(teamQ);
         // match any SFunction for the field selector and the exact competitionId
         when(teamQ.eq(any(SFunction.class), eq("comp-1"))).thenReturn(teamQ);
+        when(teamQ.select(any(SFunction.class))).thenReturn(teamQ);
         when(teamQ.list()).thenReturn(List.of(teamRec));
 
-        // 2) Stub userServiceClient.getTeamBriefByIds(...)
+        // 2) Stub userServiceClient.pageTeamBriefsByIds(...)
         TeamInfoVO tvo = new TeamInfoVO();
         tvo.setTeamId("team-1");
         tvo.setTeamName("Best Team");
         tvo.setDescription("We rock");
-        when(userServiceClient.getTeamBriefByIds(eq(List.of("team-1"))))
-                .thenReturn(ResponseEntity.ok(List.of(tvo)));
+        when(userServiceClient.pageTeamBriefsByIds(any()))
+                .thenReturn(ResponseEntity.ok(new PageResponse<>(List.of(tvo), 1, 1, 10, 1)));
 
-        // Act & Assert: should not throw
-        assertThatCode(() -> service.getTeamsByCompetitionWithSearch(
+        // Act
+        var resp = service.getTeamsByCompetitionWithSearch(
                 "comp-1",  // competitionId
                 1,         // page
                 10,        // size
                 null,      // keyword
                 "teamName",// sortBy
                 "asc"      // order
-        )).doesNotThrowAnyException();
+        );
+
+        // Assert: only the registered team ids are sent, sorting is left to user-service
+        ArgumentCaptor<TeamPageQueryDTO> captor = ArgumentCaptor.forClass(TeamPageQueryDTO.class);
+        verify(userServiceClient).pageTeamBriefsByIds(captor.capture());
+        assertThat(captor.getValue().getIds()).isEqualTo(List.of("team-1"));
+        assertThat(captor.getValue().getSortBy()).isEqualTo("teamName");
+        assertThat(resp.getData().get(0).getTeamName()).isEqualTo("Best Team");
+    }
+
+    @Test
+    @DisplayName("✅ Should batch registration and submission status for user and teams")
+    @SuppressWarnings("unchecked")
+    void testGetRegistrationStatuses_Success() {
+        when(partQuery.eq(any(), any())).thenReturn(partQuery);
+        when(partQuery.in(any(), anyCollection())).thenReturn(partQuery);
+        when(partQuery.select(any(SFunction.class))).thenReturn(partQuery);
+        when(partQuery.list()).thenReturn(List.of(new CompetitionParticipants().setCompetitionId("c1")));
+        when(submissionService.getSubmissionStatus("user-1", List.of("c1"))).thenReturn(Map.of("c1", true));
+
+        LambdaQueryChainWrapper<CompetitionTeams> tq = mock(LambdaQueryChainWrapper.class);
+        when(competitionTeamsService.lambdaQuery()).thenReturn(tq);
+        when(tq.in(any(), anyCollection())).thenReturn(tq);
+        when(tq.select(any(SFunction.class), any(SFunction.class))).thenReturn(tq);
+        when(tq.list()).thenReturn(List.of(
+                new CompetitionTeams().setCompetitionId("c2").setTeamId("t1"),
+                new CompetitionTeams().setCompetitionId("c2").setTeamId("t2")));
+        when(submissionService.getSubmissionStatusByTeam(List.of("t1", "t2"), List.of("c2")))
+                .thenReturn(Map.of("c2:t1", true));
+
+        Map<String, RegistrationStatusVO> result = service.getRegistrationStatuses(
+                List.of("c3", "c1", "c2", "c1"), List.of("t1", "t2"), ctx("user-1", "PARTICIPANT"));
+
+        assertThat(List.copyOf(result.keySet())).isEqualTo(List.of("c3", "c1", "c2"));
+        assertThat(result.get("c1").isRegistered()).isTrue();
+        assertThat(result.get("c1").isSubmitted()).isTrue();
+        assertThat(result.get("c2").isRegistered()).isFalse();
+        assertThat(result.get("c2").getRegisteredTeamIds()).isEqualTo(List.of("t1", "t2"));
+        assertThat(result.get("c2").getSubmittedTeamIds()).isEqualTo(List.of("t1"));
+        assertThat(result.get("c3").getRegisteredTeamIds()).isEqualTo(List.of());
+        verify(service, never()).isRegistered(anyString(), any());
+        verify(service, never()).isTeamRegistered(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("✅ Batch status without teams skips the team queries")
+    @SuppressWarnings("unchecked")
+    void testGetRegistrationStatuses_NoTeams() {
+        when(partQuery.eq(any(), any())).thenReturn(partQuery);
+        when(partQuery.in(any(), anyCollection())).thenReturn(partQuery);
+        when(partQuery.select(any(SFunction.class))).thenReturn(partQuery);
+        when(partQuery.list()).thenReturn(Collections.emptyList());
+
+        Map<String, RegistrationStatusVO> result = service.getRegistrationStatuses(
+                List.of("c1"), null, ctx("user-1", "PARTICIPANT"));
+
+        assertThat(result.get("c1").isRegistered()).isFalse();
+        verifyNoInteractions(competitionTeamsService);
+        verify(submissionService, never()).getSubmissionStatusByTeam(anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("❌ Batch status rejects oversized requests")
+    void testGetRegistrationStatuses_TooMany() {
+        List<String> ids = java.util.stream.IntStream.range(0, 101).mapToObj(i -> "c" + i).toList();
+
+        assertThatThrownBy(() -> service.getRegistrationStatuses(ids, null, ctx("user-1", "PARTICIPANT")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("At most 100");
     }
 
     @Test
@@ -458,10 +512,9 @@ class CompetitionParticipantsServiceImplTest {
     @DisplayName("✅ getMyCompetitionsWithSearch returns empty page when no registrations")
     void testGetMyCompetitionsWithSearch_Empty() {
         @SuppressWarnings("unchecked")
-        var partQ = mock(LambdaQueryChainWrapper.class);
+        LambdaQueryChainWrapper<CompetitionParticipants> partQ = mock(LambdaQueryChainWrapper.class);
         when(service.lambdaQuery()).thenReturn(partQ);
-        when(partQ.eq(any(), any())).thenReturn(partQ);
-        when(partQ.list()).thenReturn(Collections.emptyList());
+        stubJoinedQuery(partQ, Collections.emptyList());
 
         var resp = service.getMyCompetitionsWithSearch(
                 ctx("user-1", "PARTICIPANT"),
@@ -472,47 +525,18 @@ class CompetitionParticipantsServiceImplTest {
     }
 
     @Test
-    @DisplayName("✅ getMyCompetitionsWithSearch filters and sorts results")
+    @DisplayName("✅ getMyCompetitionsWithSearch leaves keyword and column sort to competition-service")
     void testGetMyCompetitionsWithSearch_FilterAndSort() {
         // 1) Stub two competition‐participant records
-        CompetitionParticipants p1 = new CompetitionParticipants()
-                .setCompetitionId("A")
-                .setCreatedAt(LocalDateTime.now().minusDays(2));
-        CompetitionParticipants p2 = new CompetitionParticipants()
-                .setCompetitionId("B")
-                .setCreatedAt(LocalDateTime.now().minusDays(1));
-        @SuppressWarnings("unchecked")
-        var partQ = mock(LambdaQueryChainWrapper.class);
-        when(service.lambdaQuery()).thenReturn(partQ);
-        when(partQ.eq(any(), any())).thenReturn(partQ);
-        when(partQ.list()).thenReturn(List.of(p1, p2));
-
-        // 2) Stub the remote CompetitionServiceClient call
-        CompetitionResponseVO voA = new CompetitionResponseVO();
-        voA.setId("A");
-        voA.setName("Alpha");
-        voA.setCategory("X");
-        voA.setStatus(CompetitionStatus.UPCOMING);
-        voA.setStartDate(LocalDateTime.now().minusDays(5));
-        voA.setEndDate(LocalDateTime.now().minusDays(3));
-
-        CompetitionResponseVO voB = new CompetitionResponseVO();
-        voB.setId("B");
-        voB.setName("Beta");
-        voB.setCategory("Y");
-        voB.setStatus(CompetitionStatus.UPCOMING);
-        voB.setStartDate(LocalDateTime.now().minusDays(4));
-        voB.setEndDate(LocalDateTime.now().minusDays(2));
-
-        when(competitionGateway.findAll(List.of("A", "B"))).thenReturn(List.of(voA, voB));
-
-        // 3) Stub empty submission maps
-        when(submissionService.getSubmissionStatus("user-1", List.of("A", "B")))
-                .thenReturn(Map.of());
-        when(submissionService.getSubmissionScores("user-1", List.of("A", "B")))
-                .thenReturn(Map.of());
-
-        // Act: filter by keyword "be" (matches "Beta") and sort descending by competitionName
+        stubJoinedQuery(partQuery, List.of(
+                joined("A", LocalDateTime.now().minusDays(2)),
+                joined("B", LocalDateTime.now().minusDays(1))));
+
+        // 2) competition-service has already filtered by "be" and sorted
+        when(competitionGateway.page(any())).thenReturn(new PageResponse<>(List.of(competition("B", "Beta")), 1, 1, 10, 1));
+        when(submissionService.getSubmissionStatus("user-1", List.of("B"))).thenReturn(Map.of());
+        when(submissionService.getSubmissionScores("user-1", List.of("B"))).thenReturn(Map.of());
+
         var resp = service.getMyCompetitionsWithSearch(
                 ctx("user-1", "PARTICIPANT"),
                 1, 10,
@@ -520,8 +544,79 @@ class CompetitionParticipantsServiceImplTest {
                 "competitionName",
                 "desc");
 
-        // Assert: only "Beta" remains
+        CompetitionPageQueryDTO query = capturePageQuery();
+        assertThat(query.getIds()).isEqualTo(List.of("A", "B"));
+        assertThat(query.getKeyword()).isEqualTo("be");
+        assertThat(query.getSortBy()).isEqualTo("name");
+        assertThat(query.getOrder()).isEqualTo("desc");
         assertThat(resp.getData().get(0).getCompetitionName()).isEqualTo("Beta");
+        assertThat(resp.getTotal()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("✅ getMyCompetitionsWithSearch orders by joined time locally and decorates only the page")
+    void testGetMyCompetitionsWithSearch_JoinedAtDesc() {
+        stubJoinedQuery(partQuery, List.of(
+                joined("A", LocalDateTime.now().minusDays(3)),
+                joined("B", LocalDateTime.now().minusDays(2)),
+                joined("C", LocalDateTime.now().minusDays(1))));
+        when(competitionGateway.page(any())).thenReturn(new PageResponse<>(List.of(competition("C", "Gamma")), 3, 1, 1, 3));
+        when(submissionService.getSubmissionStatus("user-1", List.of("C"))).thenReturn(Map.of("C", true));
+        when(submissionService.getSubmissionScores("user-1", List.of("C"))).thenReturn(Map.of());
+
+        var resp = service.getMyCompetitionsWithSearch(ctx("user-1", "PARTICIPANT"), 1, 1, null, "joinedAt", "desc");
+
+        CompetitionPageQueryDTO query = capturePageQuery();
+        assertThat(query.getIds()).isEqualTo(List.of("C", "B", "A"));
+        assertThat(query.getSortBy()).isNull();
+        assertThat(resp.getData().get(0).getHasSubmitted()).isTrue();
+        assertThat(resp.getTotal()).isEqualTo(3L);
+        verify(submissionService, never()).getSubmissionStatus(eq("user-1"), eq(List.of("C", "B", "A")));
+    }
+
+    @Test
+    @DisplayName("✅ getMyCompetitionsWithSearch orders by score before paging")
+    void testGetMyCompetitionsWithSearch_TotalScore() {
+        stubJoinedQuery(partQuery, List.of(
+                joined("A", LocalDateTime.now().minusDays(3)),
+                joined("B", LocalDateTime.now().minusDays(2)),
+                joined("C", LocalDateTime.now().minusDays(1))));
+        when(submissionService.getSubmissionScores("user-1", List.of("A", "B", "C")))
+                .thenReturn(Map.of("A", BigDecimal.valueOf(70), "C", BigDecimal.valueOf(90)));
+        when(competitionGateway.page(any())).thenReturn(new PageResponse<>(List.of(competition("C", "Gamma")), 3, 1, 1, 3));
+        when(submissionService.getSubmissionStatus("user-1", List.of("C"))).thenReturn(Map.of());
+
+        var resp = service.getMyCompetitionsWithSearch(ctx("user-1", "PARTICIPANT"), 1, 1, null, "totalScore", "desc");
+
+        assertThat(capturePageQuery().getIds()).isEqualTo(List.of("C", "A", "B"));
+        assertThat(resp.getData().get(0).getTotalScore()).isEqualTo(BigDecimal.valueOf(90));
+        verify(submissionService, times(1)).getSubmissionScores(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void stubJoinedQuery(LambdaQueryChainWrapper<T> query, List<T> rows) {
+        when(query.select(any(SFunction.class), any(SFunction.class))).thenReturn(query);
+        when(query.eq(any(), any())).thenReturn(query);
+        when(query.orderByAsc(any(SFunction.class))).thenReturn(query);
+        when(query.list()).thenReturn(rows);
+    }
+
+    private static CompetitionParticipants joined(String competitionId, LocalDateTime at) {
+        return new CompetitionParticipants().setCompetitionId(competitionId).setCreatedAt(at);
+    }
+
+    private static CompetitionResponseVO competition(String id, String name) {
+        CompetitionResponseVO vo = new CompetitionResponseVO();
+        vo.setId(id);
+        vo.setName(name);
+        vo.setStatus(CompetitionStatus.UPCOMING);
+        return vo;
+    }
+
+    private CompetitionPageQueryDTO capturePageQuery() {
+        ArgumentCaptor<CompetitionPageQueryDTO> captor = ArgumentCaptor.forClass(CompetitionPageQueryDTO.class);
+        verify(competitionGateway).page(captor.capture());
+        return captor.getValue();
     }
 
 //––– register / isRegistered –––
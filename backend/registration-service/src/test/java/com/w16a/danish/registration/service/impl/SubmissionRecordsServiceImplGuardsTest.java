@@ -4,9 +4,14 @@ import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapp
 import com.w16a.danish.common.context.RequestContext;
 import com.w16a.danish.common.domain.enums.CompetitionStatus;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
-import com.w16a.danish.common.domain.vo.UserBriefVO;
+import com.w16a.danish.common.domain.vo.PresignedUploadVO;
+import com.w16a.danish.common.domain.vo.StoredObjectVO;
 import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
+import com.w16a.danish.registration.domain.dto.SubmissionConfirmDTO;
 import com.w16a.danish.registration.domain.dto.SubmissionReviewDTO;
+import com.w16a.danish.registration.domain.dto.SubmissionUploadRequestDTO;
 import com.w16a.danish.registration.domain.po.CompetitionOrganizers;
 import com.w16a.danish.registration.domain.po.CompetitionParticipants;
 import com.w16a.danish.registration.domain.po.SubmissionRecords;
@@ -25,6 +30,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -35,11 +43,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -58,6 +70,8 @@ class SubmissionRecordsServiceImplGuardsTest {
     private SubmissionRecordsServiceImpl service;
     private CompetitionGateway competitionGateway;
     private FileServiceClient fileServiceClient;
+    private FileDeletionQueue fileDeletionQueue;
+    private StreamingMultipartClient streamingMultipartClient;
     private SubmissionNotifier notifier;
     private UserServiceClient userServiceClient;
     private ICompetitionParticipantsService participantsService;
@@ -79,13 +93,21 @@ class SubmissionRecordsServiceImplGuardsTest {
     void setUp() {
         competitionGateway = mock(CompetitionGateway.class);
         fileServiceClient = mock(FileServiceClient.class);
+        fileDeletionQueue = mock(FileDeletionQueue.class);
+        streamingMultipartClient = mock(StreamingMultipartClient.class);
         notifier = mock(SubmissionNotifier.class);
         userServiceClient = mock(UserServiceClient.class);
         participantsService = mock(ICompetitionParticipantsService.class);
         organizersService = mock(ICompetitionOrganizersService.class);
 
+        // Cleanup runs inline and the transaction is a pass-through, so every effect is visible on return.
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         SubmissionRecordsServiceImpl real = new SubmissionRecordsServiceImpl(
-                competitionGateway, fileServiceClient, notifier, userServiceClient);
+                competitionGateway, fileServiceClient, notifier, userServiceClient,
+                fileDeletionQueue, transactionTemplate,
+                streamingMultipartClient);
         ReflectionTestUtils.setField(real, "competitionParticipantsService", participantsService);
         ReflectionTestUtils.setField(real, "competitionOrganizersService", organizersService);
         ReflectionTestUtils.setField(real, "baseMapper", mock(SubmissionRecordsMapper.class));
@@ -133,7 +155,7 @@ class SubmissionRecordsServiceImplGuardsTest {
 
             assertRefused(() -> service.submitWork(participant("u1"), "c1", "T", "D", FILE),
                     HttpStatus.FORBIDDEN, "must register");
-            verify(fileServiceClient, never()).uploadSubmission(any());
+            verify(streamingMultipartClient, never()).upload(anyString(), anyString(), any());
         }
 
         @Test
@@ -145,7 +167,7 @@ class SubmissionRecordsServiceImplGuardsTest {
 
             assertRefused(() -> service.submitWork(participant("u1"), "c1", "T", "D", FILE),
                     HttpStatus.BAD_REQUEST, "already ended");
-            verify(fileServiceClient, never()).uploadSubmission(any());
+            verify(streamingMultipartClient, never()).upload(anyString(), anyString(), any());
         }
 
         @Test
@@ -175,7 +197,7 @@ class SubmissionRecordsServiceImplGuardsTest {
             when(participantQuery.exists()).thenReturn(true);
             when(competitionGateway.require("c1"))
                     .thenReturn(competition(CompetitionStatus.ONGOING, LocalDateTime.now().plusDays(1)));
-            when(fileServiceClient.uploadSubmission(any())).thenReturn(ResponseEntity.ok(null));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any())).thenReturn(null);
 
             assertRefused(() -> service.submitWork(participant("u1"), "c1", "T", "D", FILE),
                     HttpStatus.INTERNAL_SERVER_ERROR, "File upload failed");
@@ -188,8 +210,8 @@ class SubmissionRecordsServiceImplGuardsTest {
             when(participantQuery.exists()).thenReturn(true);
             when(competitionGateway.require("c1"))
                     .thenReturn(competition(CompetitionStatus.ONGOING, LocalDateTime.now().plusDays(1)));
-            when(fileServiceClient.uploadSubmission(any()))
-                    .thenReturn(ResponseEntity.ok("http://minio/bucket/new.pdf"));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any()))
+                    .thenReturn("http://minio/bucket/new.pdf");
 
             SubmissionRecords existing = new SubmissionRecords();
             existing.setId("s1");
@@ -199,17 +221,28 @@ class SubmissionRecordsServiceImplGuardsTest {
             when(submissionQuery.one()).thenReturn(existing);
             doReturn(true).when(service).updateById(any(SubmissionRecords.class));
 
-            UserBriefVO u = new UserBriefVO();
-            u.setName("Tester");
-            u.setEmail("t@example.com");
-            when(userServiceClient.getUserBriefById("u1")).thenReturn(ResponseEntity.ok(u));
-
             service.submitWork(participant("u1"), "c1", "New title", "D", FILE);
 
             assertThat(existing.getReviewStatus()).isEqualTo("PENDING");
             assertThat(existing.getReviewedBy()).isNull();
             assertThat(existing.getTotalScore()).isNull();
-            verify(fileServiceClient).deleteFile("bucket", "old.pdf");
+            verify(fileDeletionQueue).enqueueReplaced("http://minio/bucket/old.pdf", "http://minio/bucket/new.pdf");
+        }
+
+        @Test
+        @DisplayName("Re-submitting the identical file still hands back the reference its upload took")
+        void resubmittingSameFileReleasesItsReference() {
+            String sameUrl = "http://minio/submissions/sha256/abc.pdf";
+            when(participantQuery.exists()).thenReturn(true);
+            when(competitionGateway.require("c1"))
+                    .thenReturn(competition(CompetitionStatus.ONGOING, null));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any())).thenReturn(sameUrl);
+            when(submissionQuery.one()).thenReturn(new SubmissionRecords().setId("s1").setFileUrl(sameUrl));
+            doReturn(true).when(service).updateById(any(SubmissionRecords.class));
+
+            service.submitWork(participant("u1"), "c1", "T", "D", FILE);
+
+            verify(fileDeletionQueue).enqueueReplaced(sameUrl, sameUrl);
         }
 
         @Test
@@ -218,8 +251,8 @@ class SubmissionRecordsServiceImplGuardsTest {
             when(participantQuery.exists()).thenReturn(true);
             when(competitionGateway.require("c1"))
                     .thenReturn(competition(CompetitionStatus.ONGOING, null));
-            when(fileServiceClient.uploadSubmission(any()))
-                    .thenReturn(ResponseEntity.ok("http://minio/bucket/new.pdf"));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any()))
+                    .thenReturn("http://minio/bucket/new.pdf");
             when(submissionQuery.one()).thenReturn(new SubmissionRecords().setId("s1"));
             doReturn(false).when(service).updateById(any(SubmissionRecords.class));
 
@@ -233,14 +266,51 @@ class SubmissionRecordsServiceImplGuardsTest {
             when(participantQuery.exists()).thenReturn(true);
             when(competitionGateway.require("c1"))
                     .thenReturn(competition(CompetitionStatus.ONGOING, null));
-            when(fileServiceClient.uploadSubmission(any()))
-                    .thenReturn(ResponseEntity.ok("http://minio/bucket/new.pdf"));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any()))
+                    .thenReturn("http://minio/bucket/new.pdf");
             doReturn(false).when(service).save(any(SubmissionRecords.class));
 
             assertRefused(() -> service.submitWork(participant("u1"), "c1", "T", "D", FILE),
                     HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save submission");
             verify(notifier, never()).sendSubmissionUploaded(any());
         }
+
+        @Test
+        @DisplayName("A failed write removes the file it just uploaded and keeps the one it would have replaced")
+        void failedWriteDiscardsTheNewUpload() {
+            when(participantQuery.exists()).thenReturn(true);
+            when(competitionGateway.require("c1"))
+                    .thenReturn(competition(CompetitionStatus.ONGOING, null));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any()))
+                    .thenReturn("http://minio/bucket/new.pdf");
+            SubmissionRecords existing = new SubmissionRecords().setId("s1").setFileUrl("http://minio/bucket/old.pdf");
+            when(submissionQuery.one()).thenReturn(existing);
+            doReturn(false).when(service).updateById(any(SubmissionRecords.class));
+
+            assertRefused(() -> service.submitWork(participant("u1"), "c1", "T", "D", FILE),
+                    HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update submission");
+            verify(fileDeletionQueue).enqueue("http://minio/bucket/new.pdf");
+            verify(fileDeletionQueue, never()).enqueue("http://minio/bucket/old.pdf");
+        }
+
+        @Test
+        @DisplayName("The upload event is written in the submission's transaction, so failing to write it fails the submission")
+        void failedEventFailsTheSubmission() {
+            when(participantQuery.exists()).thenReturn(true);
+            when(competitionGateway.require("c1"))
+                    .thenReturn(competition(CompetitionStatus.ONGOING, null));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any()))
+                    .thenReturn("http://minio/bucket/new.pdf");
+            SubmissionRecords existing = new SubmissionRecords().setId("s1").setFileUrl("http://minio/bucket/old.pdf");
+            when(submissionQuery.one()).thenReturn(existing);
+            doReturn(true).when(service).updateById(any(SubmissionRecords.class));
+            doThrow(new IllegalStateException("outbox unavailable")).when(notifier).sendSubmissionUploaded(any());
+
+            assertThatThrownBy(() -> service.submitWork(participant("u1"), "c1", "T", "D", FILE))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(fileDeletionQueue).enqueue("http://minio/bucket/new.pdf");
+            verify(fileDeletionQueue, never()).enqueueReplaced(any(), any());
+        }
     }
 
     @Nested
@@ -283,13 +353,165 @@ class SubmissionRecordsServiceImplGuardsTest {
             when(userServiceClient.isUserInTeam("u1", "t1")).thenReturn(ResponseEntity.ok(true));
             when(competitionGateway.require("c1"))
                     .thenReturn(competition(CompetitionStatus.ONGOING, LocalDateTime.now().plusDays(1)));
-            when(fileServiceClient.uploadSubmission(any())).thenReturn(ResponseEntity.ok("   "));
+            when(streamingMultipartClient.upload(anyString(), anyString(), any())).thenReturn("   ");
 
             assertRefused(() -> service.submitTeamWork(participant("u1"), "c1", "t1", "T", "D", FILE),
                     HttpStatus.INTERNAL_SERVER_ERROR, "Failed to upload file");
         }
     }
 
+    @Nested
+    @DisplayName("Uploading straight to storage")
+    class DirectUpload {
+
+        private SubmissionUploadRequestDTO uploadRequest(String teamId) {
+            SubmissionUploadRequestDTO dto = new SubmissionUploadRequestDTO();
+            dto.setCompetitionId("c1");
+            dto.setTeamId(teamId);
+            dto.setFileName("entry.pdf");
+            dto.setContentType("application/pdf");
+            return dto;
+        }
+
+        private SubmissionConfirmDTO confirm(String teamId, String objectName) {
+            SubmissionConfirmDTO dto = new SubmissionConfirmDTO();
+            dto.setCompetitionId("c1");
+            dto.setTeamId(teamId);
+            dto.setObjectName(objectName);
+            dto.setFileName("entry.pdf");
+            dto.setTitle("T");
+            dto.setDescription("D");
+            return dto;
+        }
+
+        private void openCompetition() {
+            when(competitionGateway.require("c1"))
+                    .thenReturn(competition(CompetitionStatus.ONGOING, LocalDateTime.now().plusDays(1)));
+        }
+
+        @Test
+        @DisplayName("An upload URL is only issued to someone who could submit, and is scoped to them")
+        void uploadUrlIsScopedToTheSubmitter() {
+            when(participantQuery.exists()).thenReturn(true);
+            openCompetition();
+            PresignedUploadVO ticket = PresignedUploadVO.builder().objectName("c1/u1/x.pdf").uploadUrl("http://signed").build();
+            when(fileServiceClient.presignSubmissionUpload("c1/u1", "entry.pdf", "application/pdf"))
+                    .thenReturn(ResponseEntity.ok(ticket));
+
+            assertThat(service.requestSubmissionUpload(participant("u1"), uploadRequest(null))).isSameAs(ticket);
+        }
+
+        @Test
+        @DisplayName("An unregistered participant gets no upload URL")
+        void unregisteredGetsNoUploadUrl() {
+            when(participantQuery.exists()).thenReturn(false);
+
+            assertRefused(() -> service.requestSubmissionUpload(participant("u1"), uploadRequest(null)),
+                    HttpStatus.FORBIDDEN, "must register");
+            verify(fileServiceClient, never()).presignSubmissionUpload(anyString(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Confirming records the stored object's URL and type, not what the client claims")
+        void confirmRecordsTheStoredObject() {
+            when(participantQuery.exists()).thenReturn(true);
+            openCompetition();
+            StoredObjectVO stored = StoredObjectVO.builder()
+                    .objectName("c1/u1/x.pdf").fileUrl("http://minio/submissions/c1/u1/x.pdf")
+                    .size(7).contentType("application/pdf").build();
+            when(fileServiceClient.confirmSubmissionUpload("c1/u1/x.pdf")).thenReturn(ResponseEntity.ok(stored));
+            doReturn(true).when(service).save(any(SubmissionRecords.class));
+
+            service.confirmSubmission(participant("u1"), confirm(null, "c1/u1/x.pdf"));
+
+            verify(service).save(org.mockito.ArgumentMatchers.<SubmissionRecords>argThat(s ->
+                    "http://minio/submissions/c1/u1/x.pdf".equals(s.getFileUrl())
+                            && "application/pdf".equals(s.getFileType())
+                            && "u1".equals(s.getUserId())));
+            verify(notifier).sendSubmissionUploaded(any());
+        }
+
+        @Test
+        @DisplayName("Nobody can confirm an object presigned for someone else")
+        void foreignObjectIsRefused() {
+            when(participantQuery.exists()).thenReturn(true);
+            openCompetition();
+
+            assertRefused(() -> service.confirmSubmission(participant("u1"), confirm(null, "c1/u2/x.pdf")),
+                    HttpStatus.FORBIDDEN, "does not belong");
+            verify(fileServiceClient, never()).confirmSubmissionUpload(anyString());
+        }
+
+        @Test
+        @DisplayName("Confirming before the upload finished records nothing")
+        void missingObjectIsRefused() {
+            when(participantQuery.exists()).thenReturn(true);
+            openCompetition();
+            when(fileServiceClient.confirmSubmissionUpload("c1/u1/x.pdf")).thenReturn(ResponseEntity.ok(null));
+
+            assertRefused(() -> service.confirmSubmission(participant("u1"), confirm(null, "c1/u1/x.pdf")),
+                    HttpStatus.BAD_REQUEST, "Uploaded file not found");
+            verify(service, never()).save(any(SubmissionRecords.class));
+        }
+
+        @Test
+        @DisplayName("An empty or oversized direct upload is refused and removed from storage")
+        void badlySizedUploadIsRefusedAndDeleted() {
+            when(participantQuery.exists()).thenReturn(true);
+            openCompetition();
+            StoredObjectVO empty = StoredObjectVO.builder()
+                    .objectName("c1/u1/empty.pdf").fileUrl("http://minio/submissions/c1/u1/empty.pdf").size(0).build();
+            StoredObjectVO huge = StoredObjectVO.builder()
+                    .objectName("c1/u1/huge.pdf").fileUrl("http://minio/submissions/c1/u1/huge.pdf")
+                    .size(DataSize.ofMegabytes(200).toBytes() + 1).build();
+            when(fileServiceClient.confirmSubmissionUpload("c1/u1/empty.pdf")).thenReturn(ResponseEntity.ok(empty));
+            when(fileServiceClient.confirmSubmissionUpload("c1/u1/huge.pdf")).thenReturn(ResponseEntity.ok(huge));
+
+            assertRefused(() -> service.confirmSubmission(participant("u1"), confirm(null, "c1/u1/empty.pdf")),
+                    HttpStatus.BAD_REQUEST, "empty");
+            assertRefused(() -> service.confirmSubmission(participant("u1"), confirm(null, "c1/u1/huge.pdf")),
+                    HttpStatus.PAYLOAD_TOO_LARGE, "200MB");
+            verify(fileDeletionQueue).enqueue("http://minio/submissions/c1/u1/empty.pdf");
+            verify(fileDeletionQueue).enqueue("http://minio/submissions/c1/u1/huge.pdf");
+            verify(service, never()).save(any(SubmissionRecords.class));
+        }
+
+        @Test
+        @DisplayName("A deadline that passed during the upload still refuses the confirm")
+        void confirmRechecksTheDeadline() {
+            when(participantQuery.exists()).thenReturn(true);
+            when(competitionGateway.require("c1"))
+                    .thenReturn(competition(CompetitionStatus.ONGOING, LocalDateTime.now().minusMinutes(1)));
+
+            assertRefused(() -> service.confirmSubmission(participant("u1"), confirm(null, "c1/u1/x.pdf")),
+                    HttpStatus.BAD_REQUEST, "already ended");
+            verify(fileServiceClient, never()).confirmSubmissionUpload(anyString());
+        }
+
+        @Test
+        @DisplayName("Team uploads are scoped to the team and need membership")
+        void teamUploadIsScopedToTheTeam() {
+            when(userServiceClient.isUserInTeam("u1", "t1")).thenReturn(ResponseEntity.ok(true));
+            openCompetition();
+            when(fileServiceClient.presignSubmissionUpload(eq("c1/t1"), any(), any()))
+                    .thenReturn(ResponseEntity.ok(PresignedUploadVO.builder().objectName("c1/t1/x.pdf").build()));
+
+            assertThat(service.requestTeamSubmissionUpload(participant("u1"), uploadRequest("t1")).getObjectName())
+                    .isEqualTo("c1/t1/x.pdf");
+
+            when(userServiceClient.isUserInTeam("u1", "t2")).thenReturn(ResponseEntity.ok(false));
+            assertRefused(() -> service.confirmTeamSubmission(participant("u1"), confirm("t2", "c1/t2/x.pdf")),
+                    HttpStatus.FORBIDDEN, "not a member");
+        }
+
+        @Test
+        @DisplayName("A team upload without a team is a bad request")
+        void teamUploadNeedsTeamId() {
+            assertRefused(() -> service.requestTeamSubmissionUpload(participant("u1"), uploadRequest(null)),
+                    HttpStatus.BAD_REQUEST, "teamId is required");
+        }
+    }
+
     @Nested
     @DisplayName("Reviewing a submission")
     class Review {
@@ -350,52 +572,35 @@ class SubmissionRecordsServiceImplGuardsTest {
         }
 
         @Test
-        @DisplayName("A team submission notifies the team's creator, not the row's userId")
-        void teamSubmissionNotifiesTheCreator() {
+        @DisplayName("A team submission is addressed to the team, whose creator user-service looks up")
+        void teamSubmissionIsAddressedToTheTeam() {
             doReturn(new SubmissionRecords().setId("s1").setCompetitionId("c1").setTeamId("t1").setUserId("u1"))
                     .when(service).getById("s1");
             when(organizerQuery.exists()).thenReturn(true);
             doReturn(true).when(service).updateById(any(SubmissionRecords.class));
             when(competitionGateway.require("c1")).thenReturn(competition(CompetitionStatus.ONGOING, null));
 
-            UserBriefVO reviewer = new UserBriefVO();
-            reviewer.setId("o1");
-            reviewer.setName("Organizer");
-            when(userServiceClient.getUserBriefById("o1")).thenReturn(ResponseEntity.ok(reviewer));
-
-            UserBriefVO creator = new UserBriefVO();
-            creator.setId("creator-1");
-            when(userServiceClient.getTeamCreator("t1")).thenReturn(ResponseEntity.ok(creator));
-
-            UserBriefVO submitter = new UserBriefVO();
-            submitter.setName("Creator");
-            submitter.setEmail("creator@example.com");
-            when(userServiceClient.getUserBriefById("creator-1")).thenReturn(ResponseEntity.ok(submitter));
-
             service.reviewSubmission(review("s1", "APPROVED"), new RequestContext("o1", "ORGANIZER"));
 
-            verify(userServiceClient).getTeamCreator("t1");
-            verify(notifier).sendSubmissionReviewed(any());
+            verify(notifier).sendSubmissionReviewed(argThat(m -> "t1".equals(m.getTeamId())
+                    && m.getUserId() == null && "o1".equals(m.getReviewerId())));
+            verifyNoInteractions(userServiceClient);
         }
 
         @Test
-        @DisplayName("A team submission whose creator has vanished is 404, not a blank email")
-        void missingTeamCreatorIsNotFound() {
-            doReturn(new SubmissionRecords().setId("s1").setCompetitionId("c1").setTeamId("t1"))
+        @DisplayName("An individual submission is addressed to its submitter")
+        void individualSubmissionIsAddressedToTheSubmitter() {
+            doReturn(new SubmissionRecords().setId("s1").setCompetitionId("c1").setUserId("u1"))
                     .when(service).getById("s1");
             when(organizerQuery.exists()).thenReturn(true);
             doReturn(true).when(service).updateById(any(SubmissionRecords.class));
             when(competitionGateway.require("c1")).thenReturn(competition(CompetitionStatus.ONGOING, null));
 
-            UserBriefVO reviewer = new UserBriefVO();
-            reviewer.setId("o1");
-            when(userServiceClient.getUserBriefById("o1")).thenReturn(ResponseEntity.ok(reviewer));
-            when(userServiceClient.getTeamCreator("t1")).thenReturn(ResponseEntity.ok(null));
+            service.reviewSubmission(review("s1", "REJECTED"), new RequestContext("o1", "ORGANIZER"));
 
-            assertRefused(() -> service.reviewSubmission(review("s1", "APPROVED"),
-                            new RequestContext("o1", "ORGANIZER")),
-                    HttpStatus.NOT_FOUND, "Team creator not found");
-            verify(notifier, never()).sendSubmissionReviewed(any());
+            verify(notifier).sendSubmissionReviewed(argThat(m -> "u1".equals(m.getUserId())
+                    && m.getTeamId() == null && "REJECTED".equals(m.getReviewStatus())));
+            verifyNoInteractions(userServiceClient);
         }
     }
 
@@ -435,7 +640,7 @@ class SubmissionRecordsServiceImplGuardsTest {
 
             service.deleteSubmission("s1", new RequestContext("o1", "ORGANIZER"));
 
-            verify(fileServiceClient).deleteFile("bucket", "entry.pdf");
+            verify(fileDeletionQueue).enqueue("http://minio/bucket/entry.pdf");
             verify(service).removeById("s1");
         }
 
@@ -0,0 +1,158 @@
+package com.w16a.danish.registration.service.impl;
+
+import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
+import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.enums.CompetitionStatus;
+import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
+import com.w16a.danish.registration.domain.po.CompetitionParticipants;
+import com.w16a.danish.registration.domain.po.SubmissionRecords;
+import com.w16a.danish.registration.feign.FileServiceClient;
+import com.w16a.danish.registration.feign.UserServiceClient;
+import com.w16a.danish.registration.gateway.CompetitionGateway;
+import com.w16a.danish.registration.mapper.SubmissionRecordsMapper;
+import com.w16a.danish.registration.notify.SubmissionNotifier;
+import com.w16a.danish.registration.service.ICompetitionParticipantsService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Connection-pool occupancy while work is submitted.
+ *
+ * An upload of a few hundred MB used to run inside the submission's transaction, so every
+ * in-flight upload pinned one pooled connection. A burst of uploads just before a deadline was
+ * enough to drain the pool and stall unrelated queries. These tests run the service against a
+ * real one-connection Hikari pool and look at the pool from inside the upload and inside the write.
+ */
+class SubmissionRecordsServiceImplPoolTest {
+
+    private HikariDataSource dataSource;
+    private SubmissionRecordsServiceImpl service;
+    private FileServiceClient fileServiceClient;
+    private FileDeletionQueue fileDeletionQueue;
+    private StreamingMultipartClient streamingMultipartClient;
+    private LambdaQueryChainWrapper<SubmissionRecords> submissionQuery;
+
+    private static final MockMultipartFile FILE =
+            new MockMultipartFile("file", "entry.zip", "application/zip", "content".getBytes());
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:submission-pool;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(250);
+        // Start the pool so its counters exist before the first transaction.
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThat(active()).isEqualTo(1);
+        }
+
+        CompetitionGateway competitionGateway = mock(CompetitionGateway.class);
+        CompetitionResponseVO competition = new CompetitionResponseVO();
+        competition.setName("Mock Competition");
+        competition.setStatus(CompetitionStatus.ONGOING);
+        competition.setEndDate(LocalDateTime.now().plusDays(1));
+        when(competitionGateway.require("c1")).thenReturn(competition);
+
+        UserServiceClient userServiceClient = mock(UserServiceClient.class);
+
+        fileServiceClient = mock(FileServiceClient.class);
+        fileDeletionQueue = mock(FileDeletionQueue.class);
+        streamingMultipartClient = mock(StreamingMultipartClient.class);
+        SubmissionRecordsServiceImpl real = new SubmissionRecordsServiceImpl(
+                competitionGateway, fileServiceClient, mock(SubmissionNotifier.class), userServiceClient,
+                fileDeletionQueue,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                streamingMultipartClient);
+        ReflectionTestUtils.setField(real, "baseMapper", mock(SubmissionRecordsMapper.class));
+
+        ICompetitionParticipantsService participantsService = mock(ICompetitionParticipantsService.class);
+        LambdaQueryChainWrapper<CompetitionParticipants> participantQuery = mock(LambdaQueryChainWrapper.class);
+        when(participantQuery.eq(any(), any())).thenReturn(participantQuery);
+        when(participantQuery.exists()).thenReturn(true);
+        when(participantsService.lambdaQuery()).thenReturn(participantQuery);
+        ReflectionTestUtils.setField(real, "competitionParticipantsService", participantsService);
+
+        service = spy(real);
+        submissionQuery = mock(LambdaQueryChainWrapper.class);
+        when(submissionQuery.eq(any(), any())).thenReturn(submissionQuery);
+        doReturn(submissionQuery).when(service).lambdaQuery();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private int active() {
+        return dataSource.getHikariPoolMXBean().getActiveConnections();
+    }
+
+    @Test
+    @DisplayName("No connection is held while the file uploads, and other queries still get one")
+    void uploadHoldsNoConnection() {
+        List<Integer> duringUpload = new ArrayList<>();
+        List<Integer> duringWrite = new ArrayList<>();
+
+        when(streamingMultipartClient.upload(anyString(), anyString(), any())).thenAnswer(inv -> {
+            duringUpload.add(active());
+            // The pool has a single connection: an unrelated query only gets it if the upload does not.
+            try (Connection unrelated = dataSource.getConnection()) {
+                assertThat(unrelated.isValid(1)).isTrue();
+            }
+            return "http://minio/submissions/new.zip";
+        });
+        doAnswer(inv -> {
+            duringWrite.add(active());
+            return true;
+        }).when(service).save(any(SubmissionRecords.class));
+
+        service.submitWork(new RequestContext("u1", "PARTICIPANT"), "c1", "T", "D", FILE);
+
+        assertThat(duringUpload).containsExactly(0);
+        assertThat(duringWrite).containsExactly(1);
+        assertThat(active()).isZero();
+    }
+
+    @Test
+    @DisplayName("A failed write returns its connection and removes the orphaned upload")
+    void failedWriteReleasesConnectionAndDiscardsUpload() {
+        when(streamingMultipartClient.upload(anyString(), anyString(), any())).thenReturn("http://minio/submissions/new.zip");
+        doReturn(false).when(service).save(any(SubmissionRecords.class));
+
+        assertThatThrownBy(() -> service.submitWork(new RequestContext("u1", "PARTICIPANT"), "c1", "T", "D", FILE))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getStatus())
+                .isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertThat(active()).isZero();
+        verify(fileDeletionQueue).enqueue("http://minio/submissions/new.zip");
+    }
+}
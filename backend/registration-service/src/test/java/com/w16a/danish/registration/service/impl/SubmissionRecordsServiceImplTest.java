@@ -11,10 +11,11 @@ import com.w16a.danish.registration.domain.po.SubmissionRecords;
 import com.w16a.danish.registration.domain.vo.*;
 import com.w16a.danish.common.domain.vo.CompetitionResponseVO;
 import com.w16a.danish.common.domain.vo.PageResponse;
-import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.common.domain.enums.CompetitionStatus;
 import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.http.StreamingMultipartClient;
 import com.w16a.danish.registration.gateway.CompetitionGateway;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.registration.feign.FileServiceClient;
 import com.w16a.danish.registration.feign.UserServiceClient;
 import com.w16a.danish.registration.mapper.SubmissionRecordsMapper;
@@ -26,6 +27,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.lang.reflect.Field;
@@ -54,6 +57,9 @@ class SubmissionRecordsServiceImplTest {
     @Mock private FileServiceClient fileServiceClient;
     @Mock private SubmissionNotifier submissionNotifier;
     @Mock private UserServiceClient userServiceClient;
+    @Mock private FileDeletionQueue fileDeletionQueue;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private StreamingMultipartClient streamingMultipartClient;
     @Mock private ICompetitionParticipantsService competitionParticipantsService;
     @Mock private ICompetitionOrganizersService competitionOrganizersService;
 
@@ -64,6 +70,8 @@ class SubmissionRecordsServiceImplTest {
     @BeforeEach
     void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         ReflectionTestUtils.setField(submissionService, "baseMapper", submissionRecordsMapper);
 
@@ -117,12 +125,7 @@ class SubmissionRecordsServiceImplTest {
         competition.setEndDate(LocalDateTime.now().plusDays(5));
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
-        when(fileServiceClient.uploadSubmission(file)).thenReturn(ResponseEntity.ok("http://mockurl.com/file"));
-
-        UserBriefVO user = new UserBriefVO();
-        user.setName("Test User");
-        user.setEmail("test@example.com");
-        when(userServiceClient.getUserBriefById(userId)).thenReturn(ResponseEntity.ok(user));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file))).thenReturn("http://mockurl.com/file");
 
         when(submissionRecordsMapper.insert(any(SubmissionRecords.class))).thenReturn(1);
 
@@ -178,7 +181,7 @@ class SubmissionRecordsServiceImplTest {
         competition.setEndDate(LocalDateTime.now().plusDays(5));
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
-        when(fileServiceClient.uploadSubmission(file)).thenReturn(ResponseEntity.ok(null));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file))).thenReturn(null);
 
         // Act & Assert
         assertThatThrownBy(() -> submissionService.submitWork(
@@ -218,8 +221,7 @@ class SubmissionRecordsServiceImplTest {
         competition.setEndDate(LocalDateTime.now().plusDays(5));
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
-        when(fileServiceClient.uploadSubmission(file)).thenReturn(ResponseEntity.ok("http://mockurl.com/file"));
-        when(userServiceClient.getUserBriefById(userId)).thenReturn(ResponseEntity.ok(null));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file))).thenReturn("http://mockurl.com/file");
 
         when(submissionRecordsMapper.insert(any(SubmissionRecords.class))).thenReturn(0);
 
@@ -243,12 +245,7 @@ class SubmissionRecordsServiceImplTest {
         competition.setEndDate(LocalDateTime.now().plusDays(5));
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
-        when(fileServiceClient.uploadSubmission(file)).thenReturn(ResponseEntity.ok("http://mockurl.com/file"));
-
-        UserBriefVO user = new UserBriefVO();
-        user.setName("Test User");
-        user.setEmail("test@example.com");
-        when(userServiceClient.getUserBriefById(userId)).thenReturn(ResponseEntity.ok(user));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file))).thenReturn("http://mockurl.com/file");
 
         when(submissionRecordsMapper.insert(any(SubmissionRecords.class))).thenReturn(0);
 
@@ -271,7 +268,7 @@ class SubmissionRecordsServiceImplTest {
         competition.setStatus(CompetitionStatus.ONGOING);
         competition.setEndDate(LocalDateTime.now().plusDays(5));
         when(competitionGateway.require(competitionId)).thenReturn(competition);
-        when(fileServiceClient.uploadSubmission(file)).thenReturn(ResponseEntity.ok("http://mockurl.com/file"));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file))).thenReturn("http://mockurl.com/file");
 
         SubmissionRecords existingRecord = new SubmissionRecords();
         LambdaQueryChainWrapper<SubmissionRecords> submissionQuery = mock(LambdaQueryChainWrapper.class);
@@ -307,8 +304,8 @@ class SubmissionRecordsServiceImplTest {
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
         // Mock file upload: returns blank space (invalid)
-        when(fileServiceClient.uploadSubmission(file))
-                .thenReturn(ResponseEntity.ok(" "));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file)))
+                .thenReturn(" ");
 
         // Act & Assert: Expect BusinessException with general save submission error
         assertThatThrownBy(() -> submissionService.submitWork(
@@ -317,29 +314,6 @@ class SubmissionRecordsServiceImplTest {
                 .hasMessageContaining("Failed to save submission"); // Correct expected message
     }
 
-    @Test
-    @DisplayName("❌ Should throw BusinessException when user brief fetch fails with exception")
-    void testSubmitWork_UserBriefFetchException() {
-        // Arrange
-        String userId = "user-1";
-        String competitionId = "comp-1";
-        MockMultipartFile file = new MockMultipartFile("file", "filename.pdf", "application/pdf", "dummy content".getBytes());
-
-        CompetitionResponseVO competition = new CompetitionResponseVO();
-        competition.setStatus(CompetitionStatus.ONGOING);
-        competition.setEndDate(LocalDateTime.now().plusDays(5));
-        when(competitionGateway.require(competitionId)).thenReturn(competition);
-
-        when(fileServiceClient.uploadSubmission(file)).thenReturn(ResponseEntity.ok("http://mockurl.com/file"));
-        when(userServiceClient.getUserBriefById(userId)).thenThrow(new RuntimeException("Feign Client error"));
-
-        // Act & Assert
-        assertThatThrownBy(() -> submissionService.submitWork(
-                ctx(userId, "PARTICIPANT"), competitionId, "Title", "Desc", file))
-                .isInstanceOf(BusinessException.class)
-                .hasMessageContaining("Failed to save submission");
-    }
-
     @Test
     @DisplayName("❌ Should throw RuntimeException when file upload throws exception")
     void testSubmitWork_FileUploadException() {
@@ -360,7 +334,7 @@ class SubmissionRecordsServiceImplTest {
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
         // Mock file upload throwing a RuntimeException
-        when(fileServiceClient.uploadSubmission(file))
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file)))
                 .thenThrow(new RuntimeException("Upload error"));
 
         // Act & Assert: Expect RuntimeException with message containing "Upload error"
@@ -391,17 +365,13 @@ class SubmissionRecordsServiceImplTest {
         when(competitionGateway.require(competitionId)).thenReturn(competition);
 
         // Mock file upload returns a valid URL
-        when(fileServiceClient.uploadSubmission(file))
-                .thenReturn(ResponseEntity.ok("http://mockurl.com/file"));
+        when(streamingMultipartClient.upload(anyString(), anyString(), eq(file)))
+                .thenReturn("http://mockurl.com/file");
 
         // Mock user is in the team
         when(userServiceClient.isUserInTeam(userId, teamId))
                 .thenReturn(ResponseEntity.ok(true));
 
-        // Mock user brief info
-        when(userServiceClient.getUserBriefById(userId))
-                .thenReturn(ResponseEntity.ok(new UserBriefVO())); // Important: avoid NullPointerException
-
         // Mock successful insert into DB
         when(submissionRecordsMapper.insert(any(SubmissionRecords.class)))
                 .thenReturn(1);
@@ -654,21 +624,7 @@ class SubmissionRecordsServiceImplTest {
         comp.setName("Comp");
         when(competitionGateway.require("c1")).thenReturn(comp);
 
-        // 4) stub reviewer info
-        UserBriefVO reviewer = new UserBriefVO();
-        reviewer.setName("R");
-        reviewer.setEmail("r@e");
-        when(userServiceClient.getUserBriefById("rev"))
-                .thenReturn(ResponseEntity.ok(reviewer));
-
-        // 5) stub submitter info (must match submission.getUserId())
-        UserBriefVO submitter = new UserBriefVO();
-        submitter.setName("S");
-        submitter.setEmail("s@e");
-        when(userServiceClient.getUserBriefById("u1"))
-                .thenReturn(ResponseEntity.ok(submitter));
-
-        // 6) build DTO and invoke
+        // 4) build DTO and invoke
         SubmissionReviewDTO dto = new SubmissionReviewDTO();
         dto.setSubmissionId("s1");
         dto.setReviewStatus("APPROVED");
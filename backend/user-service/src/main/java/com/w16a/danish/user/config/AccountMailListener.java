@@ -0,0 +1,41 @@
+package com.w16a.danish.user.config;
+
+import com.w16a.danish.user.domain.mq.PasswordResetMessage;
+import com.w16a.danish.user.mail.MailTemplates;
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import com.w16a.danish.user.mail.NotificationConsumer;
+import com.w16a.danish.user.mail.OutgoingMail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Listens to account mail events and sends them from the high-priority lane.
+ * (Triggered by messages from user-service itself)
+ *
+ * @author Eddy ZHANG
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountMailListener {
+
+    private final NotificationConsumer notificationConsumer;
+    private final MailTemplates mailTemplates;
+
+    @RabbitListener(queues = RabbitMQConfig.ACCOUNT_MAIL_QUEUE, containerFactory = RabbitListenerConfig.HIGH_PRIORITY_CONTAINER_FACTORY)
+    public void handlePasswordReset(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.ACCOUNT_MAIL_QUEUE, messages, PasswordResetMessage.class, this::passwordResetMail);
+    }
+
+    private OutgoingMail passwordResetMail(PasswordResetMessage message) {
+        return mailTemplates.mail(message.getUserEmail(), "[Contest Platform] Password Reset Request", Template.PASSWORD_RESET,
+                MailTemplates.model(
+                        "name", message.getUserName(),
+                        "resetUrl", message.getResetUrl(),
+                        "validMinutes", message.getValidMinutes()
+                ));
+    }
+}
@@ -1,11 +1,16 @@
 package com.w16a.danish.user.config;
 
 import com.w16a.danish.user.domain.mq.AwardWinnerMessage;
+import com.w16a.danish.user.mail.MailTemplates;
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import com.w16a.danish.user.mail.NotificationConsumer;
+import com.w16a.danish.user.mail.OutgoingMail;
 import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Listens to award winner events and sends email notifications.
@@ -18,77 +23,28 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class AwardWinnerEventListener {
 
-    private final EmailService emailService;
+    private final NotificationConsumer notificationConsumer;
     private final FrontendProperties frontendProperties;
+    private final MailTemplates mailTemplates;
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-    @RabbitListener(queues = RabbitMQConfig.AWARD_WINNER_QUEUE)
-    public void handleAwardWinner(AwardWinnerMessage message) {
-        String subject;
-        String content;
+    @RabbitListener(queues = RabbitMQConfig.AWARD_WINNER_QUEUE, containerFactory = RabbitListenerConfig.BULK_MAIL_CONTAINER_FACTORY)
+    public void handleAwardWinner(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.AWARD_WINNER_QUEUE, messages, AwardWinnerMessage.class, this::awardWinnerMail);
+    }
 
+    private OutgoingMail awardWinnerMail(AwardWinnerMessage message) {
         boolean hasAward = message.getAwardName() != null && !"None".equalsIgnoreCase(message.getAwardName());
 
-        if (!hasAward) {
-            subject = "Thank You for Participating – " + message.getCompetitionName();
-            content = String.format("""
-                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                      <p>Hi <b>%s</b>,</p>
-
-                      <p>Thank you for participating in <b>%s</b>! Although you didn't win this time, your contribution was greatly valued.</p>
-
-                      <p>We encourage you to keep innovating and participating in future competitions!</p>
-
-                      <hr>
-
-                      <p><b>📅 Result Announced At:</b> %s</p>
-
-                      <p>👉 Visit our platform for more opportunities: <a href="%s" style="color:#1a73e8;text-decoration:none;">Explore Competitions</a></p>
-
-                      <hr>
-
-                      <p style="font-size:12px;color:gray;">
-                        This is an automated message from the <b>Danish Competition Platform</b>.
-                      </p>
-                    </div>
-                    """,
-                    message.getUserName(),
-                    message.getCompetitionName(),
-                    message.getAwardedAt().format(FORMATTER),
-                    frontendProperties.getBaseUrl()
-            );
-        } else {
-            subject = "🏆 Congratulations! You Won – " + message.getCompetitionName();
-            content = String.format("""
-                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                      <p>Hi <b>%s</b>,</p>
-
-                      <p>Congratulations! You have won the following award(s) in <b>%s</b>:</p>
-
-                      <p><b>🏅 Awards:</b> %s</p>
-
-                      <hr>
-
-                      <p><b>📅 Result Announced At:</b> %s</p>
-
-                      <p>👉 Explore more competitions: <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view</a></p>
-
-                      <hr>
-
-                      <p style="font-size:12px;color:gray;">
-                        This is an automated message from the <b>Danish Competition Platform</b>.
-                      </p>
-                    </div>
-                    """,
-                    message.getUserName(),
-                    message.getCompetitionName(),
-                    message.getAwardName(),
-                    message.getAwardedAt().format(FORMATTER),
-                    frontendProperties.getBaseUrl()
-            );
-        }
-
-        emailService.send(message.getUserEmail(), subject, content);
+        String subject = hasAward
+                ? "🏆 Congratulations! You Won – " + message.getCompetitionName()
+                : "Thank You for Participating – " + message.getCompetitionName();
+        Template template = hasAward ? Template.AWARD_WON : Template.AWARD_PARTICIPATED;
+        return mailTemplates.mail(message.getUserEmail(), subject, template, MailTemplates.model(
+                "name", message.getUserName(),
+                "competitionName", message.getCompetitionName(),
+                "awardName", message.getAwardName(),
+                "awardedAt", message.getAwardedAt(),
+                "platformUrl", frontendProperties.getBaseUrl()
+        ));
     }
 }
@@ -2,11 +2,16 @@ package com.w16a.danish.user.config;
 
 import com.w16a.danish.user.domain.mq.JudgeAssignedMessage;
 import com.w16a.danish.user.domain.mq.JudgeRemovedMessage;
+import com.w16a.danish.user.mail.MailTemplates;
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import com.w16a.danish.user.mail.NotificationConsumer;
+import com.w16a.danish.user.mail.OutgoingMail;
 import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Listens to competition judge assignment/removal events and sends email notifications.
@@ -19,82 +24,43 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class CompetitionJudgeEventListener {
 
-    private final EmailService emailService;
+    private final NotificationConsumer notificationConsumer;
     private final FrontendProperties frontendProperties;
-
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private final MailTemplates mailTemplates;
 
     /**
      * Handle judge assigned event.
      */
-    @RabbitListener(queues = RabbitMQConfig.JUDGE_ASSIGNED_QUEUE)
-    public void handleJudgeAssigned(JudgeAssignedMessage message) {
-        String subject = "🎖️ Judge Assignment Notification – " + message.getCompetitionName();
-        String judgeCompetitionUrl = frontendProperties.buildJudgeCompetitionPageUrl(message.getJudgeEmail());
-
-        String content = String.format("""
-                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                  <p>Hi <b>%s</b>,</p>
-
-                  <p>Congratulations! You have been assigned as a <b>Judge</b> for the competition <b>%s</b>.</p>
-
-                  <hr>
-
-                  <p><b>📅 Assigned at:</b> %s</p>
-
-                  <p>You can view your assigned competitions here:<br>
-                  👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your judging competitions</a></p>
-
-                  <hr>
-
-                  <p style="font-size:12px;color:gray;">
-                    This is an automated message from the <b>Danish Competition Platform</b>.
-                  </p>
-                </div>
-                """,
-                message.getJudgeName(),
-                message.getCompetitionName(),
-                message.getAssignedAt().format(FORMATTER),
-                judgeCompetitionUrl
-        );
+    @RabbitListener(queues = RabbitMQConfig.JUDGE_ASSIGNED_QUEUE, containerFactory = RabbitListenerConfig.BULK_MAIL_CONTAINER_FACTORY)
+    public void handleJudgeAssigned(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.JUDGE_ASSIGNED_QUEUE, messages, JudgeAssignedMessage.class, this::judgeAssignedMail);
+    }
 
-        emailService.send(message.getJudgeEmail(), subject, content);
+    private OutgoingMail judgeAssignedMail(JudgeAssignedMessage message) {
+        String subject = "🎖️ Judge Assignment Notification – " + message.getCompetitionName();
+        return mailTemplates.mail(message.getJudgeEmail(), subject, Template.JUDGE_ASSIGNED, MailTemplates.model(
+                "name", message.getJudgeName(),
+                "competitionName", message.getCompetitionName(),
+                "assignedAt", message.getAssignedAt(),
+                "judgingUrl", frontendProperties.buildJudgeCompetitionPageUrl(message.getJudgeEmail())
+        ));
     }
 
     /**
      * Handle judge removed event.
      */
-    @RabbitListener(queues = RabbitMQConfig.JUDGE_REMOVED_QUEUE)
-    public void handleJudgeRemoved(JudgeRemovedMessage message) {
-        String subject = "❌ Judge Removal Notification – " + message.getCompetitionName();
-        String judgeCompetitionUrl = frontendProperties.buildJudgeCompetitionPageUrl(message.getJudgeEmail());
-
-        String content = String.format("""
-                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                  <p>Hi <b>%s</b>,</p>
-
-                  <p>You have been <b>removed</b> from the Judges list for the competition <b>%s</b>.</p>
-
-                  <hr>
-
-                  <p><b>📅 Removed at:</b> %s</p>
-
-                  <p>You can view your other assigned competitions here:<br>
-                  👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your judging competitions</a></p>
-
-                  <hr>
-
-                  <p style="font-size:12px;color:gray;">
-                    This is an automated message from the <b>Danish Competition Platform</b>.
-                  </p>
-                </div>
-                """,
-                message.getJudgeName(),
-                message.getCompetitionName(),
-                message.getRemovedAt().format(FORMATTER),
-                judgeCompetitionUrl
-        );
+    @RabbitListener(queues = RabbitMQConfig.JUDGE_REMOVED_QUEUE, containerFactory = RabbitListenerConfig.MAIL_CONTAINER_FACTORY)
+    public void handleJudgeRemoved(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.JUDGE_REMOVED_QUEUE, messages, JudgeRemovedMessage.class, this::judgeRemovedMail);
+    }
 
-        emailService.send(message.getJudgeEmail(), subject, content);
+    private OutgoingMail judgeRemovedMail(JudgeRemovedMessage message) {
+        String subject = "❌ Judge Removal Notification – " + message.getCompetitionName();
+        return mailTemplates.mail(message.getJudgeEmail(), subject, Template.JUDGE_REMOVED, MailTemplates.model(
+                "name", message.getJudgeName(),
+                "competitionName", message.getCompetitionName(),
+                "removedAt", message.getRemovedAt(),
+                "judgingUrl", frontendProperties.buildJudgeCompetitionPageUrl(message.getJudgeEmail())
+        ));
     }
 }
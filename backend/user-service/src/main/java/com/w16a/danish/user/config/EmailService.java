@@ -1,12 +1,19 @@
 package com.w16a.danish.user.config;
 
-import jakarta.mail.internet.MimeMessage;
+import com.w16a.danish.user.mail.MailDeliveryEngine;
+import com.w16a.danish.user.mail.NotificationDigest;
+import com.w16a.danish.user.mail.NotificationPriority;
+import com.w16a.danish.user.mail.OutgoingMail;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.messaging.MessagingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 /**
  *
  * EmailService
@@ -14,24 +21,47 @@ import org.springframework.stereotype.Service;
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    public void send(String to, String subject, String htmlContent) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    private final MailDeliveryEngine mailDeliveryEngine;
+    private final NotificationDigest notificationDigest;
 
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
+    /**
+     * Sends a batch of notification emails over pooled SMTP connections and waits for them.
+     * Digestible mails are held back for the recipient's digest instead when digests are on.
+     *
+     * @param priority the batch waits for a connection behind mails of higher priority only
+     * @return the mails still undelivered after their attempts, for the caller to retry later
+     */
+    public List<OutgoingMail> send(List<OutgoingMail> mails, NotificationPriority priority) {
+        List<OutgoingMail> sendNow = notificationDigest.hold(mails);
+        return sendNow.isEmpty() ? List.of() : mailDeliveryEngine.deliver(sendNow, priority);
+    }
 
-            mailSender.send(message);
-        } catch (MessagingException | jakarta.mail.MessagingException e) {
-            throw new RuntimeException("Failed to send email", e);
+    /**
+     * Sends the digests whose window has passed. Each is removed only once delivered; an
+     * undelivered one comes due again later.
+     */
+    @Scheduled(fixedDelayString = "#{@mailDeliveryProperties.digest.pollInterval.toMillis()}")
+    public void sendDueDigests() {
+        try {
+            for (List<NotificationDigest.Due> due = notificationDigest.takeDue(); !due.isEmpty(); due = notificationDigest.takeDue()) {
+                Set<OutgoingMail> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+                failed.addAll(mailDeliveryEngine.deliver(due.stream().map(NotificationDigest.Due::mail).toList(),
+                        NotificationPriority.BULK));
+                for (NotificationDigest.Due digest : due) {
+                    if (failed.contains(digest.mail())) {
+                        notificationDigest.failed(digest);
+                    } else {
+                        notificationDigest.sent(digest);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("[Mail] Cannot read due digests, retrying next poll: {}", e.getMessage());
         }
     }
 }
@@ -0,0 +1,44 @@
+package com.w16a.danish.user.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ *
+ * Mail delivery Configuration Class
+ *
+ * @author Eddy ZHANG
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MailDeliveryConfig {
+
+    private final MailDeliveryProperties mailDeliveryProperties;
+
+    /**
+     *
+     * One thread per pooled SMTP connection. Waiting mails are queued by priority, see
+     * {@link com.w16a.danish.user.mail.MailDeliveryEngine}; the queue holds at most the batches
+     * the listeners have in hand, so it is not bounded further.
+     * @return {@link ThreadPoolTaskExecutor }
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailDeliveryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return new PriorityBlockingQueue<>(queueCapacity);
+            }
+        };
+        executor.setCorePoolSize(mailDeliveryProperties.getConnections());
+        executor.setMaxPoolSize(mailDeliveryProperties.getConnections());
+        executor.setQueueCapacity(mailDeliveryProperties.getBatchSize());
+        executor.setThreadNamePrefix("mail-delivery-");
+        return executor;
+    }
+}
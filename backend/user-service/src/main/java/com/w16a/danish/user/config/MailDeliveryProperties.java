@@ -0,0 +1,93 @@
+package com.w16a.danish.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Delivery of notification emails over pooled SMTP connections.
+ * The server itself is configured under {@code spring.mail}.
+ *
+ * @author Eddy ZHANG
+ */
+@Configuration
+@ConfigurationProperties(prefix = "mail-delivery")
+@Data
+public class MailDeliveryProperties {
+
+    /** SMTP connections kept open, which is also the number of mails sent in parallel. */
+    private int connections = 4;
+    /** Mails sent over one connection before it is replaced; servers cap messages per session. */
+    private int maxMessagesPerConnection = 100;
+    /** A connection idle for longer is reopened rather than reused, as the server may have dropped it. */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    /** Mails per second to any one recipient domain; 0 means unlimited. */
+    private double perDomainRate = 5;
+    /** Attempts per mail; each retry goes out over a fresh connection. */
+    private int maxAttempts = 2;
+    /** Most notification events taken off a queue and mailed together. */
+    private int batchSize = 50;
+    /**
+     * How long a delivered event's message id is remembered, so a repeat the outbox relay
+     * publishes again is not mailed twice. Must outlast the relay's longest retry.
+     */
+    private Duration dedupTtl = Duration.ofHours(24);
+    private Consumers consumers = new Consumers();
+    private Digest digest = new Digest();
+    private Retry retry = new Retry();
+
+    /**
+     * Listener consumers per {@link com.w16a.danish.user.mail.NotificationPriority}; each class has
+     * its own, so a busy class does not keep the others waiting for a consumer.
+     */
+    @Data
+    public static class Consumers {
+
+        /** Account mail is taken one event at a time, never waiting for a batch to fill. */
+        private int high = 2;
+        private int normal = 1;
+        private int bulk = 1;
+    }
+
+    /**
+     * Folding a recipient's digestible notifications into one mail per window, see
+     * {@link com.w16a.danish.user.mail.NotificationDigest}.
+     */
+    @Data
+    public static class Digest {
+
+        private boolean enabled = false;
+        /** How long the first notification to a recipient waits for others to join it. */
+        private Duration window = Duration.ofMinutes(10);
+        /** A digest holding this many notifications goes out without waiting for its window to end. */
+        private int maxItems = 20;
+        /** How often due digests are looked for. */
+        private Duration pollInterval = Duration.ofSeconds(30);
+        /**
+         * How long a claimed digest is kept from other senders; one not delivered by then, or
+         * whose send failed, goes out again. Must outlast a send.
+         */
+        private Duration retryDelay = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Notification events whose mail was not delivered go back to their queue through
+     * {@link RabbitMQConfig#retryQueue} TTL queues, then park on {@link RabbitMQConfig#deadQueue}.
+     * The TTLs are queue arguments: after changing these, delete the old retry queues.
+     */
+    @Data
+    public static class Retry {
+
+        /** Redeliveries of an event before it is parked. */
+        private int attempts = 3;
+        /** Wait before the first redelivery; doubles for each one after. */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+        /**
+         * Wait before the listener tries a batch it failed on as a whole once more, in place,
+         * before sending its events to the retry queues.
+         */
+        private Duration batchBackoff = Duration.ofSeconds(1);
+    }
+}
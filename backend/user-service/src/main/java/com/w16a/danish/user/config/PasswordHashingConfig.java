@@ -0,0 +1,35 @@
+package com.w16a.danish.user.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ *
+ * Password hashing Configuration Class
+ *
+ * @author Eddy ZHANG
+ */
+@Configuration
+@RequiredArgsConstructor
+public class PasswordHashingConfig {
+
+    private final PasswordHashingProperties passwordHashingProperties;
+
+    /**
+     *
+     * A fixed number of threads for BCrypt, so that a burst of logins cannot occupy every request
+     * thread. A full queue rejects the hash rather than running it on the caller.
+     * @return {@link ThreadPoolTaskExecutor }
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(passwordHashingProperties.getThreads());
+        executor.setMaxPoolSize(passwordHashingProperties.getThreads());
+        executor.setQueueCapacity(passwordHashingProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.w16a.danish.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * BCrypt hashing of passwords, run on its own bounded executor rather than on request threads.
+ * See {@link com.w16a.danish.user.util.PasswordUtil}.
+ *
+ * @author Eddy ZHANG
+ */
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+@Data
+public class PasswordHashingProperties {
+
+    /** Hashes computed at once; BCrypt is CPU-bound, so more threads than cores only adds waiting. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /** Hashes allowed to wait for a thread; past that a request is refused with 429. */
+    private int queueCapacity = 64;
+    /** BCrypt cost, 4 to 31; the same on every instance unless {@code calibrate} is on. */
+    private int cost = 10;
+    /**
+     * Pick the cost at startup instead: the highest that hashes within {@code target-latency} on
+     * this machine. Only for fleets on identical hardware, or costs differ between instances.
+     */
+    private boolean calibrate = false;
+    /** What one hash should take on this hardware when the cost is picked. */
+    private Duration targetLatency = Duration.ofMillis(250);
+    /** Bounds for the picked cost: never weaker than the minimum, however slow the machine. */
+    private int minCost = 10;
+    private int maxCost = 14;
+}
@@ -1,9 +1,17 @@
 package com.w16a.danish.user.config;
 
+import com.w16a.danish.user.mail.NotificationConsumer;
+import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
 
 /**
  *
@@ -14,10 +22,91 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @EnableRabbit
+@RequiredArgsConstructor
 public class RabbitListenerConfig {
 
+    /** Account mail, {@link com.w16a.danish.user.mail.NotificationPriority#HIGH}. */
+    public static final String HIGH_PRIORITY_CONTAINER_FACTORY = "highPriorityMailContainerFactory";
+    /** Mail for single user actions, {@link com.w16a.danish.user.mail.NotificationPriority#NORMAL}. */
+    public static final String MAIL_CONTAINER_FACTORY = "mailBatchContainerFactory";
+    /** Competition-wide fan-outs, {@link com.w16a.danish.user.mail.NotificationPriority#BULK}. */
+    public static final String BULK_MAIL_CONTAINER_FACTORY = "bulkMailContainerFactory";
+
+    /** Deliveries of a batch before it is handed to {@link NotificationConsumer#recover}. */
+    public static final int BATCH_ATTEMPTS = 2;
+
+    private final MailDeliveryProperties mailDeliveryProperties;
+    private final NotificationConsumer notificationConsumer;
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    /**
+     * Hands each account mail event over as soon as it arrives: a one-event batch never waits
+     * for more to fill it. {@code mail-delivery.consumers.high} of them are mailed at once.
+     */
+    @Bean(HIGH_PRIORITY_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory highPriorityMailContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${spring.rabbitmq.listener.simple.auto-startup:true}") boolean autoStartup) {
+        return batchContainerFactory(connectionFactory, autoStartup, 1, mailDeliveryProperties.getConsumers().getHigh());
+    }
+
+    /**
+     * Hands the notification listeners up to {@code mail-delivery.batch-size} events at a time,
+     * so a fan-out is mailed in parallel rather than one SMTP round trip after another. Follows
+     * {@code spring.rabbitmq.listener.simple.auto-startup}.
+     */
+    @Bean(MAIL_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory mailBatchContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${spring.rabbitmq.listener.simple.auto-startup:true}") boolean autoStartup) {
+        return batchContainerFactory(connectionFactory, autoStartup,
+                mailDeliveryProperties.getBatchSize(), mailDeliveryProperties.getConsumers().getNormal());
+    }
+
+    /**
+     * Like {@link #mailBatchContainerFactory}, with consumers of its own so that a fan-out in
+     * progress leaves the other queues theirs.
+     */
+    @Bean(BULK_MAIL_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory bulkMailContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${spring.rabbitmq.listener.simple.auto-startup:true}") boolean autoStartup) {
+        return batchContainerFactory(connectionFactory, autoStartup,
+                mailDeliveryProperties.getBatchSize(), mailDeliveryProperties.getConsumers().getBulk());
+    }
+
+    private SimpleRabbitListenerContainerFactory batchContainerFactory(ConnectionFactory connectionFactory,
+                                                                      boolean autoStartup, int batchSize, int consumers) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setConcurrentConsumers(consumers);
+        factory.setAutoStartup(autoStartup);
+        factory.setDefaultRequeueRejected(false);
+        factory.setAdviceChain(batchRetryInterceptor());
+        return factory;
+    }
+
+    /**
+     * Tries a batch the listener threw on once more, then hands it to
+     * {@link NotificationConsumer#recover}. The container itself never requeues a rejected batch:
+     * the notification queues have no dead-letter exchange, so a batch that always fails would
+     * come straight back, forever.
+     */
+    public RetryOperationsInterceptor batchRetryInterceptor() {
+        long backoff = mailDeliveryProperties.getRetry().getBatchBackoff().toMillis();
+        return RetryInterceptorBuilder.stateless()
+                .maxAttempts(BATCH_ATTEMPTS)
+                .backOffOptions(backoff, 1.0, backoff)
+                .recoverer((MessageBatchRecoverer) notificationConsumer::recover)
+                .build();
+    }
 }
@@ -1,15 +1,31 @@
 package com.w16a.danish.user.config;
 
+import com.w16a.danish.common.messaging.FileDeletionTopology;
+import com.w16a.danish.common.messaging.MessagingConstants;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * RabbitMQ configuration class for defining queues for user-service.
- * Including registration, submission, judge events, and award notifications.
+ * Including registration, submission, judge events, and award notifications,
+ * plus the exchange user-service publishes its own profile events to,
+ * and the file deletion queue.
+ *
+ * <p>The notification queues are also declared, without arguments, by the services publishing to
+ * them, so they carry no dead-letter settings of their own. Instead every one of them has retry
+ * queues that dead-letter back into it after a growing TTL, and a {@code .dead} queue; the
+ * listeners route failed events there themselves, see {@code NotificationConsumer}.
+ *
+ * <p>{@link #ACCOUNT_MAIL_QUEUE} is declared by user-service alone, so it can be a priority queue.
+ * Which listener pool serves each queue is set by {@code NotificationPriority}.
  *
  * @author Eddy
  * @date 2025/04/13
@@ -30,6 +46,24 @@ public class RabbitMQConfig {
     // === Judge Award Winner Events (New) ===
     public static final String AWARD_WINNER_QUEUE = "award_winner_queue";
 
+    // === Account Mail (published by user-service itself) ===
+    public static final String ACCOUNT_MAIL_QUEUE = "account_mail_queue";
+    /** {@code x-max-priority} of {@link #ACCOUNT_MAIL_QUEUE}; a password reset is sent at this priority. */
+    public static final int ACCOUNT_MAIL_MAX_PRIORITY = 10;
+
+    public static final List<String> NOTIFICATION_QUEUES = List.of(
+            REGISTER_SUCCESS_QUEUE, PARTICIPANT_REMOVED_QUEUE, SUBMISSION_UPLOADED_QUEUE, SUBMISSION_REVIEWED_QUEUE,
+            JUDGE_ASSIGNED_QUEUE, JUDGE_REMOVED_QUEUE, AWARD_WINNER_QUEUE, ACCOUNT_MAIL_QUEUE);
+
+    // === User Profile Events (published by user-service) ===
+    public static final String USER_EXCHANGE_NAME = MessagingConstants.USER_EXCHANGE;
+    public static final String USER_PROFILE_UPDATED_ROUTING_KEY = MessagingConstants.ROUTING_USER_PROFILE_UPDATED;
+
+    @Bean
+    public TopicExchange userExchange() {
+        return ExchangeBuilder.topicExchange(USER_EXCHANGE_NAME).durable(true).build();
+    }
+
     // === Queues ===
     @Bean
     public Queue registerSuccessQueue() {
@@ -66,12 +100,66 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(AWARD_WINNER_QUEUE).build();
     }
 
+    @Bean
+    public Queue accountMailQueue() {
+        return QueueBuilder.durable(ACCOUNT_MAIL_QUEUE).maxPriority(ACCOUNT_MAIL_MAX_PRIORITY).build();
+    }
+
+    // === Notification Retries and Dead Letters ===
+
+    /**
+     * Where an event waits before its {@code attempt}-th redelivery to {@code queue}.
+     */
+    public static String retryQueue(String queue, int attempt) {
+        return queue + ".retry." + attempt;
+    }
+
+    /**
+     * Where events of {@code queue} are parked once they cannot be mailed.
+     */
+    public static String deadQueue(String queue) {
+        return queue + ".dead";
+    }
+
+    @Bean
+    public Declarables notificationRetryDeclarables(MailDeliveryProperties mailDeliveryProperties) {
+        MailDeliveryProperties.Retry retry = mailDeliveryProperties.getRetry();
+        List<Declarable> queues = new ArrayList<>();
+        for (String queue : NOTIFICATION_QUEUES) {
+            long ttl = retry.getInitialBackoff().toMillis();
+            for (int attempt = 1; attempt <= retry.getAttempts(); attempt++, ttl *= 2) {
+                queues.add(QueueBuilder.durable(retryQueue(queue, attempt))
+                        .ttl((int) ttl)
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+            queues.add(QueueBuilder.durable(deadQueue(queue)).build());
+        }
+        return new Declarables(queues);
+    }
+
+    // === File Deletions (consumed by file-service) ===
+    @Bean
+    public Declarables fileDeletionDeclarables() {
+        return FileDeletionTopology.declarables();
+    }
+
     // === Common JSON Converter and RabbitTemplate ===
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
 
+    /**
+     * Declares the exchanges and queues above once connected, and reports the queue depths
+     * behind the notification gauges.
+     */
+    @Bean
+    public AmqpAdmin amqpAdmin(ConnectionFactory connectionFactory) {
+        return new RabbitAdmin(connectionFactory);
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
@@ -4,15 +4,22 @@ import com.w16a.danish.user.domain.mq.ParticipantRemovedMessage;
 import com.w16a.danish.user.domain.mq.RegisterSuccessMessage;
 import com.w16a.danish.user.domain.mq.SubmissionReviewedMessage;
 import com.w16a.danish.user.domain.mq.SubmissionUploadedMessage;
+import com.w16a.danish.user.mail.MailTemplates;
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import com.w16a.danish.user.mail.NotificationConsumer;
+import com.w16a.danish.user.mail.NotificationRecipients;
+import com.w16a.danish.user.mail.OutgoingMail;
 import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  *
  * This class listens for registration events and sends email notifications.
+ * The events name their recipients by id, looked up by {@link NotificationRecipients}.
  *
  * @author Eddy ZHANG
  * @date 2025/04/13
@@ -22,154 +29,73 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class RegistrationEventListener {
 
-    private final EmailService emailService;
+    private final NotificationConsumer notificationConsumer;
     private final FrontendProperties frontendProperties;
+    private final MailTemplates mailTemplates;
+    private final NotificationRecipients notificationRecipients;
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    @RabbitListener(queues = RabbitMQConfig.REGISTER_SUCCESS_QUEUE, containerFactory = RabbitListenerConfig.MAIL_CONTAINER_FACTORY)
+    public void handleRegisterSuccess(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.REGISTER_SUCCESS_QUEUE, messages, RegisterSuccessMessage.class, notificationRecipients::resolve, this::registerSuccessMail);
+    }
 
-    @RabbitListener(queues = RabbitMQConfig.REGISTER_SUCCESS_QUEUE)
-    public void handleRegisterSuccess(RegisterSuccessMessage message) {
+    private OutgoingMail registerSuccessMail(RegisterSuccessMessage message) {
         String subject = "✅ Registration Submitted – " + message.getCompetitionName();
+        return mailTemplates.mail(message.getUserEmail(), subject, Template.REGISTER_SUCCESS, MailTemplates.model(
+                "name", message.getUserName(),
+                "competitionName", message.getCompetitionName(),
+                "registeredAt", message.getRegisterTime(),
+                "competitionUrl", frontendProperties.buildCompetitionPageUrl(message.getUserEmail())
+        ));
+    }
 
-        String competitionUrl = frontendProperties.buildCompetitionPageUrl(message.getUserEmail());
-
-        String content = String.format("""
-                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                  <p>Hi <b>%s</b>,</p>
-
-                  <p>Your registration for <b>%s</b> has been <span style="color:green;font-weight:bold;">successfully submitted</span>.</p>
-
-                  <hr>
-
-                  <p><b>👤 Name:</b> %s<br>
-                     <b>📅 Time:</b> %s</p>
-
-                  <p>You can view your competitions here:<br>
-                  👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
-
-                  <hr>
-
-                  <p style="font-size:12px;color:gray;">
-                    This is an automated message from the <b>Danish Competition Platform</b>.
-                  </p>
-                </div>
-                """,
-                message.getUserName(),
-                message.getCompetitionName(),
-                message.getUserName(),
-                message.getRegisterTime().format(FORMATTER),
-                competitionUrl
-        );
-
-        emailService.send(message.getUserEmail(), subject, content);
+    @RabbitListener(queues = RabbitMQConfig.PARTICIPANT_REMOVED_QUEUE, containerFactory = RabbitListenerConfig.MAIL_CONTAINER_FACTORY)
+    public void handleParticipantRemoved(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.PARTICIPANT_REMOVED_QUEUE, messages, ParticipantRemovedMessage.class, notificationRecipients::resolve, this::participantRemovedMail);
     }
 
-    @RabbitListener(queues = RabbitMQConfig.PARTICIPANT_REMOVED_QUEUE)
-    public void handleParticipantRemoved(ParticipantRemovedMessage message) {
+    private OutgoingMail participantRemovedMail(ParticipantRemovedMessage message) {
         String subject = "❌ Registration Cancelled – " + message.getCompetitionName();
+        return mailTemplates.mail(message.getUserEmail(), subject, Template.PARTICIPANT_REMOVED, MailTemplates.model(
+                "name", message.getUserName(),
+                "competitionName", message.getCompetitionName(),
+                "removedBy", message.getRemovedBy(),
+                "removedAt", message.getRemovedAt()
+        ));
+    }
 
-        String content = String.format("""
-                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                  <p>Hi <b>%s</b>,</p>
-
-                  <p>Your registration for <b>%s</b> has been <span style="color:red;font-weight:bold;">cancelled</span> by <b>%s</b>.</p>
-
-                  <hr>
-
-                  <p><b>❌ Cancelled at:</b> %s</p>
-
-                  <p>If this was unexpected, please contact the competition organizer.</p>
-
-                  <hr>
-
-                  <p style="font-size:12px;color:gray;">
-                    This is an automated message from the <b>Danish Competition Platform</b>.
-                  </p>
-                </div>
-                """,
-                message.getUserName(),
-                message.getCompetitionName(),
-                message.getRemovedBy(),
-                message.getRemovedAt().format(FORMATTER)
-        );
-
-        emailService.send(message.getUserEmail(), subject, content);
+    @RabbitListener(queues = RabbitMQConfig.SUBMISSION_UPLOADED_QUEUE, containerFactory = RabbitListenerConfig.MAIL_CONTAINER_FACTORY)
+    public void handleSubmissionUploaded(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.SUBMISSION_UPLOADED_QUEUE, messages, SubmissionUploadedMessage.class, notificationRecipients::resolve, this::submissionUploadedMail);
     }
 
-    @RabbitListener(queues = RabbitMQConfig.SUBMISSION_UPLOADED_QUEUE)
-    public void handleSubmissionUploaded(SubmissionUploadedMessage message) {
+    private OutgoingMail submissionUploadedMail(SubmissionUploadedMessage message) {
         String subject = "📤 Submission Uploaded – " + message.getCompetitionName();
-        String competitionUrl = frontendProperties.buildCompetitionPageUrl(message.getUserEmail());
-
-        String content = String.format("""
-                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                  <p>Hi <b>%s</b>,</p>
-
-                  <p>Your submission titled <b>%s</b> for <b>%s</b> has been <span style="color:green;font-weight:bold;">successfully uploaded</span>.</p>
-
-                  <hr>
-
-                  <p><b>📅 Submitted at:</b> %s</p>
-
-                  <p>You can view your competitions here:<br>
-                  👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
-
-                  <hr>
-
-                  <p style="font-size:12px;color:gray;">
-                    This is an automated message from the <b>Danish Competition Platform</b>.
-                  </p>
-                </div>
-                """,
-                message.getUserName(),
-                message.getTitle(),
-                message.getCompetitionName(),
-                message.getSubmittedAt().format(FORMATTER),
-                competitionUrl
-        );
+        return mailTemplates.mail(message.getUserEmail(), subject, Template.SUBMISSION_UPLOADED, MailTemplates.model(
+                "name", message.getUserName(),
+                "title", message.getTitle(),
+                "competitionName", message.getCompetitionName(),
+                "submittedAt", message.getSubmittedAt(),
+                "competitionUrl", frontendProperties.buildCompetitionPageUrl(message.getUserEmail())
+        ));
+    }
 
-        emailService.send(message.getUserEmail(), subject, content);
+    @RabbitListener(queues = RabbitMQConfig.SUBMISSION_REVIEWED_QUEUE, containerFactory = RabbitListenerConfig.MAIL_CONTAINER_FACTORY)
+    public void handleSubmissionReviewed(List<Message> messages) {
+        notificationConsumer.consume(RabbitMQConfig.SUBMISSION_REVIEWED_QUEUE, messages, SubmissionReviewedMessage.class, notificationRecipients::resolve, this::submissionReviewedMail);
     }
 
-    @RabbitListener(queues = RabbitMQConfig.SUBMISSION_REVIEWED_QUEUE)
-    public void handleSubmissionReviewed(SubmissionReviewedMessage message) {
+    private OutgoingMail submissionReviewedMail(SubmissionReviewedMessage message) {
         String subject = "📋 Submission Reviewed – " + message.getCompetitionName();
-        String competitionUrl = frontendProperties.buildCompetitionPageUrl(message.getUserEmail());
-
-        String content = String.format("""
-                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-                  <p>Hi <b>%s</b>,</p>
-
-                  <p>Your submission titled <b>%s</b> for <b>%s</b> has been reviewed.</p>
-
-                  <p><b>Status:</b> <span style="font-weight:bold;color:%s;">%s</span></p>
-
-                  <p><b>📋 Review Comments:</b> %s</p>
-
-                  <hr>
-
-                  <p><b>📅 Reviewed at:</b> %s</p>
-
-                  <p>You can view your competitions here:<br>
-                  👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
-
-                  <hr>
-
-                  <p style="font-size:12px;color:gray;">
-                    This is an automated message from the <b>Danish Competition Platform</b>.
-                  </p>
-                </div>
-                """,
-                message.getUserName(),
-                message.getTitle(),
-                message.getCompetitionName(),
-                "APPROVED".equalsIgnoreCase(message.getReviewStatus()) ? "green" : "red",
-                message.getReviewStatus(),
-                message.getReviewComments(),
-                message.getReviewedAt().format(FORMATTER),
-                competitionUrl
-        );
-
-        emailService.send(message.getUserEmail(), subject, content);
+        return mailTemplates.mail(message.getUserEmail(), subject, Template.SUBMISSION_REVIEWED, MailTemplates.model(
+                "name", message.getUserName(),
+                "title", message.getTitle(),
+                "competitionName", message.getCompetitionName(),
+                "statusColor", "APPROVED".equalsIgnoreCase(message.getReviewStatus()) ? "green" : "red",
+                "reviewStatus", message.getReviewStatus(),
+                "reviewComments", message.getReviewComments(),
+                "reviewedAt", message.getReviewedAt(),
+                "competitionUrl", frontendProperties.buildCompetitionPageUrl(message.getUserEmail())
+        ));
     }
 }
@@ -4,6 +4,7 @@ import com.w16a.danish.common.web.ApiResponses;
 
 import com.w16a.danish.common.context.CurrentUser;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.user.domain.dto.TeamCreateDTO;
@@ -262,6 +263,19 @@ public class TeamController {
         return ResponseEntity.ok(teamService.getTeamBriefByIds(teamIds));
     }
 
+    @Operation(
+            summary = "Page brief info within a set of teams",
+            description = "Returns one page of team brief info drawn from the given team IDs, filtered by an optional keyword "
+                    + "(name or description) and sorted by teamName or createdAt. Public endpoint.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One page of team brief info")
+            }
+    )
+    @PostMapping("/public/brief/page")
+    public ResponseEntity<PageResponse<TeamInfoVO>> pageTeamBriefsByIds(@RequestBody TeamPageQueryDTO query) {
+        return ResponseEntity.ok(teamService.pageTeamBriefsByIds(query));
+    }
+
     @Operation(
             summary = "Check if a user is a member of a team",
             description = "Returns true if the user has joined the specified team. Useful for permission checks."
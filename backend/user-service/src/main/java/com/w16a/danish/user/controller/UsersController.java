@@ -5,14 +5,18 @@ import com.w16a.danish.common.web.ApiResponses;
 import cn.hutool.core.util.StrUtil;
 import com.w16a.danish.common.context.CurrentUser;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.user.config.FrontendProperties;
 import com.w16a.danish.user.config.GithubOAuthProperties;
 import com.w16a.danish.user.config.GoogleOAuthProperties;
 import com.w16a.danish.user.domain.dto.*;
 import com.w16a.danish.user.domain.vo.*;
-import com.w16a.danish.user.feign.FileServiceClient;
+import com.w16a.danish.user.mail.NotificationDeadLetters;
 import com.w16a.danish.user.service.IUsersService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -55,7 +59,9 @@ public class UsersController {
     private final GithubOAuthProperties githubOAuthProperties;
     private final GoogleOAuthProperties googleOAuthProperties;
     private final FrontendProperties frontendProperties;
-    private final FileServiceClient fileServiceClient;
+    private final FileDeletionQueue fileDeletionQueue;
+    private final StreamingMultipartClient streamingMultipartClient;
+    private final NotificationDeadLetters notificationDeadLetters;
 
     @Operation(
             summary = "Register a new user",
@@ -232,19 +238,13 @@ public class UsersController {
     public ResponseEntity<UserProfileVO> uploadAndSetAvatar(
             @CurrentUser RequestContext ctx,
             @RequestParam("file") MultipartFile file) {
-        String avatarUrl = fileServiceClient.uploadAvatar(file).getBody();
+        String avatarUrl = streamingMultipartClient.upload("file-service", "/files/upload/avatar", file);
         UserProfileVO currentProfile = userService.getUserProfile(ctx.userId());
         String oldAvatarUrl = currentProfile.getAvatarUrl();
-        if (StrUtil.isNotBlank(oldAvatarUrl)) {
-            URI uri = URI.create(oldAvatarUrl);
-            String[] parts = uri.getPath().substring(1).split("/", 2);
-            if (parts.length == 2) {
-                fileServiceClient.deleteFile(parts[0], parts[1]);
-            }
-        }
         UpdateUserDTO dto = new UpdateUserDTO();
         dto.setAvatarUrl(avatarUrl);
         UserProfileVO updated = userService.updateUserProfile(ctx.userId(), dto);
+        fileDeletionQueue.enqueueReplaced(oldAvatarUrl, avatarUrl);
         return ResponseEntity.ok(updated);
     }
 
@@ -461,6 +461,24 @@ public class UsersController {
         return ResponseEntity.ok(users);
     }
 
+    @Operation(
+            summary = "Page users within a set of IDs",
+            description = "Returns one page of user brief info drawn from the given user IDs, filtered by optional role "
+                    + "and keyword (name or email) and sorted by name or email. Any other sortBy keeps the order of the IDs "
+                    + "as supplied, for callers that sort by a key they own. Internal endpoint.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = UserPageQueryDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One page of users")
+            }
+    )
+    @PostMapping("/query-by-ids/page")
+    public ResponseEntity<PageResponse<UserBriefVO>> pageUsersByIds(@RequestBody UserPageQueryDTO query) {
+        return ResponseEntity.ok(userService.pageUserBriefsByIds(query));
+    }
+
     @Operation(
             summary = "Get basic user information by user ID",
             description = "Returns user brief info including name, email, avatar, and description.",
@@ -539,5 +557,58 @@ public class UsersController {
         return ResponseEntity.ok(users);
     }
 
-}
+    @Operation(
+            summary = "Admin: Scroll all users with filters",
+            description = "Keyset-paginated counterpart of /admin/list, ordered by creation time. "
+                    + "Pass the returned nextCursor to fetch the following page; deep pages cost the same as the first.",
+            parameters = {
+                    @Parameter(name = "role", description = "Optional role filter (e.g., PARTICIPANT, ORGANIZER, JUDGE, ADMIN)", required = false),
+                    @Parameter(name = "keyword", description = "Optional keyword to search by name or email", required = false),
+                    @Parameter(name = "cursor", description = "Cursor from the previous page; omit for the first page"),
+                    @Parameter(name = "size", description = "Page size (default: 10)", example = "10"),
+                    @Parameter(name = "order", description = "Sorting order by creation time: asc or desc", example = "desc"),
+                    @Parameter(name = "withTotal", description = "Also count all matching users (default: false)")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One page of users", content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden: Only ADMINs can access this endpoint")
+            }
+    )
+    @GetMapping("/admin/list/cursor")
+    public ResponseEntity<CursorPageResponse<AdminUserVO>> scrollUsersAdmin(
+            @CurrentUser RequestContext ctx,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        return ResponseEntity.ok(userService.listUsersAdminByCursor(ctx, role, keyword, cursor, size, order, withTotal));
+    }
+
+    @Operation(
+            summary = "Replay parked notification events (Admin only)",
+            description = "Moves up to `limit` notification events that could not be mailed from `<queue>.dead` back onto "
+                    + "the notification queue, e.g. once the SMTP server works again. Returns how many were moved.",
+            parameters = {
+                    @Parameter(name = "queue", description = "Notification queue, e.g. register_success_queue", in = ParameterIn.PATH, required = true),
+                    @Parameter(name = "limit", description = "Most events to move (default 100)")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Events moved back"),
+                    @ApiResponse(responseCode = "400", description = "Unknown queue or non-positive limit"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden: Only ADMINs can access this endpoint")
+            }
+    )
+    @PostMapping("/admin/notifications/{queue}/replay")
+    public ResponseEntity<com.w16a.danish.common.domain.vo.ApiResponse<Integer>> replayDeadNotifications(
+            @CurrentUser RequestContext ctx,
+            @PathVariable String queue,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ApiResponses.ok(notificationDeadLetters.replay(ctx, queue, limit));
+    }
 
+}
@@ -0,0 +1,35 @@
+package com.w16a.danish.user.domain.mq;
+
+/**
+ * A notification event sent with user ids rather than names and emails, which
+ * {@link com.w16a.danish.user.mail.NotificationRecipients} fills in before the mail is rendered.
+ * Events published before the switch still carry the email and are mailed as they are.
+ *
+ * @author Eddy ZHANG
+ */
+public interface AddressedMessage {
+
+    /** The recipient; null when the event names a team instead. */
+    String getUserId();
+
+    void setUserId(String userId);
+
+    /** A team whose creator is the recipient, when {@link #getUserId()} is null. */
+    default String getTeamId() {
+        return null;
+    }
+
+    String getUserEmail();
+
+    void setUserEmail(String userEmail);
+
+    void setUserName(String userName);
+
+    /** The user who acted on the recipient's behalf, named in the mail. */
+    default String getActorId() {
+        return null;
+    }
+
+    default void setActorName(String actorName) {
+    }
+}
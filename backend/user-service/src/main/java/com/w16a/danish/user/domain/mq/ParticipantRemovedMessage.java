@@ -9,14 +9,30 @@ import java.time.LocalDateTime;
  *
  * This class represents a message that is sent when a participant is removed from a competition.
  *
+ * Recipients arrive as ids and are looked up by {@link com.w16a.danish.user.mail.NotificationRecipients};
+ * the name and email fields are filled in then, or were sent by an older publisher.
+ *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
-public class ParticipantRemovedMessage implements Serializable {
+public class ParticipantRemovedMessage implements Serializable, AddressedMessage {
+    private String userId;
+    private String teamId;
     private String userName;
     private String userEmail;
+    private String removedById;
     private String removedBy;
     private String competitionName;
     private LocalDateTime removedAt;
+
+    @Override
+    public String getActorId() {
+        return removedById;
+    }
+
+    @Override
+    public void setActorName(String actorName) {
+        this.removedBy = actorName;
+    }
 }
\ No newline at end of file
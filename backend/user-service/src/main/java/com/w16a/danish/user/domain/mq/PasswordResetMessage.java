@@ -0,0 +1,25 @@
+package com.w16a.danish.user.domain.mq;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ *
+ * This class represents a message queued when a user asks for a password reset link,
+ * mailed from the high-priority lane rather than the request thread.
+ *
+ * @author Eddy ZHANG
+ */
+@Data
+public class PasswordResetMessage implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String userName;
+    private String userEmail;
+    private String resetUrl;
+    private long validMinutes;
+}
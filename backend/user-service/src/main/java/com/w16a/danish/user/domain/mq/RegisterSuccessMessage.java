@@ -9,11 +9,15 @@ import java.time.LocalDateTime;
  *
  * This class represents a message that is sent when a user successfully registers for a competition.
  *
+ * Recipients arrive as ids and are looked up by {@link com.w16a.danish.user.mail.NotificationRecipients};
+ * the name and email fields are filled in then, or were sent by an older publisher.
+ *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
-public class RegisterSuccessMessage implements Serializable {
+public class RegisterSuccessMessage implements Serializable, AddressedMessage {
+    private String userId;
     private String userName;
     private String userEmail;
     private String competitionName;
@@ -9,17 +9,33 @@ import java.time.LocalDateTime;
  *
  * This class represents a message indicating that a submission has been reviewed.
  *
+ * Recipients arrive as ids and are looked up by {@link com.w16a.danish.user.mail.NotificationRecipients};
+ * the name and email fields are filled in then, or were sent by an older publisher.
+ *
  * @author Eddy ZHANG
  * @date 2025/04/13
  */
 @Data
-public class SubmissionReviewedMessage implements Serializable {
+public class SubmissionReviewedMessage implements Serializable, AddressedMessage {
+    private String userId;
+    private String teamId;
     private String userName;
     private String userEmail;
     private String competitionName;
     private String title;
     private String reviewStatus;
+    private String reviewerId;
     private String reviewedBy;
     private String reviewComments;
     private LocalDateTime reviewedAt;
+
+    @Override
+    public String getActorId() {
+        return reviewerId;
+    }
+
+    @Override
+    public void setActorName(String actorName) {
+        this.reviewedBy = actorName;
+    }
 }
@@ -0,0 +1,29 @@
+package com.w16a.danish.user.domain.mq;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+
+/**
+ *
+ * This class represents a message sent to the message queue when a user changes their name or avatar.
+ * Services that keep a copy of the author's name/avatar apply it only if {@code version} is newer than their copy.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/19
+ */
+@Data
+public class UserProfileUpdatedMessage implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+    private String name;
+    private String avatarUrl;
+    private Long version;
+    private LocalDateTime updatedAt;
+}
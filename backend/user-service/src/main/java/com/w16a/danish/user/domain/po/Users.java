@@ -46,6 +46,9 @@ public class Users implements Serializable {
     @Schema(description = "URL to the user's avatar image", example = "https://example.com/avatar.jpg", nullable = true)
     private String avatarUrl;
 
+    @Schema(description = "Profile version, bumped on every profile update", example = "3")
+    private Long profileVersion;
+
     @Schema(description = "Timestamp when the user was created", example = "2025-03-16T12:00:00")
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
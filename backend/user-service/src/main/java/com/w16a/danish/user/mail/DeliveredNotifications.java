@@ -0,0 +1,76 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Message ids of notification events whose mail went out, kept in Redis for
+ * {@code mail-delivery.dedup-ttl}. The outbox relay delivers at least once and stamps every event
+ * with a stable message id, so an event it publishes again is recognised here and not mailed twice.
+ *
+ * <p>An id is recorded only once its mail is delivered (or held for a digest), never when it is
+ * claimed: an event whose send failed, or whose instance died mid-send, must still go out when it
+ * comes back. If Redis cannot be reached, events count as new — a duplicate mail is better than a
+ * lost one.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeliveredNotifications {
+
+    static final String KEY = "mail:delivered:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MailDeliveryProperties properties;
+
+    /**
+     * @return those of {@code messageIds} already delivered
+     */
+    public Set<String> delivered(List<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            List<String> found = redisTemplate.opsForValue().multiGet(messageIds.stream().map(id -> KEY + id).toList());
+            Set<String> delivered = new HashSet<>();
+            for (int i = 0; found != null && i < messageIds.size(); i++) {
+                if (found.get(i) != null) {
+                    delivered.add(messageIds.get(i));
+                }
+            }
+            return delivered;
+        } catch (RuntimeException e) {
+            log.warn("[Mail] Could not check {} events for repeats, mailing them all: {}", messageIds.size(), e.toString());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Remembers events whose mail was delivered.
+     */
+    public void record(Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        Duration ttl = properties.getDedupTtl();
+        try {
+            for (String messageId : messageIds) {
+                redisTemplate.opsForValue().set(KEY + messageId, "1", ttl);
+            }
+        } catch (RuntimeException e) {
+            log.warn("[Mail] Could not record {} delivered events; a repeat of them would be mailed again: {}",
+                    messageIds.size(), e.toString());
+        }
+    }
+}
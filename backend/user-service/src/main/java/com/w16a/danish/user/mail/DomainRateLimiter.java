@@ -0,0 +1,40 @@
+package com.w16a.danish.user.mail;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spaces out mails to the same recipient domain, so a fan-out to hundreds of addresses at one
+ * provider is not throttled or flagged by it. Each domain hands out evenly spaced send slots; a
+ * caller whose slot is in the future sleeps until then. Different domains never wait on each
+ * other.
+ *
+ * @author Eddy ZHANG
+ */
+class DomainRateLimiter {
+
+    private final long intervalNanos;
+    private final Map<String, AtomicLong> nextSlot = new ConcurrentHashMap<>();
+
+    /**
+     * @param perSecond mails per second per domain; 0 or less disables limiting
+     */
+    DomainRateLimiter(double perSecond) {
+        this.intervalNanos = perSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / perSecond) : 0;
+    }
+
+    void acquire(String domain) throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        AtomicLong next = nextSlot.computeIfAbsent(domain, d -> new AtomicLong(now));
+        long slot = Math.max(now, next.getAndAccumulate(now, (previous, n) -> Math.max(previous, n) + intervalNanos));
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
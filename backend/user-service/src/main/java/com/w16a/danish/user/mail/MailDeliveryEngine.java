@@ -0,0 +1,142 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends notification emails in parallel over {@link SmtpTransportPool}.
+ *
+ * <p>Each mail of a batch is a task on {@code mailDeliveryExecutor}, which has one thread per
+ * pooled connection; {@link DomainRateLimiter} spaces out mails to the same recipient domain.
+ * A mail whose connection failed is retried over a fresh one up to
+ * {@code mail-delivery.max-attempts} times. Addresses the server rejects outright are not retried.
+ *
+ * <p>Mails waiting for a thread are taken by {@link NotificationPriority}, then in order: the
+ * executor's queue sorts {@link Delivery} tasks, so a password reset waits for the sends in
+ * progress at most, not for the rest of an award fan-out.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+public class MailDeliveryEngine {
+
+    private final SmtpTransportPool transportPool;
+    private final ThreadPoolTaskExecutor mailDeliveryExecutor;
+    private final MailDeliveryProperties properties;
+    private final DomainRateLimiter rateLimiter;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public MailDeliveryEngine(SmtpTransportPool transportPool, ThreadPoolTaskExecutor mailDeliveryExecutor,
+                              MailDeliveryProperties properties) {
+        this.transportPool = transportPool;
+        this.mailDeliveryExecutor = mailDeliveryExecutor;
+        this.properties = properties;
+        this.rateLimiter = new DomainRateLimiter(properties.getPerDomainRate());
+    }
+
+    /**
+     * Sends every mail and waits until each is delivered or given up on.
+     *
+     * @param priority mails of a higher priority are sent first when threads are short
+     * @return the mails that could not be delivered
+     */
+    public List<OutgoingMail> deliver(List<OutgoingMail> mails, NotificationPriority priority) {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(mails.size());
+        for (OutgoingMail mail : mails) {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            mailDeliveryExecutor.execute(new Delivery(priority, sequence.getAndIncrement(), () -> {
+                try {
+                    result.complete(deliver(mail));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }));
+            results.add(result);
+        }
+        List<OutgoingMail> failed = new ArrayList<>();
+        for (int i = 0; i < mails.size(); i++) {
+            if (!results.get(i).join()) {
+                failed.add(mails.get(i));
+            }
+        }
+        return failed;
+    }
+
+    private boolean deliver(OutgoingMail mail) {
+        MimeMessage message;
+        try {
+            message = message(mail);
+        } catch (MessagingException e) {
+            log.warn("[Mail] Cannot build mail to {}: {}", mail.to(), e.getMessage());
+            return false;
+        }
+        for (int attempt = 1; attempt <= properties.getMaxAttempts(); attempt++) {
+            SmtpTransportPool.PooledTransport transport = null;
+            boolean healthy = false;
+            try {
+                rateLimiter.acquire(mail.domain());
+                transport = transportPool.borrow();
+                transport.send(message);
+                healthy = true;
+                return true;
+            } catch (SendFailedException e) {
+                // The server refused the address; the connection itself is fine.
+                healthy = true;
+                log.warn("[Mail] Recipient {} rejected: {}", mail.to(), e.getMessage());
+                return false;
+            } catch (MessagingException e) {
+                log.warn("[Mail] Sending to {} failed (attempt {})", mail.to(), attempt, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                if (transport != null) {
+                    transportPool.release(transport, healthy);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One mail's send, ordered by priority and then by submission.
+     */
+    record Delivery(NotificationPriority priority, long sequence, Runnable send)
+            implements Runnable, Comparable<Delivery> {
+
+        @Override
+        public void run() {
+            send.run();
+        }
+
+        @Override
+        public int compareTo(Delivery other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private MimeMessage message(OutgoingMail mail) throws MessagingException {
+        MimeMessage message = new MimeMessage(transportPool.session());
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.htmlContent(), true);
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+}
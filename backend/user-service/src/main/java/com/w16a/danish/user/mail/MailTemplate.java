@@ -0,0 +1,138 @@
+package com.w16a.danish.user.mail;
+
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * An email template, parsed once into alternating literal text and variables so rendering is a
+ * straight run of appends.
+ *
+ * <p>Syntax: {@code {{name}}} writes the model value {@code name}, HTML-escaped (dates and times
+ * as {@code yyyy-MM-dd HH:mm}, a missing value as nothing); {@code {{{name}}}} writes it as is,
+ * for HTML the service rendered itself; {@code {{> fragment}}} pulls in another template's source
+ * at compile time, which is how the shared layout wraps each body.
+ *
+ * @author Eddy ZHANG
+ */
+public final class MailTemplate {
+
+    /** The one date format every notification uses. */
+    static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final Pattern VARIABLE = Pattern.compile("[A-Za-z][A-Za-z0-9]*");
+    private static final int MAX_INCLUDE_DEPTH = 8;
+
+    /** {@code literals.length == variables.length + 1}; rendering interleaves them. */
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] raw;
+
+    private MailTemplate(String[] literals, String[] variables, boolean[] raw) {
+        this.literals = literals;
+        this.variables = variables;
+        this.raw = raw;
+    }
+
+    /**
+     * @param fragments source of each {@code {{> name}}}, or null if there is no such fragment
+     * @throws IllegalArgumentException on a malformed tag, an unknown fragment or an include cycle
+     */
+    public static MailTemplate compile(String source, Function<String, String> fragments) {
+        String expanded = expand(source, fragments, 0);
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        int from = 0;
+        for (int open; (open = expanded.indexOf("{{", from)) >= 0; ) {
+            boolean unescaped = expanded.startsWith("{{{", open);
+            String end = unescaped ? "}}}" : "}}";
+            int close = expanded.indexOf(end, open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at offset " + open);
+            }
+            String name = expanded.substring(open + end.length(), close).trim();
+            if (!VARIABLE.matcher(name).matches()) {
+                throw new IllegalArgumentException("Bad variable name: " + name);
+            }
+            literals.add(expanded.substring(from, open));
+            variables.add(name);
+            raw.add(unescaped);
+            from = close + end.length();
+        }
+        literals.add(expanded.substring(from));
+        boolean[] rawFlags = new boolean[raw.size()];
+        for (int i = 0; i < rawFlags.length; i++) {
+            rawFlags[i] = raw.get(i);
+        }
+        return new MailTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new), rawFlags);
+    }
+
+    /**
+     * Appends the rendered template to {@code out}.
+     */
+    public void renderTo(StringBuilder out, Map<String, ?> model) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(variables[i]);
+            if (value == null) {
+                continue;
+            }
+            if (raw[i]) {
+                out.append(value);
+            } else if (value instanceof TemporalAccessor temporal) {
+                DATE_TIME.formatTo(temporal, out);
+            } else {
+                escape(value.toString(), out);
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+
+    /**
+     * @return the variable names the template reads, in order, repeats included
+     */
+    List<String> variables() {
+        return List.of(variables);
+    }
+
+    static void escape(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String expand(String source, Function<String, String> fragments, int depth) {
+        if (depth > MAX_INCLUDE_DEPTH) {
+            throw new IllegalArgumentException("Fragments nested too deeply, probably an include cycle");
+        }
+        StringBuilder out = new StringBuilder(source.length());
+        int from = 0;
+        for (int open; (open = source.indexOf("{{>", from)) >= 0; ) {
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed include at offset " + open);
+            }
+            String name = source.substring(open + 3, close).trim();
+            String fragment = fragments.apply(name);
+            if (fragment == null) {
+                throw new IllegalArgumentException("Unknown fragment: " + name);
+            }
+            out.append(source, from, open).append(expand(fragment, fragments, depth + 1));
+            from = close + 2;
+        }
+        return out.append(source, from, source.length()).toString();
+    }
+}
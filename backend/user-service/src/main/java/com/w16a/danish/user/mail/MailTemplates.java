@@ -0,0 +1,169 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.mail.OutgoingMail.DigestPart;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The notification email templates, compiled once at startup from
+ * {@code classpath:templates/mail/}. Every body is wrapped in {@code layout.html}, which carries
+ * the greeting and the footer; pieces several mails share live in {@code fragments/}.
+ *
+ * <p>Each thread renders into its own reused buffer, so a batch of mails costs one copy per mail
+ * rather than a fresh, growing builder.
+ *
+ * <p>Templates marked digestible are also compiled without the layout, so that
+ * {@link NotificationDigest} can combine several of them into one {@link Template#DIGEST} mail.
+ *
+ * <pre>{@code
+ *   String html = mailTemplates.render(Template.JUDGE_ASSIGNED,
+ *           MailTemplates.model("name", judgeName, "assignedAt", assignedAt, ...));
+ * }</pre>
+ *
+ * @author Eddy ZHANG
+ */
+@Component
+public class MailTemplates {
+
+    private static final String ROOT = "templates/mail/";
+    /** A buffer grown past this by an unusual mail is dropped rather than kept per thread. */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    @Getter
+    @AllArgsConstructor
+    public enum Template {
+        REGISTER_SUCCESS("register-success", false),
+        PARTICIPANT_REMOVED("participant-removed", false),
+        SUBMISSION_UPLOADED("submission-uploaded", false),
+        SUBMISSION_REVIEWED("submission-reviewed", true),
+        JUDGE_ASSIGNED("judge-assigned", true),
+        JUDGE_REMOVED("judge-removed", true),
+        AWARD_WON("award-won", true),
+        AWARD_PARTICIPATED("award-participated", true),
+        PASSWORD_RESET("password-reset", false),
+        DIGEST("digest", false);
+
+        private final String fileName;
+        /** Whether the mail may wait to be combined with others to the same recipient. */
+        private final boolean digestible;
+    }
+
+    private final Map<Template, MailTemplate> compiled = new EnumMap<>(Template.class);
+    private final Map<Template, MailTemplate> sections = new EnumMap<>(Template.class);
+    private final MailTemplate digestItem;
+    private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public MailTemplates() {
+        String layout = load("layout.html");
+        for (Template template : Template.values()) {
+            String body = load(template.getFileName() + ".html");
+            compiled.put(template, MailTemplate.compile(layout,
+                    name -> "body".equals(name) ? body : loadFragment(name)));
+            if (template.isDigestible()) {
+                sections.put(template, MailTemplate.compile(body, MailTemplates::loadFragment));
+            }
+        }
+        digestItem = MailTemplate.compile(load("fragments/digest-item.html"), MailTemplates::loadFragment);
+    }
+
+    /**
+     * Renders a notification for one recipient; a digestible one also carries its digest section.
+     *
+     * @param model must hold {@code name}, which a digest greets the recipient by
+     */
+    public OutgoingMail mail(String to, String subject, Template template, Map<String, ?> model) {
+        String html = render(template, model);
+        MailTemplate section = sections.get(template);
+        if (section == null) {
+            return new OutgoingMail(to, subject, html);
+        }
+        StringBuilder out = new StringBuilder(html.length());
+        section.renderTo(out, model);
+        return new OutgoingMail(to, subject, html,
+                new DigestPart(Objects.toString(model.get("name"), null), out.toString()));
+    }
+
+    /**
+     * Combines digestible mails to one recipient, oldest first, into a single mail greeting them
+     * by the most recent name.
+     */
+    public OutgoingMail digest(List<OutgoingMail> mails) {
+        StringBuilder items = new StringBuilder();
+        for (OutgoingMail mail : mails) {
+            digestItem.renderTo(items, model("subject", mail.subject(), "section", mail.digestPart().html()));
+        }
+        OutgoingMail latest = mails.get(mails.size() - 1);
+        String html = render(Template.DIGEST, model(
+                "name", latest.digestPart().recipientName(),
+                "count", mails.size(),
+                "items", items));
+        return new OutgoingMail(latest.to(), "🔔 " + mails.size() + " updates from the Danish Competition Platform", html);
+    }
+
+    /**
+     * Renders a notification. Model values are HTML-escaped; dates and times are formatted as
+     * {@code yyyy-MM-dd HH:mm}.
+     */
+    public String render(Template template, Map<String, ?> model) {
+        StringBuilder out = buffer.get();
+        out.setLength(0);
+        compiled.get(template).renderTo(out, model);
+        String html = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            buffer.remove();
+        }
+        return html;
+    }
+
+    /**
+     * A model from alternating names and values; values may be null.
+     */
+    public static Map<String, Object> model(Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Names and values must come in pairs");
+        }
+        Map<String, Object> model = new HashMap<>(namesAndValues.length);
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            model.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return model;
+    }
+
+    MailTemplate compiled(Template template) {
+        return compiled.get(template);
+    }
+
+    private static String loadFragment(String name) {
+        ClassPathResource resource = new ClassPathResource(ROOT + "fragments/" + name + ".html");
+        return resource.exists() ? read(resource) : null;
+    }
+
+    private static String load(String fileName) {
+        return read(new ClassPathResource(ROOT + fileName));
+    }
+
+    /**
+     * Reads a template file without its final line break, so an include sits flush in the line
+     * that contains it.
+     */
+    private static String read(ClassPathResource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read mail template " + resource.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.common.messaging.MessagingConstants;
+import com.w16a.danish.user.config.EmailService;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Mails a batch of notification events, taking each failure out of the batch instead of failing
+ * it. Requeueing a whole batch would re-send the mails that did go out, and a message that can
+ * never succeed would come straight back, over and over.
+ *
+ * <ul>
+ *   <li>An event that cannot be read or rendered is parked on its {@link RabbitMQConfig#deadQueue}
+ *       at once; trying it again would not help.</li>
+ *   <li>An event whose mail is not delivered waits in {@link RabbitMQConfig#retryQueue} for a
+ *       doubling backoff and comes back to its queue, {@code mail-delivery.retry.attempts} times,
+ *       and is then parked as well.</li>
+ * </ul>
+ *
+ * A batch the listener fails on as a whole, e.g. because its recipients could not be looked up,
+ * goes the same way through {@link #recover}, once the listener container has tried it again.
+ *
+ * Parked events are moved back by {@link NotificationDeadLetters#replay}.
+ *
+ * <p>Events carrying a message id, as everything the outbox relay publishes does, are mailed at
+ * most once per id: one already in {@link DeliveredNotifications}, or repeated within the batch,
+ * is acknowledged unsent. Ids are recorded once their mail is delivered.
+ *
+ * <p>The mails go out at the queue's {@link NotificationPriority}. How long each event waited in
+ * the broker is recorded, per priority, as {@code notification.queue.latency}.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationConsumer {
+
+    /** Redeliveries an event has had so far. */
+    static final String ATTEMPT_HEADER = "x-notification-attempt";
+    /** Why an event was parked. */
+    static final String ERROR_HEADER = "x-notification-error";
+
+    private final EmailService emailService;
+    private final RabbitTemplate rabbitTemplate;
+    private final MailDeliveryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DeliveredNotifications deliveredNotifications;
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    /**
+     * @param queue  the queue the batch came from
+     * @param type   the event type the publisher sent
+     * @param render turns one event into its mail
+     */
+    public <T> void consume(String queue, List<Message> batch, Class<T> type, Function<T, OutgoingMail> render) {
+        consume(queue, batch, type, UnaryOperator.identity(), render);
+    }
+
+    /**
+     * @param queue   the queue the batch came from
+     * @param type    the event type the publisher sent
+     * @param resolve completes the whole batch before rendering, e.g. with its recipients, and
+     *                returns the events still worth mailing; the others are acknowledged unsent.
+     *                If it throws, so does this, and the batch is handed to {@link #recover}.
+     * @param render  turns one event into its mail
+     */
+    public <T> void consume(String queue, List<Message> batch, Class<T> type,
+                            UnaryOperator<List<T>> resolve, Function<T, OutgoingMail> render) {
+        NotificationPriority priority = NotificationPriority.of(queue);
+        Set<String> seen = new HashSet<>(deliveredNotifications.delivered(batch.stream()
+                .map(message -> message.getMessageProperties().getMessageId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList()));
+        Map<T, Message> events = new IdentityHashMap<>();
+        List<T> converted = new ArrayList<>(batch.size());
+        for (Message message : batch) {
+            String messageId = message.getMessageProperties().getMessageId();
+            if (messageId != null && !seen.add(messageId)) {
+                log.info("[Mail] Skipping repeated event {} from {}", messageId, queue);
+                meterRegistry.counter("notification.duplicate", "queue", queue).increment();
+                continue;
+            }
+            recordLatency(priority, message);
+            try {
+                message.getMessageProperties().setInferredArgumentType(type);
+                T event = type.cast(messageConverter.fromMessage(message));
+                converted.add(event);
+                events.put(event, message);
+            } catch (RuntimeException e) {
+                park(queue, message, e.toString());
+            }
+        }
+
+        Map<OutgoingMail, Message> sources = new IdentityHashMap<>();
+        List<OutgoingMail> mails = new ArrayList<>(converted.size());
+        for (T event : converted.isEmpty() ? converted : resolve.apply(converted)) {
+            OutgoingMail mail;
+            try {
+                mail = render.apply(event);
+            } catch (RuntimeException e) {
+                park(queue, events.get(event), e.toString());
+                continue;
+            }
+            mails.add(mail);
+            sources.put(mail, events.get(event));
+        }
+        Set<Message> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (OutgoingMail mail : emailService.send(mails, priority)) {
+            failed.add(sources.get(mail));
+            retry(queue, sources.get(mail));
+        }
+        deliveredNotifications.record(sources.values().stream()
+                .filter(message -> !failed.contains(message))
+                .map(message -> message.getMessageProperties().getMessageId())
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    /**
+     * Sends every event of a batch the listener failed on round its retry queues, as if its mail
+     * had not been delivered, and parks those that have used them up. If even that fails, the
+     * batch is put back on its queue: the container's retries space such attempts out, and
+     * nothing is dropped.
+     */
+    public void recover(List<Message> batch, Throwable cause) {
+        log.warn("[Mail] Batch of {} events failed: {}", batch.size(), cause.toString());
+        try {
+            for (Message message : batch) {
+                retry(message.getMessageProperties().getConsumerQueue(), message);
+            }
+        } catch (RuntimeException e) {
+            throw new ImmediateRequeueAmqpException("Could not route a failed batch to its retry queues", e);
+        }
+    }
+
+    /**
+     * Time from publishing to delivery here, for first deliveries only: a retried event has also
+     * waited out its backoff. Publishers set {@link MessagingConstants#HEADER_PUBLISHED_AT}.
+     */
+    private void recordLatency(NotificationPriority priority, Message message) {
+        Object publishedAt = message.getMessageProperties().getHeader(MessagingConstants.HEADER_PUBLISHED_AT);
+        if (publishedAt instanceof Number millis && message.getMessageProperties().getHeader(ATTEMPT_HEADER) == null) {
+            Timer.builder("notification.queue.latency")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry)
+                    .record(Math.max(0, System.currentTimeMillis() - millis.longValue()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void retry(String queue, Message message) {
+        Integer previous = message.getMessageProperties().getHeader(ATTEMPT_HEADER);
+        int attempt = previous == null ? 1 : previous + 1;
+        if (attempt > properties.getRetry().getAttempts()) {
+            park(queue, message, "Not delivered after " + properties.getRetry().getAttempts() + " retries");
+            return;
+        }
+        message.getMessageProperties().setHeader(ATTEMPT_HEADER, attempt);
+        log.warn("[Mail] Event from {} not delivered, retry {} of {}", queue, attempt, properties.getRetry().getAttempts());
+        send(RabbitMQConfig.retryQueue(queue, attempt), message);
+        meterRegistry.counter("notification.retried", "queue", queue).increment();
+    }
+
+    /**
+     * If even parking fails the exception propagates and the broker redelivers the batch, so
+     * nothing is silently lost.
+     */
+    private void park(String queue, Message message, String reason) {
+        log.error("[Mail] Parking event from {} on {}: {}", queue, RabbitMQConfig.deadQueue(queue), reason);
+        message.getMessageProperties().setHeader(ERROR_HEADER, reason);
+        send(RabbitMQConfig.deadQueue(queue), message);
+        meterRegistry.counter("notification.dead.lettered", "queue", queue).increment();
+    }
+
+    private void send(String targetQueue, Message message) {
+        message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        rabbitTemplate.send("", targetQueue, message);
+    }
+}
@@ -0,0 +1,107 @@
+package com.w16a.danish.user.mail;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Depth gauges for the notification retry and dead-letter queues, and moving parked events back
+ * once whatever made them fail, usually the SMTP server, works again.
+ *
+ * <p>Gauges, tagged with the notification queue: {@code notification.retry.depth} (events waiting
+ * in its retry queues) and {@code notification.dead.depth} (parked events). Counters, from
+ * {@link NotificationConsumer}: {@code notification.retried} and {@code notification.dead.lettered}.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDeadLetters {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+    private final MailDeliveryProperties properties;
+
+    @PostConstruct
+    void registerGauges() {
+        for (String queue : RabbitMQConfig.NOTIFICATION_QUEUES) {
+            Gauge.builder("notification.dead.depth", () -> depth(RabbitMQConfig.deadQueue(queue)))
+                    .tag("queue", queue)
+                    .register(meterRegistry);
+            Gauge.builder("notification.retry.depth", () -> retryDepth(queue))
+                    .tag("queue", queue)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Moves up to {@code limit} parked events of a notification queue back onto it, with their
+     * retry count reset. Each is acknowledged only once republished, so a failure part way
+     * leaves the rest parked.
+     *
+     * @return the number of events moved
+     */
+    public int replay(RequestContext ctx, String queue, int limit) {
+        ctx.requireAnyRole("ADMIN");
+        if (!RabbitMQConfig.NOTIFICATION_QUEUES.contains(queue)) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Unknown notification queue: " + queue);
+        }
+        if (limit <= 0) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        String deadQueue = RabbitMQConfig.deadQueue(queue);
+        Integer moved = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            for (GetResponse response; count < limit && (response = channel.basicGet(deadQueue, false)) != null; count++) {
+                Map<String, Object> headers = new HashMap<>();
+                if (response.getProps().getHeaders() != null) {
+                    headers.putAll(response.getProps().getHeaders());
+                }
+                headers.remove(NotificationConsumer.ATTEMPT_HEADER);
+                headers.remove(NotificationConsumer.ERROR_HEADER);
+                headers.remove("x-death");
+                AMQP.BasicProperties props = response.getProps().builder().headers(headers).build();
+                channel.basicPublish("", queue, props, response.getBody());
+                channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+            }
+            return count;
+        });
+        log.info("[Mail] Replayed {} parked events from {} onto {}", moved, deadQueue, queue);
+        return moved == null ? 0 : moved;
+    }
+
+    private double retryDepth(String queue) {
+        double depth = 0;
+        for (int attempt = 1; attempt <= properties.getRetry().getAttempts(); attempt++) {
+            depth += depth(RabbitMQConfig.retryQueue(queue, attempt));
+        }
+        return depth;
+    }
+
+    private double depth(String queue) {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queue);
+            return info == null ? 0 : info.getMessageCount();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.w16a.danish.user.mail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Holds digestible notifications per recipient in Redis and hands them back, combined into one
+ * mail, once the recipient's window has passed. During judging a user otherwise gets a separate
+ * SMTP send for every review, assignment and award.
+ *
+ * <p>Redis keeps one list of pending mails per recipient and a sorted set of recipients by the
+ * time their digest is due. The window starts with the recipient's first pending mail and is not
+ * extended by later ones, so nothing waits longer than {@code mail-delivery.digest.window}.
+ * Holding and claiming are single scripts, so several instances can share the keys.
+ *
+ * <p>Claiming a digest does not delete it: it pushes its due time out by
+ * {@code mail-delivery.digest.retry-delay}, and only {@link #sent} removes the mails that went
+ * out. A digest whose send failed, or whose instance died mid-send, is simply due again once the
+ * delay has passed, up to {@code mail-delivery.retry.attempts} more times.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDigest {
+
+    static final String DUE_KEY = "mail:digest:due";
+    static final String PENDING_KEY = "mail:digest:pending:";
+    static final String ATTEMPTS_KEY = "mail:digest:attempts:";
+
+    /** Queues a mail; due at ARGV[2] unless already pending, or now once ARGV[4] mails are waiting. */
+    static final RedisScript<Long> HOLD = new DefaultRedisScript<>("""
+            redis.call('zadd', KEYS[1], 'NX', ARGV[2], ARGV[1])
+            local pending = redis.call('rpush', KEYS[2], ARGV[3])
+            if pending >= tonumber(ARGV[4]) then redis.call('zadd', KEYS[1], 0, ARGV[1]) end
+            return pending""", Long.class);
+    /**
+     * Claims a recipient due by ARGV[2] until ARGV[3] and returns its attempt number followed by its
+     * pending mails; nothing if another instance claimed it first.
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> TAKE = new DefaultRedisScript<>("""
+            local dueAt = redis.call('zscore', KEYS[1], ARGV[1])
+            if not dueAt or tonumber(dueAt) > tonumber(ARGV[2]) then return {} end
+            redis.call('zadd', KEYS[1], ARGV[3], ARGV[1])
+            local pending = redis.call('lrange', KEYS[2], 0, -1)
+            table.insert(pending, 1, tostring(redis.call('incr', KEYS[3])))
+            return pending""", List.class);
+    /** Drops the first ARGV[2] pending mails; any held since are due at ARGV[3]. */
+    static final RedisScript<Long> SENT = new DefaultRedisScript<>("""
+            redis.call('ltrim', KEYS[2], ARGV[2], -1)
+            redis.call('del', KEYS[3])
+            if redis.call('llen', KEYS[2]) == 0 then
+                redis.call('zrem', KEYS[1], ARGV[1])
+            else
+                redis.call('zadd', KEYS[1], ARGV[3], ARGV[1])
+            end
+            return 1""", Long.class);
+
+    /**
+     * A recipient's digest, claimed for sending. Hand it to {@link #sent} or {@link #failed}.
+     *
+     * @param entries pending mails it was built from, unreadable ones included
+     * @param attempt 1 for the first send
+     */
+    public record Due(String recipient, int entries, int attempt, OutgoingMail mail) {
+    }
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MailTemplates mailTemplates;
+    private final MailDeliveryProperties properties;
+
+    /**
+     * Holds back the digestible mails of a batch.
+     *
+     * @return the mails to send now: those that are not digestible, or all of them if digests are
+     *         off; a mail Redis cannot take is sent now too
+     */
+    public List<OutgoingMail> hold(List<OutgoingMail> mails) {
+        MailDeliveryProperties.Digest digest = properties.getDigest();
+        if (!digest.isEnabled()) {
+            return mails;
+        }
+        long dueAt = System.currentTimeMillis() + digest.getWindow().toMillis();
+        List<OutgoingMail> sendNow = new ArrayList<>();
+        for (OutgoingMail mail : mails) {
+            if (mail.digestPart() == null || mail.to() == null || !hold(mail, dueAt, digest.getMaxItems())) {
+                sendNow.add(mail);
+            }
+        }
+        return sendNow;
+    }
+
+    private boolean hold(OutgoingMail mail, long dueAt, int maxItems) {
+        String recipient = mail.to().toLowerCase(Locale.ROOT);
+        try {
+            redisTemplate.execute(HOLD, List.of(DUE_KEY, PENDING_KEY + recipient),
+                    recipient, Long.toString(dueAt), objectMapper.writeValueAsString(mail), Integer.toString(maxItems));
+            return true;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("[Mail] Cannot hold \"{}\" for the digest to {}, sending it now: {}", mail.subject(), mail.to(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Claims the digests that are due, at most {@code mail-delivery.batch-size} recipients per call.
+     * A recipient with a single pending mail gets that mail as it was.
+     */
+    public List<Due> takeDue() {
+        if (!properties.getDigest().isEnabled()) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        Set<String> due = redisTemplate.opsForZSet().rangeByScore(DUE_KEY, 0, now, 0, properties.getBatchSize());
+        if (due == null || due.isEmpty()) {
+            return List.of();
+        }
+        long retryAt = now + properties.getDigest().getRetryDelay().toMillis();
+        List<Due> digests = new ArrayList<>(due.size());
+        for (String recipient : due) {
+            List<String> claimed = take(recipient, now, retryAt);
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            int entries = claimed.size() - 1;
+            List<OutgoingMail> pending = read(recipient, claimed.subList(1, claimed.size()));
+            if (pending.isEmpty()) {
+                release(recipient, entries);
+            } else {
+                OutgoingMail mail = pending.size() == 1 ? pending.get(0) : mailTemplates.digest(pending);
+                digests.add(new Due(recipient, entries, Integer.parseInt(claimed.get(0)), mail));
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Removes a delivered digest's mails. Mails held for the recipient since it was claimed stay,
+     * due a window from now.
+     */
+    public void sent(Due digest) {
+        release(digest.recipient(), digest.entries());
+    }
+
+    /**
+     * Leaves an undelivered digest to come due again after {@code mail-delivery.digest.retry-delay},
+     * or drops it once it has had {@code mail-delivery.retry.attempts} retries.
+     */
+    public void failed(Due digest) {
+        int retries = properties.getRetry().getAttempts();
+        if (digest.attempt() > retries) {
+            log.error("[Mail] Giving up on digest \"{}\" to {} after {} retries", digest.mail().subject(), digest.mail().to(), retries);
+            release(digest.recipient(), digest.entries());
+            return;
+        }
+        log.warn("[Mail] Digest \"{}\" to {} not delivered, retry {} of {} in {}", digest.mail().subject(), digest.mail().to(),
+                digest.attempt(), retries, properties.getDigest().getRetryDelay());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> take(String recipient, long now, long retryAt) {
+        List<String> claimed = redisTemplate.execute(TAKE, keys(recipient), recipient, Long.toString(now), Long.toString(retryAt));
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void release(String recipient, int entries) {
+        long dueAt = System.currentTimeMillis() + properties.getDigest().getWindow().toMillis();
+        redisTemplate.execute(SENT, keys(recipient), recipient, Integer.toString(entries), Long.toString(dueAt));
+    }
+
+    private static List<String> keys(String recipient) {
+        return List.of(DUE_KEY, PENDING_KEY + recipient, ATTEMPTS_KEY + recipient);
+    }
+
+    private List<OutgoingMail> read(String recipient, List<String> items) {
+        List<OutgoingMail> pending = new ArrayList<>(items.size());
+        for (String item : items) {
+            try {
+                pending.add(objectMapper.readValue(item, OutgoingMail.class));
+            } catch (JsonProcessingException e) {
+                log.error("[Mail] Dropping an unreadable digest entry for {}: {}", recipient, e.getMessage());
+            }
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,41 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.config.RabbitListenerConfig;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * How urgently a notification queue's mail has to go out. Each class is consumed by its own
+ * listener pool, and its mails go ahead of lower classes waiting for an SMTP connection in
+ * {@link MailDeliveryEngine}, so a fan-out of thousands of award mails cannot hold up a
+ * password reset the user is waiting for.
+ *
+ * @author Eddy ZHANG
+ */
+@Getter
+@AllArgsConstructor
+public enum NotificationPriority {
+
+    /** Account mail a user is waiting for, see {@link RabbitListenerConfig#HIGH_PRIORITY_CONTAINER_FACTORY}. */
+    HIGH(List.of(RabbitMQConfig.ACCOUNT_MAIL_QUEUE)),
+    /** One mail per user action: registrations, submissions, reviews and removals. */
+    NORMAL(List.of(RabbitMQConfig.REGISTER_SUCCESS_QUEUE, RabbitMQConfig.PARTICIPANT_REMOVED_QUEUE,
+            RabbitMQConfig.SUBMISSION_UPLOADED_QUEUE, RabbitMQConfig.SUBMISSION_REVIEWED_QUEUE,
+            RabbitMQConfig.JUDGE_REMOVED_QUEUE)),
+    /** Fan-outs to a whole competition: judge assignments and awards. */
+    BULK(List.of(RabbitMQConfig.JUDGE_ASSIGNED_QUEUE, RabbitMQConfig.AWARD_WINNER_QUEUE));
+
+    private final List<String> queues;
+
+    public static NotificationPriority of(String queue) {
+        for (NotificationPriority priority : values()) {
+            if (priority.queues.contains(queue)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Not a notification queue: " + queue);
+    }
+}
@@ -0,0 +1,97 @@
+package com.w16a.danish.user.mail;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.w16a.danish.user.domain.mq.AddressedMessage;
+import com.w16a.danish.user.domain.po.Team;
+import com.w16a.danish.user.domain.po.Users;
+import com.w16a.danish.user.mapper.TeamMapper;
+import com.w16a.danish.user.mapper.UsersMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fills in the recipients of a batch of notification events from this service's own tables.
+ * Publishers send user and team ids only, so they no longer call back here for a name and email
+ * before every write they notify about.
+ *
+ * <p>A batch costs at most two queries, whatever its size: one for the creators of the teams it
+ * names and one for all the users it names, recipients and actors alike.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationRecipients {
+
+    private final TeamMapper teamMapper;
+    private final UsersMapper usersMapper;
+
+    /**
+     * @return the events that have a recipient to mail, in their original order; an event whose
+     *         user or team has been deleted since it was published is left out
+     */
+    public <T extends AddressedMessage> List<T> resolve(List<T> events) {
+        List<T> unresolved = events.stream().filter(event -> event.getUserEmail() == null).toList();
+        if (unresolved.isEmpty()) {
+            return events;
+        }
+
+        Set<String> teamIds = unresolved.stream()
+                .filter(event -> event.getUserId() == null && event.getTeamId() != null)
+                .map(AddressedMessage::getTeamId)
+                .collect(Collectors.toSet());
+        if (!teamIds.isEmpty()) {
+            Map<String, String> creators = teamMapper.selectList(new LambdaQueryWrapper<Team>()
+                            .select(Team::getId, Team::getCreatedBy)
+                            .in(Team::getId, teamIds))
+                    .stream().collect(Collectors.toMap(Team::getId, Team::getCreatedBy));
+            unresolved.stream()
+                    .filter(event -> event.getUserId() == null && event.getTeamId() != null)
+                    .forEach(event -> event.setUserId(creators.get(event.getTeamId())));
+        }
+
+        Set<String> userIds = new HashSet<>();
+        for (T event : unresolved) {
+            if (event.getUserId() != null) {
+                userIds.add(event.getUserId());
+            }
+            if (event.getActorId() != null) {
+                userIds.add(event.getActorId());
+            }
+        }
+        Map<String, Users> users = userIds.isEmpty() ? Map.of() : usersMapper.selectList(new LambdaQueryWrapper<Users>()
+                        .select(Users::getId, Users::getName, Users::getEmail)
+                        .in(Users::getId, userIds))
+                .stream().collect(Collectors.toMap(Users::getId, Function.identity()));
+
+        List<T> addressed = new ArrayList<>(events.size());
+        for (T event : events) {
+            if (event.getUserEmail() == null) {
+                Users recipient = event.getUserId() == null ? null : users.get(event.getUserId());
+                if (recipient == null) {
+                    log.info("[Mail] Dropping {} for user {} / team {}, who no longer exists",
+                            event.getClass().getSimpleName(), event.getUserId(), event.getTeamId());
+                    continue;
+                }
+                event.setUserName(recipient.getName());
+                event.setUserEmail(recipient.getEmail());
+                Users actor = event.getActorId() == null ? null : users.get(event.getActorId());
+                if (actor != null) {
+                    event.setActorName(actor.getName());
+                }
+            }
+            addressed.add(event);
+        }
+        return addressed;
+    }
+}
@@ -0,0 +1,35 @@
+package com.w16a.danish.user.mail;
+
+/**
+ * One rendered notification email.
+ *
+ * @param to          recipient address
+ * @param subject     subject line
+ * @param htmlContent HTML body
+ * @param digestPart  how the mail reads inside a digest, or null if it must go out on its own
+ * @author Eddy ZHANG
+ */
+public record OutgoingMail(String to, String subject, String htmlContent, DigestPart digestPart) {
+
+    /**
+     * A mail that is never folded into a digest.
+     */
+    public OutgoingMail(String to, String subject, String htmlContent) {
+        this(to, subject, htmlContent, null);
+    }
+
+    /**
+     * @param recipientName name the digest greets the recipient by
+     * @param html          the mail's body without greeting and footer
+     */
+    public record DigestPart(String recipientName, String html) {
+    }
+
+    /**
+     * @return the recipient's domain, lower-cased; empty if the address has none
+     */
+    public String domain() {
+        int at = to == null ? -1 : to.lastIndexOf('@');
+        return at < 0 ? "" : to.substring(at + 1).toLowerCase();
+    }
+}
@@ -0,0 +1,136 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open SMTP connections, kept between mails instead of one connect, EHLO, STARTTLS and AUTH per
+ * message as {@code JavaMailSender.send} does.
+ *
+ * <p>At most {@code mail-delivery.connections} are open at once; a caller borrows one, sends over
+ * it and gives it back. A connection is retired after {@code max-messages-per-connection} mails,
+ * after sitting idle past {@code idle-timeout}, or when a send over it failed. Server, port and
+ * credentials come from the {@code spring.mail} settings.
+ *
+ * @author Eddy ZHANG
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    /** A connection and how it has been used. */
+    static final class PooledTransport {
+
+        private final Transport transport;
+        private int sent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            sent++;
+            lastUsedNanos = System.nanoTime();
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("[Mail] Closing SMTP connection failed", e);
+            }
+        }
+    }
+
+    private final JavaMailSenderImpl mailSender;
+    private final MailDeliveryProperties properties;
+    private final BlockingQueue<PooledTransport> idle = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final AtomicInteger opened = new AtomicInteger();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender, MailDeliveryProperties properties) {
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getConnections());
+    }
+
+    /**
+     * The session messages are created in, carrying the {@code spring.mail.properties}.
+     */
+    Session session() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * Waits for a free connection slot and returns an open connection; give it back with
+     * {@link #release}.
+     */
+    PooledTransport borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.poll()) != null) {
+                if (System.nanoTime() - pooled.lastUsedNanos < properties.getIdleTimeout().toNanos()) {
+                    return pooled;
+                }
+                pooled.close();
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @param healthy false if a send over the connection failed, so it is closed instead of reused
+     */
+    void release(PooledTransport pooled, boolean healthy) {
+        if (healthy && pooled.sent < properties.getMaxMessagesPerConnection()) {
+            idle.offer(pooled);
+        } else {
+            pooled.close();
+        }
+        permits.release();
+    }
+
+    /**
+     * @return connections opened since startup, for tests and benchmarks
+     */
+    int opened() {
+        return opened.get();
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.close();
+        }
+    }
+
+    private PooledTransport open() throws MessagingException {
+        String protocol = mailSender.getProtocol() == null ? "smtp" : mailSender.getProtocol();
+        Transport transport = session().getTransport(protocol);
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                "".equals(username) ? null : username, "".equals(password) ? null : password);
+        opened.incrementAndGet();
+        return new PooledTransport(transport);
+    }
+}
@@ -1,8 +1,13 @@
 package com.w16a.danish.user.mapper;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.w16a.danish.user.domain.po.Users;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.w16a.danish.user.domain.vo.AdminUserVO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
 
 
 /**
@@ -12,4 +17,25 @@ import org.apache.ibatis.annotations.Mapper;
  */
 public interface UsersMapper extends BaseMapper<Users> {
 
+    /**
+     * Users with their role in one joined query, filtered, sorted and paged by the database.
+     *
+     * @param role           role name to keep, or {@code null} for all users
+     * @param keyword        substring of the name or email, or {@code null}
+     * @param sortColumn     column to order by; {@code u.id} breaks ties in the same direction
+     * @param afterCreatedAt with {@code afterId}, only rows past this {@code (created_at, id)}
+     *                       position; requires ordering by {@code u.created_at}
+     */
+    IPage<AdminUserVO> selectAdminUsers(IPage<AdminUserVO> page,
+                                        @Param("role") String role,
+                                        @Param("keyword") String keyword,
+                                        @Param("sortColumn") String sortColumn,
+                                        @Param("asc") boolean asc,
+                                        @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                        @Param("afterId") String afterId);
+
+    /**
+     * How many users {@link #selectAdminUsers} matches in total.
+     */
+    long countAdminUsers(@Param("role") String role, @Param("keyword") String keyword);
 }
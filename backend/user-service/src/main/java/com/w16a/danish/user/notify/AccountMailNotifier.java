@@ -0,0 +1,40 @@
+package com.w16a.danish.user.notify;
+
+import com.w16a.danish.common.messaging.MessagingConstants;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import com.w16a.danish.user.domain.mq.PasswordResetMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class queues the account mails a user is waiting for, such as password resets, for
+ * user-service's own high-priority mail listener.
+ * (User-Service → User-Service via MQ)
+ *
+ * @author Eddy ZHANG
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountMailNotifier {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    /**
+     * Send password reset message, at the account mail queue's highest priority.
+     */
+    public void sendPasswordReset(PasswordResetMessage message) {
+        rabbitTemplate.convertAndSend(
+                "",
+                RabbitMQConfig.ACCOUNT_MAIL_QUEUE,
+                message,
+                msg -> {
+                    msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+                    msg.getMessageProperties().setPriority(RabbitMQConfig.ACCOUNT_MAIL_MAX_PRIORITY);
+                    msg.getMessageProperties().setHeader(MessagingConstants.HEADER_PUBLISHED_AT, System.currentTimeMillis());
+                    return msg;
+                }
+        );
+    }
+}
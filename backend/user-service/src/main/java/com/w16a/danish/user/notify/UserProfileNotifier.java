@@ -0,0 +1,31 @@
+package com.w16a.danish.user.notify;
+
+import com.w16a.danish.common.messaging.OutboxWriter;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import com.w16a.danish.user.domain.mq.UserProfileUpdatedMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class is responsible for sending messages related to user profile events.
+ * (User-Service → Other Services via MQ)
+ *
+ * Events are written to the outbox, so they go out only if the calling transaction commits,
+ * and are not lost if the broker is down when it does.
+ *
+ * @author Eddy ZHANG
+ * @date 2025/04/19
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileNotifier {
+
+    private final OutboxWriter outboxWriter;
+
+    /**
+     * Send user profile updated message.
+     */
+    public void sendProfileUpdated(UserProfileUpdatedMessage message) {
+        outboxWriter.write(RabbitMQConfig.USER_EXCHANGE_NAME, RabbitMQConfig.USER_PROFILE_UPDATED_ROUTING_KEY, message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.w16a.danish.user.service;
 
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
 import com.w16a.danish.user.domain.dto.TeamCreateDTO;
 import com.w16a.danish.user.domain.dto.TeamUpdateDTO;
 import com.w16a.danish.user.domain.po.Team;
@@ -134,6 +135,15 @@ public interface ITeamService extends IService<Team> {
      */
     List<TeamInfoVO> getTeamBriefByIds(List<String> teamIds);
 
+    /**
+     * Retrieve one page of brief team information from a supplied set of team IDs,
+     * filtered by keyword and sorted in the database.
+     *
+     * @param query Team IDs, keyword, sort key and page.
+     * @return A page of TeamInfoVO objects.
+     */
+    PageResponse<TeamInfoVO> pageTeamBriefsByIds(TeamPageQueryDTO query);
+
     /**
      * Check whether a user is a member of a specific team.
      *
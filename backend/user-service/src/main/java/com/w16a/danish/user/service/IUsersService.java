@@ -1,9 +1,11 @@
 package com.w16a.danish.user.service;
 
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
 import com.w16a.danish.user.domain.dto.*;
 import com.w16a.danish.user.domain.po.Users;
 import com.baomidou.mybatisplus.spring.service.IService;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.user.domain.vo.*;
@@ -103,6 +105,15 @@ public interface IUsersService extends IService<Users> {
      */
     List<UserBriefVO> getUsersByIds(List<String> userIds, String role);
 
+    /**
+     * Retrieves one page of brief user information from a supplied set of user IDs,
+     * filtered by role and keyword and sorted in the database.
+     *
+     * @param query ID set, role, keyword, sort key and page.
+     * @return Paginated brief user information.
+     */
+    PageResponse<UserBriefVO> pageUserBriefsByIds(UserPageQueryDTO query);
+
     /**
      * Retrieves brief user information by a single user ID.
      *
@@ -133,4 +144,20 @@ public interface IUsersService extends IService<Users> {
      */
     PageResponse<AdminUserVO> listUsersAdmin(RequestContext ctx, String role, String keyword, int page, int size, String sortBy, String order);
 
+    /**
+     * Keyset-paginated user list for admin management, newest or oldest first by creation time.
+     * Deep pages cost the same as the first, unlike {@link #listUsersAdmin}.
+     *
+     * @param ctx       RequestContext of the admin making the request.
+     * @param role      Role of users to filter.
+     * @param keyword   Keyword for search filtering (e.g., name or email).
+     * @param cursor    Cursor from the previous page; null or blank for the first page.
+     * @param size      Number of records per page.
+     * @param order     Sorting order by creation time ("asc" or "desc").
+     * @param withTotal Whether to also count all matching users.
+     * @return One page of user information for admin view.
+     */
+    CursorPageResponse<AdminUserVO> listUsersAdminByCursor(RequestContext ctx, String role, String keyword, String cursor,
+                                                           int size, String order, boolean withTotal);
+
 }
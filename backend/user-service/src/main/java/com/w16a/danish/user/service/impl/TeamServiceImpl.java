@@ -2,7 +2,11 @@ package com.w16a.danish.user.service.impl;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
 import com.w16a.danish.user.domain.dto.TeamCreateDTO;
 import com.w16a.danish.user.domain.dto.TeamUpdateDTO;
 import com.w16a.danish.user.domain.po.Team;
@@ -41,6 +45,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team> implements ITeamService {
 
+    private static final int MAX_BATCH_PAGE_SIZE = 100;
+
     private final ITeamMembersService teamMembersService;
     private final IUsersService usersService;
     private final SubmissionServiceClient submissionService;
@@ -534,6 +540,43 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team> implements IT
         }).toList();
     }
 
+    @Override
+    public PageResponse<TeamInfoVO> pageTeamBriefsByIds(TeamPageQueryDTO query) {
+        int page = Math.max(1, query.getPage());
+        int size = Math.max(1, Math.min(query.getSize(), MAX_BATCH_PAGE_SIZE));
+        List<String> ids = Optional.ofNullable(query.getIds()).orElse(List.of()).stream()
+                .filter(StrUtil::isNotBlank)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
+        }
+
+        String keyword = query.getKeyword();
+        boolean isAsc = !"desc".equalsIgnoreCase(query.getOrder());
+        LambdaQueryWrapper<Team> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(Team::getId, ids)
+                .and(StrUtil.isNotBlank(keyword), w -> w.like(Team::getName, keyword)
+                        .or().like(Team::getDescription, keyword));
+        if ("teamName".equals(query.getSortBy())) {
+            wrapper.orderBy(true, isAsc, Team::getName);
+        } else {
+            wrapper.orderBy(true, isAsc, Team::getCreatedAt);
+        }
+        wrapper.orderByAsc(Team::getId);
+
+        IPage<Team> teamPage = this.page(new Page<>(page, size), wrapper);
+        List<TeamInfoVO> data = teamPage.getRecords().stream().map(t -> {
+            TeamInfoVO vo = new TeamInfoVO();
+            vo.setTeamId(t.getId());
+            vo.setTeamName(t.getName());
+            vo.setDescription(t.getDescription());
+            vo.setCreatedAt(t.getCreatedAt());
+            return vo;
+        }).toList();
+        return new PageResponse<>(data, teamPage.getTotal(), page, size, teamPage.getPages());
+    }
+
     @Override
     public boolean isUserInTeam(String userId, String teamId) {
         return teamMembersService.lambdaQuery()
@@ -7,43 +7,48 @@ import cn.hutool.core.lang.RegexPool;
 import cn.hutool.core.util.ReUtil;
 import cn.hutool.core.util.StrUtil;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.w16a.danish.user.config.FrontendProperties;
 import com.w16a.danish.user.config.GithubOAuthProperties;
 import com.w16a.danish.user.config.GoogleOAuthProperties;
 import com.w16a.danish.user.config.JwtConfig;
 import com.w16a.danish.user.domain.dto.*;
+import com.w16a.danish.user.domain.mq.PasswordResetMessage;
+import com.w16a.danish.user.domain.mq.UserProfileUpdatedMessage;
 import com.w16a.danish.user.domain.po.Roles;
 import com.w16a.danish.user.domain.po.UserRoles;
 import com.w16a.danish.user.domain.po.Users;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
+import com.w16a.danish.common.domain.vo.KeysetCursor;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.user.domain.vo.*;
 import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.user.feign.*;
 import com.w16a.danish.user.mapper.UsersMapper;
+import com.w16a.danish.user.notify.AccountMailNotifier;
+import com.w16a.danish.user.notify.UserProfileNotifier;
 import com.w16a.danish.user.service.IRolesService;
 import com.w16a.danish.user.service.IUserRolesService;
 import com.w16a.danish.user.service.IUsersService;
 import com.baomidou.mybatisplus.spring.service.impl.ServiceImpl;
 import com.w16a.danish.user.util.JwtUtil;
 import com.w16a.danish.user.util.PasswordUtil;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.*;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.messaging.MessagingException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 
-import java.net.URI;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -60,6 +65,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements IUsersService {
 
+    private static final int MAX_BATCH_PAGE_SIZE = 100;
+
     private final IRolesService rolesService;
     private final IUserRolesService userRolesService;
     private final JwtConfig jwtConfig;
@@ -72,9 +79,10 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
     private final GoogleUserClient googleUserClient;
     private final RedisTemplate<String, String> redisTemplate;
     private final FrontendProperties frontendProperties;
-    private final FileServiceClient fileServiceClient;
+    private final FileDeletionQueue fileDeletionQueue;
     private final JwtUtil jwtUtil;
-    private final JavaMailSender mailSender;
+    private final AccountMailNotifier accountMailNotifier;
+    private final UserProfileNotifier userProfileNotifier;
 
 
     private static final long RESET_LINK_EXPIRATION_MINUTES = 15;
@@ -137,6 +145,7 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
         if (user == null || !passwordUtil.verifyPassword(loginDTO.getPassword(), user.getPassword())) {
             throw new BusinessException(HttpStatus.UNAUTHORIZED, "Invalid email or password");
         }
+        rehashIfNeeded(user, loginDTO.getPassword());
 
         // get user role
         UserRoles userRole = userRolesService.getOne(
@@ -184,13 +193,7 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
             throw new BusinessException(HttpStatus.FORBIDDEN, "You do not have permission to delete this user");
         }
 
-        if (StrUtil.isNotBlank(user.getAvatarUrl())) {
-            URI uri = URI.create(user.getAvatarUrl());
-            String[] parts = uri.getPath().substring(1).split("/", 2);
-            if (parts.length == 2) {
-                fileServiceClient.deleteFile(parts[0], parts[1]);
-            }
-        }
+        fileDeletionQueue.enqueue(user.getAvatarUrl());
 
         // delete user roles
         userRolesService.remove(new LambdaQueryWrapper<UserRoles>().eq(UserRoles::getUserId, userId));
@@ -372,8 +375,13 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
         String redisKey = "reset:token:" + token;
         redisTemplate.opsForValue().set(redisKey, user.getId(), RESET_LINK_EXPIRATION_MINUTES, TimeUnit.MINUTES);
 
-        // send HTML email
-        sendResetPasswordHtmlEmail(email, token);
+        // mailed from the high-priority lane, not this request thread
+        PasswordResetMessage message = new PasswordResetMessage();
+        message.setUserName(user.getName());
+        message.setUserEmail(email);
+        message.setResetUrl(frontendProperties.buildResetPasswordUrl(token));
+        message.setValidMinutes(RESET_LINK_EXPIRATION_MINUTES);
+        accountMailNotifier.sendPasswordReset(message);
     }
 
     @Override
@@ -417,15 +425,40 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
             user.setPassword(passwordUtil.encryptPassword(newPassword));
         }
 
+        String oldName = user.getName();
+        String oldAvatarUrl = user.getAvatarUrl();
         BeanUtil.copyProperties(updateUserDTO, user,
                 CopyOptions.create()
                         .ignoreNullValue()
                         .setIgnoreProperties("email", "password"));
 
+        // The version is bumped in SQL, so concurrent edits each get their own; the row lock
+        // taken here keeps the value read back below ours until the commit.
+        user.setProfileVersion(null);
         user.setUpdatedAt(null);
-        if (!this.updateById(user)) {
+        boolean updated = this.update(user, new LambdaUpdateWrapper<Users>()
+                .eq(Users::getId, userId)
+                .setSql("profile_version = profile_version + 1"));
+        if (!updated) {
             throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update user profile");
         }
+        Users saved = getBaseMapper().selectOne(new LambdaQueryWrapper<Users>()
+                .select(Users::getProfileVersion, Users::getUpdatedAt)
+                .eq(Users::getId, userId));
+        user.setProfileVersion(saved.getProfileVersion());
+        user.setUpdatedAt(saved.getUpdatedAt());
+
+        // Other services keep copies of name/avatar only, so other edits are not announced.
+        // The event goes through the outbox and commits with the update, so it cannot be lost.
+        if (!StrUtil.equals(oldName, user.getName()) || !StrUtil.equals(oldAvatarUrl, user.getAvatarUrl())) {
+            UserProfileUpdatedMessage message = new UserProfileUpdatedMessage();
+            message.setUserId(user.getId());
+            message.setName(user.getName());
+            message.setAvatarUrl(user.getAvatarUrl());
+            message.setVersion(user.getProfileVersion());
+            message.setUpdatedAt(user.getUpdatedAt());
+            userProfileNotifier.sendProfileUpdated(message);
+        }
 
         return BeanUtil.copyProperties(user, UserProfileVO.class);
     }
@@ -463,10 +496,86 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
                         .avatarUrl(user.getAvatarUrl())
                         .description(user.getDescription())
                         .createdAt(user.getCreatedAt())
+                        .profileVersion(user.getProfileVersion())
                         .build())
                 .toList();
     }
 
+    @Override
+    public PageResponse<UserBriefVO> pageUserBriefsByIds(UserPageQueryDTO query) {
+        int page = Math.max(1, query.getPage());
+        int size = Math.max(1, Math.min(query.getSize(), MAX_BATCH_PAGE_SIZE));
+        List<String> ids = Optional.ofNullable(query.getIds()).orElse(List.of()).stream()
+                .filter(StrUtil::isNotBlank)
+                .distinct()
+                .toList();
+
+        // Narrow the id set to holders of the role first
+        String role = query.getRole();
+        if (!ids.isEmpty() && StrUtil.isNotBlank(role)) {
+            Roles targetRole = rolesService.lambdaQuery().eq(Roles::getName, role.toUpperCase()).one();
+            if (targetRole == null) {
+                return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
+            }
+            Set<String> withRole = userRolesService.lambdaQuery()
+                    .eq(UserRoles::getRoleId, targetRole.getId())
+                    .in(UserRoles::getUserId, ids)
+                    .list()
+                    .stream().map(UserRoles::getUserId).collect(Collectors.toSet());
+            ids = ids.stream().filter(withRole::contains).toList();
+        }
+        if (ids.isEmpty()) {
+            return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
+        }
+
+        String keyword = query.getKeyword();
+        LambdaQueryWrapper<Users> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(Users::getId, ids)
+                .and(StrUtil.isNotBlank(keyword), w -> w.like(Users::getName, keyword)
+                        .or().like(Users::getEmail, keyword));
+
+        SFunction<Users, ?> sortColumn = switch (StrUtil.nullToEmpty(query.getSortBy())) {
+            case "name" -> Users::getName;
+            case "email" -> Users::getEmail;
+            default -> null;
+        };
+
+        if (sortColumn != null) {
+            boolean isAsc = !"desc".equalsIgnoreCase(query.getOrder());
+            wrapper.orderBy(true, isAsc, sortColumn).orderByAsc(Users::getId);
+            IPage<Users> usersPage = this.page(new Page<>(page, size), wrapper);
+            List<UserBriefVO> data = usersPage.getRecords().stream().map(this::toBriefVO).toList();
+            return new PageResponse<>(data, usersPage.getTotal(), page, size, usersPage.getPages());
+        }
+
+        // The caller owns the order: match on ids alone, then load full rows for one page only
+        Set<String> matched = new HashSet<>(this.listObjs(wrapper.select(Users::getId), String::valueOf));
+        List<String> ordered = ids.stream().filter(matched::contains).toList();
+        int from = Math.min((page - 1) * size, ordered.size());
+        List<String> pageIds = ordered.subList(from, Math.min(from + size, ordered.size()));
+
+        Map<String, Users> byId = pageIds.isEmpty() ? Map.of() : this.listByIds(pageIds).stream()
+                .collect(Collectors.toMap(Users::getId, u -> u));
+        List<UserBriefVO> data = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toBriefVO)
+                .toList();
+        return new PageResponse<>(data, ordered.size(), page, size, (ordered.size() + size - 1) / size);
+    }
+
+    private UserBriefVO toBriefVO(Users user) {
+        return UserBriefVO.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .avatarUrl(user.getAvatarUrl())
+                .description(user.getDescription())
+                .createdAt(user.getCreatedAt())
+                .profileVersion(user.getProfileVersion())
+                .build();
+    }
+
     @Override
     public UserBriefVO getUserBriefById(String userId) {
         Users user = this.getById(userId);
@@ -481,6 +590,7 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
                 .avatarUrl(user.getAvatarUrl())
                 .description(user.getDescription())
                 .createdAt(user.getCreatedAt())
+                .profileVersion(user.getProfileVersion())
                 .build();
     }
 
@@ -514,107 +624,61 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
             throw new BusinessException(HttpStatus.FORBIDDEN, "Only ADMINs can access this resource.");
         }
 
-        // Step 1: resolve user IDs matching the role filter (DB-level pre-filter)
-        List<String> filteredUserIds = null;
-        if (StrUtil.isNotBlank(role)) {
-            Roles targetRole = rolesService.lambdaQuery().eq(Roles::getName, role.toUpperCase()).one();
-            if (targetRole == null) {
-                return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
-            }
-            filteredUserIds = userRolesService.lambdaQuery()
-                    .eq(UserRoles::getRoleId, targetRole.getId())
-                    .list()
-                    .stream().map(UserRoles::getUserId).toList();
-            if (filteredUserIds.isEmpty()) {
-                return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
-            }
-        }
-
-        // Step 2: DB-level query with keyword and role filters + pagination
-        boolean isAsc = !"desc".equalsIgnoreCase(order);
-        LambdaQueryWrapper<Users> wrapper = new LambdaQueryWrapper<>();
-        if (StrUtil.isNotBlank(keyword)) {
-            wrapper.and(w -> w.like(Users::getName, keyword).or().like(Users::getEmail, keyword));
-        }
-        if (filteredUserIds != null) {
-            wrapper.in(Users::getId, filteredUserIds);
-        }
-        switch (sortBy == null ? "createdAt" : sortBy) {
-            case "name" -> wrapper.orderBy(true, isAsc, Users::getName);
-            case "email" -> wrapper.orderBy(true, isAsc, Users::getEmail);
-            default -> wrapper.orderBy(true, isAsc, Users::getCreatedAt);
-        }
+        // Role, keyword, sort and paging all run in one joined query, so a role held by every
+        // user costs no more than any other filter
+        String sortColumn = switch (sortBy == null ? "createdAt" : sortBy) {
+            case "name" -> "u.name";
+            case "email" -> "u.email";
+            default -> "u.created_at";
+        };
+        IPage<AdminUserVO> usersPage = baseMapper.selectAdminUsers(new Page<>(page, size),
+                roleFilter(role), StrUtil.trimToNull(keyword), sortColumn, !"desc".equalsIgnoreCase(order), null, null);
 
-        IPage<Users> usersPage = this.page(new Page<>(page, size), wrapper);
+        return new PageResponse<>(usersPage.getRecords(), (int) usersPage.getTotal(), page, size, (int) usersPage.getPages());
+    }
 
-        if (usersPage.getRecords().isEmpty()) {
-            return new PageResponse<>(Collections.emptyList(), 0, page, size, 0);
+    @Override
+    public CursorPageResponse<AdminUserVO> listUsersAdminByCursor(RequestContext ctx, String role, String keyword, String cursor,
+                                                                  int size, String order, boolean withTotal) {
+        if (!ctx.isAdmin()) {
+            throw new BusinessException(HttpStatus.FORBIDDEN, "Only ADMINs can access this resource.");
         }
+        int limit = Math.max(1, Math.min(size, MAX_BATCH_PAGE_SIZE));
+        boolean isAsc = "asc".equalsIgnoreCase(order);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        String roleName = roleFilter(role);
+        String search = StrUtil.trimToNull(keyword);
 
-        // Step 3: batch-load roles for only the paged user IDs
-        List<String> pageUserIds = usersPage.getRecords().stream().map(Users::getId).toList();
-        Map<String, String> userIdToRoleMap = userRolesService.lambdaQuery()
-                .in(UserRoles::getUserId, pageUserIds)
-                .list()
-                .stream()
-                .collect(Collectors.toMap(
-                        UserRoles::getUserId,
-                        ur -> Optional.ofNullable(rolesService.getById(ur.getRoleId()))
-                                .map(Roles::getName)
-                                .orElse("UNKNOWN"),
-                        (existing, replacement) -> existing
-                ));
-
-        List<AdminUserVO> pagedList = usersPage.getRecords().stream()
-                .map(user -> AdminUserVO.builder()
-                        .id(user.getId())
-                        .name(user.getName())
-                        .email(user.getEmail())
-                        .avatarUrl(user.getAvatarUrl())
-                        .description(user.getDescription())
-                        .createdAt(user.getCreatedAt())
-                        .role(userIdToRoleMap.getOrDefault(user.getId(), "UNKNOWN"))
-                        .build())
-                .toList();
+        List<AdminUserVO> rows = baseMapper.selectAdminUsers(new Page<>(1, limit + 1, false),
+                        roleName, search, "u.created_at", isAsc,
+                        after == null ? null : after.createdAt(), after == null ? null : after.id())
+                .getRecords();
+        Long total = withTotal ? baseMapper.countAdminUsers(roleName, search) : null;
 
-        return new PageResponse<>(pagedList, (int) usersPage.getTotal(), page, size, (int) usersPage.getPages());
+        return CursorPageResponse.of(rows, limit, u -> new KeysetCursor(u.getCreatedAt(), u.getId()), total);
     }
 
+    private static String roleFilter(String role) {
+        return StrUtil.isBlank(role) ? null : role.trim().toUpperCase();
+    }
 
-
-    private void sendResetPasswordHtmlEmail(String email, String token) {
+    /**
+     * Replaces a password hash stored at an older BCrypt cost while the plain password is at hand.
+     * Only if the hash is unchanged since it was read, so a concurrent reset wins; and never at the
+     * cost of the login itself.
+     */
+    private void rehashIfNeeded(Users user, String plainPassword) {
+        if (!passwordUtil.needsRehash(user.getPassword())) {
+            return;
+        }
         try {
-            String resetUrl = frontendProperties.buildResetPasswordUrl(token);
-            String subject = "[Contest Platform] Password Reset Request";
-
-            String content = String.format("""
-            <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
-              <p>Hello,</p>
-
-              <p>We received a request to reset your password.</p>
-
-              <p>
-                Click the link below to set a new password (valid for <b>%d minutes</b>):<br>
-                👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click here to reset your password</a>
-              </p>
-
-              <p>If you did not request this, please ignore this email.</p>
-
-              <br>
-              <p>Regards,<br><b>Danish Competition Platform</b></p>
-            </div>
-            """, RESET_LINK_EXPIRATION_MINUTES, resetUrl);
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(email);
-            helper.setSubject(subject);
-            helper.setText(content, true);
-
-            mailSender.send(message);
-        } catch (MessagingException | jakarta.mail.MessagingException e) {
-            throw new RuntimeException("Failed to send reset password email", e);
+            boolean updated = this.update(new LambdaUpdateWrapper<Users>()
+                    .set(Users::getPassword, passwordUtil.encryptPassword(plainPassword))
+                    .eq(Users::getId, user.getId())
+                    .eq(Users::getPassword, user.getPassword()));
+            log.info("Password hash rehashed at cost {}: userId={}, updated={}", passwordUtil.getCost(), user.getId(), updated);
+        } catch (BusinessException e) {
+            log.warn("Skipping password rehash for userId={}: {}", user.getId(), e.getMessage());
         }
     }
 
@@ -2,36 +2,91 @@ package com.w16a.danish.user.util;
 
 import cn.hutool.core.util.ReUtil;
 import cn.hutool.core.util.StrUtil;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.user.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 
 /**
+ * BCrypt runs on {@code passwordHashingExecutor} rather than on the request threads, which only
+ * wait for it. When the executor's queue is full the request is refused with 429 at once instead
+ * of piling up behind a login spike. {@code password.hash} times each hash by operation,
+ * {@code password.hash.wait} the time spent queued, and {@code password.hash.rejected} counts refusals.
+ *
+ * <p>The cost is {@code password-hashing.cost}, pinned so every instance hashes alike. With
+ * {@code password-hashing.calibrate} on, it is instead picked at startup as the highest that hashes
+ * within {@code target-latency} on this machine; instances on different hardware would then pick
+ * different costs and rehash each other's hashes on every login. Hashes stored at another cost are
+ * replaced on the owner's next login, see {@link #needsRehash}.
+ *
  * @author Eddy ZHANG
  * @date 2025/03/16
  * @description Util class for password encryption and verification
  */
+@Slf4j
 @Component
 public class PasswordUtil {
 
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int cost;
     private final BCryptPasswordEncoder passwordEncoder;
 
-    public PasswordUtil(BCryptPasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
+    public PasswordUtil(ThreadPoolTaskExecutor passwordHashingExecutor, PasswordHashingProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.cost = properties.isCalibrate() ? calibrate(properties, PasswordUtil::timeHash) : properties.getCost();
+        this.passwordEncoder = new BCryptPasswordEncoder(cost);
+        log.info("BCrypt cost {}{}", cost, properties.isCalibrate() ? " (calibrated to " + properties.getTargetLatency().toMillis() + "ms per hash)" : "");
     }
 
     /**
      * Encrypt password using BCrypt
      */
     public String encryptPassword(String plainPassword) {
-        return passwordEncoder.encode(plainPassword);
+        return hash("encode", () -> passwordEncoder.encode(plainPassword));
     }
 
     /**
      * Verify if the raw password matches the encoded password
      */
     public boolean verifyPassword(String plainPassword, String hashedPassword) {
-        return passwordEncoder.matches(plainPassword, hashedPassword);
+        return hash("verify", () -> passwordEncoder.matches(plainPassword, hashedPassword));
+    }
+
+    /**
+     * Whether a stored hash was made at another cost than the current one, and should be replaced
+     * while the plain password is at hand after a successful login.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(hashedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    public int getCost() {
+        return cost;
     }
 
     /**
@@ -48,4 +103,62 @@ public class PasswordUtil {
                 ReUtil.isMatch(".*\\d.*", pwd);
     }
 
+    private <T> T hash(String operation, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = passwordHashingExecutor.submit(() -> {
+                meterRegistry.timer("password.hash.wait").record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return Timer.builder("password.hash").tag("operation", operation).register(meterRegistry).record(work);
+            });
+        } catch (TaskRejectedException e) {
+            meterRegistry.counter("password.hash.rejected").increment();
+            throw new BusinessException(HttpStatus.TOO_MANY_REQUESTS, "Too many password requests right now, please try again shortly");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "Password check was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * The highest cost within bounds whose hash takes no longer than the target, found by timing
+     * the minimum cost once: each step up doubles the work.
+     *
+     * @param timeHash nanoseconds one hash takes at the given cost
+     */
+    static int calibrate(PasswordHashingProperties properties, IntToLongFunction timeHash) {
+        long nanos = timeHash.applyAsLong(properties.getMinCost());
+        long target = properties.getTargetLatency().toNanos();
+        int chosen = properties.getMinCost();
+        while (chosen < properties.getMaxCost() && nanos * 2 <= target) {
+            chosen++;
+            nanos *= 2;
+        }
+        return chosen;
+    }
+
+    /**
+     * Best of three after a warm-up, so class loading and the JIT do not inflate it.
+     */
+    private static long timeHash(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        encoder.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        log.debug("BCrypt cost {} takes {}", cost, Duration.ofNanos(best));
+        return best;
+    }
 }
@@ -0,0 +1,236 @@
+package com.w16a.danish.user.config;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.w16a.danish.user.domain.mq.*;
+import com.w16a.danish.user.domain.po.Users;
+import com.w16a.danish.user.mail.DeliveredNotifications;
+import com.w16a.danish.user.mail.MailTemplates;
+import com.w16a.danish.user.mail.NotificationConsumer;
+import com.w16a.danish.user.mail.NotificationPriority;
+import com.w16a.danish.user.mail.NotificationRecipients;
+import com.w16a.danish.user.mail.OutgoingMail;
+import com.w16a.danish.user.mapper.TeamMapper;
+import com.w16a.danish.user.mapper.UsersMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * The notification listeners render each event of a batch through {@link MailTemplates} and hand
+ * the batch to {@link EmailService} in one call, through {@link NotificationConsumer}.
+ */
+class NotificationListenersTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 4, 20, 14, 30);
+
+    private static final Jackson2JsonMessageConverter CONVERTER = new Jackson2JsonMessageConverter();
+
+    private EmailService emailService;
+    private RegistrationEventListener registrationListener;
+    private CompetitionJudgeEventListener judgeListener;
+    private AwardWinnerEventListener awardListener;
+    private AccountMailListener accountMailListener;
+    private UsersMapper usersMapper;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        when(emailService.send(anyList(), any())).thenReturn(List.of());
+        NotificationConsumer consumer = new NotificationConsumer(emailService, mock(RabbitTemplate.class),
+                new MailDeliveryProperties(), new SimpleMeterRegistry(), mock(DeliveredNotifications.class));
+        FrontendProperties frontendProperties = new FrontendProperties();
+        frontendProperties.setBaseUrl("http://localhost:3000");
+        frontendProperties.setCompetitionPath("/project");
+        frontendProperties.setCompetitionJudgePath("/rating");
+        MailTemplates mailTemplates = new MailTemplates();
+        usersMapper = mock(UsersMapper.class);
+        registrationListener = new RegistrationEventListener(consumer, frontendProperties, mailTemplates,
+                new NotificationRecipients(mock(TeamMapper.class), usersMapper));
+        judgeListener = new CompetitionJudgeEventListener(consumer, frontendProperties, mailTemplates);
+        awardListener = new AwardWinnerEventListener(consumer, frontendProperties, mailTemplates);
+        accountMailListener = new AccountMailListener(consumer, mailTemplates);
+    }
+
+    private static List<Message> messages(Object... events) {
+        return Arrays.stream(events).map(event -> CONVERTER.toMessage(event, new MessageProperties())).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutgoingMail> sent() {
+        ArgumentCaptor<List<OutgoingMail>> mails = ArgumentCaptor.forClass(List.class);
+        verify(emailService).send(mails.capture(), any());
+        return mails.getValue();
+    }
+
+    @Test
+    @DisplayName("✅ Registration mail renders exactly as the String.format version did")
+    void registerSuccessMatchesPreviousMarkup() {
+        RegisterSuccessMessage message = new RegisterSuccessMessage();
+        message.setUserName("Alice");
+        message.setUserEmail("alice@example.com");
+        message.setCompetitionName("Design Cup");
+        message.setRegisterTime(AT);
+
+        registrationListener.handleRegisterSuccess(messages(message));
+
+        OutgoingMail mail = sent().get(0);
+        assertThat(mail.to()).isEqualTo("alice@example.com");
+        assertThat(mail.subject()).isEqualTo("✅ Registration Submitted – Design Cup");
+        assertThat(mail.htmlContent()).isEqualTo("""
+                <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
+                  <p>Hi <b>Alice</b>,</p>
+
+                  <p>Your registration for <b>Design Cup</b> has been <span style="color:green;font-weight:bold;">successfully submitted</span>.</p>
+
+                  <hr>
+
+                  <p><b>👤 Name:</b> Alice<br>
+                     <b>📅 Time:</b> 2025-04-20 14:30</p>
+
+                  <p>You can view your competitions here:<br>
+                  👉 <a href="http://localhost:3000/project/alice%40example.com" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
+
+                  <hr>
+
+                  <p style="font-size:12px;color:gray;">
+                    This is an automated message from the <b>Danish Competition Platform</b>.
+                  </p>
+                </div>""");
+    }
+
+    @Test
+    @DisplayName("✅ Registration and submission events each become one mail of the batch")
+    void registrationEvents() {
+        ParticipantRemovedMessage removed = new ParticipantRemovedMessage();
+        removed.setUserName("Bob <script>");
+        removed.setUserEmail("bob@example.com");
+        removed.setCompetitionName("Cup");
+        removed.setRemovedBy("Organizer");
+        removed.setRemovedAt(AT);
+        registrationListener.handleParticipantRemoved(messages(removed, removed));
+        List<OutgoingMail> mails = sent();
+        assertThat(mails).hasSize(2);
+        assertThat(mails.get(0).htmlContent()).contains("Bob &lt;script&gt;", "<b>Organizer</b>", "2025-04-20 14:30");
+
+        SubmissionUploadedMessage uploaded = new SubmissionUploadedMessage();
+        uploaded.setUserName("Carol");
+        uploaded.setUserEmail("carol@example.com");
+        uploaded.setCompetitionName("Cup");
+        uploaded.setTitle("Bike shelter");
+        uploaded.setSubmittedAt(AT);
+        clearInvocations(emailService);
+        registrationListener.handleSubmissionUploaded(messages(uploaded));
+        assertThat(sent().get(0).htmlContent()).contains("<b>Bike shelter</b>", "/project/carol%40example.com");
+
+        SubmissionReviewedMessage reviewed = new SubmissionReviewedMessage();
+        reviewed.setUserName("Carol");
+        reviewed.setUserEmail("carol@example.com");
+        reviewed.setCompetitionName("Cup");
+        reviewed.setTitle("Bike shelter");
+        reviewed.setReviewStatus("REJECTED");
+        reviewed.setReviewedAt(AT);
+        clearInvocations(emailService);
+        registrationListener.handleSubmissionReviewed(messages(reviewed));
+        assertThat(sent().get(0).htmlContent()).contains("color:red;\">REJECTED", "Review Comments:</b> </p>");
+    }
+
+    @Test
+    @DisplayName("✅ An event sent with ids is mailed to the user looked up here; one for a deleted user is dropped")
+    void registrationEventsByIdAreAddressedHere() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Users.class);
+        when(usersMapper.selectList(any())).thenReturn(List.of(
+                new Users().setId("u1").setName("Alice").setEmail("alice@example.com"),
+                new Users().setId("o1").setName("Organizer")));
+        ParticipantRemovedMessage removed = new ParticipantRemovedMessage();
+        removed.setUserId("u1");
+        removed.setRemovedById("o1");
+        removed.setCompetitionName("Cup");
+        removed.setRemovedAt(AT);
+        ParticipantRemovedMessage gone = new ParticipantRemovedMessage();
+        gone.setUserId("deleted");
+        gone.setCompetitionName("Cup");
+
+        registrationListener.handleParticipantRemoved(messages(removed, gone));
+
+        List<OutgoingMail> mails = sent();
+        assertThat(mails).hasSize(1);
+        assertThat(mails.get(0).to()).isEqualTo("alice@example.com");
+        assertThat(mails.get(0).htmlContent()).contains("Alice", "<b>Organizer</b>");
+        verify(usersMapper).selectList(any());
+    }
+
+    @Test
+    @DisplayName("✅ A password reset is mailed from the high-priority lane with its link")
+    void passwordReset() {
+        PasswordResetMessage reset = new PasswordResetMessage();
+        reset.setUserName("Alice");
+        reset.setUserEmail("alice@example.com");
+        reset.setResetUrl("http://localhost:3000/reset?token=t&x=1");
+        reset.setValidMinutes(15);
+
+        accountMailListener.handlePasswordReset(messages(reset));
+
+        OutgoingMail mail = sent().get(0);
+        assertThat(mail.to()).isEqualTo("alice@example.com");
+        assertThat(mail.subject()).isEqualTo("[Contest Platform] Password Reset Request");
+        assertThat(mail.htmlContent()).contains("Hi <b>Alice</b>", "<b>15 minutes</b>",
+                "href=\"http://localhost:3000/reset?token=t&amp;x=1\"");
+        verify(emailService).send(anyList(), eq(NotificationPriority.HIGH));
+    }
+
+    @Test
+    @DisplayName("✅ Judge and award events pick their template")
+    void judgeAndAwardEvents() {
+        JudgeAssignedMessage assigned = new JudgeAssignedMessage();
+        assigned.setJudgeName("Dan");
+        assigned.setJudgeEmail("dan@example.com");
+        assigned.setCompetitionName("Cup");
+        assigned.setAssignedAt(AT);
+        judgeListener.handleJudgeAssigned(messages(assigned));
+        assertThat(sent().get(0).htmlContent()).contains("assigned as a <b>Judge</b>", "/rating/dan%40example.com");
+
+        JudgeRemovedMessage removed = new JudgeRemovedMessage();
+        removed.setJudgeName("Dan");
+        removed.setJudgeEmail("dan@example.com");
+        removed.setCompetitionName("Cup");
+        removed.setRemovedAt(AT);
+        clearInvocations(emailService);
+        judgeListener.handleJudgeRemoved(messages(removed));
+        assertThat(sent().get(0).subject()).isEqualTo("❌ Judge Removal Notification – Cup");
+
+        AwardWinnerMessage won = new AwardWinnerMessage();
+        won.setUserName("Eve");
+        won.setUserEmail("eve@example.com");
+        won.setCompetitionName("Cup");
+        won.setAwardName("Gold & Glory");
+        won.setAwardedAt(AT);
+        AwardWinnerMessage participated = new AwardWinnerMessage();
+        participated.setUserName("Fay");
+        participated.setUserEmail("fay@example.com");
+        participated.setCompetitionName("Cup");
+        participated.setAwardName("None");
+        participated.setAwardedAt(AT);
+        clearInvocations(emailService);
+        awardListener.handleAwardWinner(messages(won, participated));
+        List<OutgoingMail> mails = sent();
+        assertThat(mails.get(0).subject()).startsWith("🏆 Congratulations!");
+        assertThat(mails.get(0).htmlContent()).contains("Gold &amp; Glory");
+        assertThat(mails.get(1).subject()).isEqualTo("Thank You for Participating – Cup");
+        assertThat(mails.get(1).htmlContent()).contains("Explore Competitions");
+    }
+}
@@ -2,6 +2,7 @@ package com.w16a.danish.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
 import com.w16a.danish.user.domain.dto.TeamCreateDTO;
 import com.w16a.danish.user.domain.dto.TeamUpdateDTO;
 import com.w16a.danish.user.domain.vo.*;
@@ -217,6 +218,19 @@ class TeamControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("✅ Should page team briefs within a set of IDs")
+    void testPageTeamBriefsByIds() throws Exception {
+        when(teamService.pageTeamBriefsByIds(any()))
+                .thenReturn(new PageResponse<>(List.of(new TeamInfoVO()), 1, 1, 10, 1));
+
+        mockMvc.perform(post("/teams/public/brief/page")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamPageQueryDTO().setIds(List.of("team-1")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
     @Test
     @DisplayName("✅ Should check if user is in team")
     void testIsUserInTeam() throws Exception {
@@ -2,14 +2,18 @@ package com.w16a.danish.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
 import com.w16a.danish.user.config.FrontendProperties;
 import com.w16a.danish.user.config.GithubOAuthProperties;
 import com.w16a.danish.user.config.GoogleOAuthProperties;
 import com.w16a.danish.user.domain.dto.*;
 import com.w16a.danish.user.domain.vo.*;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
-import com.w16a.danish.user.feign.FileServiceClient;
+import com.w16a.danish.common.http.StreamingMultipartClient;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
+import com.w16a.danish.user.mail.NotificationDeadLetters;
 import com.w16a.danish.user.service.IUsersService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -83,7 +87,13 @@ class UsersControllerTest {
     private IUsersService userService;
 
     @MockitoBean
-    private FileServiceClient fileServiceClient;
+    private FileDeletionQueue fileDeletionQueue;
+
+    @MockitoBean
+    private StreamingMultipartClient streamingMultipartClient;
+
+    @MockitoBean
+    private NotificationDeadLetters notificationDeadLetters;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -170,7 +180,7 @@ class UsersControllerTest {
     void testUploadAvatarAndUpdateProfile() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "avatar.png", MediaType.IMAGE_PNG_VALUE, "test image content".getBytes());
 
-        when(fileServiceClient.uploadAvatar(any(MultipartFile.class))).thenReturn(ResponseEntity.ok("http://mockurl/avatar.png"));
+        when(streamingMultipartClient.upload(anyString(), anyString(), any(MultipartFile.class))).thenReturn("http://mockurl/avatar.png");
         when(userService.getUserProfile(anyString())).thenReturn(new UserProfileVO());
         when(userService.updateUserProfile(anyString(), any(UpdateUserDTO.class))).thenReturn(new UserProfileVO());
 
@@ -233,6 +243,19 @@ class UsersControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("✅ Should page users within a set of IDs")
+    void testPageUsersByIds() throws Exception {
+        when(userService.pageUserBriefsByIds(any()))
+                .thenReturn(new PageResponse<>(List.of(new UserBriefVO()), 1, 1, 10, 1));
+
+        mockMvc.perform(post("/users/query-by-ids/page")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserPageQueryDTO().setIds(List.of("1")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
     @Test
     @DisplayName("✅ Should get user brief by ID")
     void testGetUserBriefById() throws Exception {
@@ -267,6 +290,37 @@ class UsersControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("✅ Should scroll users for admin with a cursor")
+    void testScrollUsersAdmin() throws Exception {
+        when(userService.listUsersAdminByCursor(any(RequestContext.class), eq("JUDGE"), isNull(), eq("abc"), eq(20), eq("desc"), eq(true)))
+                .thenReturn(CursorPageResponse.<AdminUserVO>builder().data(List.of()).size(20).nextCursor("def").hasNext(true).build());
+
+        mockMvc.perform(get("/users/admin/list/cursor")
+                        .header("User-ID", "1")
+                        .header("User-Role", "ADMIN")
+                        .param("role", "JUDGE")
+                        .param("cursor", "abc")
+                        .param("size", "20")
+                        .param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("✅ Should replay parked notification events for admin")
+    void testReplayDeadNotifications() throws Exception {
+        when(notificationDeadLetters.replay(any(RequestContext.class), eq("award_winner_queue"), eq(20))).thenReturn(3);
+
+        mockMvc.perform(post("/users/admin/notifications/award_winner_queue/replay")
+                        .header("User-ID", "1")
+                        .header("User-Role", "ADMIN")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(3));
+    }
+
     @Test
     @DisplayName("✅ Should redirect to GitHub OAuth page")
     void testRedirectToGithubOauth() throws Exception {
@@ -366,8 +420,8 @@ class UsersControllerTest {
         UserProfileVO profileWithOldAvatar = new UserProfileVO();
         profileWithOldAvatar.setAvatarUrl("http://mock-bucket/mock-folder/old-avatar.png");
 
-        when(fileServiceClient.uploadAvatar(any(MultipartFile.class)))
-                .thenReturn(ResponseEntity.ok("http://mock-bucket/mock-folder/new-avatar.png"));
+        when(streamingMultipartClient.upload(anyString(), anyString(), any(MultipartFile.class)))
+                .thenReturn("http://mock-bucket/mock-folder/new-avatar.png");
         when(userService.getUserProfile(anyString()))
                 .thenReturn(profileWithOldAvatar);
         when(userService.updateUserProfile(anyString(), any(UpdateUserDTO.class)))
@@ -379,7 +433,8 @@ class UsersControllerTest {
                         .header("User-Role", "PARTICIPANT"))
                 .andExpect(status().isOk());
 
-        verify(fileServiceClient, times(1)).deleteFile("mock-folder", "old-avatar.png");
+        verify(fileDeletionQueue, times(1)).enqueueReplaced("http://mock-bucket/mock-folder/old-avatar.png",
+                "http://mock-bucket/mock-folder/new-avatar.png");
 
     }
 
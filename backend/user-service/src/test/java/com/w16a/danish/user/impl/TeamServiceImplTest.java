@@ -1,8 +1,11 @@
 package com.w16a.danish.user.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.baomidou.mybatisplus.extension.conditions.update.LambdaUpdateChainWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.TeamPageQueryDTO;
 import com.w16a.danish.user.domain.dto.TeamCreateDTO;
 import com.w16a.danish.user.domain.dto.TeamUpdateDTO;
 import com.w16a.danish.user.domain.po.Team;
@@ -566,6 +569,29 @@ class TeamServiceImplTest {
         assertThat(result.getFirst().getTeamId()).isEqualTo("tid");
     }
 
+    @Test
+    @DisplayName("✅ Should page team briefs within the given IDs")
+    void testPageTeamBriefsByIds_Success() {
+        Page<Team> page = new Page<>(1, 10, 1);
+        page.setRecords(List.of(new Team().setId("tid").setName("TeamA")));
+        doReturn(page).when(teamService).page(any(Page.class), any(LambdaQueryWrapper.class));
+
+        PageResponse<TeamInfoVO> result = teamService.pageTeamBriefsByIds(
+                new TeamPageQueryDTO().setIds(List.of("tid", "other")).setKeyword("Team").setSortBy("teamName"));
+
+        assertThat(result.getData()).extracting(TeamInfoVO::getTeamId).containsExactly("tid");
+        assertThat(result.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("✅ Should return an empty team page without querying when no IDs")
+    void testPageTeamBriefsByIds_Empty() {
+        PageResponse<TeamInfoVO> result = teamService.pageTeamBriefsByIds(new TeamPageQueryDTO());
+
+        assertThat(result.getData()).isEmpty();
+        verify(teamService, never()).page(any(Page.class), any(LambdaQueryWrapper.class));
+    }
+
     // === isUserInTeam ===
     @Test
     @DisplayName("✅ Should return true when user is in team")
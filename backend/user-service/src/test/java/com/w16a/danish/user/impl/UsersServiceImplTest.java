@@ -1,39 +1,49 @@
 package com.w16a.danish.user.impl;
 
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.domain.dto.UserPageQueryDTO;
 import com.w16a.danish.user.config.FrontendProperties;
 import com.w16a.danish.user.config.GithubOAuthProperties;
 import com.w16a.danish.user.config.JwtConfig;
 import com.w16a.danish.user.domain.dto.*;
+import com.w16a.danish.user.domain.mq.UserProfileUpdatedMessage;
 import com.w16a.danish.user.domain.po.Roles;
 import com.w16a.danish.user.domain.po.UserRoles;
 import com.w16a.danish.user.domain.po.Users;
 import com.w16a.danish.user.domain.vo.*;
+import com.w16a.danish.common.domain.vo.CursorPageResponse;
+import com.w16a.danish.common.domain.vo.KeysetCursor;
 import com.w16a.danish.common.domain.vo.PageResponse;
 import com.w16a.danish.common.domain.vo.UserBriefVO;
 import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.common.messaging.FileDeletionQueue;
 import com.w16a.danish.user.feign.*;
 import com.w16a.danish.user.mapper.UsersMapper;
+import com.w16a.danish.user.notify.AccountMailNotifier;
+import com.w16a.danish.user.notify.UserProfileNotifier;
 import com.w16a.danish.user.service.IRolesService;
 import com.w16a.danish.user.service.IUserRolesService;
 import com.w16a.danish.user.service.impl.UsersServiceImpl;
 import com.w16a.danish.user.util.JwtUtil;
 import com.w16a.danish.user.util.PasswordUtil;
-import jakarta.mail.Session;
-import jakarta.mail.internet.MimeMessage;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.mail.javamail.JavaMailSender;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -59,10 +69,12 @@ class UsersServiceImplTest {
     @Mock private JwtUtil jwtUtil;
     @Mock private RedisTemplate<String, String> redisTemplate;
     @Mock private ValueOperations<String, String> valueOperations;
-    @Mock private JavaMailSender mailSender;
+    @Mock private AccountMailNotifier accountMailNotifier;
     @Mock private GithubOAuthClient githubOAuthClient;
     @Mock private GithubUserClient githubUserClient;
     @Mock private FrontendProperties frontendProperties;
+    @Mock private UserProfileNotifier userProfileNotifier;
+    @Mock private FileDeletionQueue fileDeletionQueue;
     @Mock
     private GithubOAuthProperties githubOAuthProperties;
 
@@ -133,6 +145,59 @@ class UsersServiceImplTest {
         assertThat(result.getAccessToken()).isEqualTo("jwt-token");
     }
 
+    @Test
+    @DisplayName("✅ Should rehash a password stored at another cost on login, unless it changed meanwhile")
+    void testLoginRehashesOutdatedHash() {
+        // set(...) resolves lambda columns eagerly, which needs the entity's table metadata
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Users.class);
+        LoginRequestDTO dto = new LoginRequestDTO();
+        dto.setEmail("user@test.com");
+        dto.setPassword("Password1");
+        dto.setRole("PARTICIPANT");
+
+        doReturn(new Users().setId("uid").setEmail(dto.getEmail()).setPassword("$2a$10$old"))
+                .when(usersService).getOne(any(LambdaQueryWrapper.class));
+        when(passwordUtil.verifyPassword(anyString(), anyString())).thenReturn(true);
+        when(passwordUtil.needsRehash("$2a$10$old")).thenReturn(true);
+        when(passwordUtil.encryptPassword("Password1")).thenReturn("$2a$12$new");
+        doReturn(true).when(usersService).update(any(LambdaUpdateWrapper.class));
+        when(userRolesService.getOne(any())).thenReturn(new UserRoles().setRoleId(1));
+        when(rolesService.getById(anyInt())).thenReturn(new Roles().setId(1).setName("PARTICIPANT"));
+        when(jwtUtil.generateAndStoreToken(anyMap(), anyString(), anyLong())).thenReturn("jwt-token");
+
+        assertThat(usersService.login(dto).getAccessToken()).isEqualTo("jwt-token");
+
+        ArgumentCaptor<LambdaUpdateWrapper<Users>> update = ArgumentCaptor.forClass(LambdaUpdateWrapper.class);
+        verify(usersService).update(update.capture());
+        LambdaUpdateWrapper<Users> wrapper = update.getValue();
+        assertThat(wrapper.getSqlSet()).contains("password");
+        // the old hash guards the write, so a reset racing this login is not overwritten
+        assertThat(wrapper.getSqlSegment()).contains("id", "password");
+        assertThat(wrapper.getParamNameValuePairs()).containsValues("$2a$12$new", "uid", "$2a$10$old");
+    }
+
+    @Test
+    @DisplayName("✅ Should still log in when there is no capacity left to rehash the password")
+    void testLoginSkipsRehashWhenSaturated() {
+        LoginRequestDTO dto = new LoginRequestDTO();
+        dto.setEmail("user@test.com");
+        dto.setPassword("Password1");
+        dto.setRole("PARTICIPANT");
+
+        doReturn(new Users().setId("uid").setEmail(dto.getEmail()).setPassword("$2a$10$old"))
+                .when(usersService).getOne(any(LambdaQueryWrapper.class));
+        when(passwordUtil.verifyPassword(anyString(), anyString())).thenReturn(true);
+        when(passwordUtil.needsRehash(anyString())).thenReturn(true);
+        when(passwordUtil.encryptPassword(anyString()))
+                .thenThrow(new BusinessException(HttpStatus.TOO_MANY_REQUESTS, "Too many password requests right now"));
+        when(userRolesService.getOne(any())).thenReturn(new UserRoles().setRoleId(1));
+        when(rolesService.getById(anyInt())).thenReturn(new Roles().setId(1).setName("PARTICIPANT"));
+        when(jwtUtil.generateAndStoreToken(anyMap(), anyString(), anyLong())).thenReturn("jwt-token");
+
+        assertThat(usersService.login(dto).getAccessToken()).isEqualTo("jwt-token");
+        verify(usersService, never()).update(any(LambdaUpdateWrapper.class));
+    }
+
     @Test
     @DisplayName("❌ Should fail login with invalid credentials")
     void testLoginFail() {
@@ -226,21 +291,24 @@ class UsersServiceImplTest {
     @Test
     @DisplayName("✅ Should send reset link successfully")
     void testSendResetLinkSuccess() {
-        Users user = new Users().setId("userId");
+        Users user = new Users().setId("userId").setName("Tester");
 
         LambdaQueryChainWrapper<Users> query = mock(LambdaQueryChainWrapper.class);
         doReturn(query).when(usersService).lambdaQuery();
         when(query.eq(any(), any())).thenReturn(query);
         when(query.one()).thenReturn(user);
 
-        MimeMessage fakeMimeMessage = new MimeMessage(Session.getDefaultInstance(new Properties()));
         when(frontendProperties.buildResetPasswordUrl(anyString())).thenReturn("http://mocked-url/reset");
-        when(mailSender.createMimeMessage()).thenReturn(fakeMimeMessage);
 
         usersService.sendResetLink("test@example.com");
 
         verify(redisTemplate).opsForValue();
         verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        // queued for the high-priority mail lane rather than sent on the request thread
+        verify(accountMailNotifier).sendPasswordReset(argThat(message -> "test@example.com".equals(message.getUserEmail())
+                && "Tester".equals(message.getUserName())
+                && "http://mocked-url/reset".equals(message.getResetUrl())
+                && message.getValidMinutes() == 15));
     }
 
     @Test
@@ -254,7 +322,7 @@ class UsersServiceImplTest {
     @Test
     @DisplayName("✅ Should delete user successfully (Admin privilege)")
     void testDeleteUserById_AdminSuccess() {
-        Users user = new Users().setId("uid").setEmail("email@test.com");
+        Users user = new Users().setId("uid").setEmail("email@test.com").setAvatarUrl("http://h/user-avatar/u.png");
 
         when(usersService.getById(anyString())).thenReturn(user);
         when(usersService.removeById(anyString())).thenReturn(true);
@@ -262,6 +330,7 @@ class UsersServiceImplTest {
         String result = usersService.deleteUserById("uid", ctx("adminUid", "ADMIN"));
 
         assertThat(result).isEqualTo("User deleted successfully");
+        verify(fileDeletionQueue).enqueue("http://h/user-avatar/u.png");
     }
 
     @Test
@@ -276,6 +345,14 @@ class UsersServiceImplTest {
                 .hasMessageContaining("permission");
     }
 
+    /** The update bumps profile_version in SQL; this is the row read back afterwards. */
+    private void stubProfileUpdate(long savedVersion) {
+        doReturn(true).when(usersService).update(any(Users.class), any());
+        when(usersMapper.selectOne(any())).thenReturn(new Users()
+                .setProfileVersion(savedVersion)
+                .setUpdatedAt(LocalDateTime.of(2025, 4, 20, 14, 30)));
+    }
+
     @Test
     @DisplayName("✅ Should update user profile successfully")
     void testUpdateUserProfileSuccess() {
@@ -285,13 +362,67 @@ class UsersServiceImplTest {
         Users user = new Users().setId("uid").setEmail("test@test.com");
 
         when(usersService.getById(anyString())).thenReturn(user);
-        when(usersService.updateById(any())).thenReturn(true);
+        stubProfileUpdate(1L);
 
         UserProfileVO profile = usersService.updateUserProfile("uid", dto);
 
         assertThat(profile).isNotNull();
     }
 
+    @Test
+    @DisplayName("✅ Should bump the profile version in SQL and announce a name/avatar change with the stored version")
+    void testUpdateUserProfilePublishesProfileUpdated() {
+        UpdateUserDTO dto = new UpdateUserDTO();
+        dto.setAvatarUrl("https://cdn/new.png");
+
+        Users user = new Users().setId("uid").setName("Alice").setAvatarUrl("https://cdn/old.png").setProfileVersion(4L);
+
+        when(usersService.getById(anyString())).thenReturn(user);
+        // another edit committed in between, so the row is two versions ahead of what was read
+        stubProfileUpdate(6L);
+
+        usersService.updateUserProfile("uid", dto);
+
+        ArgumentCaptor<LambdaUpdateWrapper<Users>> update = ArgumentCaptor.forClass(LambdaUpdateWrapper.class);
+        verify(usersService).update(any(Users.class), update.capture());
+        assertThat(update.getValue().getSqlSet()).contains("profile_version = profile_version + 1");
+        ArgumentCaptor<UserProfileUpdatedMessage> captor = ArgumentCaptor.forClass(UserProfileUpdatedMessage.class);
+        verify(userProfileNotifier).sendProfileUpdated(captor.capture());
+        assertThat(captor.getValue().getUserId()).isEqualTo("uid");
+        assertThat(captor.getValue().getName()).isEqualTo("Alice");
+        assertThat(captor.getValue().getAvatarUrl()).isEqualTo("https://cdn/new.png");
+        assertThat(captor.getValue().getVersion()).isEqualTo(6L);
+        assertThat(captor.getValue().getUpdatedAt()).isEqualTo(LocalDateTime.of(2025, 4, 20, 14, 30));
+    }
+
+    @Test
+    @DisplayName("✅ Should not announce edits that leave name and avatar unchanged")
+    void testUpdateUserProfileSkipsEventForOtherFields() {
+        UpdateUserDTO dto = new UpdateUserDTO();
+        dto.setDescription("New description");
+
+        when(usersService.getById(anyString())).thenReturn(new Users().setId("uid").setName("Alice"));
+        stubProfileUpdate(1L);
+
+        usersService.updateUserProfile("uid", dto);
+
+        verifyNoInteractions(userProfileNotifier);
+    }
+
+    @Test
+    @DisplayName("❌ Should fail the update when its profile event cannot be written, so the two never diverge")
+    void testUpdateUserProfileFailsWithItsEvent() {
+        UpdateUserDTO dto = new UpdateUserDTO();
+        dto.setName("Alice B");
+
+        when(usersService.getById(anyString())).thenReturn(new Users().setId("uid").setName("Alice"));
+        stubProfileUpdate(1L);
+        doThrow(new RuntimeException("outbox insert failed")).when(userProfileNotifier).sendProfileUpdated(any());
+
+        assertThatThrownBy(() -> usersService.updateUserProfile("uid", dto))
+                .hasMessageContaining("outbox insert failed");
+    }
+
     @Test
     @DisplayName("✅ Should get users by IDs successfully")
     void testGetUsersByIdsSuccess() {
@@ -325,6 +456,69 @@ class UsersServiceImplTest {
     }
 
 
+    @Test
+    @DisplayName("✅ Should page users within the given IDs, keeping only holders of the role")
+    void testPageUserBriefsByIds_RoleAndColumnSort() {
+        LambdaQueryChainWrapper<Roles> roleQuery = mock(LambdaQueryChainWrapper.class);
+        when(rolesService.lambdaQuery()).thenReturn(roleQuery);
+        when(roleQuery.eq(any(), any())).thenReturn(roleQuery);
+        when(roleQuery.one()).thenReturn(new Roles().setId(1).setName("PARTICIPANT"));
+
+        LambdaQueryChainWrapper<UserRoles> userRoleQuery = mock(LambdaQueryChainWrapper.class);
+        when(userRolesService.lambdaQuery()).thenReturn(userRoleQuery);
+        when(userRoleQuery.eq(any(), any())).thenReturn(userRoleQuery);
+        when(userRoleQuery.in(any(), anyCollection())).thenReturn(userRoleQuery);
+        when(userRoleQuery.list()).thenReturn(List.of(new UserRoles().setUserId("uid1").setRoleId(1)));
+
+        Page<Users> page = new Page<>(1, 10, 1);
+        page.setRecords(List.of(new Users().setId("uid1").setName("User One")));
+        doReturn(page).when(usersService).page(any(Page.class), any(LambdaQueryWrapper.class));
+
+        PageResponse<UserBriefVO> result = usersService.pageUserBriefsByIds(new UserPageQueryDTO()
+                .setIds(List.of("uid1", "uid2")).setRole("participant").setSortBy("name"));
+
+        assertThat(result.getData()).extracting(UserBriefVO::getId).containsExactly("uid1");
+        assertThat(result.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("✅ Should keep the caller's ID order when the sort key is not a user column")
+    void testPageUserBriefsByIds_CallerOrder() {
+        // select(...) resolves lambda columns eagerly, which needs the entity's table metadata
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Users.class);
+        doReturn(List.of("u1", "u2", "u3")).when(usersService).listObjs(any(LambdaQueryWrapper.class), any());
+        doReturn(List.of(new Users().setId("u1"), new Users().setId("u3")))
+                .when(usersService).listByIds(List.of("u3", "u1"));
+
+        PageResponse<UserBriefVO> result = usersService.pageUserBriefsByIds(new UserPageQueryDTO()
+                .setIds(List.of("u3", "u1", "u2")).setSize(2));
+
+        assertThat(result.getData()).extracting(UserBriefVO::getId).containsExactly("u3", "u1");
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getPages()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("✅ Should return an empty user page when nobody in the set holds the role")
+    void testPageUserBriefsByIds_NoRoleHolders() {
+        LambdaQueryChainWrapper<Roles> roleQuery = mock(LambdaQueryChainWrapper.class);
+        when(rolesService.lambdaQuery()).thenReturn(roleQuery);
+        when(roleQuery.eq(any(), any())).thenReturn(roleQuery);
+        when(roleQuery.one()).thenReturn(new Roles().setId(1).setName("PARTICIPANT"));
+
+        LambdaQueryChainWrapper<UserRoles> userRoleQuery = mock(LambdaQueryChainWrapper.class);
+        when(userRolesService.lambdaQuery()).thenReturn(userRoleQuery);
+        when(userRoleQuery.eq(any(), any())).thenReturn(userRoleQuery);
+        when(userRoleQuery.in(any(), anyCollection())).thenReturn(userRoleQuery);
+        when(userRoleQuery.list()).thenReturn(List.of());
+
+        PageResponse<UserBriefVO> result = usersService.pageUserBriefsByIds(new UserPageQueryDTO()
+                .setIds(List.of("uid1")).setRole("PARTICIPANT"));
+
+        assertThat(result.getData()).isEmpty();
+        verify(usersService, never()).page(any(Page.class), any(LambdaQueryWrapper.class));
+    }
+
     @Test
     @DisplayName("✅ Should get user brief by ID successfully")
     void testGetUserBriefByIdSuccess() {
@@ -364,13 +558,66 @@ class UsersServiceImplTest {
     @Test
     @DisplayName("✅ Should list admin users successfully")
     void testListUsersAdminSuccess() {
-        IPage<Users> emptyPage = new Page<>();
-        emptyPage.setRecords(Collections.emptyList());
-        when(usersMapper.selectPage(any(), any())).thenReturn(emptyPage);
+        IPage<AdminUserVO> result = new Page<>(1, 10, 1);
+        result.setRecords(List.of(AdminUserVO.builder().id("uid").role("Participant").build()));
+        when(usersMapper.selectAdminUsers(any(), any(), any(), any(), anyBoolean(), any(), any())).thenReturn(result);
 
         PageResponse<AdminUserVO> page = usersService.listUsersAdmin(ctx("adminId", "ADMIN"), null, null, 1, 10, "createdAt", "asc");
 
-        assertThat(page).isNotNull();
+        assertThat(page.getData()).extracting(AdminUserVO::getRole).containsExactly("Participant");
+        assertThat(page.getTotal()).isEqualTo(1);
+        verify(usersMapper).selectAdminUsers(any(), isNull(), isNull(), eq("u.created_at"), eq(true), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("✅ Should filter admin users by role and keyword in the joined query alone")
+    void testListUsersAdmin_RoleFilterInQuery() {
+        IPage<AdminUserVO> empty = new Page<>(2, 10);
+        when(usersMapper.selectAdminUsers(any(), any(), any(), any(), anyBoolean(), any(), any())).thenReturn(empty);
+
+        usersService.listUsersAdmin(ctx("adminId", "ADMIN"), "participant", " ali ", 2, 10, "email", "desc");
+
+        ArgumentCaptor<IPage<AdminUserVO>> pageArg = ArgumentCaptor.forClass(IPage.class);
+        verify(usersMapper).selectAdminUsers(pageArg.capture(), eq("PARTICIPANT"), eq("ali"), eq("u.email"), eq(false), isNull(), isNull());
+        assertThat(pageArg.getValue().getCurrent()).isEqualTo(2);
+        verifyNoInteractions(userRolesService, rolesService);
+    }
+
+    @Test
+    @DisplayName("✅ Should scroll admin users past the cursor, fetching one extra row to detect the next page")
+    void testListUsersAdminByCursor() {
+        LocalDateTime t = LocalDateTime.of(2025, 1, 1, 12, 0);
+        IPage<AdminUserVO> rows = new Page<>();
+        rows.setRecords(List.of(
+                AdminUserVO.builder().id("u3").createdAt(t.minusMinutes(1)).build(),
+                AdminUserVO.builder().id("u2").createdAt(t.minusMinutes(2)).build(),
+                AdminUserVO.builder().id("u1").createdAt(t.minusMinutes(3)).build()));
+        when(usersMapper.selectAdminUsers(any(), any(), any(), any(), anyBoolean(), any(), any())).thenReturn(rows);
+        when(usersMapper.countAdminUsers("JUDGE", null)).thenReturn(7L);
+
+        CursorPageResponse<AdminUserVO> page = usersService.listUsersAdminByCursor(ctx("adminId", "ADMIN"), "judge", "",
+                new KeysetCursor(t, "u4").encode(), 2, "desc", true);
+
+        assertThat(page.getData()).extracting(AdminUserVO::getId).containsExactly("u3", "u2");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor())).isEqualTo(new KeysetCursor(t.minusMinutes(2), "u2"));
+        assertThat(page.getTotal()).isEqualTo(7L);
+        ArgumentCaptor<IPage<AdminUserVO>> pageArg = ArgumentCaptor.forClass(IPage.class);
+        verify(usersMapper).selectAdminUsers(pageArg.capture(), eq("JUDGE"), isNull(), eq("u.created_at"), eq(false), eq(t), eq("u4"));
+        assertThat(pageArg.getValue().getSize()).isEqualTo(3);
+        assertThat(pageArg.getValue().searchCount()).isFalse();
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse to scroll users for non-admins and reject foreign cursors")
+    void testListUsersAdminByCursor_Refused() {
+        assertThatThrownBy(() -> usersService.listUsersAdminByCursor(ctx("uid", "PARTICIPANT"), null, null, null, 10, "desc", false))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Only ADMINs");
+        assertThatThrownBy(() -> usersService.listUsersAdminByCursor(ctx("adminId", "ADMIN"), null, null, "not-a-cursor", 10, "desc", false))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Invalid cursor");
+        verifyNoInteractions(usersMapper);
     }
 
     @Test
@@ -582,9 +829,8 @@ class UsersServiceImplTest {
         assertThatCode(() -> usersService.sendResetLink("ghost@example.com"))
                 .doesNotThrowAnyException();
 
-        // Verify: mail sender is never invoked
-        verify(mailSender, never()).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        // Verify: no reset mail is queued
+        verify(accountMailNotifier, never()).sendPasswordReset(any());
 
         // Verify: no token stored in Redis
         verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
@@ -612,25 +858,27 @@ class UsersServiceImplTest {
     @Test
     @DisplayName("✅ Should list users admin with empty filters")
     void testListUsersAdmin_EmptyFilters() {
-        IPage<Users> emptyPage = new Page<>();
+        IPage<AdminUserVO> emptyPage = new Page<>();
         emptyPage.setRecords(Collections.emptyList());
-        when(usersMapper.selectPage(any(), any())).thenReturn(emptyPage);
+        when(usersMapper.selectAdminUsers(any(), any(), any(), any(), anyBoolean(), any(), any())).thenReturn(emptyPage);
 
         PageResponse<AdminUserVO> page = usersService.listUsersAdmin(ctx("adminId", "ADMIN"), null, null, 1, 10, null, null);
 
-        assertThat(page).isNotNull();
+        assertThat(page.getData()).isEmpty();
+        verify(usersMapper).selectAdminUsers(any(), isNull(), isNull(), eq("u.created_at"), eq(true), isNull(), isNull());
     }
 
     @Test
     @DisplayName("✅ Should list users admin sorted descending")
     void testListUsersAdmin_SortDesc() {
-        IPage<Users> emptyPage = new Page<>();
+        IPage<AdminUserVO> emptyPage = new Page<>();
         emptyPage.setRecords(Collections.emptyList());
-        when(usersMapper.selectPage(any(), any())).thenReturn(emptyPage);
+        when(usersMapper.selectAdminUsers(any(), any(), any(), any(), anyBoolean(), any(), any())).thenReturn(emptyPage);
 
         PageResponse<AdminUserVO> page = usersService.listUsersAdmin(ctx("adminId", "ADMIN"), null, null, 1, 10, "createdAt", "desc");
 
-        assertThat(page).isNotNull();
+        assertThat(page.getData()).isEmpty();
+        verify(usersMapper).selectAdminUsers(any(), isNull(), isNull(), eq("u.created_at"), eq(false), isNull(), isNull());
     }
 
     @Test
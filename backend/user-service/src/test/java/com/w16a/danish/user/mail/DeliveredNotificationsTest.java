@@ -0,0 +1,51 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DeliveredNotificationsTest {
+
+    private ValueOperations<String, String> values;
+    private DeliveredNotifications delivered;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        delivered = new DeliveredNotifications(redisTemplate, new MailDeliveryProperties());
+    }
+
+    @Test
+    @DisplayName("✅ Returns the ids already recorded and records new ones for the dedup TTL")
+    void findsAndRecordsDeliveredIds() {
+        when(values.multiGet(List.of("mail:delivered:a", "mail:delivered:b"))).thenReturn(Arrays.asList("1", null));
+
+        assertThat(delivered.delivered(List.of("a", "b"))).containsExactly("a");
+
+        delivered.record(List.of("b"));
+        verify(values).set("mail:delivered:b", "1", Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("❌ Without Redis every event counts as new rather than being dropped")
+    void redisFailureTreatsEventsAsNew() {
+        when(values.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(delivered.delivered(List.of("a"))).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package com.w16a.danish.user.mail;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Mails per second for an award fan-out: {@code JavaMailSender.send} one message at a time, a new
+ * SMTP session each (as the listeners used to), against {@link MailDeliveryEngine}. Skipped in
+ * normal builds; run it with
+ *
+ * <pre>
+ *   mvn -pl backend/user-service test -Dtest=MailDeliveryBenchmark -Dbenchmark=true
+ * </pre>
+ *
+ * The server is an in-process GreenMail, so this measures session setup and client-side cost; a
+ * real relay adds a network round trip to every SMTP command, which the pooled connections save
+ * from all but the first mail each.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MailDeliveryBenchmark {
+
+    private static final int MAILS = 500;
+
+    @Test
+    void compareThroughput() throws Exception {
+        GreenMail greenMail = new GreenMail(new ServerSetup(0, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+        try {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("127.0.0.1");
+            mailSender.setPort(greenMail.getSmtp().getPort());
+            List<OutgoingMail> mails = IntStream.range(0, MAILS)
+                    .mapToObj(i -> new OutgoingMail("winner" + i + "@d" + (i % 20) + ".test", "Results", "<p>Hi " + i + "</p>"))
+                    .toList();
+
+            // One unmeasured round first, so JIT warm-up does not count against whichever runs first.
+            sequential(mailSender, mails);
+            System.out.printf("%n%-24s %12s%n", "delivery", "mails/s");
+            System.out.printf("%-24s %12.0f%n", "send() per message", MAILS / seconds(() -> sequential(mailSender, mails)));
+            for (int connections : new int[]{1, 4, 8}) {
+                MailDeliveryProperties properties = new MailDeliveryProperties();
+                properties.setConnections(connections);
+                properties.setPerDomainRate(0);
+                SmtpTransportPool pool = new SmtpTransportPool(mailSender, properties);
+                ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(connections);
+                executor.initialize();
+                MailDeliveryEngine engine = new MailDeliveryEngine(pool, executor, properties);
+                engine.deliver(mails, NotificationPriority.NORMAL);
+                System.out.printf("%-24s %12.0f%n", "engine, " + connections + " connection(s)",
+                        MAILS / seconds(() -> engine.deliver(mails, NotificationPriority.NORMAL)));
+                executor.shutdown();
+                pool.destroy();
+            }
+        } finally {
+            greenMail.stop();
+        }
+    }
+
+    private static void sequential(JavaMailSenderImpl mailSender, List<OutgoingMail> mails) throws Exception {
+        for (OutgoingMail mail : mails) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setTo(mail.to());
+            helper.setSubject(mail.subject());
+            helper.setText(mail.htmlContent(), true);
+            mailSender.send(message);
+        }
+    }
+
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    private static double seconds(Run run) throws Exception {
+        long start = System.nanoTime();
+        run.run();
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
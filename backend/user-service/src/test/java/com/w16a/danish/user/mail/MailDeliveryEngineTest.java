@@ -0,0 +1,150 @@
+package com.w16a.danish.user.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.w16a.danish.user.config.MailDeliveryConfig;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link MailDeliveryEngine} against an in-process GreenMail SMTP server.
+ */
+class MailDeliveryEngineTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private ThreadPoolTaskExecutor executor;
+    private SmtpTransportPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (pool != null) {
+            pool.destroy();
+        }
+    }
+
+    private MailDeliveryEngine engine(MailDeliveryProperties properties, int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        pool = new SmtpTransportPool(mailSender, properties);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getConnections());
+        executor.initialize();
+        return new MailDeliveryEngine(pool, executor, properties);
+    }
+
+    private static List<OutgoingMail> mails(int count, String domain) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new OutgoingMail("user" + i + "@" + (domain == null ? "d" + i + ".test" : domain),
+                        "Subject " + i, "<p>Body " + i + "</p>"))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("✅ Should deliver a batch in parallel over a few reused connections")
+    void deliversBatchOverPooledConnections() throws Exception {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setPerDomainRate(0);
+
+        List<OutgoingMail> failed = engine(properties, ServerSetupTest.SMTP.getPort())
+                .deliver(mails(40, null), NotificationPriority.NORMAL);
+
+        assertThat(failed).isEmpty();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(40);
+        assertThat(received).extracting(MimeMessage::getSubject).contains("Subject 0", "Subject 39");
+        assertThat(pool.opened()).isBetween(1, properties.getConnections());
+    }
+
+    @Test
+    @DisplayName("✅ Should replace a connection once it has carried its share of mails")
+    void retiresConnections() {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setConnections(1);
+        properties.setMaxMessagesPerConnection(3);
+        properties.setPerDomainRate(0);
+
+        engine(properties, ServerSetupTest.SMTP.getPort()).deliver(mails(7, null), NotificationPriority.NORMAL);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+        assertThat(pool.opened()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("✅ Should space out mails to one domain")
+    void ratesLimitPerDomain() {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setPerDomainRate(20);
+        MailDeliveryEngine engine = engine(properties, ServerSetupTest.SMTP.getPort());
+
+        long start = System.nanoTime();
+        engine.deliver(mails(6, "same.test"), NotificationPriority.NORMAL);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(6);
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(5 * 50 - 10);
+    }
+
+    @Test
+    @DisplayName("❌ Should report mails it could not deliver, without retrying bad addresses")
+    void reportsFailures() {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setPerDomainRate(0);
+        OutgoingMail malformed = new OutgoingMail("not an address", "s", "<p>x</p>");
+
+        assertThat(engine(properties, ServerSetupTest.SMTP.getPort()).deliver(List.of(malformed), NotificationPriority.NORMAL))
+                .containsExactly(malformed);
+        assertThat(pool.opened()).isZero();
+
+        tearDown();
+        List<OutgoingMail> unreachable = mails(3, null);
+        assertThat(engine(properties, 1).deliver(unreachable, NotificationPriority.NORMAL)).isEqualTo(unreachable);
+    }
+
+    @Test
+    @DisplayName("✅ Mails waiting for a connection go out by priority, then in the order they came")
+    void queuesByPriority() throws Exception {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setConnections(1);
+        executor = new MailDeliveryConfig(properties).mailDeliveryExecutor();
+        executor.initialize();
+        CountDownLatch busy = new CountDownLatch(1);
+        List<String> sent = new CopyOnWriteArrayList<>();
+
+        executor.execute(new MailDeliveryEngine.Delivery(NotificationPriority.BULK, 0, () -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        executor.execute(new MailDeliveryEngine.Delivery(NotificationPriority.BULK, 1, () -> sent.add("award 1")));
+        executor.execute(new MailDeliveryEngine.Delivery(NotificationPriority.NORMAL, 2, () -> sent.add("review")));
+        executor.execute(new MailDeliveryEngine.Delivery(NotificationPriority.BULK, 3, () -> sent.add("award 2")));
+        executor.execute(new MailDeliveryEngine.Delivery(NotificationPriority.HIGH, 4, () -> sent.add("reset")));
+        busy.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).containsExactly("reset", "review", "award 1", "award 2");
+    }
+}
@@ -0,0 +1,174 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one notification with {@link MailTemplates} against the {@code String.format} text
+ * blocks the listeners used before, for five notification types. Skipped in normal builds; run it
+ * with
+ *
+ * <pre>
+ *   mvn -pl backend/user-service test -Dtest=MailTemplateBenchmark -Dbenchmark=true
+ * </pre>
+ *
+ * The {@code String.format} side also formats the timestamp inline, as the listeners did.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String FOOTER = """
+
+              <hr>
+
+              <p style="font-size:12px;color:gray;">
+                This is an automated message from the <b>Danish Competition Platform</b>.
+              </p>
+            </div>
+            """;
+
+    @Param({"REGISTER_SUCCESS", "SUBMISSION_UPLOADED", "SUBMISSION_REVIEWED", "JUDGE_ASSIGNED", "AWARD_WON"})
+    public Template template;
+
+    private MailTemplates mailTemplates;
+    private Map<String, Object> model;
+    private final LocalDateTime at = LocalDateTime.of(2025, 4, 20, 14, 30);
+
+    @Setup
+    public void setUp() {
+        mailTemplates = new MailTemplates();
+        model = MailTemplates.model(
+                "name", "Alice Example",
+                "competitionName", "Danish Design Challenge 2025",
+                "title", "Solar-powered bike shelter",
+                "statusColor", "green",
+                "reviewStatus", "APPROVED",
+                "reviewComments", "Clear problem statement and a convincing prototype.",
+                "awardName", "Gold",
+                "registeredAt", at,
+                "submittedAt", at,
+                "reviewedAt", at,
+                "assignedAt", at,
+                "awardedAt", at,
+                "competitionUrl", "http://localhost:3000/project/alice%40example.com",
+                "judgingUrl", "http://localhost:3000/rating/alice%40example.com",
+                "platformUrl", "http://localhost:3000");
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return mailTemplates.render(template, model);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        String name = (String) model.get("name");
+        String competition = (String) model.get("competitionName");
+        return switch (template) {
+            case REGISTER_SUCCESS -> String.format("""
+                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
+                      <p>Hi <b>%s</b>,</p>
+
+                      <p>Your registration for <b>%s</b> has been <span style="color:green;font-weight:bold;">successfully submitted</span>.</p>
+
+                      <hr>
+
+                      <p><b>👤 Name:</b> %s<br>
+                         <b>📅 Time:</b> %s</p>
+
+                      <p>You can view your competitions here:<br>
+                      👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
+                    """ + FOOTER, name, competition, name, at.format(FORMATTER), model.get("competitionUrl"));
+            case SUBMISSION_UPLOADED -> String.format("""
+                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
+                      <p>Hi <b>%s</b>,</p>
+
+                      <p>Your submission titled <b>%s</b> for <b>%s</b> has been <span style="color:green;font-weight:bold;">successfully uploaded</span>.</p>
+
+                      <hr>
+
+                      <p><b>📅 Submitted at:</b> %s</p>
+
+                      <p>You can view your competitions here:<br>
+                      👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
+                    """ + FOOTER, name, model.get("title"), competition, at.format(FORMATTER), model.get("competitionUrl"));
+            case SUBMISSION_REVIEWED -> String.format("""
+                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
+                      <p>Hi <b>%s</b>,</p>
+
+                      <p>Your submission titled <b>%s</b> for <b>%s</b> has been reviewed.</p>
+
+                      <p><b>Status:</b> <span style="font-weight:bold;color:%s;">%s</span></p>
+
+                      <p><b>📋 Review Comments:</b> %s</p>
+
+                      <hr>
+
+                      <p><b>📅 Reviewed at:</b> %s</p>
+
+                      <p>You can view your competitions here:<br>
+                      👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your competitions</a></p>
+                    """ + FOOTER, name, model.get("title"), competition, model.get("statusColor"), model.get("reviewStatus"),
+                    model.get("reviewComments"), at.format(FORMATTER), model.get("competitionUrl"));
+            case JUDGE_ASSIGNED -> String.format("""
+                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
+                      <p>Hi <b>%s</b>,</p>
+
+                      <p>Congratulations! You have been assigned as a <b>Judge</b> for the competition <b>%s</b>.</p>
+
+                      <hr>
+
+                      <p><b>📅 Assigned at:</b> %s</p>
+
+                      <p>You can view your assigned competitions here:<br>
+                      👉 <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view your judging competitions</a></p>
+                    """ + FOOTER, name, competition, at.format(FORMATTER), model.get("judgingUrl"));
+            case AWARD_WON -> String.format("""
+                    <div style="font-family:Arial,sans-serif;line-height:1.6;color:#333;">
+                      <p>Hi <b>%s</b>,</p>
+
+                      <p>Congratulations! You have won the following award(s) in <b>%s</b>:</p>
+
+                      <p><b>🏅 Awards:</b> %s</p>
+
+                      <hr>
+
+                      <p><b>📅 Result Announced At:</b> %s</p>
+
+                      <p>👉 Explore more competitions: <a href="%s" style="color:#1a73e8;text-decoration:none;">Click to view</a></p>
+                    """ + FOOTER, name, competition, model.get("awardName"), at.format(FORMATTER), model.get("platformUrl"));
+            default -> throw new IllegalArgumentException(template.name());
+        };
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(MailTemplateBenchmark.class.getName()).build()).run();
+    }
+}
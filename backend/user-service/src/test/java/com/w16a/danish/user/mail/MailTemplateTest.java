@@ -0,0 +1,70 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplateTest {
+
+    private static final Map<String, String> FRAGMENTS = Map.of(
+            "footer", "<i>{{sender}}</i>",
+            "loop", "{{> loop}}");
+
+    private static String render(String source, Map<String, ?> model) {
+        StringBuilder out = new StringBuilder();
+        MailTemplate.compile(source, FRAGMENTS::get).renderTo(out, model);
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("✅ Should substitute variables, escape them, format dates and inline fragments")
+    void rendersModel() {
+        String html = render("<p>Hi {{ name }}, {{when}}</p>{{> footer}}{{missing}}{{{ markup }}}", MailTemplates.model(
+                "name", "<Tom & \"Jerry\">'",
+                "markup", "<br>",
+                "when", LocalDateTime.of(2025, 4, 20, 9, 5),
+                "sender", "Platform",
+                "missing", null));
+
+        assertThat(html).isEqualTo("<p>Hi &lt;Tom &amp; &quot;Jerry&quot;&gt;&#39;, 2025-04-20 09:05</p><i>Platform</i><br>");
+    }
+
+    @Test
+    @DisplayName("❌ Should reject malformed templates when compiling")
+    void rejectsMalformedTemplates() {
+        assertThatThrownBy(() -> render("{{name", Map.of())).hasMessageContaining("Unclosed tag");
+        assertThatThrownBy(() -> render("{{{name}}", Map.of())).hasMessageContaining("Unclosed tag");
+        assertThatThrownBy(() -> render("{{na-me}}", Map.of())).hasMessageContaining("Bad variable name");
+        assertThatThrownBy(() -> render("{{> nope}}", Map.of())).hasMessageContaining("Unknown fragment");
+        assertThatThrownBy(() -> render("{{> footer", Map.of())).hasMessageContaining("Unclosed include");
+        assertThatThrownBy(() -> render("{{> loop}}", Map.of())).hasMessageContaining("include cycle");
+        assertThatThrownBy(() -> MailTemplates.model("odd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("✅ Every notification renders inside the shared layout and reads only known fields")
+    void notificationTemplatesCompile() {
+        MailTemplates templates = new MailTemplates();
+        Set<String> fields = Set.of("name", "competitionName", "title", "statusColor", "reviewStatus", "reviewComments",
+                "removedBy", "awardName", "registeredAt", "removedAt", "submittedAt", "reviewedAt", "assignedAt", "awardedAt",
+                "competitionUrl", "judgingUrl", "platformUrl", "count", "items", "resetUrl", "validMinutes");
+
+        for (Template template : Template.values()) {
+            assertThat(fields).containsAll(templates.compiled(template).variables());
+            String html = templates.render(template, MailTemplates.model("name", "Ann", "competitionName", "Cup", "items", "Cup",
+                    "resetUrl", "Cup"));
+            assertThat(html)
+                    .startsWith("<div style=\"font-family:Arial,sans-serif;line-height:1.6;color:#333;\">\n  <p>Hi <b>Ann</b>,</p>\n\n  <p>")
+                    .contains("Cup")
+                    .endsWith("Danish Competition Platform</b>.\n  </p>\n</div>")
+                    .doesNotContain("{{", "}}");
+        }
+    }
+}
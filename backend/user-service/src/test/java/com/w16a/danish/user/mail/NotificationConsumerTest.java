@@ -0,0 +1,244 @@
+package com.w16a.danish.user.mail;
+
+import com.w16a.danish.common.messaging.MessagingConstants;
+import com.w16a.danish.user.config.EmailService;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import com.w16a.danish.user.config.RabbitListenerConfig;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import com.w16a.danish.user.config.RegistrationEventListener;
+import com.w16a.danish.user.domain.mq.RegisterSuccessMessage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationConsumerTest {
+
+    private static final String QUEUE = RabbitMQConfig.REGISTER_SUCCESS_QUEUE;
+    private static final Function<RegisterSuccessMessage, OutgoingMail> RENDER =
+            event -> new OutgoingMail(event.getUserEmail(), "Registered", "<p>" + event.getCompetitionName() + "</p>");
+
+    private EmailService emailService;
+    private RabbitTemplate rabbitTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveredNotifications deliveredNotifications;
+    private NotificationConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        deliveredNotifications = mock(DeliveredNotifications.class);
+        consumer = new NotificationConsumer(emailService, rabbitTemplate, new MailDeliveryProperties(), meterRegistry,
+                deliveredNotifications);
+    }
+
+    /** A message as registration-service publishes it, typed with its own class name. */
+    private static Message event(String email, Integer attempt) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setHeader("__TypeId__", "com.w16a.danish.registration.domain.mq.RegisterSuccessMessage");
+        if (attempt != null) {
+            properties.setHeader(NotificationConsumer.ATTEMPT_HEADER, attempt);
+        }
+        String json = "{\"userEmail\":\"" + email + "\",\"competitionName\":\"Cup\",\"registerTime\":\"2025-04-20T14:30:00\"}";
+        return new Message(json.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    /** An event as the outbox relay publishes it, with its row's message id. */
+    private static Message relayed(String email, String messageId) {
+        Message message = event(email, null);
+        message.getMessageProperties().setMessageId(messageId);
+        return message;
+    }
+
+    private Message published(String queue) {
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq(""), eq(queue), message.capture());
+        return message.getValue();
+    }
+
+    @Test
+    @DisplayName("✅ Events are read as the listener's type and mailed as one batch")
+    void mailsBatch() {
+        when(emailService.send(anyList(), any())).thenReturn(List.of());
+
+        consumer.consume(QUEUE, List.of(event("a@x.test", null), event("b@x.test", null)), RegisterSuccessMessage.class, RENDER);
+
+        verify(emailService).send(List.of(
+                new OutgoingMail("a@x.test", "Registered", "<p>Cup</p>"),
+                new OutgoingMail("b@x.test", "Registered", "<p>Cup</p>")), NotificationPriority.NORMAL);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    @DisplayName("✅ An event already delivered, or repeated in the batch, is not mailed again")
+    void skipsRepeatedEvents() {
+        when(deliveredNotifications.delivered(List.of("user-1", "user-2"))).thenReturn(Set.of("user-1"));
+        when(emailService.send(anyList(), any())).thenReturn(List.of());
+
+        consumer.consume(QUEUE, List.of(relayed("a@x.test", "user-1"), relayed("b@x.test", "user-2"),
+                relayed("b@x.test", "user-2"), event("c@x.test", null)), RegisterSuccessMessage.class, RENDER);
+
+        verify(emailService).send(List.of(
+                new OutgoingMail("b@x.test", "Registered", "<p>Cup</p>"),
+                new OutgoingMail("c@x.test", "Registered", "<p>Cup</p>")), NotificationPriority.NORMAL);
+        verify(deliveredNotifications).record(List.of("user-2"));
+        assertThat(meterRegistry.counter("notification.duplicate", "queue", QUEUE).count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("❌ An event whose mail failed is not recorded, so its retry is still mailed")
+    void failedEventIsNotRecorded() {
+        when(emailService.send(anyList(), any())).thenAnswer(inv -> List.of(inv.<List<OutgoingMail>>getArgument(0).get(0)));
+
+        consumer.consume(QUEUE, List.of(relayed("a@x.test", "user-1"), relayed("b@x.test", "user-2")),
+                RegisterSuccessMessage.class, RENDER);
+
+        published(RabbitMQConfig.retryQueue(QUEUE, 1));
+        verify(deliveredNotifications).record(List.of("user-2"));
+    }
+
+    @Test
+    @DisplayName("❌ An unreadable event is parked at once and the rest of the batch is still mailed")
+    void parksPoisonMessage() {
+        when(emailService.send(anyList(), any())).thenReturn(List.of());
+        Message poison = new Message("not json".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+        poison.getMessageProperties().setContentType(MessageProperties.CONTENT_TYPE_JSON);
+
+        consumer.consume(QUEUE, List.of(poison, event("a@x.test", null)), RegisterSuccessMessage.class, RENDER);
+
+        Message parked = published(RabbitMQConfig.deadQueue(QUEUE));
+        assertThat(parked.getBody()).isEqualTo("not json".getBytes(StandardCharsets.UTF_8));
+        assertThat((String) parked.getMessageProperties().getHeader(NotificationConsumer.ERROR_HEADER)).isNotBlank();
+        verify(emailService).send(argThat(mails -> mails.size() == 1), eq(NotificationPriority.NORMAL));
+        assertThat(meterRegistry.counter("notification.dead.lettered", "queue", QUEUE).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("❌ An undelivered mail sends its event round the retry queues, then to the dead queue")
+    void retriesThenParks() {
+        when(emailService.send(anyList(), any())).thenAnswer(inv -> inv.getArgument(0));
+
+        consumer.consume(QUEUE, List.of(event("a@x.test", null)), RegisterSuccessMessage.class, RENDER);
+        Message retried = published(RabbitMQConfig.retryQueue(QUEUE, 1));
+        assertThat((Integer) retried.getMessageProperties().getHeader(NotificationConsumer.ATTEMPT_HEADER)).isEqualTo(1);
+
+        clearInvocations(rabbitTemplate);
+        consumer.consume(QUEUE, List.of(event("a@x.test", 2)), RegisterSuccessMessage.class, RENDER);
+        published(RabbitMQConfig.retryQueue(QUEUE, 3));
+
+        clearInvocations(rabbitTemplate);
+        consumer.consume(QUEUE, List.of(event("a@x.test", 3)), RegisterSuccessMessage.class, RENDER);
+        published(RabbitMQConfig.deadQueue(QUEUE));
+
+        assertThat(meterRegistry.counter("notification.retried", "queue", QUEUE).count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("notification.dead.lettered", "queue", QUEUE).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("❌ A batch whose recipients cannot be looked up is tried once more, then sent round the retry queues")
+    void failedResolveRetriesTheBatch() throws Throwable {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.getRetry().setBatchBackoff(Duration.ofMillis(1));
+        RetryOperationsInterceptor interceptor =
+                new RabbitListenerConfig(properties, consumer).batchRetryInterceptor();
+        Message fresh = event("a@x.test", null);
+        Message lastTry = event("b@x.test", 3);
+        List<Message> batch = List.of(fresh, lastTry);
+        batch.forEach(message -> message.getMessageProperties().setConsumerQueue(QUEUE));
+        AtomicInteger deliveries = new AtomicInteger();
+        ProxyMethodInvocation listener = mock(ProxyMethodInvocation.class);
+        when(listener.getArguments()).thenReturn(new Object[]{null, batch});
+        when(listener.getMethod()).thenReturn(RegistrationEventListener.class.getMethod("handleRegisterSuccess", List.class));
+        when(listener.invocableClone()).thenReturn(listener);
+        when(listener.proceed()).thenAnswer(inv -> {
+            deliveries.incrementAndGet();
+            consumer.consume(QUEUE, batch, RegisterSuccessMessage.class, events -> {
+                throw new IllegalStateException("user lookup failed");
+            }, RENDER);
+            return null;
+        });
+
+        interceptor.invoke(listener);
+
+        assertThat(deliveries).hasValue(RabbitListenerConfig.BATCH_ATTEMPTS);
+        verifyNoInteractions(emailService);
+        assertThat((Integer) published(RabbitMQConfig.retryQueue(QUEUE, 1))
+                .getMessageProperties().getHeader(NotificationConsumer.ATTEMPT_HEADER)).isEqualTo(1);
+        published(RabbitMQConfig.deadQueue(QUEUE));
+    }
+
+    @Test
+    @DisplayName("❌ A failed batch that cannot reach its retry queues is put back on its queue rather than dropped")
+    void unroutableBatchIsRequeued() {
+        Message message = event("a@x.test", null);
+        message.getMessageProperties().setConsumerQueue(QUEUE);
+        doThrow(new AmqpConnectException(new ConnectException("broker down")))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+
+        assertThatThrownBy(() -> consumer.recover(List.of(message), new IllegalStateException("user lookup failed")))
+                .isInstanceOf(ImmediateRequeueAmqpException.class);
+    }
+
+    @Test
+    @DisplayName("✅ Time spent queued is recorded per priority class, for first deliveries only")
+    void recordsQueueLatencyPerPriority() {
+        when(emailService.send(anyList(), any())).thenReturn(List.of());
+        Message fresh = event("a@x.test", null);
+        fresh.getMessageProperties().setHeader(MessagingConstants.HEADER_PUBLISHED_AT, System.currentTimeMillis() - 1500);
+        Message retried = event("b@x.test", 1);
+        retried.getMessageProperties().setHeader(MessagingConstants.HEADER_PUBLISHED_AT, System.currentTimeMillis() - 60_000);
+
+        consumer.consume(QUEUE, List.of(fresh, retried, event("c@x.test", null)), RegisterSuccessMessage.class, RENDER);
+        consumer.consume(RabbitMQConfig.AWARD_WINNER_QUEUE, List.of(fresh), RegisterSuccessMessage.class, RENDER);
+
+        Timer normal = meterRegistry.get("notification.queue.latency").tag("priority", "NORMAL").timer();
+        assertThat(normal.count()).isEqualTo(1);
+        assertThat(normal.max(TimeUnit.MILLISECONDS)).isBetween(1500.0, 59_000.0);
+        assertThat(meterRegistry.get("notification.queue.latency").tag("priority", "BULK").timer().count()).isEqualTo(1);
+        verify(emailService).send(anyList(), eq(NotificationPriority.BULK));
+    }
+
+    @Test
+    @DisplayName("✅ Each notification queue gets retry queues with doubling TTLs that lead back to it")
+    void declaresRetryTopology() {
+        List<Queue> queues = new RabbitMQConfig().notificationRetryDeclarables(new MailDeliveryProperties())
+                .getDeclarablesByType(Queue.class);
+
+        assertThat(queues).hasSize(RabbitMQConfig.NOTIFICATION_QUEUES.size() * 4);
+        Map<String, Object> third = queues.stream()
+                .filter(queue -> queue.getName().equals(RabbitMQConfig.retryQueue(QUEUE, 3)))
+                .map(Queue::getArguments).findFirst().orElseThrow();
+        assertThat(third).containsEntry("x-message-ttl", 120_000)
+                .containsEntry("x-dead-letter-exchange", "")
+                .containsEntry("x-dead-letter-routing-key", QUEUE);
+        assertThat(queues).extracting(Queue::getName).contains(RabbitMQConfig.deadQueue(QUEUE));
+    }
+}
@@ -0,0 +1,101 @@
+package com.w16a.danish.user.mail;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import com.w16a.danish.common.context.RequestContext;
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import com.w16a.danish.user.config.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDeadLettersTest {
+
+    private static final String QUEUE = RabbitMQConfig.AWARD_WINNER_QUEUE;
+    private static final RequestContext ADMIN = new RequestContext("u1", "ADMIN");
+
+    private Channel channel;
+    private AmqpAdmin amqpAdmin;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDeadLetters deadLetters;
+
+    @BeforeEach
+    void setUp() {
+        channel = mock(Channel.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.execute(any())).thenAnswer(inv -> inv.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+        amqpAdmin = mock(AmqpAdmin.class);
+        meterRegistry = new SimpleMeterRegistry();
+        deadLetters = new NotificationDeadLetters(rabbitTemplate, amqpAdmin, meterRegistry, new MailDeliveryProperties());
+        deadLetters.registerGauges();
+    }
+
+    private static GetResponse parked(long tag) {
+        AMQP.BasicProperties props = new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .headers(Map.of(NotificationConsumer.ATTEMPT_HEADER, 3, NotificationConsumer.ERROR_HEADER, "boom",
+                        "x-death", "…", "__TypeId__", "AwardWinnerMessage"))
+                .build();
+        return new GetResponse(new Envelope(tag, false, "", RabbitMQConfig.deadQueue(QUEUE)), props, new byte[]{'{', '}'}, 0);
+    }
+
+    @Test
+    @DisplayName("✅ Replay moves parked events back with a fresh retry count, acknowledging each after it is sent")
+    void replaysUpToLimit() throws Exception {
+        when(channel.basicGet(RabbitMQConfig.deadQueue(QUEUE), false)).thenReturn(parked(1), parked(2), parked(3), null);
+
+        assertThat(deadLetters.replay(ADMIN, QUEUE, 2)).isEqualTo(2);
+
+        ArgumentCaptor<AMQP.BasicProperties> props = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel, times(2)).basicPublish(eq(""), eq(QUEUE), props.capture(), any());
+        assertThat(props.getValue().getHeaders()).containsOnlyKeys("__TypeId__");
+        assertThat(props.getValue().getContentType()).isEqualTo("application/json");
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+
+        assertThat(deadLetters.replay(ADMIN, QUEUE, 10)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("❌ Replay is for admins and known notification queues only")
+    void rejectsBadRequests() {
+        assertThatThrownBy(() -> deadLetters.replay(new RequestContext("u2", "PARTICIPANT"), QUEUE, 1))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> deadLetters.replay(ADMIN, "file.delete", 1))
+                .isInstanceOf(BusinessException.class).hasMessageContaining("Unknown notification queue");
+        assertThatThrownBy(() -> deadLetters.replay(ADMIN, QUEUE, 0))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(channel);
+    }
+
+    @Test
+    @DisplayName("✅ Depth gauges read the retry and dead queues, NaN when the broker cannot be asked")
+    void gaugesQueueDepth() {
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.deadQueue(QUEUE))).thenReturn(new QueueInformation("d", 7, 0));
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.retryQueue(QUEUE, 1))).thenReturn(new QueueInformation("r", 2, 0));
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.retryQueue(QUEUE, 3))).thenReturn(new QueueInformation("r", 1, 0));
+        when(amqpAdmin.getQueueInfo(RabbitMQConfig.deadQueue(RabbitMQConfig.JUDGE_ASSIGNED_QUEUE)))
+                .thenThrow(new IllegalStateException("broker down"));
+
+        assertThat(meterRegistry.get("notification.dead.depth").tag("queue", QUEUE).gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("notification.retry.depth").tag("queue", QUEUE).gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("notification.dead.depth").tag("queue", RabbitMQConfig.JUDGE_ASSIGNED_QUEUE)
+                .gauge().value()).isNaN();
+    }
+}
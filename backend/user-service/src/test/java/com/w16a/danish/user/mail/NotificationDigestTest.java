@@ -0,0 +1,222 @@
+package com.w16a.danish.user.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.w16a.danish.user.config.EmailService;
+import com.w16a.danish.user.config.MailDeliveryProperties;
+import com.w16a.danish.user.mail.MailTemplates.Template;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs {@link NotificationDigest} against a map-backed stand-in for its Redis scripts.
+ */
+class NotificationDigestTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 4, 20, 14, 30);
+
+    private final Map<String, Double> due = new HashMap<>();
+    private final Map<String, List<String>> pending = new HashMap<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private RedisTemplate<String, String> redisTemplate;
+    private MailDeliveryProperties properties;
+    private MailTemplates mailTemplates;
+    private NotificationDigest digest;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.rangeByScore(eq(NotificationDigest.DUE_KEY), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenAnswer(inv -> {
+                    double max = inv.getArgument(2);
+                    LinkedHashSet<String> recipients = new LinkedHashSet<>();
+                    due.entrySet().stream()
+                            .filter(entry -> entry.getValue() <= max)
+                            .sorted(Map.Entry.comparingByValue())
+                            .limit(inv.<Long>getArgument(4))
+                            .forEach(entry -> recipients.add(entry.getKey()));
+                    return recipients;
+                });
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(inv -> {
+            List<String> keys = inv.getArgument(1);
+            Object[] args = (Object[]) inv.getRawArguments()[2];
+            String recipient = (String) args[0];
+            if (inv.getArgument(0) == NotificationDigest.HOLD) {
+                due.putIfAbsent(recipient, Double.parseDouble((String) args[1]));
+                List<String> items = pending.computeIfAbsent(keys.get(1), key -> new ArrayList<>());
+                items.add((String) args[2]);
+                if (items.size() >= Integer.parseInt((String) args[3])) {
+                    due.put(recipient, 0d);
+                }
+                return (long) items.size();
+            }
+            if (inv.getArgument(0) == NotificationDigest.TAKE) {
+                Double dueAt = due.get(recipient);
+                if (dueAt == null || dueAt > Double.parseDouble((String) args[1])) {
+                    return List.of();
+                }
+                due.put(recipient, Double.parseDouble((String) args[2]));
+                List<String> claimed = new ArrayList<>();
+                claimed.add(Integer.toString(attempts.merge(keys.get(2), 1, Integer::sum)));
+                claimed.addAll(pending.getOrDefault(keys.get(1), List.of()));
+                return claimed;
+            }
+            // SENT
+            List<String> items = pending.get(keys.get(1));
+            items.subList(0, Integer.parseInt((String) args[1])).clear();
+            attempts.remove(keys.get(2));
+            if (items.isEmpty()) {
+                pending.remove(keys.get(1));
+                due.remove(recipient);
+            } else {
+                due.put(recipient, Double.parseDouble((String) args[2]));
+            }
+            return 1L;
+        });
+
+        properties = new MailDeliveryProperties();
+        properties.getDigest().setEnabled(true);
+        mailTemplates = new MailTemplates();
+        digest = new NotificationDigest(redisTemplate, new ObjectMapper(), mailTemplates, properties);
+    }
+
+    private OutgoingMail reviewed(String to, String name, String title) {
+        return mailTemplates.mail(to, "📋 Submission Reviewed – " + title, Template.SUBMISSION_REVIEWED, MailTemplates.model(
+                "name", name, "title", title, "competitionName", "Cup", "statusColor", "green",
+                "reviewStatus", "APPROVED", "reviewedAt", AT, "competitionUrl", "http://localhost/project"));
+    }
+
+    /** Claims the due digests and reports them all delivered. */
+    private List<OutgoingMail> sendDue() {
+        List<NotificationDigest.Due> claimed = digest.takeDue();
+        claimed.forEach(digest::sent);
+        return claimed.stream().map(NotificationDigest.Due::mail).toList();
+    }
+
+    private OutgoingMail registered(String to) {
+        return mailTemplates.mail(to, "✅ Registration Submitted – Cup", Template.REGISTER_SUCCESS, MailTemplates.model(
+                "name", "Ann", "competitionName", "Cup", "registeredAt", AT));
+    }
+
+    @Test
+    @DisplayName("✅ With digests off every mail goes out at once and Redis is not touched")
+    void disabledPassesThrough() {
+        properties.getDigest().setEnabled(false);
+        List<OutgoingMail> mails = List.of(reviewed("a@x.test", "Ann", "One"), registered("a@x.test"));
+
+        assertThat(digest.hold(mails)).isSameAs(mails);
+        assertThat(digest.takeDue()).isEmpty();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("✅ Digestible mails wait for their window and come back as one mail per recipient")
+    void combinesPerRecipientAfterWindow() {
+        OutgoingMail confirmation = registered("a@x.test");
+        List<OutgoingMail> sendNow = digest.hold(List.of(
+                reviewed("a@x.test", "Ann", "One"), confirmation, reviewed("b@x.test", "Bob", "Solo")));
+        digest.hold(List.of(reviewed("A@X.test", "Ann B", "Two")));
+
+        assertThat(sendNow).containsExactly(confirmation);
+        assertThat(digest.takeDue()).isEmpty();
+
+        due.replaceAll((recipient, at) -> 0d);
+        List<OutgoingMail> digests = sendDue();
+
+        assertThat(digests).hasSize(2);
+        OutgoingMail combined = digests.stream().filter(mail -> mail.to().startsWith("A@")).findFirst().orElseThrow();
+        assertThat(combined.subject()).isEqualTo("🔔 2 updates from the Danish Competition Platform");
+        assertThat(combined.htmlContent())
+                .contains("Hi <b>Ann B</b>", "<b>2</b> latest updates", "Submission Reviewed – One", "<b>Two</b>")
+                .containsOnlyOnce("Danish Competition Platform</b>.")
+                .doesNotContain("{{");
+        assertThat(combined.htmlContent().indexOf("<b>One</b>")).isLessThan(combined.htmlContent().indexOf("<b>Two</b>"));
+        assertThat(digests).contains(reviewed("b@x.test", "Bob", "Solo"));
+        assertThat(due).isEmpty();
+        assertThat(pending).isEmpty();
+        assertThat(digest.takeDue()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("✅ A full digest is due before its window ends")
+    void fullDigestIsDueAtOnce() {
+        properties.getDigest().setMaxItems(3);
+        properties.getDigest().setWindow(Duration.ofHours(1));
+        digest.hold(List.of(reviewed("a@x.test", "Ann", "1"), reviewed("a@x.test", "Ann", "2")));
+        assertThat(digest.takeDue()).isEmpty();
+
+        digest.hold(List.of(reviewed("a@x.test", "Ann", "3")));
+
+        assertThat(sendDue()).singleElement()
+                .satisfies(mail -> assertThat(mail.subject()).startsWith("🔔 3 updates"));
+    }
+
+    @Test
+    @DisplayName("❌ An undelivered digest is kept and due again after the retry delay, until its retries run out")
+    void failedDigestIsRetriedThenDropped() {
+        properties.getRetry().setAttempts(1);
+        digest.hold(List.of(reviewed("a@x.test", "Ann", "One"), reviewed("a@x.test", "Ann", "Two")));
+        due.replaceAll((recipient, at) -> 0d);
+        MailDeliveryEngine engine = mock(MailDeliveryEngine.class);
+        when(engine.deliver(anyList(), eq(NotificationPriority.BULK))).thenAnswer(inv -> inv.getArgument(0));
+        EmailService emailService = new EmailService(engine, digest);
+
+        emailService.sendDueDigests();
+
+        verify(engine).deliver(argThat(mails -> mails.size() == 1 && mails.get(0).subject().startsWith("🔔 2 updates")),
+                eq(NotificationPriority.BULK));
+        assertThat(pending.get(NotificationDigest.PENDING_KEY + "a@x.test")).hasSize(2);
+        assertThat(due.get("a@x.test")).isGreaterThan((double) System.currentTimeMillis());
+        assertThat(digest.takeDue()).isEmpty();
+
+        due.replaceAll((recipient, at) -> 0d);
+        emailService.sendDueDigests();
+
+        verify(engine, times(2)).deliver(anyList(), eq(NotificationPriority.BULK));
+        assertThat(pending).isEmpty();
+        assertThat(due).isEmpty();
+        assertThat(attempts).isEmpty();
+    }
+
+    @Test
+    @DisplayName("❌ A mail Redis cannot take is sent at once; due digests are sent by EmailService")
+    void redisFailureSendsNow() {
+        List<OutgoingMail> mails = List.of(reviewed("a@x.test", "Ann", "One"));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(digest.hold(mails)).isEqualTo(mails);
+
+        MailDeliveryEngine engine = mock(MailDeliveryEngine.class);
+        NotificationDigest source = mock(NotificationDigest.class);
+        NotificationDigest.Due due = new NotificationDigest.Due("a@x.test", 1, 1, mails.get(0));
+        when(source.takeDue()).thenReturn(List.of(due), List.of());
+        when(engine.deliver(mails, NotificationPriority.BULK)).thenReturn(List.of());
+        new EmailService(engine, source).sendDueDigests();
+        verify(engine).deliver(mails, NotificationPriority.BULK);
+        verify(source).sent(due);
+
+        when(source.takeDue()).thenThrow(new RedisConnectionFailureException("down"));
+        new EmailService(engine, source).sendDueDigests();
+        verifyNoMoreInteractions(engine);
+    }
+}
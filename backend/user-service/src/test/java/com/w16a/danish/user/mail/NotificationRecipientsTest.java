@@ -0,0 +1,102 @@
+package com.w16a.danish.user.mail;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.w16a.danish.user.domain.mq.RegisterSuccessMessage;
+import com.w16a.danish.user.domain.mq.SubmissionReviewedMessage;
+import com.w16a.danish.user.domain.po.Team;
+import com.w16a.danish.user.domain.po.Users;
+import com.w16a.danish.user.mapper.TeamMapper;
+import com.w16a.danish.user.mapper.UsersMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NotificationRecipientsTest {
+
+    private TeamMapper teamMapper;
+    private UsersMapper usersMapper;
+    private NotificationRecipients recipients;
+
+    @BeforeAll
+    static void tableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Users.class);
+        TableInfoHelper.initTableInfo(assistant, Team.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        teamMapper = mock(TeamMapper.class);
+        usersMapper = mock(UsersMapper.class);
+        recipients = new NotificationRecipients(teamMapper, usersMapper);
+    }
+
+    private static RegisterSuccessMessage registered(String userId) {
+        RegisterSuccessMessage message = new RegisterSuccessMessage();
+        message.setUserId(userId);
+        message.setCompetitionName("Cup");
+        return message;
+    }
+
+    private static SubmissionReviewedMessage reviewed(String userId, String teamId) {
+        SubmissionReviewedMessage message = new SubmissionReviewedMessage();
+        message.setUserId(userId);
+        message.setTeamId(teamId);
+        message.setReviewerId("o1");
+        return message;
+    }
+
+    @Test
+    @DisplayName("✅ A whole batch is addressed with one users query, in order, dropping deleted users")
+    void resolvesUsersInOneQuery() {
+        when(usersMapper.selectList(any())).thenReturn(List.of(
+                new Users().setId("u1").setName("Alice").setEmail("alice@x.test"),
+                new Users().setId("u2").setName("Bob").setEmail("bob@x.test")));
+        List<RegisterSuccessMessage> batch = List.of(registered("u2"), registered("deleted"), registered("u1"), registered("u2"));
+
+        List<RegisterSuccessMessage> addressed = recipients.resolve(batch);
+
+        assertThat(addressed).extracting(RegisterSuccessMessage::getUserEmail)
+                .containsExactly("bob@x.test", "alice@x.test", "bob@x.test");
+        assertThat(addressed.get(1).getUserName()).isEqualTo("Alice");
+        verify(usersMapper, times(1)).selectList(any());
+        verifyNoInteractions(teamMapper);
+    }
+
+    @Test
+    @DisplayName("✅ A team event goes to the team's creator and names the reviewer")
+    void resolvesTeamCreatorAndActor() {
+        when(teamMapper.selectList(any())).thenReturn(List.of(new Team().setId("t1").setCreatedBy("u1")));
+        when(usersMapper.selectList(any())).thenReturn(List.of(
+                new Users().setId("u1").setName("Alice").setEmail("alice@x.test"),
+                new Users().setId("u3").setName("Carol").setEmail("carol@x.test"),
+                new Users().setId("o1").setName("Organizer").setEmail("org@x.test")));
+
+        List<SubmissionReviewedMessage> addressed = recipients.resolve(List.of(reviewed(null, "t1"), reviewed("u3", null)));
+
+        assertThat(addressed).extracting(SubmissionReviewedMessage::getUserEmail).containsExactly("alice@x.test", "carol@x.test");
+        assertThat(addressed).extracting(SubmissionReviewedMessage::getReviewedBy).containsOnly("Organizer");
+        verify(teamMapper, times(1)).selectList(any());
+        verify(usersMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    @DisplayName("✅ Events from an older publisher already carry their address and cost no query")
+    void keepsLegacyAddress() {
+        RegisterSuccessMessage legacy = new RegisterSuccessMessage();
+        legacy.setUserName("Alice");
+        legacy.setUserEmail("alice@x.test");
+
+        assertThat(recipients.resolve(List.of(legacy))).containsExactly(legacy);
+        verifyNoInteractions(teamMapper, usersMapper);
+    }
+}
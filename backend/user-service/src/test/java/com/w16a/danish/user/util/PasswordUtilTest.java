@@ -0,0 +1,122 @@
+package com.w16a.danish.user.util;
+
+import com.w16a.danish.common.exception.BusinessException;
+import com.w16a.danish.user.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordUtilTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private PasswordUtil passwordUtil(int cost, int threads, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setCost(cost);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return new PasswordUtil(executor, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("✅ Hashes and checks passwords on the executor and times both")
+    void hashesOnExecutor() {
+        PasswordUtil passwordUtil = passwordUtil(4, 1, 1);
+
+        String hash = passwordUtil.encryptPassword("Password1");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(passwordUtil.verifyPassword("Password1", hash)).isTrue();
+        assertThat(passwordUtil.verifyPassword("Password2", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash").tag("operation", "verify").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hash.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("❌ Refuses with 429 at once when every thread is busy and the queue is full")
+    void refusesWhenSaturated() throws InterruptedException {
+        PasswordUtil passwordUtil = passwordUtil(4, 1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> { });
+
+        try {
+            assertThatThrownBy(() -> passwordUtil.encryptPassword("Password1"))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Too many password requests")
+                    .extracting("status").isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+            assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Only hashes stored at another cost are due for a rehash")
+    void needsRehashOnCostChange() {
+        PasswordUtil passwordUtil = passwordUtil(5, 1, 1);
+
+        assertThat(passwordUtil.getCost()).isEqualTo(5);
+        assertThat(passwordUtil.needsRehash(new BCryptPasswordEncoder(4).encode("Password1"))).isTrue();
+        assertThat(passwordUtil.needsRehash(passwordUtil.encryptPassword("Password1"))).isFalse();
+        assertThat(passwordUtil.needsRehash(null)).isFalse();
+        assertThat(passwordUtil.needsRehash("not-a-bcrypt-hash")).isFalse();
+    }
+
+    @Test
+    @DisplayName("✅ The cost is pinned at 10 unless calibration is turned on")
+    void costIsPinnedByDefault() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        assertThat(properties.getCost()).isEqualTo(10);
+        assertThat(properties.isCalibrate()).isFalse();
+
+        PasswordUtil passwordUtil = passwordUtil(10, 1, 1);
+        assertThat(passwordUtil.encryptPassword("secret")).startsWith("$2a$10$");
+    }
+
+    @Test
+    @DisplayName("✅ Picks the highest cost within the target latency, inside the configured bounds")
+    void calibratesCost() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setTargetLatency(Duration.ofMillis(250));
+
+        // 20ms at cost 10 doubles to 160ms at 13; 14 would take 320ms
+        assertThat(PasswordUtil.calibrate(properties, cost -> Duration.ofMillis(20).toNanos())).isEqualTo(13);
+        // a fast machine stops at the maximum
+        assertThat(PasswordUtil.calibrate(properties, cost -> Duration.ofMillis(1).toNanos())).isEqualTo(14);
+        // a slow one never drops below the minimum
+        assertThat(PasswordUtil.calibrate(properties, cost -> Duration.ofSeconds(1).toNanos())).isEqualTo(10);
+    }
+}
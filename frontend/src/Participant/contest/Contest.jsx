@@ -8,10 +8,11 @@
  */
 
 import React, { useState } from 'react';
-import { useQuery } from '@tanstack/react-query';
+import { useQuery, useQueryClient } from '@tanstack/react-query';
 import { useNavigate } from 'react-router-dom';
 import { Search, Filter, List, X, RefreshCw, ChevronLeft, ChevronRight, Trophy } from 'lucide-react';
 import { competitionService } from '../../services/competitionService';
+import { registrationService } from '../../services/registrationService';
 import { queryKeys, staleTime } from '../../api/queryKeys';
 import { unwrap, toMessage } from '../../api/queryFn';
 import PageSkeleton from '@/shared/components/PageSkeleton';
@@ -19,6 +20,7 @@ import EmptyState from '@/shared/components/EmptyState';
 import { useDocumentTitle } from '../../hooks/useDocumentTitle';
 import { Button } from '../../components/ui/button';
 import { Input } from '../../components/ui/input';
+import AuthTokenManager from '@/auth/authTokenManager';
 import ContestCard from './ContestCard';
 import ChangeContestTable from './ChangeContestTable';
 import defaultImage from './1.jpg';
@@ -35,6 +37,8 @@ function Contest() {
   const [page, setPage] = useState(1);
   const [size] = useState(6);
   const navigate = useNavigate();
+  const queryClient = useQueryClient();
+  const signedIn = Boolean(AuthTokenManager.getToken());
 
   const toggleFilter = () => setIsFilterVisible(!isFilterVisible);
 
@@ -97,6 +101,25 @@ function Contest() {
     return true;
   });
 
+  // One status request for every card on the page instead of one per card;
+  // each card then reads its own entry from the cache.
+  const visibleIds = filteredContests.map((item) => item.id);
+  const { isError: statusesFailed } = useQuery({
+    queryKey: queryKeys.registrations.statuses(visibleIds),
+    queryFn: async () => {
+      const statuses = (await unwrap(registrationService.getStatuses(visibleIds))) || {};
+      visibleIds.forEach((id) =>
+        queryClient.setQueryData(
+          queryKeys.registrations.status(id),
+          Boolean(statuses[id]?.registered)
+        )
+      );
+      return statuses;
+    },
+    enabled: signedIn && visibleIds.length > 0,
+    staleTime: staleTime.short,
+  });
+
   return (
     <div className="p-6">
       {/* Top toolbar */}
@@ -284,6 +307,7 @@ function Contest() {
                     participationType: item.participationType || 'INDIVIDUAL',
                   }}
                   onCardClick={handleCardClick}
+                  statusPrefetched={signedIn && !statusesFailed}
                 />
               ))}
             </div>
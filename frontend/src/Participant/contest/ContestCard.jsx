@@ -30,7 +30,7 @@ import {
   DialogTitle,
 } from '../../components/ui/dialog';
 
-function ContestCard({ contest, onLoginRequest }) {
+function ContestCard({ contest, onLoginRequest, statusPrefetched = false }) {
   const navigate = useNavigate();
   const [openRegDialog, setOpenRegDialog] = useState(false);
   const [openTeamDialog, setOpenTeamDialog] = useState(false);
@@ -39,16 +39,20 @@ function ContestCard({ contest, onLoginRequest }) {
 
   const queryClient = useQueryClient();
   const signedIn = Boolean(AuthTokenManager.getToken());
-  const statusKey = [...queryKeys.registrations.all, 'status', contest?.id];
+  const statusKey = queryKeys.registrations.status(contest?.id);
 
   // Individual registration status, so the button can say whether the user is
-  // already in and the mutations have something to flip.
+  // already in and the mutations have something to flip. A list page that
+  // batch-loads statuses seeds this key itself, so the card does not ask again.
   const { data: isRegistered = false } = useQuery({
     queryKey: statusKey,
     queryFn: () => unwrap(registrationService.getStatus(contest.id)),
     select: (value) => value === true || value === 'true',
     enabled:
-      signedIn && Boolean(contest?.id) && contest?.participationType !== 'TEAM',
+      signedIn &&
+      !statusPrefetched &&
+      Boolean(contest?.id) &&
+      contest?.participationType !== 'TEAM',
     staleTime: staleTime.short,
   });
 
@@ -56,6 +56,8 @@ export const queryKeys = {
   registrations: {
     all: ['registrations'],
     mine: (p) => [...queryKeys.registrations.all, 'mine', params(p)],
+    status: (competitionId) => [...queryKeys.registrations.all, 'status', competitionId],
+    statuses: (competitionIds) => [...queryKeys.registrations.all, 'statuses', competitionIds],
     participants: (competitionId, p) => [
       ...queryKeys.registrations.all,
       'participants',
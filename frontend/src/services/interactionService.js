@@ -21,6 +21,14 @@ export const commentService = {
       params: { submissionId, ...params },
     }),
 
+  /**
+   * Replies to one comment, oldest first. List responses only embed a preview;
+   * pass the comment's `repliesCursor`, then each page's `nextCursor`.
+   * `GET /interactions/comments/{id}/replies`
+   */
+  getReplies: (commentId, params) =>
+    apiClient.get(`/interactions/comments/${commentId}/replies`, { params }),
+
   create: (data) => apiClient.post('/interactions/comments', data),
 
   update: (commentId, data) => apiClient.put(`/interactions/comments/${commentId}`, data),
@@ -23,6 +23,18 @@ export const registrationService = {
   /** Whether the signed-in user is registered. */
   getStatus: (competitionId) => apiClient.get(`/registrations/${competitionId}/status`),
 
+  /**
+   * Registration and submission status for many competitions in one call,
+   * keyed by competition id. Pass team ids to include those teams too.
+   */
+  getStatuses: (competitionIds, teamIds = []) =>
+    apiClient.get('/registrations/status', {
+      params: {
+        competitionIds: competitionIds.join(','),
+        ...(teamIds.length > 0 && { teamIds: teamIds.join(',') }),
+      },
+    }),
+
   getMyRegistrations: (params) => apiClient.get('/registrations/my', { params }),
 
   getParticipants: (competitionId, params) =>
@@ -53,15 +65,66 @@ export const registrationService = {
     apiClient.delete(`/registrations/teams/${competitionId}/team/${teamId}/by-organizer`),
 };
 
+/**
+ * Uploads a submission straight to object storage: ask for a presigned URL, PUT the file there,
+ * then confirm. The file never passes through the gateway or the backend services.
+ * Resolves with the confirm response, so callers unwrap it like any other call.
+ */
+const uploadDirect = async (formData, uploadUrlPath, confirmPath, fallback) => {
+  const file = formData.get('file');
+  if (!(file instanceof Blob)) {
+    // Nothing to upload; let the server path report the missing file as it always has.
+    return fallback(formData);
+  }
+  const competitionId = formData.get('competitionId');
+  const teamId = formData.get('teamId') || undefined;
+  const contentType = file.type || 'application/octet-stream';
+
+  const { data: ticket } = await apiClient.post(uploadUrlPath, {
+    competitionId,
+    teamId,
+    fileName: file.name,
+    contentType,
+  });
+
+  // Plain fetch: the storage URL is already signed and must not receive our auth headers.
+  const put = await fetch(ticket.uploadUrl, {
+    method: 'PUT',
+    body: file,
+    headers: { 'Content-Type': contentType },
+  });
+  if (!put.ok) {
+    throw new Error(`File upload failed (${put.status})`);
+  }
+
+  return apiClient.post(confirmPath, {
+    competitionId,
+    teamId,
+    objectName: ticket.objectName,
+    fileName: file.name,
+    title: formData.get('title'),
+    description: formData.get('description'),
+  });
+};
+
 export const submissionService = {
-  /** Individual submission upload. */
+  /** Individual submission upload, direct to storage. */
   upload: (formData) =>
+    uploadDirect(formData, '/submissions/upload-url', '/submissions/confirm',
+      submissionService.uploadViaServer),
+
+  /** Team submission upload, direct to storage. */
+  uploadForTeam: (formData) =>
+    uploadDirect(formData, '/submissions/teams/upload-url', '/submissions/teams/confirm',
+      submissionService.uploadForTeamViaServer),
+
+  /** Multipart upload through the backend; kept for clients that cannot reach storage directly. */
+  uploadViaServer: (formData) =>
     apiClient.post('/submissions/upload', formData, {
       headers: { 'Content-Type': 'multipart/form-data' },
     }),
 
-  /** Team submission upload. */
-  uploadForTeam: (formData) =>
+  uploadForTeamViaServer: (formData) =>
     apiClient.post('/submissions/teams/upload', formData, {
       headers: { 'Content-Type': 'multipart/form-data' },
     }),
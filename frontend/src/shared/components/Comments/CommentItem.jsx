@@ -9,12 +9,18 @@ import {
   DropdownMenuTrigger,
 } from '@/components/ui/dropdown-menu';
 import { cn } from '@/lib/utils';
+import { commentService } from '../../../services/interactionService';
+import { unwrap } from '../../../api/queryFn';
 import CommentForm from './CommentForm';
 
 /**
  * Renders a single comment with author, timestamp, content, and edit/delete
  * actions when the viewer is the author. Replies are rendered recursively.
  * shadcn rewrite of the previous MUI version.
+ *
+ * List responses embed only the first few replies of a thread. The rest are
+ * fetched a page at a time from `repliesCursor`, so a long thread costs
+ * nothing until someone opens it.
  */
 function CommentItem({
   comment,
@@ -26,9 +32,29 @@ function CommentItem({
 }) {
   const [editing, setEditing] = useState(false);
   const [showReplyForm, setShowReplyForm] = useState(false);
+  const [olderReplies, setOlderReplies] = useState([]);
+  const [repliesCursor, setRepliesCursor] = useState(comment.repliesCursor ?? null);
+  const [loadingReplies, setLoadingReplies] = useState(false);
 
   const isOwner = currentUserId && comment.userId === currentUserId;
-  const replies = Array.isArray(comment.replies) ? comment.replies : [];
+  const replies = [
+    ...(Array.isArray(comment.replies) ? comment.replies : []),
+    ...olderReplies,
+  ];
+  const hiddenReplies = repliesCursor
+    ? Math.max((comment.replyCount ?? 0) - replies.length, 0)
+    : 0;
+
+  const loadMoreReplies = async () => {
+    setLoadingReplies(true);
+    try {
+      const page = await unwrap(commentService.getReplies(comment.id, { cursor: repliesCursor }));
+      setOlderReplies((prev) => [...prev, ...(page?.data ?? [])]);
+      setRepliesCursor(page?.nextCursor ?? null);
+    } finally {
+      setLoadingReplies(false);
+    }
+  };
 
   const handleEditSubmit = async (newContent) => {
     if (!onEdit) return;
@@ -142,6 +168,21 @@ function CommentItem({
                   canReply={false}
                 />
               ))}
+              {hiddenReplies > 0 && (
+                <button
+                  type="button"
+                  onClick={loadMoreReplies}
+                  disabled={loadingReplies}
+                  className={cn(
+                    'cursor-pointer text-xs font-semibold text-amber-600 hover:underline',
+                    'focus:outline-none focus-visible:underline disabled:opacity-50'
+                  )}
+                >
+                  {loadingReplies
+                    ? 'Loading…'
+                    : `View ${hiddenReplies} more ${hiddenReplies === 1 ? 'reply' : 'replies'}`}
+                </button>
+              )}
             </div>
           )}
         </div>
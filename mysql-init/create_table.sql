@@ -16,8 +16,10 @@ CREATE TABLE users (
                        password VARCHAR(72) NOT NULL COMMENT 'Encrypted Password (bcrypt)',
                        description TEXT COMMENT 'User Description',
                        avatar_url VARCHAR(255) COMMENT 'Avatar URL',
+                       profile_version BIGINT NOT NULL DEFAULT 0 COMMENT 'Bumped on every profile update; orders profile-updated events',
                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Created At',
-                       updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Updated At'
+                       updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Updated At',
+                       INDEX idx_created_id (created_at, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='User Table';
 
 -- Create roles table
@@ -36,7 +38,8 @@ CREATE TABLE user_roles (
                             created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Created At',
                             PRIMARY KEY (user_id, role_id), -- 联合主键，避免重复
                             FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-                            FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE
+                            FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE,
+                            INDEX idx_role_user (role_id, user_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='User-Role Mapping Table';
 
 
@@ -175,6 +178,10 @@ CREATE TABLE submission_comments (
                                      user_id CHAR(36) NOT NULL COMMENT 'User ID of the commenter',
                                      parent_id CHAR(36) DEFAULT NULL COMMENT 'Parent comment ID (null if top-level comment)',
                                      content TEXT NOT NULL COMMENT 'Comment content',
+                                     reply_count INT NOT NULL DEFAULT 0 COMMENT 'Number of direct replies',
+                                     author_name VARCHAR(50) DEFAULT NULL COMMENT 'Snapshot of the commenter name',
+                                     author_avatar_url VARCHAR(255) DEFAULT NULL COMMENT 'Snapshot of the commenter avatar URL',
+                                     author_version BIGINT DEFAULT NULL COMMENT 'users.profile_version the snapshot was taken from',
                                      created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Comment timestamp',
                                      updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Last updated',
 
@@ -184,7 +191,8 @@ CREATE TABLE submission_comments (
 
                                      INDEX idx_submission (submission_id),
                                      INDEX idx_user (user_id),
-                                     INDEX idx_parent (parent_id)
+                                     INDEX idx_parent (parent_id),
+                                     INDEX idx_submission_parent_created (submission_id, parent_id, created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Comments with optional parent for nested replies';
 
 CREATE TABLE submission_votes (
@@ -246,6 +254,19 @@ CREATE TABLE submission_winners (
                                     UNIQUE KEY uq_submission_award (competition_id, submission_id, award_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Table for recording awarded submissions';
 
+-- Create outbox_event table
+CREATE TABLE outbox_event (
+                              id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT 'Insertion order, also the publish order',
+                              source VARCHAR(64) NOT NULL COMMENT 'spring.application.name of the service whose relay publishes it',
+                              exchange_name VARCHAR(255) NOT NULL COMMENT 'RabbitMQ exchange',
+                              routing_key VARCHAR(255) NOT NULL COMMENT 'RabbitMQ routing key',
+                              headers TEXT DEFAULT NULL COMMENT 'Message headers as JSON (type id for the consumer converter)',
+                              content_type VARCHAR(100) NOT NULL COMMENT 'Message content type',
+                              payload MEDIUMTEXT NOT NULL COMMENT 'Message body',
+                              created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT 'Time the business transaction wrote the event',
+                              INDEX idx_source_id (source, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Domain events waiting to be published to RabbitMQ';
+
 -- Insert default admin user
 INSERT INTO users (id, name, email, password, description, avatar_url)
 VALUES (